@@ -0,0 +1,157 @@
+/*
+ * directoryColumns.js
+ * 열 형식(CBOR) 디렉토리 트리 응답 디코더
+ *
+ * 서버의 /api/directories/tree, /api/directories/{id}/children에 Accept: application/cbor로 요청하면
+ * DirectoryColumnsDto(필드별 병렬 배열 + 이름 표)를 CBOR로 받습니다.
+ * 이 파일은 외부 라이브러리 없이 그 응답을 해석해 기존 JSON과 같은 모양의 DirectoryDto 객체로 바꿉니다.
+ *
+ * 사용 예:
+ *   DirectoryColumns.fetchTree('/api/directories/tree?nested=true').then(function(roots) { ... });
+ *
+ * 디코더는 Jackson CBOR 출력에 쓰이는 범위(정수, 문자열, 배열, 맵, 불리언, null, 실수, 길이 미정 배열/맵)만 처리합니다.
+ */
+
+var DirectoryColumns = (function() {
+    var textDecoder = new TextDecoder();
+
+    // CBOR 바이트를 자바스크립트 값으로 디코딩
+    function decode(buffer) {
+        var view = new DataView(buffer);
+        var bytes = new Uint8Array(buffer);
+        var offset = 0;
+
+        function readLength(info) {
+            if (info < 24) return info;
+            var value;
+            switch (info) {
+                case 24: value = view.getUint8(offset); offset += 1; return value;
+                case 25: value = view.getUint16(offset); offset += 2; return value;
+                case 26: value = view.getUint32(offset); offset += 4; return value;
+                case 27: value = Number(view.getBigUint64(offset)); offset += 8; return value;
+                case 31: return -1; // 길이 미정 (break 바이트 0xff로 끝남)
+                default: throw new Error('CBOR: 잘못된 길이 정보 ' + info);
+            }
+        }
+
+        function readItem() {
+            var initial = bytes[offset++];
+            var major = initial >> 5;
+            var info = initial & 0x1f;
+            var length, result, i;
+            switch (major) {
+                case 0: return readLength(info);
+                case 1: return -1 - readLength(info);
+                case 2:
+                    length = readLength(info);
+                    result = bytes.slice(offset, offset + length);
+                    offset += length;
+                    return result;
+                case 3:
+                    length = readLength(info);
+                    if (length < 0) {
+                        result = '';
+                        while (bytes[offset] !== 0xff) result += readItem();
+                        offset++;
+                        return result;
+                    }
+                    result = textDecoder.decode(bytes.subarray(offset, offset + length));
+                    offset += length;
+                    return result;
+                case 4:
+                    length = readLength(info);
+                    result = [];
+                    if (length < 0) {
+                        while (bytes[offset] !== 0xff) result.push(readItem());
+                        offset++;
+                    } else {
+                        for (i = 0; i < length; i++) result.push(readItem());
+                    }
+                    return result;
+                case 5:
+                    length = readLength(info);
+                    result = {};
+                    if (length < 0) {
+                        while (bytes[offset] !== 0xff) result[readItem()] = readItem();
+                        offset++;
+                    } else {
+                        for (i = 0; i < length; i++) result[readItem()] = readItem();
+                    }
+                    return result;
+                case 6:
+                    readLength(info); // 태그 번호는 무시하고 값만 읽음
+                    return readItem();
+                default:
+                    switch (info) {
+                        case 20: return false;
+                        case 21: return true;
+                        case 22: case 23: return null;
+                        case 25: result = half(view.getUint16(offset)); offset += 2; return result;
+                        case 26: result = view.getFloat32(offset); offset += 4; return result;
+                        case 27: result = view.getFloat64(offset); offset += 8; return result;
+                        default: throw new Error('CBOR: 지원하지 않는 값 ' + initial);
+                    }
+            }
+        }
+
+        return readItem();
+    }
+
+    // 반정밀도(16비트) 실수 변환
+    function half(bits) {
+        var exponent = (bits >> 10) & 0x1f;
+        var fraction = bits & 0x3ff;
+        var sign = bits & 0x8000 ? -1 : 1;
+        if (exponent === 0) return sign * Math.pow(2, -14) * (fraction / 1024);
+        if (exponent === 31) return fraction ? NaN : sign * Infinity;
+        return sign * Math.pow(2, exponent - 15) * (1 + fraction / 1024);
+    }
+
+    // 열 형식 응답을 중첩 DirectoryDto 배열로 조립 (노드는 전위 순서이므로 부모가 항상 먼저 만들어짐)
+    function toTree(columns) {
+        var nodes = new Array(columns.count);
+        var roots = [];
+        for (var i = 0; i < columns.count; i++) {
+            var parentIndex = columns.parents[i];
+            var parent = parentIndex >= 0 ? nodes[parentIndex] : null;
+            var node = {
+                id: columns.ids[i],
+                name: columns.names[columns.nameIndexes[i]],
+                parentId: parent ? parent.id : null,
+                sortOrder: columns.sortOrders[i],
+                version: columns.versions[i],
+                childCount: columns.childCounts[i],
+                hasChildren: columns.childCounts[i] > 0
+            };
+            nodes[i] = node;
+            if (parent) {
+                (parent.children || (parent.children = [])).push(node);
+            } else {
+                roots.push(node);
+            }
+        }
+        return roots;
+    }
+
+    // 열 형식으로 요청해 중첩 DirectoryDto 배열을 반환 (자식 목록 조회는 parentId가 응답에 없으므로 직접 채움)
+    function fetchTree(url, parentId) {
+        return fetch(url, { headers: { 'Accept': 'application/cbor' }, credentials: 'same-origin' })
+            .then(function(response) {
+                if (!response.ok) throw new Error('HTTP ' + response.status);
+                return response.arrayBuffer();
+            })
+            .then(function(buffer) {
+                var roots = toTree(decode(buffer));
+                if (parentId !== undefined) {
+                    roots.forEach(function(node) { node.parentId = parentId; });
+                }
+                return roots;
+            });
+    }
+
+    return {
+        decode: decode,
+        toTree: toTree,
+        fetchTree: fetchTree
+    };
+})();
@@ -0,0 +1,971 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 실행 중인 애플리케이션에 브라우저 세션을 흉내 낸 HTTP 부하를 거는 부하 생성기
+ *
+ * 주요 기능:
+ * 1. 가상 사용자별로 펼치기, 생성, 드래그 이동, 순서 변경, 삭제, 전체 트리 불러오기를 비율(mix)대로 섞어 닫힌 루프로 실행
+ * 2. 기록된 요청 로그 재생 (이 프로그램이 --record로 남긴 JSON Lines, 또는 톰캣/NCSA 접근 로그의 GET 요청)
+ * 3. 엔드포인트별 처리량, p50/p95/p99/p99.9/최대 지연 시간, 오류율을 HDR 히스토그램으로 집계해 표로 출력
+ *
+ * 사용법 (프로젝트 루트에서, 애플리케이션을 먼저 실행):
+ *   java bench/LoadGenerator.java [--url http://localhost:8080] [--users 200] [--duration 60] [--warmup 10]
+ *        [--mix expand=50,create=15,drag=15,reorder=10,delete=8,load=2] [--think-ms 0]
+ *        [--sessions 8] [--shared-folders 10] [--shared-children 50] [--max-folders 100] [--seed 42]
+ *        [--record 요청.jsonl] [--hgrm 디렉토리] [--csv 결과.csv]
+ *   java bench/LoadGenerator.java --replay 요청.jsonl|access_log.txt [--speed 1.0] [--url ...] [--hgrm ...]
+ *
+ * 가상 사용자는 각자 최상위 폴더("lg-u번호") 아래에서 폴더를 만들고 옮기고 지우며, 시작 시 만드는 공유 폴더를
+ * 펼치고 그 안으로 자기 폴더를 끌어다 놓으므로 같은 부모에 대한 /children 조회와 /move가 동시에 일어납니다.
+ * 사용자마다 고정 시드의 난수를 쓰므로 같은 인자와 같은 초기 데이터면 같은 요청 순서가 만들어집니다.
+ *
+ * 재생은 기록의 사용자(접근 로그는 클라이언트 주소)별 요청 순서를 지키며 사용자끼리는 동시에 보냅니다.
+ * --speed 1.0이면 기록된 시각대로 보내고 지연 시간을 예정 시각부터 재므로, 서버가 밀려 늦게 보낸 요청의
+ * 대기 시간도 지연 시간에 포함됩니다 (coordinated omission 보정). --speed 0이면 응답을 받는 대로 다음 요청을 보냅니다.
+ * 기록에 남은 생성 결과 ID는 재생 중 새로 만들어진 ID로 바꿔 이후 경로와 본문에 적용합니다.
+ *
+ * 히스토그램은 마이크로초 단위, 유효 숫자 3자리(HdrHistogram과 같은 버킷 구성)이며
+ * --hgrm을 주면 엔드포인트별 백분위 분포를 HdrHistogram .hgrm 형식으로 저장해 HdrHistogram 플로터로 그릴 수 있습니다.
+ */
+public class LoadGenerator {
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/(\\d+)(?=/|$|\\?)");
+    private static final Pattern BODY_ID = Pattern.compile("\"(id|parentId|afterId|beforeId)\":(\\d+)");
+    private static final Pattern ACCESS_LOG = Pattern.compile("^(\\S+) \\S+ \\S+ \\[([^\\]]+)\\] \"(\\w+) (\\S+)[^\"]*\"");
+    private static final DateTimeFormatter ACCESS_LOG_TIME = DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+    private static final String SETUP_USER = "setup";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        String base = options.getOrDefault("url", "http://localhost:8080");
+        int sessionCount = Integer.parseInt(options.getOrDefault("sessions", "8"));
+        Session[] sessions = new Session[sessionCount];
+        for (int i = 0; i < sessionCount; i++) {
+            sessions[i] = Session.login(base, options.getOrDefault("username", "admin"), options.getOrDefault("password", "admin"));
+        }
+
+        Report report = new Report();
+        long elapsedNanos;
+        if (options.containsKey("replay")) {
+            double speed = Double.parseDouble(options.getOrDefault("speed", "1.0"));
+            elapsedNanos = Replay.run(Path.of(options.get("replay")), speed, sessions, report);
+        } else {
+            RequestLog requestLog = options.containsKey("record") ? new RequestLog(Path.of(options.get("record"))) : null;
+            try {
+                elapsedNanos = Simulation.fromOptions(options, sessions, report, requestLog).run();
+            } finally {
+                if (requestLog != null) {
+                    requestLog.close();
+                }
+            }
+        }
+
+        report.print(System.out, elapsedNanos);
+        if (options.containsKey("hgrm")) {
+            report.writeHgrm(Path.of(options.get("hgrm")));
+        }
+        if (options.containsKey("csv")) {
+            report.writeCsv(Path.of(options.get("csv")), elapsedNanos);
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --name value pairs, got: " + String.join(" ", args));
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    /**
+     * 요청 경로를 집계용 엔드포인트 이름으로 바꿉니다. (숫자 경로 변수는 {id}, 쿼리 문자열은 제외)
+     */
+    static String endpoint(String method, String path) {
+        int query = path.indexOf('?');
+        String route = query < 0 ? path : path.substring(0, query);
+        return method + " " + NUMERIC_SEGMENT.matcher(route).replaceAll("/{id}");
+    }
+
+    /**
+     * 요청 하나를 보내고 지연 시간과 결과를 집계합니다.
+     *
+     * @param intendedNanos 지연 시간 측정 기준 시각 (보낸 시각 또는 재생 예정 시각)
+     * @return 응답 (실패하면 null)
+     */
+    static CompletableFuture<HttpResponse<String>> exchange(Session session, Report report, String method, String path,
+                                                            String body, long intendedNanos) {
+        String endpoint = endpoint(method, path);
+        return session.client.sendAsync(session.request(method, path, body), HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    long latency = System.nanoTime() - intendedNanos;
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                        report.record(endpoint, intendedNanos, latency, cause.getClass().getSimpleName());
+                        return null;
+                    }
+                    int status = response.statusCode();
+                    report.record(endpoint, intendedNanos, latency, status < 400 ? null : Integer.toString(status));
+                    return status < 400 ? response : null;
+                });
+    }
+
+    static Long parseId(HttpResponse<String> response) {
+        if (response == null) {
+            return null;
+        }
+        Matcher matcher = ID.matcher(response.body());
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : null;
+    }
+
+    /**
+     * 로그인한 세션 (쿠키와 CSRF 토큰을 공유하는 HTTP 클라이언트)
+     */
+    static final class Session {
+        private final String base;
+        private final HttpClient client;
+        private final String csrfToken;
+
+        private Session(String base, HttpClient client, String csrfToken) {
+            this.base = base;
+            this.client = client;
+            this.csrfToken = csrfToken;
+        }
+
+        static Session login(String base, String username, String password) throws Exception {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .cookieHandler(new CookieManager())
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                    + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8)
+                    + "&_csrf=" + URLEncoder.encode(csrf(client, base), StandardCharsets.UTF_8);
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(base + "/loginPage"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form)).build(), HttpResponse.BodyHandlers.discarding());
+            if (response.headers().firstValue("Location").orElse("").contains("error")) {
+                throw new IllegalStateException("Login failed for user " + username);
+            }
+            // 로그인하면 CSRF 토큰이 새로 발급되므로 다시 읽음
+            return new Session(base, client, csrf(client, base));
+        }
+
+        private static String csrf(HttpClient client, String base) throws Exception {
+            String page = client.send(HttpRequest.newBuilder(URI.create(base + "/loginPage")).build(),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            Matcher matcher = CSRF.matcher(page);
+            if (!matcher.find()) {
+                throw new IllegalStateException("CSRF token not found on " + base + "/loginPage");
+            }
+            return matcher.group(1);
+        }
+
+        HttpRequest request(String method, String path, String body) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(base + path)).timeout(REQUEST_TIMEOUT);
+            if (!method.equals("GET")) {
+                builder.header("X-CSRF-TOKEN", csrfToken);
+            }
+            if (body != null) {
+                builder.header("Content-Type", "application/json");
+            }
+            return builder.method(method, body != null
+                    ? HttpRequest.BodyPublishers.ofString(body) : HttpRequest.BodyPublishers.noBody()).build();
+        }
+    }
+
+    /**
+     * 세션 흉내 부하: 가상 사용자마다 요청을 하나씩 이어서 보내는 닫힌 루프
+     */
+    static final class Simulation {
+        private final Session[] sessions;
+        private final Report report;
+        private final RequestLog requestLog;
+        private final Mix mix;
+        private final int users;
+        private final Duration duration;
+        private final Duration warmup;
+        private final double thinkMillis;
+        private final int maxFolders;
+        private final int sharedFolders;
+        private final int sharedChildren;
+        private final long seed;
+        private long[] shared = new long[0];
+        private long startNanos;
+        private long endNanos;
+
+        private Simulation(Map<String, String> options, Session[] sessions, Report report, RequestLog requestLog) {
+            this.sessions = sessions;
+            this.report = report;
+            this.requestLog = requestLog;
+            this.mix = Mix.parse(options.getOrDefault("mix", "expand=50,create=15,drag=15,reorder=10,delete=8,load=2"));
+            this.users = Integer.parseInt(options.getOrDefault("users", "200"));
+            this.duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+            this.warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+            this.thinkMillis = Double.parseDouble(options.getOrDefault("think-ms", "0"));
+            this.maxFolders = Math.max(2, Integer.parseInt(options.getOrDefault("max-folders", "100")));
+            this.sharedFolders = Integer.parseInt(options.getOrDefault("shared-folders", "10"));
+            this.sharedChildren = Integer.parseInt(options.getOrDefault("shared-children", "50"));
+            this.seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        }
+
+        static Simulation fromOptions(Map<String, String> options, Session[] sessions, Report report, RequestLog requestLog) {
+            return new Simulation(options, sessions, report, requestLog);
+        }
+
+        long run() {
+            startNanos = System.nanoTime();
+            createSharedFolders();
+            long measureFrom = System.nanoTime() + warmup.toNanos();
+            report.measureFrom(measureFrom);
+            endNanos = measureFrom + duration.toNanos();
+            System.out.printf("users=%d sessions=%d mix=%s think=%.0fms warmup=%ds duration=%ds%n",
+                    users, sessions.length, mix, thinkMillis, warmup.toSeconds(), duration.toSeconds());
+            CompletableFuture<?>[] loops = new CompletableFuture<?>[users];
+            for (int u = 0; u < users; u++) {
+                VirtualUser user = new VirtualUser(u, sessions[u % sessions.length], new SplittableRandom(seed + u));
+                loops[u] = user.start();
+            }
+            CompletableFuture.allOf(loops).join();
+            return duration.toNanos();
+        }
+
+        /**
+         * 사용자들이 함께 펼치고 자기 폴더를 끌어다 놓을 공유 폴더를 만듭니다. (측정에서 제외)
+         */
+        private void createSharedFolders() {
+            shared = new long[sharedFolders];
+            for (int f = 0; f < sharedFolders; f++) {
+                shared[f] = createSync("lg-shared-" + f, null);
+                for (int c = 0; c < sharedChildren; c++) {
+                    createSync("lg-shared-" + f + "-" + c, shared[f]);
+                }
+            }
+        }
+
+        private long createSync(String name, Long parentId) {
+            String body = "{\"name\":\"" + name + "\",\"parentId\":" + parentId + "}";
+            long sent = System.nanoTime();
+            Long id = parseId(exchange(sessions[0], report, "POST", "/api/directories", body, sent).join());
+            if (id == null) {
+                throw new IllegalStateException("Creating shared folder " + name + " failed");
+            }
+            log(SETUP_USER, sent, "POST", "/api/directories", body, id);
+            return id;
+        }
+
+        private void log(String user, long sentNanos, String method, String path, String body, Long created) {
+            if (requestLog != null) {
+                requestLog.write(TimeUnit.NANOSECONDS.toMillis(sentNanos - startNanos), user, method, path, body, created);
+            }
+        }
+
+        /**
+         * 요청 하나: 메소드, 경로, 본문과 성공 응답 처리
+         */
+        private record Call(String method, String path, String body, Consumer<HttpResponse<String>> onSuccess) {
+        }
+
+        /**
+         * 가상 사용자 한 명: 자기 최상위 폴더 아래의 폴더 구조를 기억하고 그 안에서만 생성/이동/삭제합니다.
+         * 한 사용자의 요청은 순서대로 이어지므로 상태에 잠금이 필요 없습니다.
+         */
+        private final class VirtualUser {
+            private final String name;
+            private final Session session;
+            private final SplittableRandom random;
+
+            /**
+             * 자기 폴더 ID -> 현재 부모 ID (최상위 폴더는 null, 공유 폴더로 옮긴 폴더는 공유 폴더 ID)
+             */
+            private final Map<Long, Long> parents = new HashMap<>();
+            private final List<Long> folders = new ArrayList<>();
+            private Long root;
+            private int created;
+
+            VirtualUser(int index, Session session, SplittableRandom random) {
+                this.name = "u" + index;
+                this.session = session;
+                this.random = random;
+            }
+
+            CompletableFuture<Void> start() {
+                return send(create(null)).thenCompose(ignored -> root != null
+                        ? loop() : CompletableFuture.completedFuture(null));
+            }
+
+            private CompletableFuture<Void> loop() {
+                if (System.nanoTime() >= endNanos) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                CompletableFuture<Void> sent = send(next());
+                if (thinkMillis > 0) {
+                    long think = (long) (-thinkMillis * Math.log(1 - random.nextDouble()) * 1_000_000);
+                    sent = sent.thenCompose(ignored -> CompletableFuture.runAsync(() -> { },
+                            CompletableFuture.delayedExecutor(think, TimeUnit.NANOSECONDS)));
+                }
+                return sent.thenCompose(ignored -> loop());
+            }
+
+            private CompletableFuture<Void> send(Call call) {
+                long sent = System.nanoTime();
+                return exchange(session, report, call.method(), call.path(), call.body(), sent)
+                        .thenAccept(response -> {
+                            Long id = null;
+                            if (response != null) {
+                                call.onSuccess().accept(response);
+                                id = call.method().equals("POST") && call.path().equals("/api/directories") ? parseId(response) : null;
+                            }
+                            log(name, sent, call.method(), call.path(), call.body(), id);
+                        });
+            }
+
+            private Call next() {
+                return switch (mix.pick(random)) {
+                    case EXPAND -> expand();
+                    case CREATE -> folders.size() >= maxFolders ? delete() : create(randomFolder());
+                    case DRAG -> orElseCreate(drag());
+                    case REORDER -> orElseCreate(reorder());
+                    case DELETE -> orElseCreate(delete());
+                    case LOAD -> new Call("GET", "/api/directories/tree", null, response -> { });
+                };
+            }
+
+            private Call orElseCreate(Call call) {
+                if (call != null) {
+                    return call;
+                }
+                return folders.size() >= maxFolders ? expand() : create(randomFolder());
+            }
+
+            private Call expand() {
+                long id = shared.length > 0 && random.nextBoolean() ? shared[random.nextInt(shared.length)] : randomFolder();
+                return new Call("GET", "/api/directories/" + id + "/children?limit=200", null, response -> { });
+            }
+
+            private Call create(Long parentId) {
+                String body = "{\"name\":\"lg-" + name + "-" + created++ + "\",\"parentId\":" + parentId + "}";
+                return new Call("POST", "/api/directories", body, response -> {
+                    Long id = parseId(response);
+                    if (id != null) {
+                        if (parentId == null) {
+                            root = id;
+                        }
+                        parents.put(id, parentId);
+                        folders.add(id);
+                    }
+                });
+            }
+
+            /**
+             * 자기 폴더 하나를 다른 자기 폴더나 공유 폴더로 끌어다 놓습니다. (자기 하위로는 옮기지 않음)
+             */
+            private Call drag() {
+                Long moving = randomNonRoot();
+                if (moving == null) {
+                    return null;
+                }
+                for (int attempt = 0; attempt < 5; attempt++) {
+                    long target = shared.length > 0 && random.nextBoolean() ? shared[random.nextInt(shared.length)] : randomFolder();
+                    if (target != moving && !Long.valueOf(target).equals(parents.get(moving)) && !isWithin(target, moving)) {
+                        return new Call("POST", "/api/directories/" + moving + "/move", "{\"parentId\":" + target + "}",
+                                response -> parents.put(moving, target));
+                    }
+                }
+                return null;
+            }
+
+            /**
+             * 같은 부모 아래의 자기 폴더들을 섞어 새 정렬 순서로 저장합니다.
+             */
+            private Call reorder() {
+                Map<Long, List<Long>> siblings = new HashMap<>();
+                for (Long id : folders) {
+                    Long parent = parents.get(id);
+                    if (parent != null) {
+                        siblings.computeIfAbsent(parent, key -> new ArrayList<>()).add(id);
+                    }
+                }
+                List<Map.Entry<Long, List<Long>>> candidates = new ArrayList<>();
+                siblings.entrySet().stream().filter(entry -> entry.getValue().size() > 1).forEach(candidates::add);
+                if (candidates.isEmpty()) {
+                    return null;
+                }
+                Map.Entry<Long, List<Long>> chosen = candidates.get(random.nextInt(candidates.size()));
+                List<Long> ids = new ArrayList<>(chosen.getValue());
+                for (int i = ids.size() - 1; i > 0; i--) {
+                    int j = random.nextInt(i + 1);
+                    Long swap = ids.get(i);
+                    ids.set(i, ids.get(j));
+                    ids.set(j, swap);
+                }
+                StringBuilder body = new StringBuilder("[");
+                for (int i = 0; i < ids.size(); i++) {
+                    body.append(i > 0 ? "," : "").append("{\"id\":").append(ids.get(i))
+                            .append(",\"parentId\":").append(chosen.getKey())
+                            .append(",\"sortOrder\":").append((i + 1) * 65536L).append('}');
+                }
+                return new Call("PUT", "/api/directories/order", body.append(']').toString(), response -> { });
+            }
+
+            private Call delete() {
+                Long id = randomNonRoot();
+                if (id == null) {
+                    return null;
+                }
+                return new Call("DELETE", "/api/directories/" + id, null, response -> {
+                    List<Long> removed = folders.stream().filter(folder -> isWithin(folder, id)).toList();
+                    removed.forEach(parents::remove);
+                    folders.removeAll(removed);
+                });
+            }
+
+            private long randomFolder() {
+                return folders.get(random.nextInt(folders.size()));
+            }
+
+            private Long randomNonRoot() {
+                if (folders.size() < 2) {
+                    return null;
+                }
+                int index = random.nextInt(folders.size());
+                Long id = folders.get(index);
+                return id.equals(root) ? folders.get((index + 1) % folders.size()) : id;
+            }
+
+            /**
+             * folder가 ancestor 자신이거나 그 하위인지 (자기 폴더의 부모 기록을 따라 올라가며) 확인합니다.
+             */
+            private boolean isWithin(long folder, long ancestor) {
+                Long current = folder;
+                while (current != null) {
+                    if (current == ancestor) {
+                        return true;
+                    }
+                    current = parents.get(current);
+                }
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 세션 동작 종류와 비율
+     */
+    enum Action { EXPAND, CREATE, DRAG, REORDER, DELETE, LOAD }
+
+    record Mix(Action[] actions, double[] cumulative) {
+        static Mix parse(String spec) {
+            Map<Action, Double> weights = new LinkedHashMap<>();
+            for (String part : spec.split(",")) {
+                String[] pair = part.split("=");
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Mix entries must be action=weight: " + part);
+                }
+                double weight = Double.parseDouble(pair[1]);
+                if (weight > 0) {
+                    weights.put(Action.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), weight);
+                }
+            }
+            if (weights.isEmpty()) {
+                throw new IllegalArgumentException("Mix needs at least one positive weight: " + spec);
+            }
+            Action[] actions = weights.keySet().toArray(new Action[0]);
+            double[] cumulative = new double[actions.length];
+            double total = weights.values().stream().mapToDouble(Double::doubleValue).sum();
+            double sum = 0;
+            for (int i = 0; i < actions.length; i++) {
+                sum += weights.get(actions[i]) / total;
+                cumulative[i] = sum;
+            }
+            return new Mix(actions, cumulative);
+        }
+
+        Action pick(SplittableRandom random) {
+            double value = random.nextDouble();
+            for (int i = 0; i < actions.length - 1; i++) {
+                if (value < cumulative[i]) {
+                    return actions[i];
+                }
+            }
+            return actions[actions.length - 1];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            double previous = 0;
+            for (int i = 0; i < actions.length; i++) {
+                text.append(i > 0 ? "," : "").append(actions[i].name().toLowerCase(Locale.ROOT))
+                        .append('=').append(Math.round((cumulative[i] - previous) * 100)).append('%');
+                previous = cumulative[i];
+            }
+            return text.toString();
+        }
+    }
+
+    /**
+     * 기록된 요청 로그 재생
+     */
+    static final class Replay {
+
+        private record Entry(long millis, String user, String method, String path, String body, Long created) {
+        }
+
+        static long run(Path file, double speed, Session[] sessions, Report report) throws IOException {
+            List<Entry> entries = new ArrayList<>();
+            int skipped = 0;
+            Long firstAccessLogMillis = null;
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (line.startsWith("{")) {
+                    entries.add(new Entry(Long.parseLong(jsonField(line, "t")), jsonField(line, "user"),
+                            jsonField(line, "method"), jsonField(line, "path"), jsonField(line, "body"),
+                            jsonField(line, "created") != null ? Long.parseLong(jsonField(line, "created")) : null));
+                    continue;
+                }
+                Matcher matcher = ACCESS_LOG.matcher(line);
+                // 접근 로그에는 요청 본문이 없으므로 GET 요청만 재생
+                if (!matcher.find() || !matcher.group(3).equals("GET")) {
+                    skipped++;
+                    continue;
+                }
+                long millis = OffsetDateTime.parse(matcher.group(2), ACCESS_LOG_TIME).toInstant().toEpochMilli();
+                firstAccessLogMillis = firstAccessLogMillis == null ? millis : firstAccessLogMillis;
+                entries.add(new Entry(millis - firstAccessLogMillis, matcher.group(1), "GET", matcher.group(4), null, null));
+            }
+            entries.sort(Comparator.comparingLong(Entry::millis));
+
+            Map<String, List<Entry>> byUser = new LinkedHashMap<>();
+            for (Entry entry : entries) {
+                byUser.computeIfAbsent(entry.user(), key -> new ArrayList<>()).add(entry);
+            }
+            System.out.printf("replaying %d requests from %d users (%d lines skipped), speed=%s%n",
+                    entries.size(), byUser.size(), skipped, speed > 0 ? speed + "x" : "max");
+
+            Map<Long, Long> ids = new ConcurrentHashMap<>();
+            // 공유 폴더 생성처럼 다른 사용자가 기대는 준비 요청을 먼저 재생 (측정에서 제외)
+            List<Entry> setup = byUser.remove(SETUP_USER);
+            long offset = 0;
+            if (setup != null) {
+                replayUser(setup, sessions[0], report, ids, 0, System.nanoTime(), 0).join();
+                offset = setup.get(setup.size() - 1).millis();
+            }
+            long replayStart = System.nanoTime();
+            report.measureFrom(replayStart);
+            List<CompletableFuture<Void>> users = new ArrayList<>();
+            int index = 0;
+            for (List<Entry> userEntries : byUser.values()) {
+                users.add(replayUser(userEntries, sessions[index++ % sessions.length], report, ids, speed, replayStart, offset));
+            }
+            CompletableFuture.allOf(users.toArray(new CompletableFuture<?>[0])).join();
+            return System.nanoTime() - replayStart;
+        }
+
+        private static CompletableFuture<Void> replayUser(List<Entry> entries, Session session, Report report,
+                                                          Map<Long, Long> ids, double speed, long startNanos, long offsetMillis) {
+            CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+            for (Entry entry : entries) {
+                chain = chain.thenCompose(ignored -> {
+                    long intended = speed > 0
+                            ? startNanos + (long) (TimeUnit.MILLISECONDS.toNanos(Math.max(0, entry.millis() - offsetMillis)) / speed)
+                            : System.nanoTime();
+                    long delay = intended - System.nanoTime();
+                    CompletableFuture<Void> due = delay > 0
+                            ? CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS))
+                            : CompletableFuture.completedFuture(null);
+                    return due.thenCompose(ready -> exchange(session, report, entry.method(), remap(entry.path(), NUMERIC_SEGMENT, 1, ids),
+                            entry.body() != null ? remap(entry.body(), BODY_ID, 2, ids) : null, speed > 0 ? intended : System.nanoTime()))
+                            .thenAccept(response -> {
+                                Long id = parseId(entry.created() != null ? response : null);
+                                if (id != null) {
+                                    ids.put(entry.created(), id);
+                                }
+                            });
+                });
+            }
+            return chain;
+        }
+
+        /**
+         * 기록 당시의 생성 ID를 재생 중 새로 만들어진 ID로 바꿉니다. (기록에 없는 ID는 그대로 사용)
+         */
+        private static String remap(String text, Pattern pattern, int group, Map<Long, Long> ids) {
+            if (ids.isEmpty()) {
+                return text;
+            }
+            Matcher matcher = pattern.matcher(text);
+            StringBuilder result = new StringBuilder();
+            while (matcher.find()) {
+                Long mapped = ids.get(Long.parseLong(matcher.group(group)));
+                String id = mapped != null ? mapped.toString() : matcher.group(group);
+                String replacement = matcher.group().substring(0, matcher.start(group) - matcher.start()) + id
+                        + matcher.group().substring(matcher.end(group) - matcher.start());
+                matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+            }
+            matcher.appendTail(result);
+            return result.toString();
+        }
+
+        /**
+         * RequestLog가 쓴 한 줄짜리 JSON에서 필드 값을 읽습니다. (문자열, 숫자, null만 지원)
+         */
+        private static String jsonField(String line, String name) {
+            String key = "\"" + name + "\":";
+            int start = line.indexOf(key);
+            if (start < 0) {
+                return null;
+            }
+            int position = start + key.length();
+            if (line.startsWith("null", position)) {
+                return null;
+            }
+            if (line.charAt(position) != '"') {
+                int end = position;
+                while (end < line.length() && (Character.isDigit(line.charAt(end)) || line.charAt(end) == '-')) {
+                    end++;
+                }
+                return line.substring(position, end);
+            }
+            StringBuilder value = new StringBuilder();
+            for (int i = position + 1; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c == '\\') {
+                    char escaped = line.charAt(++i);
+                    switch (escaped) {
+                        case 'n' -> value.append('\n');
+                        case 'r' -> value.append('\r');
+                        case 't' -> value.append('\t');
+                        case 'u' -> {
+                            value.append((char) Integer.parseInt(line.substring(i + 1, i + 5), 16));
+                            i += 4;
+                        }
+                        default -> value.append(escaped);
+                    }
+                } else {
+                    value.append(c);
+                }
+            }
+            throw new IllegalArgumentException("Unterminated string for " + name + ": " + line);
+        }
+    }
+
+    /**
+     * 보낸 요청을 재생용 JSON Lines로 기록합니다.
+     * 한 줄: {"t":시작 후 밀리초,"user":"u0","method":"POST","path":"/api/directories","body":"...","created":생성된 ID}
+     */
+    static final class RequestLog {
+        private final BufferedWriter writer;
+
+        RequestLog(Path file) throws IOException {
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        }
+
+        synchronized void write(long millis, String user, String method, String path, String body, Long created) {
+            try {
+                writer.write("{\"t\":" + millis + ",\"user\":" + quote(user) + ",\"method\":" + quote(method)
+                        + ",\"path\":" + quote(path) + ",\"body\":" + (body != null ? quote(body) : "null")
+                        + ",\"created\":" + created + "}");
+                writer.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        synchronized void close() throws IOException {
+            writer.close();
+        }
+
+        private static String quote(String value) {
+            StringBuilder quoted = new StringBuilder("\"");
+            for (char c : value.toCharArray()) {
+                switch (c) {
+                    case '"' -> quoted.append("\\\"");
+                    case '\\' -> quoted.append("\\\\");
+                    case '\n' -> quoted.append("\\n");
+                    case '\r' -> quoted.append("\\r");
+                    case '\t' -> quoted.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            quoted.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            quoted.append(c);
+                        }
+                    }
+                }
+            }
+            return quoted.append('"').toString();
+        }
+    }
+
+    /**
+     * 엔드포인트별 집계 (측정 시작 시각 이전에 보낸 요청은 워밍업으로 보고 제외)
+     */
+    static final class Report {
+        private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+        private volatile long measureFromNanos = Long.MAX_VALUE;
+
+        void measureFrom(long nanos) {
+            measureFromNanos = nanos;
+        }
+
+        void record(String endpoint, long intendedNanos, long latencyNanos, String failure) {
+            if (intendedNanos < measureFromNanos) {
+                return;
+            }
+            EndpointStats stats = endpoints.computeIfAbsent(endpoint, key -> new EndpointStats());
+            stats.histogram.record(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+            if (failure != null) {
+                stats.failures.computeIfAbsent(failure, key -> new LongAdder()).increment();
+            }
+        }
+
+        private Map<String, EndpointStats> withTotal() {
+            Map<String, EndpointStats> rows = new LinkedHashMap<>(new TreeMap<>(endpoints));
+            EndpointStats total = new EndpointStats();
+            for (EndpointStats stats : endpoints.values()) {
+                total.histogram.add(stats.histogram);
+                stats.failures.forEach((failure, count) ->
+                        total.failures.computeIfAbsent(failure, key -> new LongAdder()).add(count.sum()));
+            }
+            rows.put("ALL", total);
+            return rows;
+        }
+
+        void print(PrintStream out, long elapsedNanos) {
+            double seconds = elapsedNanos / 1e9;
+            out.println();
+            out.printf("%-42s %9s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+                    "endpoint", "requests", "errors", "err%", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+            withTotal().forEach((endpoint, stats) -> {
+                Histogram histogram = stats.histogram;
+                long count = histogram.totalCount();
+                long errors = stats.errors();
+                out.printf(Locale.ROOT, "%-42s %9d %8d %7.2f %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                        endpoint, count, errors, count > 0 ? errors * 100.0 / count : 0, count / seconds,
+                        histogram.valueAtPercentile(50) / 1e3, histogram.valueAtPercentile(95) / 1e3,
+                        histogram.valueAtPercentile(99) / 1e3, histogram.valueAtPercentile(99.9) / 1e3,
+                        histogram.maxValue() / 1e3);
+            });
+            endpoints.entrySet().stream()
+                    .filter(entry -> !entry.getValue().failures.isEmpty())
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(entry -> out.printf("  %s failures: %s%n", entry.getKey(), new TreeMap<>(entry.getValue().failures)));
+        }
+
+        void writeHgrm(Path directory) throws IOException {
+            Files.createDirectories(directory);
+            for (Map.Entry<String, EndpointStats> entry : withTotal().entrySet()) {
+                String fileName = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+                try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(fileName)), false, StandardCharsets.UTF_8)) {
+                    entry.getValue().histogram.outputPercentileDistribution(out, 5, 1000.0);
+                }
+            }
+            System.out.println("percentile distributions written to " + directory);
+        }
+
+        void writeCsv(Path file, long elapsedNanos) throws IOException {
+            List<String> lines = new ArrayList<>();
+            lines.add("endpoint,requests,errors,throughput_rps,p50_ms,p95_ms,p99_ms,p999_ms,max_ms");
+            withTotal().forEach((endpoint, stats) -> {
+                Histogram histogram = stats.histogram;
+                lines.add(String.format(Locale.ROOT, "\"%s\",%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                        endpoint, histogram.totalCount(), stats.errors(), histogram.totalCount() / (elapsedNanos / 1e9),
+                        histogram.valueAtPercentile(50) / 1e3, histogram.valueAtPercentile(95) / 1e3,
+                        histogram.valueAtPercentile(99) / 1e3, histogram.valueAtPercentile(99.9) / 1e3,
+                        histogram.maxValue() / 1e3));
+            });
+            Files.write(file, lines);
+        }
+    }
+
+    static final class EndpointStats {
+        /**
+         * 지연 시간 히스토그램 (마이크로초, 최대 1시간)
+         */
+        final Histogram histogram = new Histogram(TimeUnit.HOURS.toMicros(1));
+
+        /**
+         * 실패 원인(HTTP 상태 코드 또는 예외 이름)별 건수
+         */
+        final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+        long errors() {
+            return failures.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+    }
+
+    /**
+     * 유효 숫자 3자리의 HDR 히스토그램
+     * HdrHistogram과 같은 버킷 구성(2의 거듭제곱 버킷마다 하위 버킷 1024개)이므로 값 범위 전체에서
+     * 상대 오차가 0.1% 이하이고, 기록은 배열 칸 하나를 올리는 것으로 끝납니다.
+     */
+    static final class Histogram {
+        private static final int SUB_BUCKET_HALF_COUNT_MAGNITUDE = 10;
+        private static final int SUB_BUCKET_COUNT = 1 << (SUB_BUCKET_HALF_COUNT_MAGNITUDE + 1);
+        private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+        private static final long SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+        private static final int LEADING_ZERO_COUNT_BASE = 64 - SUB_BUCKET_HALF_COUNT_MAGNITUDE - 1;
+
+        private final long highestTrackableValue;
+        private final int bucketCount;
+        private final long[] counts;
+        private long totalCount;
+        private long maxValue;
+        private double sum;
+        private double sumOfSquares;
+
+        Histogram(long highestTrackableValue) {
+            this.highestTrackableValue = highestTrackableValue;
+            int buckets = 1;
+            long smallestUntrackableValue = SUB_BUCKET_COUNT;
+            while (smallestUntrackableValue <= highestTrackableValue) {
+                smallestUntrackableValue <<= 1;
+                buckets++;
+            }
+            this.bucketCount = buckets;
+            this.counts = new long[(buckets + 1) * SUB_BUCKET_HALF_COUNT];
+        }
+
+        synchronized void record(long value) {
+            long clamped = Math.max(0, Math.min(value, highestTrackableValue));
+            counts[countsIndex(clamped)]++;
+            totalCount++;
+            maxValue = Math.max(maxValue, clamped);
+            sum += clamped;
+            sumOfSquares += (double) clamped * clamped;
+        }
+
+        synchronized void add(Histogram other) {
+            synchronized (other) {
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += other.counts[i];
+                }
+                totalCount += other.totalCount;
+                maxValue = Math.max(maxValue, other.maxValue);
+                sum += other.sum;
+                sumOfSquares += other.sumOfSquares;
+            }
+        }
+
+        synchronized long totalCount() {
+            return totalCount;
+        }
+
+        synchronized long maxValue() {
+            return maxValue;
+        }
+
+        /**
+         * 주어진 백분위의 값 (그 값이 속한 칸의 가장 큰 값, 100이면 기록된 최댓값)
+         */
+        synchronized long valueAtPercentile(double percentile) {
+            if (totalCount == 0) {
+                return 0;
+            }
+            if (percentile >= 100) {
+                return maxValue;
+            }
+            long countAtPercentile = Math.max(1, (long) (percentile / 100 * totalCount + 0.5));
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                if (cumulative >= countAtPercentile) {
+                    return Math.min(highestEquivalentValue(i), maxValue);
+                }
+            }
+            return maxValue;
+        }
+
+        /**
+         * HdrHistogram의 outputPercentileDistribution과 같은 .hgrm 형식으로 백분위 분포를 출력합니다.
+         *
+         * @param ticksPerHalfDistance 남은 백분위 거리가 절반으로 줄어들 때마다 출력할 줄 수
+         * @param scale 값을 나눌 배율 (마이크로초를 밀리초로 출력하려면 1000)
+         */
+        synchronized void outputPercentileDistribution(PrintStream out, int ticksPerHalfDistance, double scale) {
+            out.printf("%12s %14s %10s %14s%n%n", "Value", "Percentile", "TotalCount", "1/(1-Percentile)");
+            if (totalCount > 0) {
+                double percentile = 0;
+                int index = 0;
+                long cumulative = counts[0];
+                while (true) {
+                    while ((cumulative == 0 || cumulative * 100.0 / totalCount < percentile) && index < counts.length - 1) {
+                        cumulative += counts[++index];
+                    }
+                    if (cumulative == totalCount) {
+                        break;
+                    }
+                    out.printf(Locale.ROOT, "%12.3f %2.12f %10d %14.2f%n", highestEquivalentValue(index) / scale,
+                            percentile / 100, cumulative, 1 / (1 - percentile / 100));
+                    long ticks = ticksPerHalfDistance * (1L << ((long) (Math.log(100 / (100 - percentile)) / Math.log(2)) + 1));
+                    percentile += 100.0 / ticks;
+                }
+                out.printf(Locale.ROOT, "%12.3f %2.12f %10d%n", maxValue / scale, 1.0, totalCount);
+            }
+            double mean = totalCount > 0 ? sum / totalCount : 0;
+            double deviation = totalCount > 0 ? Math.sqrt(Math.max(0, sumOfSquares / totalCount - mean * mean)) : 0;
+            out.printf(Locale.ROOT, "#[Mean    = %12.3f, StdDeviation   = %12.3f]%n", mean / scale, deviation / scale);
+            out.printf(Locale.ROOT, "#[Max     = %12.3f, Total count    = %12d]%n", maxValue / scale, totalCount);
+            out.printf(Locale.ROOT, "#[Buckets = %12d, SubBuckets     = %12d]%n", bucketCount, SUB_BUCKET_COUNT);
+        }
+
+        private static int countsIndex(long value) {
+            int bucketIndex = LEADING_ZERO_COUNT_BASE - Long.numberOfLeadingZeros(value | SUB_BUCKET_MASK);
+            int subBucketIndex = (int) (value >>> bucketIndex);
+            return ((bucketIndex + 1) << SUB_BUCKET_HALF_COUNT_MAGNITUDE) + (subBucketIndex - SUB_BUCKET_HALF_COUNT);
+        }
+
+        private static long highestEquivalentValue(int index) {
+            int bucketIndex = (index >> SUB_BUCKET_HALF_COUNT_MAGNITUDE) - 1;
+            int subBucketIndex = (index & (SUB_BUCKET_HALF_COUNT - 1)) + SUB_BUCKET_HALF_COUNT;
+            if (bucketIndex < 0) {
+                subBucketIndex -= SUB_BUCKET_HALF_COUNT;
+                bucketIndex = 0;
+            }
+            return ((long) subBucketIndex << bucketIndex) + (1L << bucketIndex) - 1;
+        }
+    }
+}
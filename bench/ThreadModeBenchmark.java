@@ -0,0 +1,359 @@
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 플랫폼 스레드 모드와 가상 스레드 모드의 처리량/지연 시간 비교 벤치마크
+ *
+ * 주요 기능:
+ * 1. 빌드된 애플리케이션 jar를 모드별로 직접 실행 (인메모리 H2, 로그 최소화, 같은 커넥션 풀 크기)
+ * 2. 부모 폴더와 자식 폴더를 만들어 두고, 자식 목록 조회와 드래그 이동을 섞은 요청을 닫힌 루프로 반복
+ * 3. 동시 클라이언트 수별 처리량(req/s), p50/p99/최대 지연 시간, 오류 수를 표로 출력
+ *
+ * 사용법 (프로젝트 루트에서, 먼저 mvn package):
+ *   java bench/ThreadModeBenchmark.java [--modes platform,virtual] [--clients 50,500,5000]
+ *        [--duration 30] [--warmup 10] [--pool 20] [--read-ratio 0.8] [--seed 42] [--csv 결과.csv]
+ *
+ * 가상 스레드 모드는 이 프로그램을 실행한 것과 같은 java로 애플리케이션을 띄우므로 Java 21 이상에서 실행해야 하며,
+ * 그보다 낮은 버전이면 건너뜁니다. 두 모드 모두 HikariCP 풀 크기와 톰캣 연결 한도를 같게 맞추므로
+ * 차이는 요청 실행 스레드 모델에서만 생깁니다. 클라이언트마다 고정 시드의 난수를 쓰므로 같은 인자로 다시 실행하면
+ * 같은 요청 순서가 만들어집니다. 5000 클라이언트에서는 클라이언트 쪽 열린 파일 수 한도(ulimit -n)를 확인하세요.
+ */
+public class ThreadModeBenchmark {
+
+    private static final int PARENTS = 20;
+    private static final int CHILDREN_PER_PARENT = 50;
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        Path jar = Path.of(options.getOrDefault("jar", "target/dropand-1.0.0.jar"));
+        List<String> modes = List.of(options.getOrDefault("modes", "platform,virtual").split(","));
+        int[] clients = Arrays.stream(options.getOrDefault("clients", "50,500,5000").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        int port = Integer.parseInt(options.getOrDefault("port", "18080"));
+        int pool = Integer.parseInt(options.getOrDefault("pool", "20"));
+        double readRatio = Double.parseDouble(options.getOrDefault("read-ratio", "0.8"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalArgumentException("Application jar not found (run mvn package first): " + jar);
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (String mode : modes) {
+            if (mode.equals("virtual") && Runtime.version().feature() < 21) {
+                System.out.printf("[%s] skipped: virtual threads need Java 21+, running on %s%n", mode, Runtime.version());
+                continue;
+            }
+            Process app = startApplication(jar, mode, port, pool);
+            try {
+                String base = "http://localhost:" + port;
+                Session session = Session.login(base);
+                Workload workload = Workload.seed(session);
+                System.out.printf("[%s] warmup %ds%n", mode, warmup.toSeconds());
+                run(session, workload, clients[0], warmup, readRatio, seed);
+                for (int concurrency : clients) {
+                    Stats stats = run(session, workload, concurrency, duration, readRatio, seed);
+                    Result result = new Result(mode, concurrency, stats);
+                    System.out.println(result.line());
+                    results.add(result);
+                }
+            } finally {
+                app.destroy();
+                if (!app.waitFor(30, TimeUnit.SECONDS)) {
+                    app.destroyForcibly();
+                }
+            }
+        }
+
+        System.out.println();
+        System.out.println(Result.HEADER);
+        results.forEach(result -> System.out.println(result.line()));
+        String csv = options.get("csv");
+        if (csv != null) {
+            List<String> lines = new ArrayList<>();
+            lines.add("mode,clients,requests,errors,throughput_rps,p50_ms,p99_ms,max_ms");
+            results.forEach(result -> lines.add(result.csv()));
+            Files.write(Path.of(csv), lines);
+        }
+    }
+
+    /**
+     * 모드에 맞는 인자로 애플리케이션을 실행하고 로그인 페이지가 응답할 때까지 기다립니다.
+     */
+    private static Process startApplication(Path jar, String mode, int port, int pool) throws Exception {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<String> command = new ArrayList<>(List.of(java, "-jar", jar.toString(),
+                "--server.port=" + port,
+                "--management.server.port=-1",
+                "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.hikari.maximum-pool-size=" + pool,
+                "--spring.datasource.hikari.minimum-idle=" + pool,
+                "--server.tomcat.max-connections=10000",
+                "--server.tomcat.accept-count=1000",
+                "--spring.jpa.show-sql=false",
+                "--spring.mvc.log-request-details=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.dropand=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--logging.level.org.springframework.web.servlet.mvc=WARN"));
+        if (mode.equals("virtual")) {
+            command.add("--spring.profiles.active=virtual-threads");
+        } else if (!mode.equals("platform")) {
+            throw new IllegalArgumentException("Unknown mode (platform or virtual): " + mode);
+        }
+        Path log = Files.createTempFile("dropand-bench-" + mode + "-", ".log");
+        System.out.printf("[%s] starting application (log: %s)%n", mode, log);
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+
+        HttpClient probe = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/loginPage")).build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(180);
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited during startup, see " + log);
+            }
+            try {
+                if (probe.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return process;
+                }
+            } catch (IOException e) {
+                // 아직 포트가 열리지 않음
+            }
+            Thread.sleep(500);
+        }
+        process.destroyForcibly();
+        throw new IllegalStateException("Application did not start within 180s, see " + log);
+    }
+
+    /**
+     * 동시 클라이언트 수만큼 닫힌 루프(응답을 받으면 바로 다음 요청)를 주어진 시간 동안 실행합니다.
+     */
+    private static Stats run(Session session, Workload workload, int concurrency, Duration duration,
+                             double readRatio, long seed) {
+        long end = System.nanoTime() + duration.toNanos();
+        Recorder[] recorders = new Recorder[concurrency];
+        CompletableFuture<?>[] loops = new CompletableFuture<?>[concurrency];
+        long started = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            recorders[i] = new Recorder();
+            loops[i] = loop(session, workload, new SplittableRandom(seed + i), readRatio, end, recorders[i]);
+        }
+        CompletableFuture.allOf(loops).join();
+        long elapsed = System.nanoTime() - started;
+        return Stats.of(recorders, elapsed);
+    }
+
+    private static CompletableFuture<Void> loop(Session session, Workload workload, SplittableRandom random,
+                                                double readRatio, long end, Recorder recorder) {
+        if (System.nanoTime() >= end) {
+            return CompletableFuture.completedFuture(null);
+        }
+        HttpRequest request = random.nextDouble() < readRatio
+                ? session.get("/api/directories/" + workload.randomParent(random) + "/children?limit=100")
+                : session.postJson("/api/directories/" + workload.randomChild(random) + "/move",
+                        "{\"parentId\":" + workload.randomParent(random) + "}");
+        long sent = System.nanoTime();
+        return session.client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    recorder.record(System.nanoTime() - sent, error == null && response.statusCode() < 400);
+                    return null;
+                })
+                .thenCompose(ignored -> loop(session, workload, random, readRatio, end, recorder));
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --name value pairs, got: " + String.join(" ", args));
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    /**
+     * 로그인한 세션 (쿠키와 CSRF 토큰을 공유하는 HTTP 클라이언트)
+     */
+    private static final class Session {
+        private final String base;
+        private final HttpClient client;
+        private final String csrfToken;
+
+        private Session(String base, HttpClient client, String csrfToken) {
+            this.base = base;
+            this.client = client;
+            this.csrfToken = csrfToken;
+        }
+
+        static Session login(String base) throws Exception {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .cookieHandler(new CookieManager())
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            String form = "username=admin&password=admin&_csrf="
+                    + URLEncoder.encode(csrf(client, base), StandardCharsets.UTF_8);
+            client.send(HttpRequest.newBuilder(URI.create(base + "/loginPage"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form)).build(), HttpResponse.BodyHandlers.discarding());
+            // 로그인하면 CSRF 토큰이 새로 발급되므로 다시 읽음
+            return new Session(base, client, csrf(client, base));
+        }
+
+        private static String csrf(HttpClient client, String base) throws Exception {
+            String page = client.send(HttpRequest.newBuilder(URI.create(base + "/loginPage")).build(),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            Matcher matcher = CSRF.matcher(page);
+            if (!matcher.find()) {
+                throw new IllegalStateException("CSRF token not found on /loginPage");
+            }
+            return matcher.group(1);
+        }
+
+        HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create(base + path)).timeout(Duration.ofSeconds(60)).build();
+        }
+
+        HttpRequest postJson(String path, String body) {
+            return HttpRequest.newBuilder(URI.create(base + path))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Content-Type", "application/json")
+                    .header("X-CSRF-TOKEN", csrfToken)
+                    .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        }
+
+        long create(String name, Long parentId) throws Exception {
+            HttpResponse<String> response = client.send(postJson("/api/directories",
+                    "{\"name\":\"" + name + "\",\"parentId\":" + parentId + "}"), HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = ID.matcher(response.body());
+            if (response.statusCode() != 200 || !matcher.find()) {
+                throw new IllegalStateException("Seeding failed: " + response.statusCode() + " " + response.body());
+            }
+            return Long.parseLong(matcher.group(1));
+        }
+    }
+
+    /**
+     * 벤치마크용 폴더 구성: 부모 폴더 여러 개와 그 아래의 잎 폴더 (잎 폴더 이동은 순환을 만들지 않음)
+     */
+    private static final class Workload {
+        private final long[] parents;
+        private final long[] children;
+
+        private Workload(long[] parents, long[] children) {
+            this.parents = parents;
+            this.children = children;
+        }
+
+        static Workload seed(Session session) throws Exception {
+            long[] parents = new long[PARENTS];
+            long[] children = new long[PARENTS * CHILDREN_PER_PARENT];
+            for (int p = 0; p < PARENTS; p++) {
+                parents[p] = session.create("bench-" + p, null);
+                for (int c = 0; c < CHILDREN_PER_PARENT; c++) {
+                    children[p * CHILDREN_PER_PARENT + c] = session.create("bench-" + p + "-" + c, parents[p]);
+                }
+            }
+            return new Workload(parents, children);
+        }
+
+        long randomParent(SplittableRandom random) {
+            return parents[random.nextInt(parents.length)];
+        }
+
+        long randomChild(SplittableRandom random) {
+            return children[random.nextInt(children.length)];
+        }
+    }
+
+    /**
+     * 클라이언트 하나의 지연 시간 기록 (한 클라이언트의 요청은 순서대로 이어지므로 잠금이 필요 없음)
+     */
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        void record(long nanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+    }
+
+    private record Stats(long requests, long errors, double throughput, double p50, double p99, double max) {
+        static Stats of(Recorder[] recorders, long elapsedNanos) {
+            int total = 0;
+            long errors = 0;
+            for (Recorder recorder : recorders) {
+                total += recorder.count;
+                errors += recorder.errors;
+            }
+            long[] all = new long[total];
+            int offset = 0;
+            for (Recorder recorder : recorders) {
+                System.arraycopy(recorder.latencies, 0, all, offset, recorder.count);
+                offset += recorder.count;
+            }
+            Arrays.sort(all);
+            return new Stats(total, errors, total / (elapsedNanos / 1e9),
+                    percentile(all, 0.50), percentile(all, 0.99), total > 0 ? all[total - 1] / 1e6 : 0);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+
+    private record Result(String mode, int clients, Stats stats) {
+        static final String HEADER = String.format("%-9s %8s %10s %8s %12s %10s %10s %10s",
+                "mode", "clients", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+
+        String line() {
+            return String.format(Locale.ROOT, "%-9s %8d %10d %8d %12.1f %10.2f %10.2f %10.2f",
+                    mode, clients, stats.requests(), stats.errors(), stats.throughput(),
+                    stats.p50(), stats.p99(), stats.max());
+        }
+
+        String csv() {
+            return String.format(Locale.ROOT, "%s,%d,%d,%d,%.1f,%.3f,%.3f,%.3f",
+                    mode, clients, stats.requests(), stats.errors(), stats.throughput(),
+                    stats.p50(), stats.p99(), stats.max());
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.dropand.build;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * html5 정적 자원 빌드 도구 (묶기, 콘텐츠 해시 이름, gzip/brotli 사전 압축)
+ *
+ * 주요 기능:
+ * 1. 원본 디렉토리를 출력 디렉토리로 복사 (실행 중 상대 경로로 읽는 파일이 그대로 남도록)
+ * 2. 최상위 HTML의 로컬 스크립트/스타일시트를 assets/ 아래 내용 해시가 들어간 이름으로 저장하고 HTML 참조를 바꿈
+ *    - 연속된 일반(type="module"이 아닌) 스크립트는 하나로 묶음 (*.min.js 외부 라이브러리와 앱 코드는 따로 묶음)
+ *    - CSS의 상대 url()은 assets/ 위치 기준으로 다시 계산
+ * 3. 텍스트 파일마다 .gz, .br 사전 압축본 생성 (WebConfig의 EncodedResourceResolver가 Accept-Encoding에 따라 선택)
+ * 4. 원본 경로 → 해시 이름 목록을 asset-manifest.json으로 저장
+ *
+ * 해시 이름 파일은 내용이 바뀌면 이름도 바뀌므로 1년 immutable 캐시로 제공하고,
+ * HTML과 그 밖의 원본 이름 파일은 매번 재검증하도록 제공합니다.
+ *
+ * 메이븐 process-resources 단계에서 소스 파일 모드로 실행됩니다. (pom.xml의 build-assets 실행 참고)
+ * 직접 실행: java -cp <brotli4j 클래스패스> src/build/java/com/dropand/build/AssetPipeline.java adi_test/html5 target/classes/html5-dist
+ * brotli4j를 불러올 수 없는 환경에서는 경고를 출력하고 gzip만 만듭니다.
+ */
+public class AssetPipeline {
+
+    static final String ASSET_DIR = "assets";
+    static final String MANIFEST = "asset-manifest.json";
+
+    private static final Pattern SCRIPT_TAG = Pattern.compile(
+            "<script\\b([^>]*?)\\s+src=\"([^\"]+)\"([^>]*)>\\s*</script>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern STYLESHEET_TAG = Pattern.compile(
+            "<link\\b[^>]*\\bhref=\"([^\"]+)\"[^>]*>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CSS_URL = Pattern.compile("url\\(\\s*(['\"]?)([^'\")]+)\\1\\s*\\)");
+    private static final Pattern BETWEEN_TAGS = Pattern.compile("(?s)(\\s|<!--.*?-->)*");
+
+    private static final Set<String> COMPRESSIBLE = Set.of("html", "js", "mjs", "css", "json", "svg", "txt", "map", "xml");
+    private static final int MIN_COMPRESS_BYTES = 1024;
+    private static final int HASH_LENGTH = 12;
+
+    private final Path source;
+    private final Path output;
+    private final Map<String, String> assets = new LinkedHashMap<>();
+    private final Map<String, List<String>> bundles = new LinkedHashMap<>();
+    private final Compressor brotli;
+
+    AssetPipeline(Path source, Path output) {
+        this.source = source;
+        this.output = output;
+        this.brotli = Compressor.brotli();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: AssetPipeline <source dir> <output dir>");
+            System.exit(2);
+        }
+        Path source = Path.of(args[0]);
+        if (!Files.isDirectory(source)) {
+            System.out.println("[assets] source directory not found, skipping: " + source.toAbsolutePath());
+            return;
+        }
+        new AssetPipeline(source, Path.of(args[1])).run();
+    }
+
+    void run() throws IOException {
+        long started = System.nanoTime();
+        deleteTree(output);
+        copyTree(source, output);
+        Files.createDirectories(output.resolve(ASSET_DIR));
+
+        try (Stream<Path> pages = Files.list(source)) {
+            for (Path page : pages.filter(p -> p.toString().endsWith(".html")).sorted().toList()) {
+                String html = Files.readString(page, StandardCharsets.UTF_8);
+                String pageName = stripExtension(page.getFileName().toString());
+                String rewritten = rewriteStylesheets(rewriteScripts(html, pageName));
+                Files.writeString(output.resolve(page.getFileName().toString()), rewritten, StandardCharsets.UTF_8);
+            }
+        }
+        writeManifest();
+        long[] totals = compressTree();
+        System.out.printf(Locale.ROOT, "[assets] %d hashed assets (%d bundles), %d files precompressed: %,d -> gzip %,d / brotli %,d bytes in %d ms%n",
+                assets.size() + bundles.size(), bundles.size(), totals[0], totals[1], totals[2], totals[3],
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * 스크립트 태그를 해시 이름으로 바꾸고, 주석/공백만 사이에 둔 연속 일반 스크립트는 하나로 묶습니다.
+     */
+    private String rewriteScripts(String html, String pageName) throws IOException {
+        List<ScriptTag> tags = new ArrayList<>();
+        Matcher matcher = SCRIPT_TAG.matcher(html);
+        while (matcher.find()) {
+            String attributes = (matcher.group(1) + matcher.group(3)).trim();
+            String src = matcher.group(2);
+            tags.add(new ScriptTag(matcher.start(), matcher.end(), src, attributes, isLocal(src) && attributes.isEmpty()));
+        }
+
+        StringBuilder result = new StringBuilder(html.length());
+        int position = 0;
+        Map<String, Integer> bundleNames = new LinkedHashMap<>();
+        for (int i = 0; i < tags.size(); ) {
+            ScriptTag first = tags.get(i);
+            int end = i + 1;
+            if (first.bundlable()) {
+                while (end < tags.size() && tags.get(end).bundlable()
+                        && isVendor(tags.get(end).src()) == isVendor(first.src())
+                        && BETWEEN_TAGS.matcher(html.substring(tags.get(end - 1).end(), tags.get(end).start())).matches()) {
+                    end++;
+                }
+            }
+            result.append(html, position, first.start());
+            if (end - i > 1) {
+                List<ScriptTag> run = tags.subList(i, end);
+                String name = pageName + "." + (isVendor(first.src()) ? "vendor" : "app");
+                int count = bundleNames.merge(name, 1, Integer::sum);
+                String hashed = bundle(count == 1 ? name : name + count, run);
+                result.append("<script src=\"").append(hashed).append("\"></script>");
+                position = run.get(run.size() - 1).end();
+            } else {
+                String tag = html.substring(first.start(), first.end());
+                result.append(isLocal(first.src()) ? tag.replace("\"" + first.src() + "\"", "\"" + hash(first.src()) + "\"") : tag);
+                position = first.end();
+            }
+            i = end;
+        }
+        result.append(html, position, html.length());
+        return result.toString();
+    }
+
+    private String rewriteStylesheets(String html) throws IOException {
+        Matcher matcher = STYLESHEET_TAG.matcher(html);
+        StringBuilder result = new StringBuilder(html.length());
+        while (matcher.find()) {
+            String tag = matcher.group();
+            String href = matcher.group(1);
+            if (tag.toLowerCase(Locale.ROOT).contains("stylesheet") && isLocal(href) && href.endsWith(".css")) {
+                tag = tag.replace("\"" + href + "\"", "\"" + hash(href) + "\"");
+            }
+            matcher.appendReplacement(result, Matcher.quoteReplacement(tag));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    /**
+     * 스크립트 여러 개를 순서대로 이어 하나의 해시 이름 파일로 저장합니다.
+     * 각 파일 사이에 줄바꿈과 세미콜론을 넣어 앞 파일의 마지막 문장이나 줄 주석이 다음 파일과 붙지 않게 합니다.
+     */
+    private String bundle(String name, List<ScriptTag> run) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        List<String> inputs = new ArrayList<>();
+        for (ScriptTag tag : run) {
+            String path = normalize(tag.src());
+            inputs.add(path);
+            content.writeBytes(("/* " + path + " */\n").getBytes(StandardCharsets.UTF_8));
+            content.writeBytes(Files.readAllBytes(source.resolve(path)));
+            content.writeBytes("\n;\n".getBytes(StandardCharsets.UTF_8));
+        }
+        String hashed = writeHashed(name + ".js", content.toByteArray());
+        bundles.put(hashed, inputs);
+        return hashed;
+    }
+
+    /**
+     * 파일 하나를 해시 이름으로 저장하고 새 참조 경로를 반환합니다. (같은 파일은 한 번만 저장)
+     */
+    private String hash(String reference) throws IOException {
+        String path = normalize(reference);
+        String existing = assets.get(path);
+        if (existing != null) {
+            return existing;
+        }
+        Path file = source.resolve(path);
+        if (!Files.isRegularFile(file)) {
+            throw new IOException("Referenced asset not found: " + file);
+        }
+        byte[] content = Files.readAllBytes(file);
+        if (path.endsWith(".css")) {
+            content = relocateCssUrls(new String(content, StandardCharsets.UTF_8), path).getBytes(StandardCharsets.UTF_8);
+        }
+        String hashed = writeHashed(Path.of(path).getFileName().toString(), content);
+        assets.put(path, hashed);
+        return hashed;
+    }
+
+    /**
+     * CSS를 assets/로 옮기면서 상대 url()이 원래 파일을 가리키도록 경로를 다시 씁니다.
+     */
+    private String relocateCssUrls(String css, String cssPath) {
+        Path cssDir = Path.of(cssPath).getParent();
+        Matcher matcher = CSS_URL.matcher(css);
+        StringBuilder result = new StringBuilder(css.length());
+        while (matcher.find()) {
+            String url = matcher.group(2);
+            String replacement = matcher.group();
+            if (isLocal(url)) {
+                Path target = (cssDir != null ? cssDir.resolve(url) : Path.of(url)).normalize();
+                replacement = "url(" + matcher.group(1) + "../" + target.toString().replace('\\', '/') + matcher.group(1) + ")";
+            }
+            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    private String writeHashed(String fileName, byte[] content) throws IOException {
+        int dot = fileName.lastIndexOf('.');
+        String hashedName = fileName.substring(0, dot) + "." + contentHash(content) + fileName.substring(dot);
+        Files.write(output.resolve(ASSET_DIR).resolve(hashedName), content);
+        return ASSET_DIR + "/" + hashedName;
+    }
+
+    private void writeManifest() throws IOException {
+        StringBuilder json = new StringBuilder("{\n  \"assets\": {");
+        appendEntries(json, assets, value -> quote(value));
+        json.append("\n  },\n  \"bundles\": {");
+        appendEntries(json, bundles, inputs -> "[" + String.join(", ", inputs.stream().map(AssetPipeline::quote).toList()) + "]");
+        json.append("\n  }\n}\n");
+        Files.writeString(output.resolve(MANIFEST), json, StandardCharsets.UTF_8);
+    }
+
+    private static <V> void appendEntries(StringBuilder json, Map<String, V> entries, java.util.function.Function<V, String> value) {
+        String separator = "\n    ";
+        for (Map.Entry<String, V> entry : entries.entrySet()) {
+            json.append(separator).append(quote(entry.getKey())).append(": ").append(value.apply(entry.getValue()));
+            separator = ",\n    ";
+        }
+    }
+
+    /**
+     * 출력 디렉토리의 텍스트 파일마다 gzip(레벨 9), brotli(품질 11) 압축본을 만듭니다.
+     * 작은 파일과 압축해도 10% 이상 줄지 않는 파일은 건너뜁니다.
+     *
+     * @return {압축한 파일 수, 원본 합계, gzip 합계, brotli 합계}
+     */
+    private long[] compressTree() throws IOException {
+        long[] totals = new long[4];
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(output)) {
+            files = walk.filter(Files::isRegularFile).filter(AssetPipeline::isCompressible).toList();
+        }
+        for (Path file : files) {
+            byte[] content = Files.readAllBytes(file);
+            if (content.length < MIN_COMPRESS_BYTES) {
+                continue;
+            }
+            byte[] gzip = gzip(content);
+            if (gzip.length > content.length * 0.9) {
+                continue;
+            }
+            Files.write(file.resolveSibling(file.getFileName() + ".gz"), gzip);
+            byte[] br = brotli != null ? brotli.compress(content) : null;
+            if (br != null) {
+                Files.write(file.resolveSibling(file.getFileName() + ".br"), br);
+            }
+            totals[0]++;
+            totals[1] += content.length;
+            totals[2] += gzip.length;
+            totals[3] += br != null ? br.length : gzip.length;
+        }
+        return totals;
+    }
+
+    private static boolean isCompressible(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 && COMPRESSIBLE.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 3);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(content);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String contentHash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest).substring(0, HASH_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isLocal(String reference) {
+        String lower = reference.toLowerCase(Locale.ROOT);
+        return !(lower.startsWith("http:") || lower.startsWith("https:") || lower.startsWith("//")
+                || lower.startsWith("data:") || lower.startsWith("/") || lower.startsWith("#"));
+    }
+
+    private static boolean isVendor(String src) {
+        return src.endsWith(".min.js");
+    }
+
+    private static String normalize(String reference) {
+        return Path.of(reference).normalize().toString().replace('\\', '/');
+    }
+
+    private static String stripExtension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static void copyTree(Path from, Path to) throws IOException {
+        try (Stream<Path> walk = Files.walk(from)) {
+            for (Path path : walk.toList()) {
+                Path target = to.resolve(from.relativize(path).toString());
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(target);
+                } else {
+                    Files.copy(path, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+                }
+            }
+        }
+    }
+
+    private static void deleteTree(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> walk = Files.walk(root)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private record ScriptTag(int start, int end, String src, String attributes, boolean bundlable) {
+    }
+
+    /**
+     * brotli 압축기 (brotli4j 네이티브 라이브러리를 리플렉션으로 불러 클래스패스에 없어도 컴파일/실행 가능)
+     */
+    private interface Compressor {
+
+        byte[] compress(byte[] content) throws IOException;
+
+        static Compressor brotli() {
+            try {
+                Class.forName("com.aayushatharva.brotli4j.Brotli4jLoader").getMethod("ensureAvailability").invoke(null);
+                Class<?> encoder = Class.forName("com.aayushatharva.brotli4j.encoder.Encoder");
+                Class<?> parametersType = Class.forName("com.aayushatharva.brotli4j.encoder.Encoder$Parameters");
+                Object parameters = parametersType.getConstructor().newInstance();
+                parametersType.getMethod("setQuality", int.class).invoke(parameters, 11);
+                var compress = encoder.getMethod("compress", byte[].class, parametersType);
+                return content -> {
+                    try {
+                        return (byte[]) compress.invoke(null, content, parameters);
+                    } catch (ReflectiveOperationException e) {
+                        throw new IOException("brotli compression failed", e);
+                    }
+                };
+            } catch (ReflectiveOperationException | LinkageError e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                System.out.println("[assets] WARNING: brotli4j unavailable, writing gzip only (" + cause + ")");
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.dropand.benchmark;
+
+import com.dropand.domain.Directory;
+import com.dropand.dto.DirectoryDto;
+import com.dropand.service.DirectoryTreeSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 전체 트리 응답 인코딩의 JMH 벤치마크 (JSON 중첩 트리 vs 열 형식 JSON/CBOR/Smile)
+ *
+ * 주요 기능:
+ * 1. 합성 트리(자식 10개씩의 완전 트리)로 메모리 스냅샷만 만들고 데이터베이스 없이 측정
+ * 2. 스냅샷에서 응답 객체를 만드는 시간과 Jackson 인코딩 시간을 합한 평균 시간 측정
+ *    (/tree?nested=true가 요청마다 하는 일과 같음)
+ * 3. 설정 단계에서 형식별 응답 크기와 gzip 후 크기를 출력
+ *
+ * 이름 분포:
+ * - unique: node-1, node-2, ... 처럼 모두 다른 이름 (이름 표 중복 제거 효과 없음)
+ * - repeated: 자주 쓰는 이름 50개를 돌려 씀 (이름 표가 50개로 줄어듦)
+ *
+ * 실행 (결과는 target/jmh-result-버전.json):
+ *   mvn -Pbenchmark verify -Djmh.args="DirectoryEncodingBenchmark"
+ *   mvn -Pbenchmark verify -Djmh.args="DirectoryEncodingBenchmark -p nodes=1000000 -p names=unique"
+ *
+ * 출력은 바이트 수만 세는 스트림에 쓰므로 네트워크와 버퍼 복사 비용은 포함되지 않습니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class DirectoryEncodingBenchmark {
+
+    static final int FAN_OUT = 10;
+
+    private static final String[] COMMON_NAMES = new String[50];
+
+    static {
+        String[] words = {"문서", "사진", "프로젝트", "백업", "새 폴더", "src", "docs", "assets", "2024", "archive"};
+        for (int i = 0; i < COMMON_NAMES.length; i++) {
+            COMMON_NAMES[i] = words[i % words.length] + (i < words.length ? "" : " " + (i / words.length + 1));
+        }
+    }
+
+    @Param({"100000", "1000000"})
+    public int nodes;
+
+    @Param({"unique", "repeated"})
+    public String names;
+
+    private DirectoryTreeSnapshot snapshot;
+    private final ObjectMapper json = new ObjectMapper();
+    private final CBORMapper cbor = new CBORMapper();
+    private final SmileMapper smile = new SmileMapper();
+
+    @Setup
+    public void buildSnapshot() throws IOException {
+        // ID 1..n, 노드 id의 부모는 (id - 2) / FAN_OUT + 1 (최상위는 1번 하나)
+        List<DirectoryDto> rows = new ArrayList<>(nodes);
+        for (int id = 1; id <= nodes; id++) {
+            Long parentId = id == 1 ? null : (long) ((id - 2) / FAN_OUT + 1);
+            long position = id == 1 ? 1 : (id - 2) % FAN_OUT + 1;
+            String name = names.equals("unique") ? "node-" + id : COMMON_NAMES[id % COMMON_NAMES.length];
+            rows.add(new DirectoryDto((long) id, name, parentId, position * Directory.SORT_KEY_GAP, 0L, false));
+        }
+        rows.sort(Comparator.comparingLong((DirectoryDto row) -> row.sortOrder).thenComparingLong(row -> row.id));
+        snapshot = DirectoryTreeSnapshot.build(1, rows);
+
+        System.out.printf("%n[size] nodes=%d names=%s%n", nodes, names);
+        report("json nested", json.writeValueAsBytes(snapshot.nested(null)));
+        report("json columns", json.writeValueAsBytes(snapshot.columns(null)));
+        report("cbor nested", cbor.writeValueAsBytes(snapshot.nested(null)));
+        report("cbor columns", cbor.writeValueAsBytes(snapshot.columns(null)));
+        report("smile columns", smile.writeValueAsBytes(snapshot.columns(null)));
+    }
+
+    private static void report(String format, byte[] body) throws IOException {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(body);
+        }
+        System.out.printf("[size] %-14s %,13d bytes  gzip %,12d bytes%n", format, body.length, gzipped.size());
+    }
+
+    @Benchmark
+    public long jsonNested() throws IOException {
+        return write(json, snapshot.nested(null));
+    }
+
+    @Benchmark
+    public long jsonColumns() throws IOException {
+        return write(json, snapshot.columns(null));
+    }
+
+    @Benchmark
+    public long cborNested() throws IOException {
+        return write(cbor, snapshot.nested(null));
+    }
+
+    @Benchmark
+    public long cborColumns() throws IOException {
+        return write(cbor, snapshot.columns(null));
+    }
+
+    @Benchmark
+    public long smileColumns() throws IOException {
+        return write(smile, snapshot.columns(null));
+    }
+
+    private static long write(ObjectMapper mapper, Object body) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        mapper.writeValue(out, body);
+        return out.count;
+    }
+
+    /**
+     * 쓴 바이트 수만 세는 출력 스트림
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
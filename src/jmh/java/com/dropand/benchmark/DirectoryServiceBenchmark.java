@@ -0,0 +1,293 @@
+package com.dropand.benchmark;
+
+import com.dropand.DropAndApplication;
+import com.dropand.domain.Directory;
+import com.dropand.dto.DirectoryDto;
+import com.dropand.dto.DirectoryOrderDto;
+import com.dropand.service.DirectoryService;
+import com.dropand.service.DirectoryTreeCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DirectoryService 주요 메소드의 JMH 벤치마크
+ *
+ * 주요 기능:
+ * 1. 임베디드 H2(인메모리) 위에 애플리케이션 컨텍스트를 띄우고 합성 트리를 JDBC 배치로 적재
+ * 2. 트리 모양(wide, deep, balanced)과 노드 수(10^3 ~ 10^6)별로 조회/쓰기 메소드의 평균 실행 시간 측정
+ *
+ * 트리 모양:
+ * - wide: 최상위 디렉토리 하나 아래에 나머지 전부 (자식 목록이 가장 긴 경우)
+ * - deep: 길이 DEEP_CHAIN_LENGTH의 사슬 여러 개 (경로가 가장 긴 경우)
+ * - balanced: 자식 10개씩의 완전 트리
+ *
+ * 실행 (결과는 target/jmh-result-버전.json):
+ *   mvn -Pbenchmark verify
+ *   mvn -Pbenchmark verify -Djmh.args="DirectoryServiceBenchmark.getSubDirectories -p nodes=1000,10000"
+ *
+ * 쓰기 벤치마크는 한 번 호출할 때마다 실제로 커밋하므로, 커밋 후 스냅샷 재구성까지 포함한 시간이 측정됩니다.
+ * 조회는 기본적으로 스냅샷 읽기로 측정하며 -p snapshot=false로 데이터베이스 조회 경로를 측정할 수 있습니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class DirectoryServiceBenchmark {
+
+    /**
+     * deep 모양의 사슬 길이 (경로 길이와 적재 메모리를 노드 수와 무관하게 제한)
+     */
+    static final int DEEP_CHAIN_LENGTH = 100;
+
+    /**
+     * balanced 모양의 자식 수
+     */
+    static final int BALANCED_FAN_OUT = 10;
+
+    /**
+     * 순서 변경 벤치마크의 형제 수
+     */
+    static final int ORDER_SIBLINGS = 20;
+
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    @Param({"wide", "deep", "balanced"})
+    public String shape;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int nodes;
+
+    @Param({"true"})
+    public boolean snapshot;
+
+    ConfigurableApplicationContext context;
+    DirectoryService directoryService;
+
+    /**
+     * 자식이 가장 많은 (조회 대상) 디렉토리 ID
+     */
+    long hotParentId;
+
+    /**
+     * 이동 벤치마크에서 두 부모 사이를 오가는 잎 디렉토리와 두 부모
+     */
+    long movingLeafId;
+    long[] moveParents;
+    int moveCount;
+
+    /**
+     * 순서 변경 벤치마크용 형제 목록 (호출마다 순서를 뒤집음)
+     */
+    List<DirectoryOrderDto> orderAscending;
+    List<DirectoryOrderDto> orderDescending;
+    int orderCount;
+
+    int createCount;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(DropAndApplication.class).run(
+                "--server.port=0",
+                "--management.server.port=-1",
+                "--spring.main.banner-mode=off",
+                "--spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.sql.init.mode=never",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.show-sql=false",
+                "--spring.mvc.log-request-details=false",
+                "--spring.h2.console.enabled=false",
+                "--directory.snapshot.enabled=" + snapshot,
+                "--logging.level.root=WARN",
+                "--logging.level.com.dropand=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--logging.level.org.springframework.web.servlet.mvc=WARN");
+        directoryService = context.getBean(DirectoryService.class);
+
+        long[] parents = TreeShape.valueOf(shape.toUpperCase()).parents(nodes);
+        seed(context.getBean(JdbcTemplate.class), parents);
+        context.getBean(DirectoryTreeCache.class).refresh();
+
+        hotParentId = TreeShape.valueOf(shape.toUpperCase()).hotParent(nodes);
+        movingLeafId = nodes;
+        long leafParent = parents[nodes];
+        moveParents = new long[] {leafParent, leafParent != hotParentId ? hotParentId : 2};
+
+        DirectoryDto orderRoot = directoryService.createDirectory("jmh-order", null);
+        orderAscending = new ArrayList<>();
+        for (int i = 0; i < ORDER_SIBLINGS; i++) {
+            DirectoryDto child = directoryService.createDirectory("jmh-order-" + i, orderRoot.id);
+            orderAscending.add(order(child.id, orderRoot.id, (i + 1) * Directory.SORT_KEY_GAP));
+        }
+        orderDescending = new ArrayList<>();
+        for (int i = 0; i < ORDER_SIBLINGS; i++) {
+            orderDescending.add(order(orderAscending.get(i).getId(), orderRoot.id, (ORDER_SIBLINGS - i) * Directory.SORT_KEY_GAP));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    /**
+     * ID 1..n 노드를 부모 배열대로 적재합니다. 부모는 항상 자식보다 ID가 작으므로 한 번의 순회로 경로를 계산합니다.
+     *
+     * @param jdbcTemplate JDBC 템플릿
+     * @param parents 노드별 부모 ID (0은 최상위, 인덱스 0은 사용하지 않음)
+     */
+    private void seed(JdbcTemplate jdbcTemplate, long[] parents) {
+        int n = parents.length - 1;
+        String[] paths = new String[n + 1];
+        int[] childCounts = new int[n + 1];
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int id = 1; id <= n; id++) {
+            int parent = (int) parents[id];
+            String parentPath = parent == 0 ? null : paths[parent];
+            paths[id] = Directory.childPath(parentPath, (long) id);
+            if (shape.equals("deep") && parent > 0) {
+                // 사슬에서는 바로 앞 노드만 부모가 되므로 지난 경로는 바로 버림
+                paths[parent] = null;
+            }
+            long sortOrder = ++childCounts[parent] * Directory.SORT_KEY_GAP;
+            batch.add(new Object[] {id, "node-" + id, parent == 0 ? null : parent, paths[id], sortOrder});
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                insert(jdbcTemplate, batch);
+            }
+        }
+        insert(jdbcTemplate, batch);
+        jdbcTemplate.execute("ALTER SEQUENCE " + Directory.ID_SEQUENCE + " RESTART WITH " + (n + 1));
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO directories (id, name, parent_id, path, sort_order, version) VALUES (?, ?, ?, ?, ?, 0)",
+                batch);
+        batch.clear();
+    }
+
+    private static DirectoryOrderDto order(Long id, Long parentId, long sortOrder) {
+        DirectoryOrderDto dto = new DirectoryOrderDto();
+        dto.setId(id);
+        dto.setParentId(parentId);
+        dto.setSortOrder(sortOrder);
+        return dto;
+    }
+
+    @Benchmark
+    public List<DirectoryDto> getSubDirectories() {
+        return directoryService.getSubDirectories(hotParentId);
+    }
+
+    @Benchmark
+    public List<DirectoryDto> getDirectoryTree() {
+        return directoryService.getDirectoryTree();
+    }
+
+    @Benchmark
+    public DirectoryDto createDirectory() {
+        return directoryService.createDirectory("jmh-" + createCount++, hotParentId);
+    }
+
+    @Benchmark
+    public DirectoryDto moveDirectory() {
+        return directoryService.moveDirectory(movingLeafId, moveParents[++moveCount & 1], null);
+    }
+
+    @Benchmark
+    public int updateDirectoryOrder() {
+        directoryService.updateDirectoryOrder((++orderCount & 1) == 0 ? orderAscending : orderDescending);
+        return orderCount;
+    }
+
+    @Benchmark
+    public int deleteDirectory(DeleteTarget target) {
+        return directoryService.deleteDirectory(target.id);
+    }
+
+    /**
+     * 삭제 벤치마크 대상: 호출마다 새 잎 디렉토리를 만들어 두고 (생성 시간은 측정에서 제외) 그것을 삭제합니다.
+     */
+    @State(Scope.Thread)
+    public static class DeleteTarget {
+        long id;
+
+        @Setup(Level.Invocation)
+        public void create(DirectoryServiceBenchmark benchmark) {
+            id = benchmark.directoryService.createDirectory("jmh-delete", benchmark.hotParentId).id;
+        }
+    }
+
+    /**
+     * 합성 트리 모양: 노드 ID 1..n의 부모 배열과 조회 대상 부모를 정의합니다.
+     */
+    enum TreeShape {
+        WIDE {
+            @Override
+            long parentOf(int id) {
+                return id == 1 ? 0 : 1;
+            }
+
+            @Override
+            long hotParent(int nodes) {
+                return 1;
+            }
+        },
+        DEEP {
+            @Override
+            long parentOf(int id) {
+                return (id - 1) % DEEP_CHAIN_LENGTH == 0 ? 0 : id - 1;
+            }
+
+            @Override
+            long hotParent(int nodes) {
+                return Math.min(nodes, DEEP_CHAIN_LENGTH) / 2;
+            }
+        },
+        BALANCED {
+            @Override
+            long parentOf(int id) {
+                return id == 1 ? 0 : (id - 2) / BALANCED_FAN_OUT + 1;
+            }
+
+            @Override
+            long hotParent(int nodes) {
+                return 1;
+            }
+        };
+
+        abstract long parentOf(int id);
+
+        abstract long hotParent(int nodes);
+
+        long[] parents(int nodes) {
+            long[] parents = new long[nodes + 1];
+            for (int id = 1; id <= nodes; id++) {
+                parents[id] = parentOf(id);
+            }
+            return parents;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.dropand.config;
+
+import com.dropand.repository.DirectoryRepository;
+import com.dropand.service.DirectoryTreeArchive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * 애플리케이션 시작 시 디렉토리 트리 아카이브를 복원하는 초기화 빈
+ *
+ * 주요 기능:
+ * 1. directory.archive.restore-on-startup=true이면 schema.sql로 테이블, 시퀀스, 인덱스를 준비 (이미 있으면 그대로 둠)
+ * 2. 디렉토리 테이블이 비어 있고 아카이브 파일(directory.archive.file)이 있으면 DirectoryTreeArchive로 복원
+ * 3. 테이블에 이미 데이터가 있으면(파일 데이터베이스를 다시 연 경우) 복원하지 않고 그대로 사용
+ *
+ * persistent 프로필과 함께 사용합니다. 기본 설정은 시작할 때마다 data.sql로 테이블을 지우고 다시 만들기 때문입니다.
+ *   java -jar target/dropand-1.0.0.jar --spring.profiles.active=prod,persistent
+ *
+ * 웹 서버가 요청을 받기 전(빈 초기화 단계)에 복원이 끝나므로 요청이 빈 트리를 보는 순간이 없습니다.
+ * 아카이브가 손상되었거나 복원에 실패하면 애플리케이션 시작을 중단합니다.
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class DirectoryArchiveRestorer implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryArchiveRestorer.class);
+
+    private final DirectoryTreeArchive archive;
+    private final DirectoryRepository directoryRepository;
+    private final DataSource dataSource;
+    private final boolean enabled;
+
+    /**
+     * 생성자 주입 방식의 의존성 주입
+     *
+     * @param archive 디렉토리 트리 아카이브 객체
+     * @param directoryRepository 디렉토리 리포지토리 객체 (기존 데이터 확인)
+     * @param dataSource schema.sql을 실행할 데이터 소스
+     * @param enabled 시작 시 복원 여부 (directory.archive.restore-on-startup)
+     */
+    public DirectoryArchiveRestorer(DirectoryTreeArchive archive, DirectoryRepository directoryRepository,
+                                    DataSource dataSource,
+                                    @Value("${directory.archive.restore-on-startup:false}") boolean enabled) {
+        this.archive = archive;
+        this.directoryRepository = directoryRepository;
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+
+        long existing = directoryRepository.count();
+        if (existing > 0) {
+            log.info("디렉토리 아카이브 복원 건너뜀 - 테이블에 이미 {}개 디렉토리가 있음", existing);
+            return;
+        }
+        if (!Files.exists(archive.file())) {
+            log.info("디렉토리 아카이브 복원 건너뜀 - 파일 없음: {} (빈 트리로 시작)", archive.file().toAbsolutePath());
+            return;
+        }
+        log.info("디렉토리 아카이브 복원 시작 - 파일: {}", archive.file().toAbsolutePath());
+        archive.restore();
+    }
+}
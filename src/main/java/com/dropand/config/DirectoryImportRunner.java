@@ -0,0 +1,98 @@
+package com.dropand.config;
+
+import com.dropand.dto.DirectoryImportResultDto;
+import com.dropand.service.DirectoryTreeImporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * 명령줄에서 디렉토리 트리 파일을 가져오는 실행기
+ *
+ * 주요 기능:
+ * 1. --import.file 옵션이 있으면 애플리케이션 시작 직후 파일을 DirectoryTreeImporter로 가져옴
+ * 2. 가져오기가 끝나면 결과를 로그로 남기고 애플리케이션을 종료 (실패하면 종료 코드 1)
+ *
+ * 옵션:
+ * - --import.file=경로 (필수): 가져올 파일
+ * - --import.format=json|csv: 파일 형식 (생략하면 확장자가 .csv인 경우 csv, 그 밖에는 json)
+ * - --import.parent-id=ID: 가져온 트리를 붙일 부모 디렉토리 ID (생략하면 최상위)
+ *
+ * 사용 예 (웹 서버 없이 실행하고, 기존 데이터를 data.sql로 초기화하지 않음):
+ *   java -jar target/dropand-1.0.0.jar --spring.main.web-application-type=none \
+ *        --spring.profiles.active=persistent --import.file=tree.csv --import.parent-id=1
+ *
+ * 기본 설정은 시작할 때마다 data.sql로 테이블을 다시 만들므로, 가져온 데이터를 유지하려면
+ * 가져올 때와 이후 서버를 실행할 때 모두 persistent 프로필(data.sql 실행 안 함)을 사용해야 합니다.
+ * 실행 중인 서버에 가져오려면 POST /api/directories/import를 사용합니다.
+ */
+@Component
+public class DirectoryImportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryImportRunner.class);
+
+    private final DirectoryTreeImporter treeImporter;
+    private final ConfigurableApplicationContext context;
+
+    /**
+     * 생성자 주입 방식의 의존성 주입
+     *
+     * @param treeImporter 디렉토리 트리 일괄 가져오기 객체
+     * @param context 가져오기 후 종료할 애플리케이션 컨텍스트
+     */
+    public DirectoryImportRunner(DirectoryTreeImporter treeImporter, ConfigurableApplicationContext context) {
+        this.treeImporter = treeImporter;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String file = option(args, "import.file");
+        if (file == null) {
+            return;
+        }
+        int exitCode = 0;
+        try {
+            Path path = Path.of(file);
+            String format = option(args, "import.format");
+            if (format == null) {
+                format = path.getFileName().toString().toLowerCase().endsWith(".csv") ? "csv" : "json";
+            }
+            String parent = option(args, "import.parent-id");
+            Long parentId = parent != null ? Long.valueOf(parent) : null;
+            log.info("디렉토리 가져오기 시작 - 파일: {}, 형식: {}, 부모 ID: {}", path, format, parentId);
+
+            DirectoryImportResultDto result;
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(path), 1 << 16)) {
+                result = switch (format) {
+                    case "csv" -> treeImporter.importCsv(new InputStreamReader(in, StandardCharsets.UTF_8), parentId);
+                    case "json" -> treeImporter.importJson(in, parentId);
+                    default -> throw new IllegalArgumentException("Unknown import format: " + format + " (json or csv)");
+                };
+            }
+            log.info("디렉토리 가져오기 성공 - {}개, {} ms", result.getImportedCount(), result.getElapsedMillis());
+        } catch (Exception e) {
+            log.error("디렉토리 가져오기 실패 - 파일: {}", file, e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    private static String option(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        return values == null || values.isEmpty() ? null : values.get(values.size() - 1);
+    }
+}
@@ -0,0 +1,63 @@
+package com.dropand.config;
+
+import com.dropand.domain.Directory;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PreInsertEvent;
+import org.hibernate.event.spi.PreInsertEventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * 새 디렉토리의 경로를 INSERT 직전에 채우는 Hibernate 이벤트 리스너
+ *
+ * 주요 기능:
+ * 1. JPA로 저장하는 새 디렉토리의 경로를 부모 경로와 시퀀스에서 받은 자기 ID로 계산 (Directory.childPath)
+ * 2. 계산한 경로를 엔티티와 INSERT할 값 배열 모두에 넣어 INSERT 한 번으로 저장
+ *
+ * 경로에는 자기 ID가 들어가지만 @PrePersist는 시퀀스가 ID를 정하기 전에 호출되므로 쓸 수 없습니다.
+ * INSERT 직전(PRE_INSERT)에는 ID가 정해져 있고 INSERT할 값을 바꿀 수 있으므로,
+ * 임시 경로로 INSERT한 뒤 경로를 다시 UPDATE하던 두 번째 문이 필요 없습니다.
+ * 엔티티 쪽 값도 같이 바꾸므로 플러시 때 변경 감지가 UPDATE를 만들지 않습니다.
+ * JDBC로 직접 넣는 경로(일괄 가져오기, 아카이브 복원)는 경로를 직접 계산하므로 해당되지 않습니다.
+ */
+@Component
+public class DirectoryPathInsertListener implements PreInsertEventListener {
+
+    /**
+     * 엔티티 속성 배열에서 path의 위치
+     */
+    private final int pathIndex;
+
+    /**
+     * Hibernate 세션 팩토리의 이벤트 목록에 이 리스너를 등록합니다.
+     *
+     * @param entityManagerFactory JPA 엔티티 매니저 팩토리 (Hibernate 세션 팩토리)
+     */
+    public DirectoryPathInsertListener(EntityManagerFactory entityManagerFactory) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        String[] propertyNames = sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Directory.class).getPropertyNames();
+        this.pathIndex = Arrays.asList(propertyNames).indexOf("path");
+        if (pathIndex < 0) {
+            throw new IllegalStateException("Directory entity has no path property");
+        }
+        sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class)
+                .appendListeners(EventType.PRE_INSERT, this);
+    }
+
+    @Override
+    public boolean onPreInsert(PreInsertEvent event) {
+        if (event.getEntity() instanceof Directory directory) {
+            Directory parent = directory.getParent();
+            String path = Directory.childPath(parent != null ? parent.getPath() : null, (Long) event.getId());
+            directory.setPath(path);
+            event.getState()[pathIndex] = path;
+        }
+        // false: INSERT를 취소하지 않음
+        return false;
+    }
+}
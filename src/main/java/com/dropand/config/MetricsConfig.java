@@ -0,0 +1,30 @@
+package com.dropand.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 메트릭 구성 클래스
+ *
+ * 주요 기능:
+ * 1. @Timed가 붙은 클래스/메소드의 실행 시간을 타이머로 기록하는 TimedAspect 등록
+ *    (DirectoryController는 directory.controller, DirectoryService는 directory.service 타이머에 class, method 태그로 기록)
+ *
+ * 메트릭은 관리 포트의 /actuator/prometheus에서 Prometheus 형식으로 수집합니다. (application.properties의 management.* 참고)
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * @Timed 어노테이션 처리 애스펙트
+     *
+     * @param meterRegistry 타이머를 기록할 레지스트리
+     * @return TimedAspect
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -1,7 +1,10 @@
 package com.dropand.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.userdetails.User;
@@ -9,6 +12,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
 
 /**
  * 스프링 시큐리티 구성 클래스
@@ -21,6 +25,34 @@ import org.springframework.security.web.SecurityFilterChain;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * actuator 엔드포인트용 보안 필터 체인을 구성하는 빈 메소드
+     * 관리 포트는 로컬 주소에만 바인딩되므로(management.server.address) 상태 확인과 Prometheus 수집은
+     * 로그인 없이 허용하고, 그 밖의 엔드포인트와 관리 포트의 다른 경로는 거부합니다.
+     * 
+     * @Order(1): 일반 요청용 필터 체인보다 먼저 검사합니다.
+     * 
+     * @param http HttpSecurity 객체 - 보안 필터 체인 구성에 사용됩니다.
+     * @param managementPort 관리 포트 (management.server.port, 설정하지 않으면 -1)
+     * @return 구성된 SecurityFilterChain 객체
+     * @throws Exception 보안 구성 중 오류가 발생한 경우
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain managementSecurityFilterChain(
+            HttpSecurity http, @Value("${management.server.port:-1}") int managementPort) throws Exception {
+        http
+            .securityMatcher(new OrRequestMatcher(
+                EndpointRequest.toAnyEndpoint(),
+                request -> request.getLocalPort() == managementPort))
+            .authorizeHttpRequests((requests) -> requests
+                .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
+                .anyRequest().denyAll()
+            );
+
+        return http.build();
+    }
+
     /**
      * 보안 필터 체인을 구성하는 빈 메소드
      * HTTP 요청에 대한 보안 규칙을 정의합니다.
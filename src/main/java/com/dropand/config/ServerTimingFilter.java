@@ -0,0 +1,134 @@
+package com.dropand.config;
+
+import com.dropand.service.RequestTiming;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 요청 처리 시간을 단계별로 나눠 Server-Timing 응답 헤더로 내보내는 필터
+ *
+ * 주요 기능:
+ * 1. 보안 필터 체인보다 먼저 요청 측정(RequestTiming)을 시작해 인증 단계 시간까지 포함
+ * 2. 응답이 커밋되는 순간 auth, db(SQL 문 수 포함), map, ser, total 항목을 Server-Timing 헤더로 추가
+ * 3. 같은 값을 key=value 형식의 로그 한 줄로 기록 (일부 요청만 표본으로 INFO, 느린 요청은 모두 WARN)
+ *
+ * 헤더는 본문보다 먼저 나가야 하므로 응답 버퍼가 처음 비워질 때(커밋) 값을 확정합니다.
+ * 본문이 응답 버퍼(기본 8KB)보다 큰 응답은 직렬화 도중 커밋되므로 헤더의 ser, total은 첫 버퍼까지의 시간이며,
+ * 본문 전체를 쓴 시간은 로그 줄에 기록됩니다.
+ * 브라우저 개발자 도구의 Network > Timing 탭에서 헤더 값을 바로 확인할 수 있습니다.
+ *
+ * 설정:
+ * - directory.server-timing.enabled: 헤더 추가 여부 (기본 true)
+ * - directory.server-timing.log-sample-rate: 로그로 남길 요청의 비율 0.0~1.0 (기본 0, 1이면 모든 요청)
+ * - directory.server-timing.slow-threshold: 이 시간 이상 걸린 요청은 표본과 관계없이 WARN으로 기록 (기본 1s, 0이면 끔)
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER_NAME = "Server-Timing";
+
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    private final boolean headerEnabled;
+    private final double logSampleRate;
+    private final long slowThresholdNanos;
+
+    /**
+     * 생성자 주입 방식의 의존성 주입
+     *
+     * @param headerEnabled Server-Timing 헤더 추가 여부
+     * @param logSampleRate 로그로 남길 요청의 비율
+     * @param slowThreshold 느린 요청 기준 시간 (0이면 느린 요청 로그를 끔)
+     * @throws IllegalArgumentException 비율이 0~1 범위를 벗어난 경우 발생
+     */
+    public ServerTimingFilter(@Value("${directory.server-timing.enabled:true}") boolean headerEnabled,
+                              @Value("${directory.server-timing.log-sample-rate:0}") double logSampleRate,
+                              @Value("${directory.server-timing.slow-threshold:1s}") Duration slowThreshold) {
+        if (logSampleRate < 0 || logSampleRate > 1) {
+            throw new IllegalArgumentException("directory.server-timing.log-sample-rate must be between 0 and 1: " + logSampleRate);
+        }
+        this.headerEnabled = headerEnabled;
+        this.logSampleRate = logSampleRate;
+        this.slowThresholdNanos = slowThreshold.isZero() || slowThreshold.isNegative() ? Long.MAX_VALUE : slowThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTiming timing = RequestTiming.begin();
+        ServerTimingResponse timedResponse = headerEnabled ? new ServerTimingResponse(response, timing) : null;
+        try {
+            filterChain.doFilter(request, timedResponse != null ? timedResponse : response);
+        } finally {
+            RequestTiming.end();
+            if (!request.isAsyncStarted()) {
+                if (timedResponse != null) {
+                    timedResponse.addServerTimingHeader();
+                }
+                logRequest(request, response, timing);
+            }
+        }
+    }
+
+    /**
+     * 느린 요청은 WARN으로, 표본으로 뽑힌 요청은 INFO로 한 줄 기록합니다.
+     * 표본 추출은 스레드별 난수 하나로 결정하므로 기록하지 않는 요청은 문자열을 만들지 않습니다.
+     */
+    private void logRequest(HttpServletRequest request, HttpServletResponse response, RequestTiming timing) {
+        long now = System.nanoTime();
+        if (timing.elapsedNanos(now) >= slowThresholdNanos) {
+            if (log.isWarnEnabled()) {
+                log.warn("slow-request method={} uri={} status={} {}", request.getMethod(),
+                        request.getRequestURI(), response.getStatus(), timing.toLogFields(now));
+            }
+        } else if (logSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < logSampleRate && log.isInfoEnabled()) {
+            log.info("server-timing method={} uri={} status={} {}", request.getMethod(),
+                    request.getRequestURI(), response.getStatus(), timing.toLogFields(now));
+        }
+    }
+
+    /**
+     * 응답 커밋 직전에 Server-Timing 헤더를 추가하는 응답 래퍼
+     * (본문을 쓰거나 flush, sendError, sendRedirect를 호출해 커밋되는 모든 경로를 잡아 줌)
+     */
+    private static final class ServerTimingResponse extends OnCommittedResponseWrapper {
+
+        private final RequestTiming timing;
+        private boolean headerAdded;
+
+        ServerTimingResponse(HttpServletResponse response, RequestTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            addServerTimingHeader();
+        }
+
+        /**
+         * 아직 커밋되지 않았다면 헤더를 한 번만 추가합니다.
+         */
+        void addServerTimingHeader() {
+            if (!headerAdded && !isCommitted()) {
+                headerAdded = true;
+                setHeader(HEADER_NAME, timing.toHeader(System.nanoTime()));
+            }
+        }
+    }
+}
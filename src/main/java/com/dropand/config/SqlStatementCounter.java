@@ -0,0 +1,66 @@
+package com.dropand.config;
+
+import com.dropand.service.RequestTiming;
+import org.hibernate.SessionEventListener;
+
+/**
+ * 요청 하나에서 Hibernate가 실행한 SQL 문 수와 JDBC 시간을 집계하는 세션 이벤트 리스너
+ *
+ * 주요 기능:
+ * 1. JDBC 문 준비 시점마다 현재 요청(RequestTiming)의 SQL 문 수를 증가
+ * 2. 문 준비, 실행, 배치 실행에 걸린 시간을 현재 요청의 데이터베이스 단계 시간에 누적
+ *
+ * hibernate.session.events.auto 속성으로 등록되므로 Hibernate가 기본 생성자로 직접 생성합니다.
+ * Hibernate 통계(Statistics)의 prepareStatementCount와 같은 기준이며, 배치 INSERT/UPDATE는 준비 한 번으로 셉니다.
+ * JdbcTemplate으로 직접 실행한 SQL은 Hibernate를 거치지 않으므로 포함되지 않습니다.
+ * 결과 집합을 읽는 시간은 실행 이후 엔티티를 만드는 과정과 섞여 있어 데이터베이스 시간에 포함되지 않습니다.
+ */
+public class SqlStatementCounter implements SessionEventListener {
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            timing.statementPrepareStarted();
+        }
+    }
+
+    @Override
+    public void jdbcPrepareStatementEnd() {
+        jdbcEnd();
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        jdbcStart();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        jdbcEnd();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        jdbcStart();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        jdbcEnd();
+    }
+
+    private static void jdbcStart() {
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            timing.jdbcStarted();
+        }
+    }
+
+    private static void jdbcEnd() {
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            timing.jdbcEnded();
+        }
+    }
+}
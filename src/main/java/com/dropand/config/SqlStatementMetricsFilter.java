@@ -0,0 +1,62 @@
+package com.dropand.config;
+
+import com.dropand.service.RequestTiming;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 요청별 SQL 문 수를 메트릭으로 기록하는 필터
+ *
+ * 주요 기능:
+ * 1. 요청 처리가 끝나면 SqlStatementCounter가 현재 요청(RequestTiming)에 집계한 SQL 문 수를 읽음
+ * 2. 읽은 SQL 문 수를 요청 메소드와 URI 패턴 태그가 붙은 분포 요약(directory.sql.statements)에 기록
+ *
+ * URI 태그는 /api/directories/{id}/children처럼 매핑 패턴을 사용하므로 경로 변수 값에 따라 태그가 늘어나지 않으며,
+ * 매핑되지 않은 요청(정적 리소스, 404)은 UNKNOWN으로 기록합니다.
+ * 분포 요약의 count와 sum으로 요청 수와 전체 SQL 문 수도 함께 얻을 수 있습니다.
+ * 요청 측정은 보안 필터 체인보다 앞선 ServerTimingFilter가 열고 닫으므로 측정이 없으면 0으로 기록합니다.
+ */
+@Component
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    static final String METRIC_NAME = "directory.sql.statements";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 생성자 주입 방식의 의존성 주입
+     *
+     * @param meterRegistry 메트릭을 기록할 레지스트리
+     */
+    public SqlStatementMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTiming timing = RequestTiming.current();
+            int statements = timing != null ? timing.getStatements() : 0;
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder(METRIC_NAME)
+                    .description("SQL statements prepared by Hibernate per request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .register(meterRegistry)
+                    .record(statements);
+        }
+    }
+}
@@ -1,9 +1,17 @@
 package com.dropand.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+
+import java.time.Duration;
 
 /**
  * 웹 MVC 설정 클래스
@@ -19,6 +27,19 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  */
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(WebConfig.class);
+
+    /**
+     * 빌드된 정적 자원 위치에서 빌드 결과 여부를 확인하는 목록 파일 (AssetPipeline이 생성)
+     */
+    private static final String ASSET_MANIFEST = "asset-manifest.json";
+
+    /**
+     * 내용 해시 이름 파일의 캐시 기간 (내용이 바뀌면 이름이 바뀌므로 만료 전에 갱신할 필요가 없음)
+     */
+    private static final Duration HASHED_ASSET_MAX_AGE = Duration.ofDays(365);
+
     /**
      * 리소스 핸들러 경로 (URL 패턴)
      * 애플리케이션 프로퍼티에서 주입됩니다.
@@ -37,16 +58,76 @@ public class WebConfig implements WebMvcConfigurer {
     @Value("${custom.static-location:file:///C:/Users/master/workspace/dropAnd/adi_test/html5/}")
     private String staticLocation;
 
+    /**
+     * 빌드 시 묶고 해시 이름을 붙이고 사전 압축한 정적 자원 위치 (메이븐 빌드의 build-assets 실행 결과)
+     * 비워 두거나 빌드 결과가 없으면 staticLocation의 원본 파일을 그대로 제공합니다.
+     */
+    @Value("${custom.asset-location:classpath:/html5-dist/}")
+    private String assetLocation;
+
+    /**
+     * Server-Timing 측정에 핸들러 시작과 직렬화 구간을 표시하는 인터셉터
+     */
+    private final ServerTimingAdvice serverTimingAdvice;
+
+    private final ResourceLoader resourceLoader;
+
+    /**
+     * 생성자 주입 방식의 의존성 주입
+     *
+     * @param serverTimingAdvice Server-Timing 구간 표시 인터셉터
+     * @param resourceLoader 빌드된 정적 자원 존재 여부 확인용 리소스 로더
+     */
+    public WebConfig(ServerTimingAdvice serverTimingAdvice, ResourceLoader resourceLoader) {
+        this.serverTimingAdvice = serverTimingAdvice;
+        this.resourceLoader = resourceLoader;
+    }
+
     /**
      * 정적 리소스 핸들러 추가 메소드
      * 커스텀 정적 리소스 위치를 설정합니다.
      * 
+     * 빌드된 정적 자원이 있으면:
+     * - assets/ 아래 내용 해시 이름 파일은 1년 immutable 캐시로 제공 (브라우저가 재검증 요청도 보내지 않음)
+     * - HTML 등 원본 이름 파일은 no-cache로 제공 (매번 Last-Modified로 재검증, 바뀌지 않았으면 304)
+     * - 둘 다 Accept-Encoding에 따라 사전 압축한 .br, .gz 파일을 Content-Encoding과 함께 제공
+     * 
      * @param registry ResourceHandlerRegistry 객체 - 리소스 핸들러 등록에 사용됩니다.
      */
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        if (assetLocation.isEmpty() || !resourceLoader.getResource(assetLocation + ASSET_MANIFEST).exists()) {
+            log.info("빌드된 정적 자원 없음 - 원본 위치에서 제공: {}", staticLocation);
+            registry.addResourceHandler(resourceHandler)
+                    .addResourceLocations(staticLocation);
+            return;
+        }
+        if (!resourceHandler.endsWith("/**")) {
+            throw new IllegalArgumentException("custom.resource-handler must end with /**: " + resourceHandler);
+        }
+        log.info("빌드된 정적 자원 제공: {}", assetLocation);
+        String assetHandler = resourceHandler.substring(0, resourceHandler.length() - 2) + "assets/**";
+        registry.addResourceHandler(assetHandler)
+                .addResourceLocations(assetLocation + "assets/")
+                .setCacheControl(CacheControl.maxAge(HASHED_ASSET_MAX_AGE).immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
         registry.addResourceHandler(resourceHandler)
-                .addResourceLocations(staticLocation);
+                .addResourceLocations(assetLocation)
+                .setCacheControl(CacheControl.noCache())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
+    }
+
+    /**
+     * 인터셉터 등록 메소드
+     * Server-Timing의 인증 단계 끝과 직렬화 끝을 기록하는 인터셉터를 모든 핸들러에 적용합니다.
+     *
+     * @param registry InterceptorRegistry 객체
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(serverTimingAdvice);
     }
 
     /*
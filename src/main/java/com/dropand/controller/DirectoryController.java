@@ -1,19 +1,51 @@
 package com.dropand.controller;
 
 import com.dropand.domain.Directory;
+import com.dropand.dto.DirectoryChangeDto;
+import com.dropand.dto.DirectoryArchiveResultDto;
+import com.dropand.dto.DirectoryChangesDto;
+import com.dropand.dto.DirectoryColumnsDto;
+import com.dropand.dto.DirectoryDeleteResultDto;
 import com.dropand.dto.DirectoryDto;
+import com.dropand.dto.DirectoryImportResultDto;
+import com.dropand.dto.DirectoryMoveDto;
 import com.dropand.dto.DirectoryOrderDto;
+import com.dropand.dto.DirectoryTreeDto;
+import com.dropand.dto.DirectoryPageDto;
 import com.dropand.dto.MoveDirectoryRequest;
 import com.dropand.dto.CreateDirectoryRequest;
+import com.dropand.service.DirectoryConflictException;
+import com.dropand.service.DirectoryChangeFeed;
+import com.dropand.service.DirectoryChangeLog;
 import com.dropand.service.DirectoryService;
+import com.dropand.service.DirectoryTreeArchive;
+import com.dropand.service.DirectoryTreeExporter;
+import com.dropand.service.DirectoryTreeImporter;
+import com.dropand.service.DirectoryVersionTracker;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 디렉토리 관련 REST API를 처리하는 컨트롤러
@@ -23,6 +55,10 @@ import java.util.List;
  * 2. 디렉토리 트리 구조 조회 API
  * 3. 디렉토리 이동 API
  * 4. 요청/응답 데이터 변환 및 검증
+ * 5. 조회 API의 조건부 요청(ETag / If-None-Match) 처리
+ * 6. 트리/자식 목록 조회의 열 형식 바이너리 응답 (Accept: application/cbor 또는 application/x-jackson-smile)
+ * 7. 중첩 JSON 트리 또는 CSV 목록의 일괄 가져오기 API
+ * 8. 전체 트리의 바이너리 아카이브 내려받기/서버 파일 저장 API (시작 시 복원용)
  * 
  * @RestController 어노테이션:
  * - @Controller + @ResponseBody 조합과 동일합니다.
@@ -36,9 +72,14 @@ import java.util.List;
  * @CrossOrigin 어노테이션:
  * - CORS(Cross-Origin Resource Sharing) 설정을 제공합니다.
  * - 다른 도메인에서의 API 접근을 허용합니다.
+ * 
+ * @Timed 어노테이션:
+ * - 모든 핸들러 메소드의 실행 시간을 directory.controller 타이머(method 태그)로 기록합니다.
+ * - 스트리밍 응답(SSE, 내보내기)은 핸들러가 반환할 때까지만 측정됩니다.
  */
 
 @RestController
+@Timed("directory.controller")
 @RequestMapping("/api/directories")
 @CrossOrigin(
     origins = "*",
@@ -58,6 +99,20 @@ public class DirectoryController {
      * 로그 출력 및 디버깅에 사용됩니다.
      */
     private static final Logger log = LoggerFactory.getLogger(DirectoryController.class);
+
+    /**
+     * Smile(바이너리 JSON) 미디어 타입 (MappingJackson2SmileHttpMessageConverter가 처리)
+     */
+    static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    /**
+     * CSV 미디어 타입 (일괄 가져오기 본문)
+     */
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
     
     /**
      * 디렉토리 서비스 객체
@@ -65,14 +120,61 @@ public class DirectoryController {
      */
     private final DirectoryService directoryService;
 
+    /**
+     * 디렉토리 트리 버전 객체
+     * 조회 API의 ETag 값을 제공합니다.
+     */
+    private final DirectoryVersionTracker versionTracker;
+
+    /**
+     * 디렉토리 트리 스트리밍 내보내기 객체
+     */
+    private final DirectoryTreeExporter treeExporter;
+
+    /**
+     * 디렉토리 트리 일괄 가져오기 객체
+     */
+    private final DirectoryTreeImporter treeImporter;
+
+    /**
+     * 디렉토리 트리 아카이브 객체
+     */
+    private final DirectoryTreeArchive treeArchive;
+
+    /**
+     * 디렉토리 변경 피드 객체
+     */
+    private final DirectoryChangeFeed changeFeed;
+
+    /**
+     * 디렉토리 변경 로그 객체
+     */
+    private final DirectoryChangeLog changeLog;
+
     /**
      * 생성자 주입 방식의 의존성 주입
-     * 스프링이 DirectoryService 빈을 자동으로 주입합니다.
+     * 스프링이 DirectoryService, DirectoryVersionTracker, DirectoryTreeExporter, DirectoryTreeImporter,
+     * DirectoryTreeArchive, DirectoryChangeFeed, DirectoryChangeLog 빈을 자동으로 주입합니다.
      * 
      * @param directoryService 디렉토리 서비스 객체
+     * @param versionTracker 디렉토리 트리 버전 객체
+     * @param treeExporter 디렉토리 트리 스트리밍 내보내기 객체
+     * @param treeImporter 디렉토리 트리 일괄 가져오기 객체
+     * @param treeArchive 디렉토리 트리 아카이브 객체
+     * @param changeFeed 디렉토리 변경 피드 객체
+     * @param changeLog 디렉토리 변경 로그 객체
      */
-    public DirectoryController(DirectoryService directoryService) {
+    public DirectoryController(DirectoryService directoryService, DirectoryVersionTracker versionTracker,
+                               DirectoryTreeExporter treeExporter, DirectoryTreeImporter treeImporter,
+                               DirectoryTreeArchive treeArchive, DirectoryChangeFeed changeFeed,
+                               DirectoryChangeLog changeLog) {
         this.directoryService = directoryService;
+        this.versionTracker = versionTracker;
+        this.treeExporter = treeExporter;
+        this.treeImporter = treeImporter;
+        this.treeArchive = treeArchive;
+        this.changeFeed = changeFeed;
+        this.changeLog = changeLog;
         log.info("DirectoryController 초기화됨");
     }
 
@@ -84,14 +186,19 @@ public class DirectoryController {
      * - HTTP GET 요청을 이 메소드에 매핑합니다.
      * - produces: 응답의 컨텐츠 타입을 지정합니다(여기서는 JSON).
      * 
+     * @param webRequest If-None-Match 헤더 비교에 사용되는 요청 객체
      * @return 전체 디렉토리 목록이 포함된 ResponseEntity 객체
-     *         - 상태 코드: 200 OK
+     *         - 상태 코드: 200 OK (변경이 없으면 304 Not Modified)
      *         - 본문: 디렉토리 DTO 목록(JSON 형식)
      */
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<DirectoryDto>> getAllDirectories() {
+    public ResponseEntity<List<DirectoryDto>> getAllDirectories(WebRequest webRequest) {
         log.debug("전체 디렉토리 목록 조회 요청");
-        return ResponseEntity.ok(directoryService.getAllDirectories());
+        String etag = versionTracker.globalETag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return withETag(etag, directoryService.getAllDirectories());
     }
 
     /**
@@ -100,12 +207,156 @@ public class DirectoryController {
      * @GetMapping 어노테이션:
      * - "/tree" 경로에 대한 GET 요청을 이 메소드에 매핑합니다.
      * 
-     * @return 디렉토리 트리 구조가 포함된 ResponseEntity 객체
+     * @RequestParam 어노테이션:
+     * - nested=true: 전체 계층을 children으로 중첩한 트리를 반환합니다.
+     * - rootId: nested 모드에서 특정 디렉토리의 하위 트리만 반환합니다.
+     * 
+     * @param nested 중첩 트리 반환 여부 (기본값 false: 최상위 목록만 반환)
+     * @param rootId 하위 트리의 루트 디렉토리 ID (선택)
+     * @param webRequest If-None-Match 헤더 비교에 사용되는 요청 객체
+     * @return 디렉토리 트리 구조가 포함된 ResponseEntity 객체 (변경이 없으면 304 Not Modified)
+     */
+    @GetMapping(value = "/tree", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            APPLICATION_SMILE_VALUE})
+    public ResponseEntity<?> getDirectoryTree(
+            @RequestParam(defaultValue = "false") boolean nested,
+            @RequestParam(required = false) Long rootId,
+            WebRequest webRequest) {
+        if (prefersColumns(webRequest)) {
+            return getDirectoryTreeColumns(nested, rootId, webRequest);
+        }
+        log.debug("디렉토리 트리 조회 요청 - nested: {}, rootId: {}", nested, rootId);
+        if (nested || rootId != null) {
+            // 중첩 트리는 모든 깊이의 변경을 포함하므로 전역 버전을 사용
+            String etag = versionTracker.globalETag();
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+            // 기본 직렬화는 children을 재귀로 써서 깊은 트리에서 스택이 넘치므로 반복 순회로 직렬화하는 DTO로 감쌈
+            return withETag(etag, new DirectoryTreeDto(directoryService.getNestedDirectoryTree(rootId)));
+        }
+        String etag = versionTracker.parentETag(null);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return withETag(etag, directoryService.getDirectoryTree());
+    }
+
+    /**
+     * 디렉토리 트리를 열 형식 바이너리로 응답하는 메소드
+     * 
+     * /tree에 Accept: application/cbor(또는 application/x-jackson-smile)를 JSON보다 우선해 요청하면 이 메소드가 처리합니다.
+     * 노드마다 필드 이름을 반복하는 JSON 대신 필드별 병렬 배열과 이름 표(DirectoryColumnsDto)를 보내므로
+     * 전체 트리를 한 번에 불러올 때 응답 크기와 서버의 인코딩 시간이 줄어듭니다.
+     * 매개변수와 포함되는 노드는 JSON 응답과 같습니다.
+     * 
+     * @param nested 중첩 트리 반환 여부 (기본값 false: 최상위 목록만 반환)
+     * @param rootId 하위 트리의 루트 디렉토리 ID (선택)
+     * @param webRequest If-None-Match 헤더 비교에 사용되는 요청 객체
+     * @return 열 형식 디렉토리 목록 (변경이 없으면 304 Not Modified)
+     *         - 상태 코드: 200 OK (성공), 400 Bad Request (존재하지 않는 루트)
+     */
+    private ResponseEntity<?> getDirectoryTreeColumns(boolean nested, Long rootId, WebRequest webRequest) {
+        log.debug("열 형식 디렉토리 트리 조회 요청 - nested: {}, rootId: {}", nested, rootId);
+        String etag = columnsETag(nested || rootId != null ? versionTracker.globalETag() : versionTracker.parentETag(null));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        try {
+            return withETag(etag, directoryService.getDirectoryColumns(rootId, nested));
+        } catch (IllegalArgumentException e) {
+            log.error("열 형식 디렉토리 트리 조회 실패 - 잘못된 요청: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+
+    /**
+     * 디렉토리 변경을 실시간으로 받는 구독 API (Server-Sent Events)
+     * 
+     * SseEmitter:
+     * - 서블릿 비동기 처리로 응답을 열어 둔 채 요청 스레드를 반환하므로,
+     *   대기 중인 구독자는 스레드를 점유하지 않습니다.
+     * 
+     * 이벤트 종류:
+     * - ready: 놓친 변경을 이어 받을 수 없을 때(첫 구독, 변경 로그 정리) 한 번, 데이터는 현재 순번 (전체를 다시 불러옴)
+     * - change: 트랜잭션 하나가 커밋될 때마다, 데이터는 변경 알림(DirectoryChangeDto) JSON 배열
+     * 
+     * 모든 이벤트의 id는 변경 순번이며, 브라우저가 재연결하며 보내는 Last-Event-ID 이후의 변경은
+     * 변경 로그에서 이어서 보냅니다.
+     * 
+     * @param lastEventId 마지막으로 받은 이벤트 id (EventSource가 재연결 시 자동으로 보냄)
+     * @return 이벤트 스트림
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        log.debug("디렉토리 변경 피드 구독 요청 - Last-Event-ID: {}", lastEventId);
+        return changeFeed.subscribe(lastEventId);
+    }
+
+    /**
+     * 특정 순번 이후의 변경 목록을 조회하는 API (델타 동기화)
+     * 
+     * 백그라운드에서 돌아온 탭이나 다시 연결한 클라이언트가 전체 트리 대신 놓친 변경만 받을 때 사용합니다.
+     * 변경 로그가 이미 정리되어 since 이후를 모두 줄 수 없으면 resync: true로 응답하며,
+     * 이 경우 클라이언트는 전체 트리를 다시 불러온 뒤 응답의 seq부터 이어 받으면 됩니다.
+     * 
+     * @param since 클라이언트가 마지막으로 반영한 변경 순번
+     * @return 변경 목록 또는 resync 지시
+     *         - 상태 코드: 200 OK
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<DirectoryChangesDto> getChangesSince(@RequestParam long since) {
+        log.debug("디렉토리 변경 목록 조회 요청 - since: {}", since);
+        List<DirectoryChangeDto> changes = changeLog.since(since);
+        long seq = changes == null ? changeLog.lastSequence()
+                : changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq();
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noStore())
+            .body(new DirectoryChangesDto(changes == null, seq, changes));
+    }
+
+    /**
+     * 전체 트리(또는 하위 트리)를 스트리밍으로 내보내는 API
+     * 
+     * StreamingResponseBody:
+     * - 요청 스레드를 반환한 뒤 별도 스레드에서 응답 본문을 직접 출력 스트림에 씁니다.
+     * - 목록을 만들어 Jackson에 넘기지 않고, 데이터베이스에서 읽은 행을 곧바로 JSON으로 기록하므로
+     *   트리 크기와 관계없이 힙 사용량이 일정하고 조회가 끝나기 전에 첫 바이트가 전송됩니다.
+     * 
+     * 본문은 경로 순서(부모가 항상 자식보다 먼저)의 평면 배열입니다.
+     * 
+     * @param rootId 하위 트리 루트 디렉토리 ID (선택, 생략하면 전체 트리)
+     * @param webRequest If-None-Match 헤더 비교에 사용되는 요청 객체
+     * @return 스트리밍 응답 (변경이 없으면 304 Not Modified)
+     *         - 상태 코드: 200 OK (성공), 400 Bad Request (존재하지 않는 루트)
      */
-    @GetMapping(value = "/tree", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<DirectoryDto>> getDirectoryTree() {
-        log.debug("디렉토리 트리 조회 요청");
-        return ResponseEntity.ok(directoryService.getDirectoryTree());
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTree(@RequestParam(required = false) Long rootId,
+                                                            WebRequest webRequest) {
+        log.debug("디렉토리 트리 내보내기 요청 - rootId: {}", rootId);
+        String etag = versionTracker.globalETag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        DirectoryTreeExporter.Export export;
+        try {
+            export = treeExporter.prepare(rootId);
+        } catch (IllegalArgumentException e) {
+            log.error("디렉토리 트리 내보내기 실패 - 잘못된 요청: {}", e.getMessage());
+            // 반환 타입이 StreamingResponseBody로 고정되므로 오류 본문도 스트림에 직접 씁니다
+            byte[] error = ("{\"error\": \"" + e.getMessage() + "\"}").getBytes(StandardCharsets.UTF_8);
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> out.write(error));
+        }
+        StreamingResponseBody body = out -> treeExporter.write(export, out);
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
     }
 
     /**
@@ -115,13 +366,259 @@ public class DirectoryController {
      * - URL 경로에서 변수 값을 추출합니다.
      * - 여기서는 {parentId} 경로 변수를 매개변수에 바인딩합니다.
      * 
+     * 페이지네이션 (limit 또는 after를 지정한 경우):
+     * - limit: 페이지 크기 (기본 100, 최대 1000)
+     * - after: 이전 응답의 Link 헤더(rel="next")에 담긴 불투명 커서
+     * - count=true: 전체 자식 수를 X-Total-Count 헤더로 반환
+     * 본문은 페이지 없이 조회할 때와 같은 배열이며, 다음 페이지가 있으면 Link 헤더에 다음 페이지 URL이 담깁니다.
+     * limit과 after를 모두 생략하면 기존과 같이 전체 자식 목록을 반환합니다.
+     * 
      * @param parentId 부모 디렉토리 ID
-     * @return 하위 디렉토리 목록이 포함된 ResponseEntity 객체
+     * @param limit 페이지 크기 (선택)
+     * @param after 다음 페이지 커서 (선택)
+     * @param count 전체 자식 수 포함 여부 (기본값 false)
+     * @param webRequest If-None-Match 헤더 비교에 사용되는 요청 객체
+     * @return 하위 디렉토리 목록이 포함된 ResponseEntity 객체 (변경이 없으면 304 Not Modified)
+     *         - 상태 코드: 200 OK (성공), 400 Bad Request (잘못된 커서 또는 limit)
+     */
+    @GetMapping(value = "/{parentId}/children", produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<?> getSubDirectories(
+            @PathVariable Long parentId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean count,
+            WebRequest webRequest) {
+        if (prefersColumns(webRequest)) {
+            return getSubDirectoryColumns(parentId, limit, after, webRequest);
+        }
+        log.debug("하위 디렉토리 조회 요청 - 부모 ID: {}, limit: {}, after: {}", parentId, limit, after);
+        // 페이지 URL마다 응답이 다르지만 조건부 요청은 URL 단위로 비교되므로 같은 부모 버전을 사용
+        String etag = versionTracker.parentETag(parentId);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        if (limit == null && after == null) {
+            return withETag(etag, directoryService.getSubDirectories(parentId));
+        }
+        
+        DirectoryPageDto page;
+        try {
+            page = directoryService.getSubDirectoriesPage(parentId, after, limit, count);
+        } catch (IllegalArgumentException e) {
+            log.error("하위 디렉토리 페이지 조회 실패 - 잘못된 요청: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache());
+        if (page.getNextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", page.getNextCursor())
+                .replaceQueryParam("limit", page.getItems().size())
+                .build()
+                .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        if (page.getTotalCount() != null) {
+            response.header("X-Total-Count", String.valueOf(page.getTotalCount()));
+        }
+        return response.varyBy(HttpHeaders.ACCEPT).body(page.getItems());
+    }
+
+    /**
+     * 특정 부모 디렉토리의 하위 디렉토리 목록을 열 형식 바이너리로 응답하는 메소드
+     * 
+     * /{parentId}/children에 Accept: application/cbor(또는 application/x-jackson-smile)를 JSON보다 우선해 요청하면
+     * 이 메소드가 처리합니다.
+     * 페이지네이션(limit, after)은 JSON 응답에서만 지원합니다.
+     * 
+     * @param parentId 부모 디렉토리 ID
+     * @param limit 지정하면 400 Bad Request
+     * @param after 지정하면 400 Bad Request
+     * @param webRequest If-None-Match 헤더 비교에 사용되는 요청 객체
+     * @return 열 형식 하위 디렉토리 목록 (변경이 없으면 304 Not Modified)
+     *         - 상태 코드: 200 OK (성공), 400 Bad Request (존재하지 않는 부모 또는 페이지네이션 요청)
+     */
+    private ResponseEntity<?> getSubDirectoryColumns(Long parentId, Integer limit, String after, WebRequest webRequest) {
+        log.debug("열 형식 하위 디렉토리 조회 요청 - 부모 ID: {}", parentId);
+        if (limit != null || after != null) {
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"Pagination is only supported for application/json\"}");
+        }
+        String etag = columnsETag(versionTracker.parentETag(parentId));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        try {
+            return withETag(etag, directoryService.getSubDirectoryColumns(parentId));
+        } catch (IllegalArgumentException e) {
+            log.error("열 형식 하위 디렉토리 조회 실패 - 잘못된 요청: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+
+    /**
+     * ETag와 함께 조회 결과를 응답하는 메소드
+     * 
+     * Cache-Control: no-cache를 지정하여 브라우저가 응답을 저장하되 매번 If-None-Match로 재검증하게 합니다.
+     * (지정하지 않으면 Spring Security가 no-store를 추가하여 ETag 재검증이 일어나지 않습니다.)
+     * 같은 URL이 Accept에 따라 JSON 또는 열 형식 바이너리로 응답하므로 Vary: Accept를 함께 보냅니다.
+     * 
+     * @param etag 응답에 사용할 ETag 값
+     * @param body 응답 본문
+     * @return 200 OK ResponseEntity 객체
+     */
+    private <T> ResponseEntity<T> withETag(String etag, T body) {
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache())
+            .varyBy(HttpHeaders.ACCEPT)
+            .body(body);
+    }
+
+    /**
+     * 요청이 JSON보다 열 형식 바이너리(CBOR, Smile)를 원하는지 판단하는 메소드
+     * 
+     * Accept 값을 품질(q)과 구체성 순으로 정렬한 뒤, JSON을 포함하는 타입(application/json, 와일드카드 등)이
+     * 먼저 나오면 JSON, CBOR이나 Smile이 먼저 나오면 열 형식으로 판단합니다.
+     * 따라서 Accept가 없거나 와일드카드뿐인 기존 클라이언트는 계속 JSON을 받습니다.
+     * 
+     * @param webRequest 요청 객체
+     * @return 열 형식으로 응답해야 하면 true
+     */
+    private static boolean prefersColumns(WebRequest webRequest) {
+        String accept = webRequest.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || (!accept.contains("cbor") && !accept.contains("smile"))) {
+            return false;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.includes(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+            if (type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR) || type.equalsTypeAndSubtype(APPLICATION_SMILE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 열 형식 응답의 ETag를 만드는 메소드
+     * 같은 버전이라도 JSON 응답과 다른 표현이므로 ETag를 구분합니다.
+     * 
+     * @param etag JSON 응답의 ETag 값 (따옴표 포함)
+     * @return 열 형식 응답의 ETag 값
+     */
+    private static String columnsETag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-columns\"";
+    }
+
+    /**
+     * 디렉토리 트리를 일괄로 가져오는 API
+     * 
+     * 요청 본문을 파싱하면서 바로 JDBC 배치로 INSERT 하므로 노드마다 POST /api/directories를 보내는 것보다
+     * 요청, 트랜잭션, 엔티티 생성 비용이 들지 않습니다. 가져오기 전체가 하나의 트랜잭션이라 오류가 나면 아무것도 남지 않습니다.
+     * 
+     * 본문 형식 (Content-Type):
+     * - application/json: 중첩 트리 [{"name": "문서", "children": [{"name": "기술 문서"}]}]
+     *   또는 id/parentId를 가진 평면 목록 (/export 응답 포함)
+     * - text/csv: id,parentId,name[,order] (charset 파라미터가 없으면 UTF-8)
+     * 
+     * 사용 예:
+     *   curl -X POST -H 'Content-Type: text/csv' --data-binary @tree.csv '/api/directories/import?parentId=1'
+     * 
+     * @param parentId 가져온 트리를 붙일 부모 디렉토리 ID (선택, 생략하면 최상위)
+     * @param contentType 요청 본문 형식
+     * @param body 요청 본문 스트림
+     * @return 가져온 디렉토리 수와 처리 시간 또는 오류 메시지가 포함된 ResponseEntity 객체
+     *         - 상태 코드: 200 OK (성공), 400 Bad Request (존재하지 않는 부모, 잘못된 입력)
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, TEXT_CSV_VALUE},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importDirectories(@RequestParam(required = false) Long parentId,
+                                               @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                               InputStream body) {
+        try {
+            DirectoryImportResultDto result;
+            if (TEXT_CSV.isCompatibleWith(contentType)) {
+                Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+                result = treeImporter.importCsv(new InputStreamReader(body, charset), parentId);
+            } else {
+                result = treeImporter.importJson(body, parentId);
+            }
+            log.info("디렉토리 가져오기 요청 처리 완료 - 부모 ID: {}, 디렉토리 수: {}", parentId, result.getImportedCount());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            log.error("디렉토리 가져오기 실패 - 잘못된 요청: {}", e.getMessage());
+            // 입력 내용(이름, JSON 파서 메시지)이 오류 메시지에 들어가므로 문자열 연결 대신 맵으로 직렬화
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("디렉토리 가져오기 중 오류 발생", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", "디렉토리 가져오기에 실패했습니다: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 전체 트리를 바이너리 아카이브로 내려받는 API
+     * 
+     * /export와 같이 데이터베이스에서 읽은 행을 곧바로 응답 스트림에 기록합니다.
+     * 내려받은 파일을 다른 노드의 directory.archive.file 위치에 두면 persistent 프로필로 시작할 때 복원됩니다.
+     * 
+     * @return 스트리밍 응답 (application/octet-stream, 첨부 파일)
+     *         - 상태 코드: 200 OK
      */
-    @GetMapping(value = "/{parentId}/children", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<DirectoryDto>> getSubDirectories(@PathVariable Long parentId) {
-        log.debug("하위 디렉토리 조회 요청 - 부모 ID: {}", parentId);
-        return ResponseEntity.ok(directoryService.getSubDirectories(parentId));
+    @GetMapping(value = "/archive", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> downloadArchive() {
+        log.debug("디렉토리 아카이브 내려받기 요청");
+        StreamingResponseBody body = out -> treeArchive.write(out);
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noStore())
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(treeArchive.file().getFileName().toString()).build().toString())
+            .body(body);
+    }
+
+    /**
+     * 전체 트리를 서버의 아카이브 파일(directory.archive.file)에 저장하는 API
+     * 
+     * 임시 파일에 모두 쓴 뒤 교체하므로 저장 중 실패해도 기존 아카이브는 그대로 남습니다.
+     * 
+     * @return 저장한 파일, 디렉토리 수, 크기, 처리 시간 또는 오류 메시지가 포함된 ResponseEntity 객체
+     *         - 상태 코드: 200 OK (성공), 500 Internal Server Error (파일 쓰기 실패)
+     */
+    @PostMapping(value = "/archive", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> saveArchive() {
+        try {
+            DirectoryArchiveResultDto result = treeArchive.save();
+            log.info("디렉토리 아카이브 저장 요청 처리 완료 - 디렉토리 수: {}", result.getDirectoryCount());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("디렉토리 아카이브 저장 중 오류 발생", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", "디렉토리 아카이브 저장에 실패했습니다: " + e.getMessage()));
+        }
     }
 
     /**
@@ -194,14 +691,15 @@ public class DirectoryController {
      * - URL 경로에서 변수 값을 추출합니다.
      * 
      * @param id 삭제할 디렉토리의 ID
-     * @return 삭제 성공 여부를 나타내는 ResponseEntity 객체
+     * @return 삭제 결과를 나타내는 ResponseEntity 객체
      *         - 상태 코드: 200 OK (성공적으로 삭제됨)
-     *         - 본문: 없음(void)
+     *         - 본문: 삭제된 디렉토리 ID와 삭제된 행 수(하위 디렉토리 포함)
      */
-    @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteDirectory(@PathVariable Long id) {
-        directoryService.deleteDirectory(id);
-        return ResponseEntity.ok().build();
+    @DeleteMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DirectoryDeleteResultDto> deleteDirectory(@PathVariable Long id) {
+        int deletedCount = directoryService.deleteDirectory(id);
+        log.debug("디렉토리 삭제 요청 처리 완료 - ID: {}, 삭제된 행 수: {}", id, deletedCount);
+        return ResponseEntity.ok(new DirectoryDeleteResultDto(id, deletedCount));
     }
 
     /**
@@ -211,28 +709,52 @@ public class DirectoryController {
      * @PostMapping 어노테이션:
      * - "/{id}/move" 경로에 대한 POST 요청을 이 메소드에 매핑합니다.
      * 
+     * 위치 지정 방법:
+     * - beforeId / afterId: 해당 형제 바로 앞/뒤로 이동 (이동한 행 하나만 갱신)
+     * - sortOrder: 정렬 키를 직접 지정
+     * - 모두 생략: 새 부모의 맨 뒤로 이동
+     * 
      * @param id 이동할 디렉토리의 ID
-     * @param request 이동할 대상 디렉토리의 ID와 정렬 순서 정보가 포함된 요청 객체
-     * @return 이동 성공 여부를 나타내는 ResponseEntity 객체
+     * @param request 이동할 대상 디렉토리의 ID와 위치 정보가 포함된 요청 객체
+     * @return 이동 성공 여부 또는 오류 메시지가 포함된 ResponseEntity 객체
      */
     @PostMapping("/{id}/move")
-    public ResponseEntity<Void> moveDirectory(
+    public ResponseEntity<?> moveDirectory(
             @PathVariable Long id,
             @RequestBody MoveDirectoryRequest request) {
-        if (request.getSortOrder() == null) {
-            List<DirectoryDto> siblings = request.getParentId() == null ?
-                directoryService.getDirectoryTree() :
-                directoryService.getSubDirectories(request.getParentId());
-            
-            int maxSortOrder = siblings.stream()
-                .mapToInt(DirectoryDto::getSortOrder)
-                .max()
-                .orElse(0);
-            request.setSortOrder(maxSortOrder + 1);
+        try {
+            directoryService.moveDirectory(id, request.getParentId(), request.getSortOrder(),
+                request.getBeforeId(), request.getAfterId(), request.getVersion());
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException e) {
+            log.error("디렉토리 이동 실패 - 잘못된 요청: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+
+    /**
+     * 여러 디렉토리를 한 번에 이동하는 API
+     * 다중 선택 드래그 앤 드롭 결과를 하나의 요청, 하나의 트랜잭션으로 처리합니다.
+     * 
+     * @PostMapping 어노테이션:
+     * - "/move" 경로에 대한 POST 요청을 이 메소드에 매핑합니다.
+     * 
+     * @param moves 이동 항목 목록 (디렉토리 ID, 새 부모 ID, 삽입 위치)
+     * @return 이동 후 대상 부모별 자식 목록 또는 오류 메시지가 포함된 ResponseEntity 객체
+     *         - 상태 코드: 200 OK (성공), 400 Bad Request (잘못된 항목, 순환 이동)
+     */
+    @PostMapping(value = "/move", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> moveDirectories(@RequestBody List<DirectoryMoveDto> moves) {
+        try {
+            return ResponseEntity.ok(directoryService.moveDirectories(moves));
+        } catch (IllegalArgumentException e) {
+            log.error("디렉토리 일괄 이동 실패 - 잘못된 요청: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
         }
-        
-        directoryService.moveDirectory(id, request.getParentId(), request.getSortOrder());
-        return ResponseEntity.ok().build();
     }
 
     /**
@@ -242,13 +764,20 @@ public class DirectoryController {
      * @PutMapping 어노테이션:
      * - "/order" 경로에 대한 PUT 요청을 이 메소드에 매핑합니다.
      * 
-     * @param orderList 순서를 업데이트할 디렉토리 목록
-     * @return 업데이트 성공 여부를 나타내는 ResponseEntity 객체
+     * @param orderList 순서를 업데이트할 디렉토리 목록 (parentId는 최종 부모, 생략하면 현재 부모 유지, 최상위는 root: true)
+     * @return 업데이트 성공 여부 또는 오류 메시지가 포함된 ResponseEntity 객체
      */
     @PutMapping("/order")
-    public ResponseEntity<Void> updateDirectoryOrder(@RequestBody List<DirectoryOrderDto> orderList) {
-        directoryService.updateDirectoryOrder(orderList);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<?> updateDirectoryOrder(@RequestBody List<DirectoryOrderDto> orderList) {
+        try {
+            directoryService.updateDirectoryOrder(orderList);
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException e) {
+            log.error("디렉토리 순서 업데이트 실패 - 잘못된 요청: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
     }
 
     /**
@@ -256,15 +785,46 @@ public class DirectoryController {
      * RESTful API 설계 원칙에 따라 리소스 상태 변경에 PUT을 사용합니다.
      * 
      * @param id 이동할 디렉토리의 ID
-     * @param orderDto 이동 정보(부모 ID와 정렬 순서)가 포함된 DTO
-     * @return 이동 성공 여부를 나타내는 ResponseEntity 객체
+     * @param orderDto 이동 정보(부모 ID와 정렬 순서)가 포함된 DTO (부모 ID를 생략하면 현재 부모 유지, 최상위는 root: true)
+     * @return 이동 성공 여부 또는 오류 메시지가 포함된 ResponseEntity 객체
+     *         - 상태 코드: 200 OK (성공), 400 Bad Request (존재하지 않는 부모, 순환 이동)
      */
     @PutMapping("/{id}/move")
-    public ResponseEntity<Void> moveDirectoryPut(
+    public ResponseEntity<?> moveDirectoryPut(
             @PathVariable Long id,
             @RequestBody DirectoryOrderDto orderDto) {
-        orderDto.setId(id);
-        directoryService.updateDirectoryOrder(List.of(orderDto));
-        return ResponseEntity.ok().build();
+        try {
+            orderDto.setId(id);
+            directoryService.updateDirectoryOrder(List.of(orderDto));
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException e) {
+            log.error("디렉토리 이동 실패 - 잘못된 요청: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+
+    /**
+     * 디렉토리 동시 수정 충돌을 처리하는 메소드
+     * 
+     * @ExceptionHandler 어노테이션:
+     * - 이 컨트롤러의 어떤 API에서든 DirectoryConflictException이 발생하면 이 메소드가 응답을 만듭니다.
+     * 
+     * 클라이언트가 보낸 버전이 오래되었거나 자동 재시도로도 충돌이 해결되지 않은 경우이므로,
+     * 클라이언트가 화면을 다시 그릴 수 있도록 충돌한 디렉토리의 현재 상태를 함께 반환합니다.
+     * 
+     * @param e 충돌 예외
+     * @return 409 Conflict와 오류 메시지, 현재 상태(current, 삭제된 경우 null)
+     */
+    @ExceptionHandler(DirectoryConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleConflict(DirectoryConflictException e) {
+        log.warn("디렉토리 동시 수정 충돌: {}", e.getMessage());
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", e.getMessage());
+        body.put("current", e.getCurrent());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
     }
-} 
\ No newline at end of file
+}
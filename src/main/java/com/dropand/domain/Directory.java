@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.Hibernate;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -28,7 +29,10 @@ import java.util.List;
  */
 
 @Entity
-@Table(name = "directories")
+@Table(name = "directories", indexes = {
+    @Index(name = "idx_directories_path", columnList = "path"),
+    @Index(name = "idx_directories_parent_sort", columnList = "parent_id, sort_order, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -38,13 +42,52 @@ import java.util.List;
     property = "id"
 )
 public class Directory {
+    /**
+     * 경로 컬럼의 최대 길이
+     * 깊은 트리(수천 단계)에서도 ID 경로를 저장할 수 있도록 여유 있게 설정합니다.
+     *
+     * 경로는 단계마다 "ID/"가 붙으므로 최대 깊이는 ID 자릿수에 따라 정해집니다.
+     * 6자리 ID만으로 이루어진 사슬이면 약 9,300단계, 7자리이면 약 8,190단계입니다.
+     * 이 길이를 넘게 되는 생성, 이동, 가져오기는 실행하지 않고 IllegalArgumentException(400)으로 거부합니다 (checkPathLength).
+     */
+    public static final int PATH_MAX_LENGTH = 65535;
+
+    /**
+     * 경로 구분자
+     */
+    public static final char PATH_SEPARATOR = '/';
+
+    /**
+     * 형제 사이 정렬 키의 기본 간격
+     * 새 디렉토리는 마지막 키 + 간격으로, 두 형제 사이로의 이동은 두 키의 중간값으로 배치되므로
+     * 같은 위치에 연속으로 16번 끼워 넣을 때까지는 이동한 행 하나만 갱신됩니다.
+     */
+    public static final long SORT_KEY_GAP = 1L << 16;
+
+    /**
+     * ID 시퀀스 이름
+     */
+    public static final String ID_SEQUENCE = "directories_seq";
+
+    /**
+     * 시퀀스 값 하나로 미리 확보하는 ID 수 (시퀀스의 INCREMENT BY와 같아야 함)
+     * pooled-lo 방식이므로 시퀀스 값 V를 받으면 [V, V + 50) 범위를 데이터베이스 왕복 없이 사용합니다.
+     * 일괄 가져오기(DirectoryTreeImporter)도 같은 규칙으로 ID를 확보하므로 두 경로의 ID가 겹치지 않습니다.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     /**
      * 디렉토리의 고유 식별자(기본 키)
      * @Id: 이 필드가 기본 키임을 나타냅니다.
      * @GeneratedValue: 기본 키 생성 전략을 지정합니다.
+     * 
+     * IDENTITY(자동 증가) 대신 시퀀스를 사용합니다. IDENTITY는 INSERT를 실행해야 ID를 알 수 있어
+     * 하이버네이트가 INSERT 배치를 끄고 행마다 즉시 실행하지만, 시퀀스는 저장(persist) 시점에 ID가 정해지므로
+     * INSERT가 flush 때 JDBC 배치로 묶입니다. 일괄 가져오기도 같은 시퀀스에서 ID를 미리 확보해 JDBC 배치로 INSERT 합니다.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     
     /**
@@ -56,18 +99,32 @@ public class Directory {
     private String name;
     
     /**
-     * 디렉토리 경로
-     * 전체 경로 정보를 저장합니다.
+     * 디렉토리 경로 (ID 기반 구체화 경로)
+     * 루트부터 자기 자신까지의 ID를 "/1/3/7/" 형태로 저장합니다.
+     * 이름 대신 ID를 사용하므로 이름 변경 시 갱신이 필요 없고,
+     * 인덱스된 접두사 범위 검색으로 하위 트리 전체를 한 번에 조회할 수 있습니다.
      */
-    @Column(nullable = false)
+    @Column(nullable = false, length = PATH_MAX_LENGTH)
     private String path;
     
     /**
-     * 디렉토리 정렬 순서
+     * 디렉토리 정렬 순서 (간격을 둔 정렬 키)
      * 같은 부모 아래에서의 표시 순서를 결정합니다.
+     * 값 자체는 연속적이지 않으며, 형제 사이의 대소 관계만 의미가 있습니다.
      */
     @Column(name = "sort_order", nullable = false)
-    private Integer sortOrder = 0;
+    private Long sortOrder = 0L;
+    
+    /**
+     * 낙관적 잠금(optimistic locking) 버전
+     * @Version: 엔티티를 UPDATE 할 때마다 하이버네이트가 값을 1씩 올리고,
+     * "WHERE id = ? AND version = ?" 조건으로 갱신하여 그 사이에 다른 트랜잭션이 같은 행을 바꿨다면
+     * 행 잠금 없이 충돌(OptimisticLockException)을 감지합니다.
+     * 엔티티를 거치지 않는 일괄 UPDATE(경로 교체, JDBC 배치)도 이 값을 함께 올립니다.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
     
     /**
      * 부모 디렉토리
@@ -85,9 +142,10 @@ public class Directory {
      * @OneToMany: 일대다 관계를 나타냅니다 (하나의 디렉토리가 여러 자식을 가질 수 있음).
      * mappedBy: 양방향 관계에서 관계의 주인을 지정합니다.
      * cascade: 부모 엔티티의 상태 변화가 자식 엔티티에 전파되는 방식을 지정합니다.
-     * orphanRemoval: 부모와의 연관관계가 끊어진 자식 엔티티를 자동으로 삭제합니다.
+     * orphanRemoval은 사용하지 않습니다: 이동 시 이전 부모의 목록에서 빠진 디렉토리가
+     * 고아로 간주되어 삭제되지 않도록 하고, 하위 트리 삭제는 경로 기반 일괄 삭제로 처리합니다.
      */
-    @OneToMany(mappedBy = "parent", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(mappedBy = "parent", cascade = CascadeType.ALL)
     @OrderBy("sortOrder ASC")
     @JsonManagedReference
     private List<Directory> children = new ArrayList<>();
@@ -99,7 +157,7 @@ public class Directory {
      * @param parent 부모 디렉토리 (null인 경우 루트 디렉토리)
      * @param sortOrder 정렬 순서
      */
-    public Directory(String name, Directory parent, Integer sortOrder) {
+    public Directory(String name, Directory parent, Long sortOrder) {
         this.name = name;
         this.parent = parent;
         this.sortOrder = sortOrder;
@@ -155,10 +213,18 @@ public class Directory {
      * 정렬 순서를 반환하는 메소드
      * @return 디렉토리 정렬 순서
      */
-    public Integer getSortOrder() {
+    public Long getSortOrder() {
         return sortOrder;
     }
 
+    /**
+     * 낙관적 잠금 버전을 반환하는 메소드
+     * @return 엔티티 버전
+     */
+    public Long getVersion() {
+        return version;
+    }
+
     /**
      * 부모 디렉토리를 반환하는 메소드
      * @return 부모 디렉토리 객체
@@ -203,7 +269,7 @@ public class Directory {
      * 정렬 순서를 설정하는 메소드
      * @param sortOrder 설정할 정렬 순서
      */
-    public void setSortOrder(Integer sortOrder) {
+    public void setSortOrder(Long sortOrder) {
         this.sortOrder = sortOrder;
     }
 
@@ -211,11 +277,15 @@ public class Directory {
      * 부모 디렉토리를 설정하는 메소드
      * 양방향 연관관계를 유지합니다.
      * 
+     * 부모의 자식 목록이 아직 로딩되지 않았다면(지연 로딩) 건드리지 않습니다.
+     * 목록을 동기화하려고 형제 전체를 SELECT 하지 않도록 하며, 로딩되지 않은 목록은
+     * 나중에 접근할 때 데이터베이스의 최신 상태로 채워집니다.
+     * 
      * @param parent 설정할 부모 디렉토리
      */
     public void setParent(Directory parent) {
         // 이전 부모와의 관계 제거
-        if (this.parent != null && this.parent.getChildren() != null) {
+        if (this.parent != null && this.parent.getChildren() != null && Hibernate.isInitialized(this.parent.getChildren())) {
             this.parent.getChildren().remove(this);
         }
 
@@ -223,7 +293,7 @@ public class Directory {
         this.parent = parent;
 
         // 새로운 부모의 자식 목록에 추가
-        if (parent != null && parent.getChildren() != null) {
+        if (parent != null && parent.getChildren() != null && Hibernate.isInitialized(parent.getChildren())) {
             if (!parent.getChildren().contains(this)) {
                 parent.getChildren().add(this);
             }
@@ -243,7 +313,7 @@ public class Directory {
             throw new IllegalArgumentException("디렉토리 이름은 필수입니다.");
         }
         if (sortOrder == null) {
-            sortOrder = 0;
+            sortOrder = 0L;
         }
     }
 
@@ -258,6 +328,71 @@ public class Directory {
         return parent != null ? parent.getId() : null;
     }
 
+    /**
+     * 부모 경로와 ID로 자식 디렉토리의 경로를 계산하는 메소드
+     *
+     * @param parentPath 부모 디렉토리 경로 (null인 경우 루트 디렉토리)
+     * @param id 자식 디렉토리 ID
+     * @return "/부모경로/ID/" 형태의 경로
+     */
+    public static String childPath(String parentPath, Long id) {
+        String base = parentPath != null ? parentPath : String.valueOf(PATH_SEPARATOR);
+        return base + id + PATH_SEPARATOR;
+    }
+
+    /**
+     * 경로 길이가 최대 길이를 넘지 않는지 검사하는 메소드
+     *
+     * @param length 저장하려는 경로의 길이
+     * @throws IllegalArgumentException 최대 길이를 넘는 경우 발생
+     */
+    public static void checkPathLength(long length) {
+        if (length > PATH_MAX_LENGTH) {
+            throw new IllegalArgumentException("Directory tree too deep: path would be " + length
+                    + " characters, the limit is " + PATH_MAX_LENGTH);
+        }
+    }
+
+    /**
+     * 하위 트리 범위 검색의 상한값을 계산하는 메소드
+     * 경로는 숫자와 구분자('/')로만 이루어지므로, 마지막 구분자를 그 다음 문자('0')로 바꾼 값은
+     * 해당 경로로 시작하는 모든 문자열보다 크고 그 외의 형제 경로보다는 작습니다.
+     * 따라서 [path, upperBound) 범위 조건은 LIKE 'path%'와 같지만 항상 인덱스 범위 검색으로 실행됩니다.
+     *
+     * @param path 하위 트리 루트의 경로
+     * @return 범위 검색의 상한값 (미포함)
+     */
+    public static String subtreeUpperBound(String path) {
+        return path.substring(0, path.length() - 1) + (char) (PATH_SEPARATOR + 1);
+    }
+
+    /**
+     * 이 디렉토리가 주어진 디렉토리의 조상(또는 자기 자신)인지 확인하는 메소드
+     * 경로 접두사 비교만으로 판단하므로 부모를 따라 올라가는 추가 조회가 필요 없습니다.
+     *
+     * @param other 비교할 디렉토리
+     * @return 이 디렉토리가 other 자신이거나 조상이면 true
+     */
+    public boolean isSelfOrAncestorOf(Directory other) {
+        return path != null && other.getPath() != null && other.getPath().startsWith(path);
+    }
+
+    /**
+     * 경로로부터 트리 깊이를 계산하는 메소드 (루트 디렉토리는 1)
+     *
+     * @param path 디렉토리 경로
+     * @return 트리 깊이
+     */
+    public static int depthOf(String path) {
+        int depth = -1;
+        for (int i = 0; i < path.length(); i++) {
+            if (path.charAt(i) == PATH_SEPARATOR) {
+                depth++;
+            }
+        }
+        return depth;
+    }
+
     /**
      * 디렉토리 정보를 문자열로 변환하는 메소드
      * 디버깅 및 로깅에 유용합니다.
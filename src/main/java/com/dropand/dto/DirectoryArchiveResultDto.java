@@ -0,0 +1,43 @@
+package com.dropand.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 디렉토리 트리 아카이브 저장/복원 결과 DTO 클래스
+ *
+ * 주요 기능:
+ * 1. 아카이브 파일 경로 전달
+ * 2. 저장(또는 복원)한 디렉토리 수와 파일 크기 전달
+ * 3. 처리 시간 전달
+ *
+ * @Getter, @Setter: Lombok이 자동으로 getter, setter 메서드를 생성합니다.
+ * @NoArgsConstructor, @AllArgsConstructor: Lombok이 생성자를 자동 생성합니다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectoryArchiveResultDto {
+    /**
+     * 아카이브 파일 경로
+     */
+    private String file;
+
+    /**
+     * 저장(또는 복원)한 디렉토리 수
+     */
+    private long directoryCount;
+
+    /**
+     * 아카이브 파일 크기 (바이트)
+     */
+    private long sizeBytes;
+
+    /**
+     * 처리 시간 (밀리초)
+     */
+    private long elapsedMillis;
+}
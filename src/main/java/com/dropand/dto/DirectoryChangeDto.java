@@ -0,0 +1,68 @@
+package com.dropand.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 디렉토리 변경 알림 DTO 클래스
+ *
+ * 주요 기능:
+ * 1. 커밋된 디렉토리 변경 하나를 실시간 변경 피드(SSE)로 전달
+ * 2. 변경 후 위치(부모, 정렬 순서)와 이름을 함께 담아 클라이언트가 다시 조회하지 않고 화면을 고칠 수 있게 함
+ *
+ * 삭제 알림에는 id와 parentId만 담기며, 값이 없는 필드는 직렬화에서 제외됩니다.
+ * seq는 변경 로그(DirectoryChangeLog)가 붙인 순번으로, 델타 동기화 요청(since)에 그대로 사용합니다.
+ *
+ * @Getter, @Setter: Lombok이 자동으로 getter, setter 메서드를 생성합니다.
+ * @NoArgsConstructor, @AllArgsConstructor: Lombok이 생성자를 자동 생성합니다.
+ * @JsonInclude(NON_NULL): null인 필드는 JSON에 포함하지 않습니다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DirectoryChangeDto {
+    /**
+     * 변경 로그 순번 (커밋 순서대로 단조 증가)
+     */
+    private Long seq;
+
+    /**
+     * 변경 유형 (created, moved, renamed, reordered, deleted)
+     */
+    private String type;
+
+    /**
+     * 변경된 디렉토리 ID
+     */
+    private Long id;
+
+    /**
+     * 변경 후 부모 디렉토리 ID (null인 경우 최상위)
+     */
+    private Long parentId;
+
+    /**
+     * 변경 전 부모 디렉토리 ID (다른 부모로 이동한 경우에만 포함)
+     */
+    private Long previousParentId;
+
+    /**
+     * 디렉토리 이름 (삭제 알림에서는 제외)
+     */
+    private String name;
+
+    /**
+     * 변경 후 정렬 순서 (삭제 알림에서는 제외)
+     */
+    private Long sortOrder;
+
+    /**
+     * 변경 후 낙관적 잠금 버전 (삭제 알림에서는 제외)
+     */
+    private Long version;
+}
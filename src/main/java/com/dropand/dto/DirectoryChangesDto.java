@@ -0,0 +1,44 @@
+package com.dropand.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * 델타 동기화 응답 DTO 클래스
+ *
+ * 주요 기능:
+ * 1. 요청한 순번 이후의 변경 목록 전달
+ * 2. 변경 로그가 이미 정리되어 이어 받을 수 없는 경우 전체 다시 불러오기(resync) 지시
+ *
+ * resync가 true이면 changes는 생략되며, 클라이언트는 전체 트리를 다시 불러온 뒤 seq부터 이어 받으면 됩니다.
+ *
+ * @Getter, @Setter: Lombok이 자동으로 getter, setter 메서드를 생성합니다.
+ * @NoArgsConstructor, @AllArgsConstructor: Lombok이 생성자를 자동 생성합니다.
+ * @JsonInclude(NON_NULL): null인 필드는 JSON에 포함하지 않습니다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DirectoryChangesDto {
+    /**
+     * 전체 다시 불러오기 필요 여부
+     */
+    private boolean resync;
+
+    /**
+     * 응답 시점의 마지막 변경 순번 (다음 요청의 since 값)
+     */
+    private long seq;
+
+    /**
+     * 순번 오름차순 변경 목록 (resync인 경우 null)
+     */
+    private List<DirectoryChangeDto> changes;
+}
@@ -0,0 +1,153 @@
+package com.dropand.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 디렉토리 목록의 열(column) 형식 응답 DTO 클래스
+ *
+ * 주요 기능:
+ * 1. 노드마다 필드 이름을 반복하는 DirectoryDto 배열 대신, 필드별 병렬 배열로 노드 목록을 전달
+ * 2. 이름은 중복을 제거한 이름 표(names)에 한 번만 담고 노드는 표의 인덱스(nameIndexes)만 가짐
+ *
+ * 배열 구조 (노드 i의 정보는 모든 배열의 i번째 칸):
+ * - ids[i]: 디렉토리 ID
+ * - parents[i]: 부모 노드의 배열 인덱스 (응답에 부모가 없으면 -1)
+ * - sortOrders[i], versions[i], childCounts[i]: 정렬 순서, 낙관적 잠금 버전, 하위 디렉토리 수
+ * - names[nameIndexes[i]]: 디렉토리 이름
+ *
+ * 노드는 전위 순서(부모가 항상 자식보다 앞, 형제는 정렬 순서대로)로 담기므로 한 번의 순회로 트리를 조립할 수 있습니다.
+ * CBOR(application/cbor)나 Smile(application/x-jackson-smile)로 직렬화하면 작은 정수가 1~3바이트로 기록되어
+ * 같은 목록의 JSON보다 크기와 인코딩 시간이 크게 줄어듭니다. 브라우저 디코더는 js_html5/directoryColumns.js 참고.
+ *
+ * @Getter, @Setter: Lombok이 자동으로 getter, setter 메서드를 생성합니다.
+ * @NoArgsConstructor, @AllArgsConstructor: Lombok이 생성자를 자동 생성합니다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectoryColumnsDto {
+    /**
+     * 노드 수
+     */
+    private int count;
+
+    private long[] ids;
+
+    private int[] parents;
+
+    private long[] sortOrders;
+
+    private long[] versions;
+
+    private int[] childCounts;
+
+    /**
+     * 중복을 제거한 이름 표
+     */
+    private String[] names;
+
+    private int[] nameIndexes;
+
+    /**
+     * 중첩 DTO 트리(또는 평면 목록)를 전위 순서로 펼쳐 열 형식으로 바꾸는 메소드
+     * children이 채워진 노드는 자식까지 함께 담고, childCount는 DTO 값을 그대로 사용합니다.
+     *
+     * @param roots 최상위 노드 목록
+     * @return 열 형식 DTO
+     */
+    public static DirectoryColumnsDto of(List<DirectoryDto> roots) {
+        Builder builder = new Builder(roots.size());
+        List<DirectoryDto> stack = new ArrayList<>();
+        List<Integer> stackParents = new ArrayList<>();
+        for (int i = roots.size() - 1; i >= 0; i--) {
+            stack.add(roots.get(i));
+            stackParents.add(-1);
+        }
+        while (!stack.isEmpty()) {
+            DirectoryDto node = stack.remove(stack.size() - 1);
+            int parentIndex = stackParents.remove(stackParents.size() - 1);
+            int index = builder.add(node.id, parentIndex, node.sortOrder != null ? node.sortOrder : 0L,
+                    node.version != null ? node.version : 0L, (int) node.childCount, node.name);
+            if (node.children != null) {
+                for (int i = node.children.size() - 1; i >= 0; i--) {
+                    stack.add(node.children.get(i));
+                    stackParents.add(index);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * 열 형식 DTO를 노드 단위로 채우는 빌더 (이름 표 중복 제거 포함)
+     */
+    public static final class Builder {
+        private final Map<String, Integer> nameTable = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+        private long[] ids;
+        private int[] parents;
+        private long[] sortOrders;
+        private long[] versions;
+        private int[] childCounts;
+        private int[] nameIndexes;
+        private int count;
+
+        /**
+         * @param capacity 예상 노드 수 (넘으면 배열을 늘림)
+         */
+        public Builder(int capacity) {
+            int initial = Math.max(capacity, 16);
+            ids = new long[initial];
+            parents = new int[initial];
+            sortOrders = new long[initial];
+            versions = new long[initial];
+            childCounts = new int[initial];
+            nameIndexes = new int[initial];
+        }
+
+        /**
+         * 노드 하나를 추가하는 메소드
+         *
+         * @return 추가한 노드의 배열 인덱스 (자식의 parentIndex로 사용)
+         */
+        public int add(long id, int parentIndex, long sortOrder, long version, int childCount, String name) {
+            if (count == ids.length) {
+                int grown = count * 2;
+                ids = Arrays.copyOf(ids, grown);
+                parents = Arrays.copyOf(parents, grown);
+                sortOrders = Arrays.copyOf(sortOrders, grown);
+                versions = Arrays.copyOf(versions, grown);
+                childCounts = Arrays.copyOf(childCounts, grown);
+                nameIndexes = Arrays.copyOf(nameIndexes, grown);
+            }
+            Integer nameIndex = nameTable.putIfAbsent(name, names.size());
+            if (nameIndex == null) {
+                nameIndex = names.size();
+                names.add(name);
+            }
+            ids[count] = id;
+            parents[count] = parentIndex;
+            sortOrders[count] = sortOrder;
+            versions[count] = version;
+            childCounts[count] = childCount;
+            nameIndexes[count] = nameIndex;
+            return count++;
+        }
+
+        public DirectoryColumnsDto build() {
+            return new DirectoryColumnsDto(count, Arrays.copyOf(ids, count), Arrays.copyOf(parents, count),
+                    Arrays.copyOf(sortOrders, count), Arrays.copyOf(versions, count), Arrays.copyOf(childCounts, count),
+                    names.toArray(new String[0]), Arrays.copyOf(nameIndexes, count));
+        }
+    }
+}
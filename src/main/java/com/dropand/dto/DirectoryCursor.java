@@ -0,0 +1,64 @@
+package com.dropand.dto;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * 자식 목록 키셋 페이지네이션 커서
+ *
+ * 주요 기능:
+ * 1. 페이지의 마지막 항목 위치(정렬 순서, ID)를 불투명한 문자열로 인코딩
+ * 2. 클라이언트가 보낸 커서 문자열을 검증하고 디코딩
+ *
+ * 커서는 두 long 값을 URL 안전 Base64로 인코딩한 값이며, 클라이언트는 내용을 해석하지 않고 그대로 돌려보냅니다.
+ * 다음 페이지는 (정렬 순서, ID)가 커서보다 큰 항목부터 시작하므로 OFFSET과 달리
+ * 페이지 위치와 관계없이 인덱스 탐색 한 번으로 시작 위치를 찾습니다.
+ *
+ * @param sortOrder 마지막 항목의 정렬 순서
+ * @param id 마지막 항목의 ID
+ */
+public record DirectoryCursor(long sortOrder, long id) {
+
+    private static final int ENCODED_BYTES = Long.BYTES * 2;
+
+    /**
+     * 디렉토리 DTO의 위치로 커서를 만드는 메소드
+     *
+     * @param directory 페이지의 마지막 항목
+     * @return 커서
+     */
+    public static DirectoryCursor of(DirectoryDto directory) {
+        return new DirectoryCursor(directory.sortOrder != null ? directory.sortOrder : 0L, directory.id);
+    }
+
+    /**
+     * 커서를 불투명한 문자열로 인코딩하는 메소드
+     *
+     * @return URL 안전 Base64 문자열 (패딩 없음)
+     */
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES).putLong(sortOrder).putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * 커서 문자열을 디코딩하는 메소드
+     *
+     * @param value 커서 문자열
+     * @return 커서
+     * @throws IllegalArgumentException 형식이 올바르지 않은 경우 발생
+     */
+    public static DirectoryCursor decode(String value) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+        if (bytes.length != ENCODED_BYTES) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new DirectoryCursor(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,32 @@
+package com.dropand.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 디렉토리 삭제 결과 DTO 클래스
+ * 
+ * 주요 기능:
+ * 1. 삭제 요청의 대상 디렉토리 ID 전달
+ * 2. 하위 디렉토리를 포함해 실제로 삭제된 행 수 전달
+ * 
+ * @Getter, @Setter: Lombok이 자동으로 getter, setter 메서드를 생성합니다.
+ * @NoArgsConstructor, @AllArgsConstructor: Lombok이 생성자를 자동 생성합니다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectoryDeleteResultDto {
+    /**
+     * 삭제 요청된 디렉토리 ID
+     */
+    private Long id;
+
+    /**
+     * 삭제된 디렉토리 수 (자기 자신과 모든 하위 디렉토리 포함)
+     */
+    private int deletedCount;
+}
@@ -1,5 +1,9 @@
 package com.dropand.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
 /**
  * 디렉토리 데이터 전송 객체(DTO)
  * 
@@ -29,7 +33,14 @@ public class DirectoryDto {
      * 정렬 순서
      * 같은 부모 아래에서의 표시 순서를 결정합니다.
      */
-    public Integer sortOrder;
+    public Long sortOrder;
+    
+    /**
+     * 낙관적 잠금 버전
+     * 이동/순서 변경 요청에 함께 보내면, 그 사이 다른 사용자가 변경한 경우 409 Conflict로 응답합니다.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Long version;
     
     /**
      * 하위 디렉토리 포함 여부
@@ -37,6 +48,19 @@ public class DirectoryDto {
      */
     public boolean hasChildren;
     
+    /**
+     * 하위 디렉토리 개수
+     * 목록 조회 시 집계 쿼리로 함께 계산됩니다.
+     */
+    public long childCount;
+    
+    /**
+     * 하위 디렉토리 목록
+     * 중첩 트리 조회 시에만 채워지며, 평면 목록 조회나 잎 노드에서는 null로 두어 직렬화에서 제외됩니다.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public List<DirectoryDto> children;
+    
     /**
      * 기본 생성자
      */
@@ -50,16 +74,40 @@ public class DirectoryDto {
      * @param name 디렉토리 이름
      * @param parentId 부모 디렉토리 ID
      * @param sortOrder 정렬 순서
+     * @param version 낙관적 잠금 버전
      * @param hasChildren 하위 디렉토리 포함 여부
      */
-    public DirectoryDto(Long id, String name, Long parentId, Integer sortOrder, boolean hasChildren) {
+    public DirectoryDto(Long id, String name, Long parentId, Long sortOrder, Long version, boolean hasChildren) {
         this.id = id;
         this.name = name;
         this.parentId = parentId;
         this.sortOrder = sortOrder;
+        this.version = version;
         this.hasChildren = hasChildren;
     }
     
+    /**
+     * 집계 쿼리 결과를 매핑하는 생성자
+     * JPQL 생성자 표현식(SELECT new ...)에서 사용되며,
+     * 자식 개수로부터 하위 디렉토리 포함 여부를 함께 계산합니다.
+     * 
+     * @param id 디렉토리 ID
+     * @param name 디렉토리 이름
+     * @param parentId 부모 디렉토리 ID
+     * @param sortOrder 정렬 순서
+     * @param version 낙관적 잠금 버전
+     * @param childCount 하위 디렉토리 개수
+     */
+    public DirectoryDto(Long id, String name, Long parentId, Long sortOrder, Long version, Long childCount) {
+        this.id = id;
+        this.name = name;
+        this.parentId = parentId;
+        this.sortOrder = sortOrder;
+        this.version = version;
+        this.childCount = childCount != null ? childCount : 0L;
+        this.hasChildren = this.childCount > 0;
+    }
+    
     /**
      * 디렉토리 ID를 반환하는 메소드
      * 
@@ -94,14 +142,22 @@ public class DirectoryDto {
         this.parentId = parentId;
     }
     
-    public Integer getSortOrder() {
+    public Long getSortOrder() {
         return sortOrder;
     }
     
-    public void setSortOrder(Integer sortOrder) {
+    public void setSortOrder(Long sortOrder) {
         this.sortOrder = sortOrder;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public boolean isHasChildren() {
         return hasChildren;
     }
@@ -109,4 +165,20 @@ public class DirectoryDto {
     public void setHasChildren(boolean hasChildren) {
         this.hasChildren = hasChildren;
     }
+    
+    public long getChildCount() {
+        return childCount;
+    }
+    
+    public void setChildCount(long childCount) {
+        this.childCount = childCount;
+    }
+    
+    public List<DirectoryDto> getChildren() {
+        return children;
+    }
+    
+    public void setChildren(List<DirectoryDto> children) {
+        this.children = children;
+    }
 }
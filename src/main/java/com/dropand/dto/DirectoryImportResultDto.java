@@ -0,0 +1,43 @@
+package com.dropand.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 디렉토리 일괄 가져오기 결과 DTO 클래스
+ *
+ * 주요 기능:
+ * 1. 가져온 디렉토리를 붙인 부모 디렉토리 ID 전달
+ * 2. 가져온 디렉토리 수와 그중 최상위(부모 바로 아래) 디렉토리 수 전달
+ * 3. 처리 시간 전달 (파싱, INSERT, 커밋 포함)
+ *
+ * @Getter, @Setter: Lombok이 자동으로 getter, setter 메서드를 생성합니다.
+ * @NoArgsConstructor, @AllArgsConstructor: Lombok이 생성자를 자동 생성합니다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectoryImportResultDto {
+    /**
+     * 가져온 트리를 붙인 부모 디렉토리 ID (null인 경우 최상위)
+     */
+    private Long parentId;
+
+    /**
+     * 가져온 디렉토리 수
+     */
+    private int importedCount;
+
+    /**
+     * 부모 디렉토리 바로 아래에 추가된 디렉토리 수
+     */
+    private int rootCount;
+
+    /**
+     * 처리 시간 (밀리초)
+     */
+    private long elapsedMillis;
+}
@@ -0,0 +1,49 @@
+package com.dropand.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 일괄 이동 요청의 항목 DTO 클래스
+ * 
+ * 주요 기능:
+ * 1. 이동할 디렉토리와 대상 부모 디렉토리 정보 전달
+ * 2. 대상 부모의 자식 목록 안에서 들어갈 위치 전달
+ * 
+ * position은 이동 대상이 아닌 기존 자식들 사이의 0부터 시작하는 삽입 위치입니다.
+ * 같은 부모, 같은 위치를 지정한 항목들은 요청에 나열된 순서대로 배치됩니다.
+ * 
+ * @Getter, @Setter: Lombok이 자동으로 getter, setter 메서드를 생성합니다.
+ * @NoArgsConstructor, @AllArgsConstructor: Lombok이 생성자를 자동 생성합니다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectoryMoveDto {
+    /**
+     * 이동할 디렉토리 ID
+     */
+    private Long id;
+
+    /**
+     * 새 부모 디렉토리 ID (null인 경우 최상위로 이동)
+     */
+    private Long parentId;
+
+    /**
+     * 새 부모의 자식 목록 안에서의 삽입 위치 (null이거나 목록 길이보다 크면 맨 뒤)
+     */
+    private Integer position;
+
+    /**
+     * 클라이언트가 마지막으로 본 디렉토리 버전 (선택, 현재 버전과 다르면 409 Conflict)
+     */
+    private Long version;
+
+    public DirectoryMoveDto(Long id, Long parentId, Integer position) {
+        this(id, parentId, position, null);
+    }
+}
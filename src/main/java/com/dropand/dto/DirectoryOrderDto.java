@@ -10,6 +10,8 @@ import lombok.Setter;
  * 1. 디렉토리 이동 요청 데이터 전달
  * 2. 부모 디렉토리 ID와 정렬 순서 정보 포함
  * 3. API 요청/응답 데이터 매핑
+ *
+ * parentId를 생략하면 현재 부모를 유지합니다. 최상위로 옮기려면 parentId 없이 root를 true로 보냅니다.
  */
 
 @Getter
@@ -17,7 +19,17 @@ import lombok.Setter;
 public class DirectoryOrderDto {
     private Long id;
     private Long parentId;
-    private Integer sortOrder;
+    private Long sortOrder;
+
+    /**
+     * 클라이언트가 마지막으로 본 디렉토리 버전 (선택, 현재 버전과 다르면 409 Conflict)
+     */
+    private Long version;
+
+    /**
+     * 최상위로 이동 (parentId와 함께 지정할 수 없음)
+     */
+    private boolean root;
 
     public Long getId() {
         return id;
@@ -35,11 +47,27 @@ public class DirectoryOrderDto {
         this.parentId = parentId;
     }
 
-    public Integer getSortOrder() {
+    public Long getSortOrder() {
         return sortOrder;
     }
 
-    public void setSortOrder(Integer sortOrder) {
+    public void setSortOrder(Long sortOrder) {
         this.sortOrder = sortOrder;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public boolean isRoot() {
+        return root;
+    }
+
+    public void setRoot(boolean root) {
+        this.root = root;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.dropand.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * 자식 목록 한 페이지 DTO 클래스
+ * 
+ * 주요 기능:
+ * 1. 키셋 페이지네이션으로 조회한 자식 목록 전달
+ * 2. 다음 페이지 커서와 (요청한 경우) 전체 자식 수 전달
+ * 
+ * 컨트롤러는 items를 응답 본문으로, nextCursor와 totalCount를 Link / X-Total-Count 헤더로 내보냅니다.
+ * 
+ * @Getter, @Setter: Lombok이 자동으로 getter, setter 메서드를 생성합니다.
+ * @NoArgsConstructor, @AllArgsConstructor: Lombok이 생성자를 자동 생성합니다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectoryPageDto {
+    /**
+     * (정렬 순서, ID) 순으로 정렬된 자식 디렉토리 목록
+     */
+    private List<DirectoryDto> items;
+
+    /**
+     * 다음 페이지 커서 (마지막 페이지이면 null)
+     */
+    private String nextCursor;
+
+    /**
+     * 부모의 전체 자식 수 (요청하지 않은 경우 null)
+     */
+    private Long totalCount;
+}
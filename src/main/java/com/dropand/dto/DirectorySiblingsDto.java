@@ -0,0 +1,33 @@
+package com.dropand.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * 한 부모 디렉토리의 자식 목록 DTO 클래스
+ * 
+ * 주요 기능:
+ * 1. 일괄 이동 후 영향을 받은 부모별 최종 자식 목록 전달
+ * 
+ * @Getter, @Setter: Lombok이 자동으로 getter, setter 메서드를 생성합니다.
+ * @NoArgsConstructor, @AllArgsConstructor: Lombok이 생성자를 자동 생성합니다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectorySiblingsDto {
+    /**
+     * 부모 디렉토리 ID (null인 경우 최상위 목록)
+     */
+    private Long parentId;
+
+    /**
+     * 정렬 순서대로 정렬된 자식 디렉토리 목록
+     */
+    private List<DirectoryDto> children;
+}
@@ -0,0 +1,93 @@
+package com.dropand.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 중첩 디렉토리 트리 응답 DTO 클래스
+ *
+ * 주요 기능:
+ * 1. children으로 중첩된 DirectoryDto 목록을 JSON 배열로 직렬화
+ * 2. 깊이와 관계없이 같은 호출 스택으로 직렬화 (명시적 스택을 사용하는 반복 순회)
+ *
+ * 기본 직렬화는 children마다 같은 직렬화기를 재귀 호출하므로, 수천 단계 깊이의 트리는
+ * 응답을 쓰는 도중 StackOverflowError로 끊깁니다(이미 200이 나간 뒤라 잘린 JSON을 받게 됨).
+ * 출력 형식은 DirectoryDto의 기본 직렬화와 같습니다 (version, children은 null이면 생략).
+ */
+public class DirectoryTreeDto extends JsonSerializable.Base {
+    /**
+     * 최상위 노드 목록
+     */
+    private final List<DirectoryDto> roots;
+
+    public DirectoryTreeDto(List<DirectoryDto> roots) {
+        this.roots = roots;
+    }
+
+    public List<DirectoryDto> getRoots() {
+        return roots;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        // 쓰는 중인 children 배열마다 남은 형제를 가리키는 반복자 하나
+        Deque<Iterator<DirectoryDto>> stack = new ArrayDeque<>();
+        gen.writeStartArray();
+        stack.push(roots.iterator());
+        while (!stack.isEmpty()) {
+            Iterator<DirectoryDto> siblings = stack.peek();
+            if (!siblings.hasNext()) {
+                stack.pop();
+                gen.writeEndArray();
+                if (!stack.isEmpty()) {
+                    // 다 쓴 children 배열을 가진 부모 객체를 닫음
+                    gen.writeEndObject();
+                }
+                continue;
+            }
+            DirectoryDto node = siblings.next();
+            gen.writeStartObject();
+            writeFields(gen, node);
+            if (node.children != null) {
+                gen.writeArrayFieldStart("children");
+                stack.push(node.children.iterator());
+            } else {
+                gen.writeEndObject();
+            }
+        }
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+
+    private static void writeFields(JsonGenerator gen, DirectoryDto node) throws IOException {
+        writeLong(gen, "id", node.id);
+        gen.writeStringField("name", node.name);
+        writeLong(gen, "parentId", node.parentId);
+        writeLong(gen, "sortOrder", node.sortOrder);
+        if (node.version != null) {
+            gen.writeNumberField("version", node.version);
+        }
+        gen.writeBooleanField("hasChildren", node.hasChildren);
+        gen.writeNumberField("childCount", node.childCount);
+    }
+
+    private static void writeLong(JsonGenerator gen, String field, Long value) throws IOException {
+        if (value != null) {
+            gen.writeNumberField(field, value);
+        } else {
+            gen.writeNullField(field);
+        }
+    }
+}
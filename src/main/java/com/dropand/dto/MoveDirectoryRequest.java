@@ -7,7 +7,25 @@ import lombok.Setter;
 @Setter
 public class MoveDirectoryRequest {
     private Long parentId;
-    private Integer sortOrder;
+    private Long sortOrder;
+
+    /**
+     * 이 형제 디렉토리 바로 앞으로 이동 (선택)
+     * 지정하면 부모는 이 형제의 부모로 결정됩니다.
+     */
+    private Long beforeId;
+
+    /**
+     * 이 형제 디렉토리 바로 뒤로 이동 (선택)
+     * 지정하면 부모는 이 형제의 부모로 결정됩니다.
+     */
+    private Long afterId;
+
+    /**
+     * 클라이언트가 마지막으로 본 디렉토리 버전 (선택)
+     * 현재 버전과 다르면 이동하지 않고 409 Conflict와 현재 상태를 반환합니다.
+     */
+    private Long version;
 
     public Long getParentId() {
         return parentId;
@@ -17,11 +35,35 @@ public class MoveDirectoryRequest {
         this.parentId = parentId;
     }
 
-    public Integer getSortOrder() {
+    public Long getSortOrder() {
         return sortOrder;
     }
 
-    public void setSortOrder(Integer sortOrder) {
+    public void setSortOrder(Long sortOrder) {
         this.sortOrder = sortOrder;
     }
+
+    public Long getBeforeId() {
+        return beforeId;
+    }
+
+    public void setBeforeId(Long beforeId) {
+        this.beforeId = beforeId;
+    }
+
+    public Long getAfterId() {
+        return afterId;
+    }
+
+    public void setAfterId(Long afterId) {
+        this.afterId = afterId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 } 
\ No newline at end of file
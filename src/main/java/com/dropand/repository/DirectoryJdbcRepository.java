@@ -0,0 +1,260 @@
+package com.dropand.repository;
+
+import com.dropand.domain.Directory;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 디렉토리 테이블에 대한 JDBC 일괄(batch) 쓰기 리포지토리
+ * 
+ * 주요 기능:
+ * 1. 여러 하위 트리의 경로 접두사 교체를 하나의 JDBC 배치로 실행
+ * 2. 여러 디렉토리의 부모/정렬 순서 변경을 하나의 JDBC 배치로 실행
+ * 3. 하위 트리 전체를 경로 순서대로 한 행씩 읽는 전진 전용(forward-only) 스트리밍 조회
+ * 4. 일괄 가져오기용 ID 블록 확보와 새 디렉토리 행의 배치 INSERT
+ * 5. 아카이브 복원 후 ID 시퀀스를 복원된 최대 ID 다음 값으로 재시작
+ * 
+ * 엔티티를 로딩하거나 더티 체킹하지 않고 PreparedStatement.addBatch/executeBatch로
+ * 한 번에 전송하므로 항목 수가 늘어나도 데이터베이스 왕복은 배치당 한 번입니다.
+ * JdbcTemplate은 JPA 트랜잭션에 바인딩된 같은 커넥션을 사용하므로 서비스의 @Transactional 안에서 함께 커밋/롤백됩니다.
+ * 이 쿼리들은 영속성 컨텍스트를 거치지 않으므로, 호출한 쪽에서는 이미 로딩된 엔티티를 이후에 사용하지 않아야 합니다.
+ * 
+ * 모든 UPDATE는 Directory의 낙관적 잠금 버전을 함께 올립니다.
+ * 위치 변경은 읽어 둔 버전과 일치할 때만 적용되며, 한 행이라도 일치하지 않으면
+ * ObjectOptimisticLockingFailureException을 던져 트랜잭션 전체를 롤백합니다.
+ */
+@Repository
+public class DirectoryJdbcRepository {
+
+    private static final String REPLACE_PATH_PREFIX_SQL =
+            "UPDATE directories SET path = CONCAT(?, SUBSTRING(path, ?)), version = version + 1 WHERE path >= ? AND path < ?";
+
+    private static final String UPDATE_PLACEMENT_SQL =
+            "UPDATE directories SET parent_id = ?, sort_order = ?, version = version + 1 WHERE id = ? AND version = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO directories (id, name, path, sort_order, version, parent_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String NEXT_ID_BLOCK_SQL = "SELECT NEXT VALUE FOR " + Directory.ID_SEQUENCE;
+
+    private static final String RESTART_ID_SEQUENCE_SQL = "ALTER SEQUENCE " + Directory.ID_SEQUENCE + " RESTART WITH ";
+
+    private static final String STREAM_BY_PATH_SQL =
+            "SELECT id, name, parent_id, sort_order, version FROM directories WHERE path >= ? AND path < ? ORDER BY path";
+
+    /**
+     * 스트리밍 조회 시 드라이버가 한 번에 가져올 행 수
+     */
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final int[] REPLACE_PATH_PREFIX_TYPES = {Types.VARCHAR, Types.INTEGER, Types.VARCHAR, Types.VARCHAR};
+
+    private static final int[] UPDATE_PLACEMENT_TYPES = {Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 생성자 주입 방식의 의존성 주입
+     * 
+     * @param jdbcTemplate JDBC 템플릿 객체
+     */
+    public DirectoryJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 경로 접두사 교체 항목
+     * 
+     * @param oldPath 기존 경로 접두사 (하위 트리 루트의 기존 경로)
+     * @param newPath 새 경로 접두사
+     * @param upper 기존 경로 범위의 상한 (미포함)
+     */
+    public record PathPrefixChange(String oldPath, String newPath, String upper) {
+    }
+
+    /**
+     * 부모/정렬 순서 변경 항목
+     * 
+     * @param id 디렉토리 ID
+     * @param parentId 새 부모 디렉토리 ID (null인 경우 최상위)
+     * @param sortOrder 새 정렬 순서
+     * @param expectedVersion 읽어 둔 낙관적 잠금 버전
+     */
+    public record Placement(Long id, Long parentId, long sortOrder, Long expectedVersion) {
+    }
+
+    /**
+     * 새 디렉토리 행
+     * 
+     * @param id 디렉토리 ID (nextIdBlock으로 확보한 값)
+     * @param name 디렉토리 이름
+     * @param path 구체화 경로
+     * @param sortOrder 정렬 순서
+     * @param version 낙관적 잠금 버전 (새로 만드는 경우 0, 아카이브 복원은 저장된 값)
+     * @param parentId 부모 디렉토리 ID (null인 경우 최상위)
+     */
+    public record NewDirectory(long id, String name, String path, long sortOrder, long version, Long parentId) {
+    }
+
+    /**
+     * ID 시퀀스에서 다음 블록을 확보합니다.
+     * 하이버네이트의 pooled-lo 할당과 같은 규칙으로, 반환값 V부터 V + Directory.ID_ALLOCATION_SIZE - 1까지를
+     * 호출한 쪽이 독점해서 사용할 수 있습니다.
+     * 
+     * @return 확보한 블록의 첫 ID
+     */
+    public long nextIdBlock() {
+        Long first = jdbcTemplate.queryForObject(NEXT_ID_BLOCK_SQL, Long.class);
+        if (first == null) {
+            throw new IllegalStateException("Sequence " + Directory.ID_SEQUENCE + " returned no value");
+        }
+        return first;
+    }
+
+    /**
+     * ID 시퀀스를 주어진 값부터 다시 시작합니다. (ID를 지정해 INSERT한 뒤 시퀀스가 그 ID를 다시 내주지 않게 함)
+     * H2에서 ALTER SEQUENCE는 DDL이라 진행 중인 트랜잭션을 커밋하므로 트랜잭션 밖에서 호출해야 합니다.
+     * 
+     * @param nextId 다음에 확보할 블록의 첫 ID
+     */
+    public void restartIdSequence(long nextId) {
+        jdbcTemplate.execute(RESTART_ID_SEQUENCE_SQL + nextId);
+    }
+
+    /**
+     * 새 디렉토리 행을 하나의 배치로 INSERT 합니다.
+     * 외래 키 검사를 통과하도록 부모 행은 같은 배치의 앞쪽이나 이전 배치에 있어야 합니다.
+     * 
+     * @param rows 새 디렉토리 행 목록
+     */
+    public void batchInsert(List<NewDirectory> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                NewDirectory row = rows.get(i);
+                statement.setLong(1, row.id());
+                statement.setString(2, row.name());
+                statement.setString(3, row.path());
+                statement.setLong(4, row.sortOrder());
+                statement.setLong(5, row.version());
+                if (row.parentId() != null) {
+                    statement.setLong(6, row.parentId());
+                } else {
+                    statement.setNull(6, Types.BIGINT);
+                }
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    /**
+     * 여러 하위 트리의 경로 접두사를 하나의 배치로 교체합니다.
+     * 각 항목의 경로 범위는 서로 겹치지 않아야 합니다.
+     * 
+     * @param changes 경로 접두사 교체 목록
+     * @return 항목별 갱신된 행 수
+     */
+    public int[] batchReplacePathPrefix(List<PathPrefixChange> changes) {
+        if (changes.isEmpty()) {
+            return new int[0];
+        }
+        List<Object[]> args = new ArrayList<>(changes.size());
+        for (PathPrefixChange change : changes) {
+            args.add(new Object[]{change.newPath(), change.oldPath().length() + 1, change.oldPath(), change.upper()});
+        }
+        return jdbcTemplate.batchUpdate(REPLACE_PATH_PREFIX_SQL, args, REPLACE_PATH_PREFIX_TYPES);
+    }
+
+    /**
+     * 여러 디렉토리의 부모와 정렬 순서를 하나의 배치로 변경합니다.
+     * 동시에 실행되는 배치끼리 행 잠금 순서가 엇갈려 교착되지 않도록 항상 ID 오름차순으로 갱신합니다.
+     * 
+     * @param placements 부모/정렬 순서 변경 목록
+     * @return 항목별 갱신된 행 수 (ID 오름차순)
+     * @throws ObjectOptimisticLockingFailureException 읽어 둔 버전과 다른(또는 삭제된) 행이 있는 경우 발생
+     */
+    public int[] batchUpdatePlacement(List<Placement> placements) {
+        if (placements.isEmpty()) {
+            return new int[0];
+        }
+        List<Placement> ordered = new ArrayList<>(placements);
+        ordered.sort(Comparator.comparing(Placement::id));
+        List<Object[]> args = new ArrayList<>(ordered.size());
+        for (Placement placement : ordered) {
+            args.add(new Object[]{placement.parentId(), placement.sortOrder(), placement.id(), placement.expectedVersion()});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_PLACEMENT_SQL, args, UPDATE_PLACEMENT_TYPES);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                throw new ObjectOptimisticLockingFailureException(Directory.class, ordered.get(i).id());
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * 경로 범위 [fromPath, toPath)의 디렉토리를 경로 순서대로 한 행씩 전달합니다.
+     * 
+     * 경로 순서에서는 조상이 항상 자손보다 먼저 나오므로, 받는 쪽은 부모를 먼저 만난 뒤 자식을 처리할 수 있습니다.
+     * 경로 인덱스 순서대로 읽으므로 정렬 단계가 없고, 결과를 목록으로 모으지 않아 메모리 사용량이 행 수와 무관합니다.
+     * H2는 기본적으로 결과 전체를 먼저 만든 뒤 반환하므로, 이 조회 동안만 지연 실행(LAZY_QUERY_EXECUTION)을 켜서
+     * 첫 행이 쿼리 완료 전에 전달되도록 합니다. 커넥션은 풀로 돌아가기 전에 원래 설정으로 되돌립니다.
+     * 
+     * 트랜잭션 밖에서 호출되면 이 조회만을 위한 커넥션을 사용하므로, 처리 중 다른 리포지토리를 호출하지 않아야 합니다.
+     * 
+     * @param fromPath 경로 범위 하한 (포함)
+     * @param toPath 경로 범위 상한 (미포함)
+     * @param handler 행 처리기 (ResultSet의 현재 행만 읽어야 함)
+     */
+    public void streamByPath(String fromPath, String toPath, RowCallbackHandler handler) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            boolean h2 = "H2".equals(connection.getMetaData().getDatabaseProductName());
+            if (h2) {
+                setLazyQueryExecution(connection, true);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    STREAM_BY_PATH_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(STREAM_FETCH_SIZE);
+                statement.setString(1, fromPath);
+                statement.setString(2, toPath);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        handler.processRow(resultSet);
+                    }
+                }
+            } finally {
+                if (h2) {
+                    setLazyQueryExecution(connection, false);
+                }
+            }
+            return null;
+        });
+    }
+
+    private static void setLazyQueryExecution(Connection connection, boolean enabled) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LAZY_QUERY_EXECUTION " + (enabled ? "TRUE" : "FALSE"));
+        }
+    }
+}
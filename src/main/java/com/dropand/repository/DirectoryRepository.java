@@ -1,11 +1,15 @@
 package com.dropand.repository;
 
 import com.dropand.domain.Directory;
+import com.dropand.dto.DirectoryDto;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,13 +30,68 @@ import java.util.Optional;
 public interface DirectoryRepository extends JpaRepository<Directory, Long> {
     
     /**
-     * 특정 부모 디렉토리 아래의 모든 자식 디렉토리를 정렬 순서대로 조회합니다.
-     * 메소드 이름 규칙을 따라 자동으로 쿼리가 생성됩니다.
+     * 디렉토리의 위치 정보만 담는 인터페이스 기반 프로젝션
+     * 일괄 이동처럼 엔티티 없이 위치만 계산하는 작업에서 사용됩니다.
+     * 스프링 데이터 JPA가 쿼리의 별칭(AS)과 getter 이름을 매칭해 구현체를 만듭니다.
+     */
+    interface PlacementView {
+        Long getId();
+        Long getParentId();
+        String getPath();
+        Long getSortOrder();
+        Long getVersion();
+    }
+    
+    /**
+     * 부모별 자식 수 프로젝션
+     */
+    interface ChildCountView {
+        Long getParentId();
+        long getChildCount();
+    }
+    
+    /**
+     * 특정 부모의 자식 목록 중 (정렬 순서, ID)가 커서보다 큰 항목을 순서대로 조회합니다. (키셋 페이지네이션)
+     * 
+     * (parent_id, sort_order, id) 복합 인덱스에서 parent_id 일치 + sort_order 범위로 시작 위치를 찾고
+     * 인덱스 순서대로 읽다가 pageable의 크기만큼 읽으면 멈추므로, 페이지 위치와 관계없이 비용이 페이지 크기에 비례합니다.
+     * ORDER BY에 parent_id를 포함해야 H2가 인덱스 순서를 그대로 사용합니다
+     * (빠지면 부모의 모든 자식을 읽어 정렬한 뒤 자름).
+     * 첫 페이지는 커서로 (Long.MIN_VALUE, Long.MIN_VALUE)를 사용합니다.
+     * 
+     * @param parentId 부모 디렉토리 ID
+     * @param sortOrder 커서의 정렬 순서
+     * @param id 커서의 ID
+     * @param pageable 조회할 최대 행 수 (첫 페이지 기준, 정렬은 쿼리에 고정)
+     * @return 정렬된 자식 디렉토리 DTO 목록 (childCount 제외)
+     */
+    @Query("SELECT new com.dropand.dto.DirectoryDto(d.id, d.name, d.parent.id, d.sortOrder, d.version, false) " +
+           "FROM Directory d " +
+           "WHERE d.parent.id = :parentId AND d.sortOrder >= :sortOrder " +
+           "AND (d.sortOrder > :sortOrder OR d.id > :id) " +
+           "ORDER BY d.parent.id ASC, d.sortOrder ASC, d.id ASC")
+    List<DirectoryDto> findChildPageAfter(@Param("parentId") Long parentId, @Param("sortOrder") long sortOrder,
+                                          @Param("id") long id, Pageable pageable);
+    
+    /**
+     * 여러 부모 디렉토리의 자식 수를 한 번의 쿼리로 집계합니다.
+     * 자식이 없는 부모는 결과에 포함되지 않습니다.
+     * 
+     * @param parentIds 부모 디렉토리 ID 목록
+     * @return 부모별 자식 수
+     */
+    @Query("SELECT d.parent.id AS parentId, COUNT(d.id) AS childCount FROM Directory d " +
+           "WHERE d.parent.id IN :parentIds GROUP BY d.parent.id")
+    List<ChildCountView> countChildrenByParentIdIn(@Param("parentIds") Collection<Long> parentIds);
+    
+    /**
+     * 특정 부모 디렉토리의 자식 수를 조회합니다.
+     * 메소드 이름 규칙을 따라 COUNT 쿼리가 생성되며 parent_id 인덱스만으로 처리됩니다.
      * 
      * @param parentId 부모 디렉토리 ID
-     * @return 정렬된 자식 디렉토리 목록
+     * @return 자식 수
      */
-    List<Directory> findByParent_IdOrderBySortOrderAsc(Long parentId);
+    long countByParent_Id(Long parentId);
     
     /**
      * 최상위 디렉토리(부모가 없는 디렉토리)를 정렬 순서대로 모두 조회합니다.
@@ -59,18 +118,217 @@ public interface DirectoryRepository extends JpaRepository<Directory, Long> {
     boolean hasChildren(@Param("directoryId") Long directoryId);
     
     /**
-     * 특정 부모 디렉토리 아래에서 정렬 순서가 가장 큰(마지막) 디렉토리를 조회합니다.
-     * 새 디렉토리 추가 시 정렬 순서를 결정하는 데 사용됩니다.
+     * 특정 부모 디렉토리의 자식 목록을 자식 개수와 함께 한 번의 쿼리로 조회합니다.
+     * LEFT JOIN + GROUP BY로 각 행의 하위 디렉토리 수를 집계하므로,
+     * 행마다 hasChildren을 따로 조회하던 1+N 쿼리가 발생하지 않습니다.
      * 
      * @param parentId 부모 디렉토리 ID
-     * @return 마지막 정렬 순서를 가진 디렉토리 (없으면 빈 Optional)
+     * @return 정렬된 자식 디렉토리 DTO 목록 (hasChildren, childCount 포함)
+     */
+    @Query("SELECT new com.dropand.dto.DirectoryDto(d.id, d.name, d.parent.id, d.sortOrder, d.version, COUNT(c.id)) " +
+           "FROM Directory d LEFT JOIN d.children c " +
+           "WHERE d.parent.id = :parentId " +
+           "GROUP BY d.id, d.name, d.parent.id, d.sortOrder, d.version " +
+           "ORDER BY d.sortOrder ASC")
+    List<DirectoryDto> findChildSummaries(@Param("parentId") Long parentId);
+    
+    /**
+     * 최상위 디렉토리 목록을 자식 개수와 함께 한 번의 쿼리로 조회합니다.
+     * 
+     * @return 정렬된 최상위 디렉토리 DTO 목록 (hasChildren, childCount 포함)
+     */
+    @Query("SELECT new com.dropand.dto.DirectoryDto(d.id, d.name, d.parent.id, d.sortOrder, d.version, COUNT(c.id)) " +
+           "FROM Directory d LEFT JOIN d.children c " +
+           "WHERE d.parent IS NULL " +
+           "GROUP BY d.id, d.name, d.parent.id, d.sortOrder, d.version " +
+           "ORDER BY d.sortOrder ASC")
+    List<DirectoryDto> findRootSummaries();
+
+    /**
+     * 전체 디렉토리를 정렬 순서대로 한 번의 평면 쿼리로 조회합니다.
+     * 엔티티와 지연 로딩 컬렉션(children)을 만들지 않고 DTO로 바로 매핑하므로
+     * 대용량 테이블에서도 트리 조립에 필요한 데이터만 메모리에 올립니다.
+     * 정렬 순서가 전역으로 정렬되어 있으므로, 같은 부모의 자식들은 등장 순서대로 추가하면 정렬이 유지됩니다.
+     * 
+     * @return 정렬 순서(동일하면 ID) 기준으로 정렬된 전체 디렉토리 DTO 목록
+     */
+    @Query("SELECT new com.dropand.dto.DirectoryDto(d.id, d.name, d.parent.id, d.sortOrder, d.version, false) " +
+           "FROM Directory d ORDER BY d.sortOrder ASC, d.id ASC")
+    List<DirectoryDto> findAllFlatOrdered();
+    
+    /**
+     * 주어진 ID의 디렉토리를 평면 DTO로 조회합니다. (스냅샷에 바뀐 행만 반영할 때 사용)
+     * 
+     * @param ids 디렉토리 ID 목록
+     * @return 디렉토리 DTO 목록 (없는 ID는 빠짐, 순서 보장 없음)
+     */
+    @Query("SELECT new com.dropand.dto.DirectoryDto(d.id, d.name, d.parent.id, d.sortOrder, d.version, false) " +
+           "FROM Directory d WHERE d.id IN :ids")
+    List<DirectoryDto> findFlatByIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * 디렉토리와 그 자손 전체를 평면 DTO로 한 번에 조회합니다. (스냅샷에 바뀐 하위 트리만 반영할 때 사용)
+     * 루트 행의 경로로 범위 [path, Directory.subtreeUpperBound(path))를 만들어 경로 인덱스 범위 검색을 하므로,
+     * 경로를 먼저 조회하는 문 없이 한 번에 읽습니다.
+     * 
+     * @param id 하위 트리 루트 ID
+     * @return 하위 트리 DTO 목록 (디렉토리가 없으면 빈 목록, 순서 보장 없음)
+     */
+    @Query("SELECT new com.dropand.dto.DirectoryDto(d.id, d.name, d.parent.id, d.sortOrder, d.version, false) " +
+           "FROM Directory r, Directory d " +
+           "WHERE r.id = :id AND d.path >= r.path " +
+           "AND d.path < CONCAT(SUBSTRING(r.path, 1, LENGTH(r.path) - 1), '0')")
+    List<DirectoryDto> findSubtreeFlatById(@Param("id") Long id);
+    
+    /**
+     * 디렉토리의 구체화 경로만 조회합니다.
+     * 하위 트리 범위 검색의 기준 경로를 얻을 때 엔티티를 로딩하지 않고 사용합니다.
+     * 
+     * @param id 디렉토리 ID
+     * @return 디렉토리 경로 (없으면 빈 Optional)
+     */
+    @Query("SELECT d.path FROM Directory d WHERE d.id = :id")
+    Optional<String> findPathById(@Param("id") Long id);
+    
+    /**
+     * 경로 범위 [lower, upper)에 속하는 하위 트리에서 가장 긴 경로의 길이를 조회합니다.
+     * 하위 트리를 옮겨 경로가 길어질 때 가장 깊은 자손이 최대 길이를 넘는지 확인하는 데 사용합니다.
+     * 
+     * @param lower 하위 트리 루트의 경로
+     * @param upper 범위 상한 (미포함)
+     * @return 가장 긴 경로의 길이 (범위에 행이 없으면 null)
+     */
+    @Query("SELECT MAX(LENGTH(d.path)) FROM Directory d WHERE d.path >= :lower AND d.path < :upper")
+    Integer findMaxPathLength(@Param("lower") String lower, @Param("upper") String upper);
+    
+    /**
+     * 경로 범위 [lower, upper)에 속하는 하위 트리 전체를 한 번의 인덱스 범위 검색으로 조회합니다.
+     * lower는 하위 트리 루트의 경로, upper는 Directory.subtreeUpperBound(lower)입니다.
+     * 
+     * @param lower 하위 트리 루트 경로 (포함)
+     * @param upper 범위 상한 (미포함)
+     * @return 루트를 포함한 하위 트리의 평면 목록 (정렬 순서, ID 순)
+     */
+    @Query("SELECT new com.dropand.dto.DirectoryDto(d.id, d.name, d.parent.id, d.sortOrder, d.version, false) " +
+           "FROM Directory d WHERE d.path >= :lower AND d.path < :upper " +
+           "ORDER BY d.sortOrder ASC, d.id ASC")
+    List<DirectoryDto> findSubtreeFlatOrdered(@Param("lower") String lower, @Param("upper") String upper);
+    
+    /**
+     * 하위 트리의 자손 경로 접두사를 한 번의 UPDATE로 교체합니다.
+     * 디렉토리 이동 시 모든 자손의 경로를 갱신하는 데 사용됩니다.
+     * 하위 트리 루트 자신(path = oldPath)은 제외되며, 호출한 쪽에서 엔티티로 갱신합니다.
+     * 루트를 여기서 갱신하면 이미 로딩된 엔티티의 버전과 달라져 자기 자신과 충돌하기 때문입니다.
+     * 갱신된 자손의 버전도 올려, 동시에 자손을 옮기려던 다른 트랜잭션이 충돌을 감지하게 합니다.
+     * 
+     * @Modifying 어노테이션:
+     * - 조회가 아닌 변경(UPDATE/DELETE) 쿼리임을 나타냅니다.
+     * - flushAutomatically: 실행 전에 영속성 컨텍스트의 변경사항을 먼저 반영합니다.
+     * 
+     * @param oldPath 기존 경로 접두사 (하위 트리 루트의 기존 경로)
+     * @param newPath 새 경로 접두사
+     * @param upper 기존 경로 범위의 상한 (미포함)
+     * @return 갱신된 행 수
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Directory d SET d.path = CONCAT(:newPath, SUBSTRING(d.path, LENGTH(:oldPath) + 1)), " +
+           "d.version = d.version + 1 " +
+           "WHERE d.path > :oldPath AND d.path < :upper")
+    int replacePathPrefix(@Param("oldPath") String oldPath, @Param("newPath") String newPath, @Param("upper") String upper);
+    
+    /**
+     * 하위 트리 내부의 부모 참조를 한 번의 UPDATE로 모두 끊습니다.
+     * 자기 참조 외래 키 때문에 삭제 순서가 생기지 않도록 일괄 삭제 직전에 실행합니다.
+     * 
+     * @param lower 하위 트리 루트 경로 (포함)
+     * @param upper 범위 상한 (미포함)
+     * @return 갱신된 행 수
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Directory d SET d.parent = NULL, d.version = d.version + 1 WHERE d.path >= :lower AND d.path < :upper")
+    int detachSubtree(@Param("lower") String lower, @Param("upper") String upper);
+    
+    /**
+     * 경로 범위 [lower, upper)에 속하는 하위 트리 전체를 한 번의 DELETE로 삭제합니다.
+     * 
+     * clearAutomatically: 실행 후 영속성 컨텍스트를 비워, 이미 삭제된 엔티티가 다시 사용되지 않도록 합니다.
+     * 
+     * @param lower 하위 트리 루트 경로 (포함)
+     * @param upper 범위 상한 (미포함)
+     * @return 삭제된 행 수
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Directory d WHERE d.path >= :lower AND d.path < :upper")
+    int deleteSubtree(@Param("lower") String lower, @Param("upper") String upper);
+    
+    /**
+     * 같은 부모 아래에서 주어진 키보다 작은 정렬 키 중 가장 큰 값을 조회합니다.
+     * key에 Long.MAX_VALUE를 넘기면 마지막 형제의 키가 됩니다.
+     * 
+     * @param parentId 부모 디렉토리 ID (null인 경우 최상위)
+     * @param key 기준 정렬 키 (미포함)
+     * @param excludeId 제외할 디렉토리 ID (이동 중인 디렉토리 자신, 없으면 null)
+     * @return 바로 앞 형제의 정렬 키 (없으면 빈 Optional)
+     */
+    @Query("SELECT MAX(d.sortOrder) FROM Directory d " +
+           "WHERE (d.parent.id = :parentId OR (:parentId IS NULL AND d.parent IS NULL)) " +
+           "AND d.sortOrder < :key AND (:excludeId IS NULL OR d.id <> :excludeId)")
+    Optional<Long> findPreviousSortKey(@Param("parentId") Long parentId, @Param("key") long key,
+                                       @Param("excludeId") Long excludeId);
+    
+    /**
+     * 같은 부모 아래에서 주어진 키보다 큰 정렬 키 중 가장 작은 값을 조회합니다.
+     * 
+     * @param parentId 부모 디렉토리 ID (null인 경우 최상위)
+     * @param key 기준 정렬 키 (미포함)
+     * @param excludeId 제외할 디렉토리 ID (이동 중인 디렉토리 자신, 없으면 null)
+     * @return 바로 뒤 형제의 정렬 키 (없으면 빈 Optional)
+     */
+    @Query("SELECT MIN(d.sortOrder) FROM Directory d " +
+           "WHERE (d.parent.id = :parentId OR (:parentId IS NULL AND d.parent IS NULL)) " +
+           "AND d.sortOrder > :key AND (:excludeId IS NULL OR d.id <> :excludeId)")
+    Optional<Long> findNextSortKey(@Param("parentId") Long parentId, @Param("key") long key,
+                                   @Param("excludeId") Long excludeId);
+    
+    /**
+     * 여러 디렉토리의 위치 정보를 한 번의 쿼리로 조회합니다.
+     * 
+     * @param ids 디렉토리 ID 목록
+     * @return 위치 정보 목록 (없는 ID는 결과에서 빠짐, 순서 보장 없음)
+     */
+    @Query("SELECT d.id AS id, d.parent.id AS parentId, d.path AS path, d.sortOrder AS sortOrder, d.version AS version " +
+           "FROM Directory d WHERE d.id IN :ids")
+    List<PlacementView> findPlacementsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * 여러 부모 디렉토리의 자식 위치 정보를 한 번의 쿼리로 조회합니다.
+     * 
+     * @param parentIds 부모 디렉토리 ID 목록
+     * @return 정렬 순서(동일하면 ID) 기준으로 정렬된 자식 위치 정보 목록
+     */
+    @Query("SELECT d.id AS id, d.parent.id AS parentId, d.path AS path, d.sortOrder AS sortOrder, d.version AS version " +
+           "FROM Directory d WHERE d.parent.id IN :parentIds ORDER BY d.sortOrder ASC, d.id ASC")
+    List<PlacementView> findChildPlacements(@Param("parentIds") Collection<Long> parentIds);
+    
+    /**
+     * 최상위 디렉토리의 위치 정보를 조회합니다.
+     * 
+     * @return 정렬 순서(동일하면 ID) 기준으로 정렬된 최상위 위치 정보 목록
      */
-    Optional<Directory> findTopByParent_IdOrderBySortOrderDesc(Long parentId);
+    @Query("SELECT d.id AS id, d.parent.id AS parentId, d.path AS path, d.sortOrder AS sortOrder, d.version AS version " +
+           "FROM Directory d WHERE d.parent IS NULL ORDER BY d.sortOrder ASC, d.id ASC")
+    List<PlacementView> findRootPlacements();
     
     /**
-     * 최상위 레벨에서 정렬 순서가 가장 큰(마지막) 디렉토리를 조회합니다.
+     * 여러 부모 디렉토리의 자식 목록을 자식 개수와 함께 한 번의 쿼리로 조회합니다.
      * 
-     * @return 마지막 정렬 순서를 가진 최상위 디렉토리 (없으면 빈 Optional)
+     * @param parentIds 부모 디렉토리 ID 목록
+     * @return 정렬 순서(동일하면 ID) 기준으로 정렬된 자식 디렉토리 DTO 목록 (hasChildren, childCount 포함)
      */
-    Optional<Directory> findTopByParentIsNullOrderBySortOrderDesc();
-} 
\ No newline at end of file
+    @Query("SELECT new com.dropand.dto.DirectoryDto(d.id, d.name, d.parent.id, d.sortOrder, d.version, COUNT(c.id)) " +
+           "FROM Directory d LEFT JOIN d.children c " +
+           "WHERE d.parent.id IN :parentIds " +
+           "GROUP BY d.id, d.name, d.parent.id, d.sortOrder, d.version " +
+           "ORDER BY d.sortOrder ASC, d.id ASC")
+    List<DirectoryDto> findChildSummariesIn(@Param("parentIds") Collection<Long> parentIds);
+}
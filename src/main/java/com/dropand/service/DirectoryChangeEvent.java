@@ -0,0 +1,94 @@
+package com.dropand.service;
+
+/**
+ * 디렉토리 변경 이벤트 클래스
+ *
+ * 주요 기능:
+ * 1. DirectoryService의 쓰기 작업(생성, 이동, 이름 변경, 순서 변경, 삭제) 발생을 알림
+ * 2. 변경된 디렉토리와 영향을 받은 부모 디렉토리 정보 전달
+ *
+ * 서비스는 쓰기 트랜잭션 안에서 ApplicationEventPublisher로 이 이벤트를 발행합니다.
+ * 구독자는 @EventListener로 이벤트를 동기적으로 받아 트랜잭션 리소스에 모아 두고,
+ * 트랜잭션마다 TransactionSynchronization을 한 번 등록해 afterCompletion에서 커밋된 경우에만 반영합니다
+ * (롤백되면 버림, 트랜잭션 밖에서 발행되면 바로 반영).
+ *
+ * 커밋 후 반영 순서는 getOrder()로 고정되어 있습니다:
+ * 1. DirectoryTreeCache (SYNCHRONIZATION_ORDER = 0): 새 스냅샷 공개
+ * 2. DirectoryVersionTracker (+1): 새 스냅샷으로 조부모를 찾아 부모별 버전(ETag) 갱신
+ * 3. DirectoryChangeFeed (+2): DirectoryChangeLog에 기록(새 스냅샷에서 이름, 정렬 키를 읽음)하고 구독자에게 전송
+ * 스냅샷이 먼저 바뀌므로 새 ETag나 변경 알림이 이전 데이터와 함께 나가는 일이 없습니다.
+ */
+public class DirectoryChangeEvent {
+
+    /**
+     * 변경 유형
+     */
+    public enum Type {
+        CREATED,
+        MOVED,
+        RENAMED,
+        REORDERED,
+        DELETED
+    }
+
+    /**
+     * 변경 유형
+     */
+    private final Type type;
+
+    /**
+     * 변경된 디렉토리 ID
+     */
+    private final Long id;
+
+    /**
+     * 변경 후 부모 디렉토리 ID (null인 경우 루트)
+     */
+    private final Long parentId;
+
+    /**
+     * 변경 전 부모 디렉토리 ID (이동이 아닌 경우 parentId와 같음)
+     */
+    private final Long previousParentId;
+
+    /**
+     * 모든 필드를 초기화하는 생성자
+     *
+     * @param type 변경 유형
+     * @param id 변경된 디렉토리 ID
+     * @param parentId 변경 후 부모 디렉토리 ID
+     * @param previousParentId 변경 전 부모 디렉토리 ID
+     */
+    public DirectoryChangeEvent(Type type, Long id, Long parentId, Long previousParentId) {
+        this.type = type;
+        this.id = id;
+        this.parentId = parentId;
+        this.previousParentId = previousParentId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public Long getPreviousParentId() {
+        return previousParentId;
+    }
+
+    @Override
+    public String toString() {
+        return "DirectoryChangeEvent{" +
+            "type=" + type +
+            ", id=" + id +
+            ", parentId=" + parentId +
+            ", previousParentId=" + previousParentId +
+            '}';
+    }
+}
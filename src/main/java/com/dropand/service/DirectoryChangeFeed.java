@@ -0,0 +1,388 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryChangeDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 커밋된 디렉토리 변경을 Server-Sent Events로 구독자에게 보내는 컴포넌트
+ *
+ * 주요 기능:
+ * 1. text/event-stream 구독(SseEmitter) 등록과 해제
+ * 2. 쓰기 트랜잭션이 커밋되면 그 트랜잭션의 변경을 변경 로그에 기록하고 "change" 이벤트 하나로 모든 구독자에게 전송
+ * 3. 다시 연결한 구독자에게 Last-Event-ID 이후의 놓친 변경을 변경 로그에서 이어서 전송
+ * 4. 주기적인 하트비트 주석으로 끊어진 연결을 정리
+ * 5. 받는 속도가 느린 구독자를 다른 구독자와 분리하고, 밀린 이벤트가 한도를 넘으면 연결을 끊음
+ *
+ * SseEmitter는 서블릿 비동기 처리 위에서 동작하므로, 구독 요청은 등록 직후 요청 스레드를 반환하고
+ * 연결만 열어 둡니다. 대기 중인 구독자는 스레드를 점유하지 않습니다.
+ *
+ * SseEmitter.send는 소켓 버퍼가 찰 때까지 쓰는 블로킹 호출이므로, 읽지 않는 클라이언트 하나에 보내는 동안
+ * 그 스레드는 멈춥니다. 그래서 구독자마다 보낼 프레임 큐를 따로 두고, 큐에 보낼 것이 있는 구독자만
+ * 전송 스레드 하나를 잠시 빌려 자기 큐를 비웁니다. 쓰기 요청과 하트비트는 큐에 넣기만 하므로 기다리지 않고,
+ * 멈춘 구독자는 자기 전송 스레드 하나만 붙잡을 뿐 다른 구독자의 전송을 막지 않습니다.
+ * 큐에 밀린 프레임이 directory.events.max-pending을 넘으면 그 구독자를 목록에서 빼고 연결을 닫습니다.
+ * 브라우저 EventSource는 다시 연결하면서 Last-Event-ID를 보내므로 놓친 변경은 변경 로그에서 이어 받습니다.
+ *
+ * 각 이벤트의 id는 담긴 마지막 변경의 순번이므로, 브라우저 EventSource가 재연결 시 보내는
+ * Last-Event-ID만으로 이어 받을 위치가 정해집니다. 이어 받을 수 없으면(첫 구독, 로그 정리, 재시작)
+ * "ready" 이벤트를 보내며, 클라이언트는 이를 받으면 전체를 다시 불러와야 합니다.
+ */
+@Component
+public class DirectoryChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryChangeFeed.class);
+
+    /**
+     * 커밋 후 콜백 실행 순서 (스냅샷 공개와 버전 갱신 이후에 실행)
+     */
+    private static final int SYNCHRONIZATION_ORDER = DirectoryTreeCache.SYNCHRONIZATION_ORDER + 2;
+
+    /**
+     * 하트비트 전송 주기 (프록시의 유휴 연결 종료보다 짧게 유지)
+     */
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(25);
+
+    private final DirectoryChangeLog changeLog;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 구독 연결 유지 시간 (만료되면 브라우저 EventSource가 자동으로 다시 연결)
+     */
+    private final long subscriptionTimeoutMillis;
+
+    /**
+     * 구독자 하나의 큐에 밀려 있을 수 있는 최대 프레임 수 (넘으면 그 구독자의 연결을 닫음)
+     */
+    private final int maxPendingFrames;
+
+    /**
+     * 현재 구독자 목록 (전송 중 순회와 등록/해제가 동시에 일어나므로 쓰기 시 복사 목록 사용)
+     */
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * 하트비트를 예약하는 단일 스레드
+     */
+    private final ScheduledExecutorService dispatcher;
+
+    /**
+     * 구독자별 큐를 비우는 전송 스레드 (보낼 것이 있는 구독자마다 하나씩, 유휴 스레드는 잠시 후 정리됨)
+     */
+    private final ExecutorService sender;
+
+    /**
+     * 변경 기록, 구독 등록과 전송 예약을 직렬화하는 잠금 객체
+     * 새 구독자가 이어 받은 변경과 실시간 변경 사이에 빠지거나 겹치는 변경이 없도록 합니다.
+     */
+    private final Object publishLock = new Object();
+
+    /**
+     * 트랜잭션 리소스 키 (트랜잭션 중 누적된 이벤트 목록)
+     */
+    private final Object pendingKey = new Object();
+
+    /**
+     * 생성자 주입 방식의 의존성 주입
+     *
+     * @param changeLog 변경 로그 (순번 발급과 이어 받기)
+     * @param objectMapper 변경 목록 직렬화에 사용할 ObjectMapper
+     * @param subscriptionTimeout 구독 연결 유지 시간
+     * @param maxPendingFrames 구독자 하나에 밀려 있을 수 있는 최대 프레임 수
+     */
+    public DirectoryChangeFeed(DirectoryChangeLog changeLog,
+                               ObjectMapper objectMapper,
+                               @Value("${directory.events.timeout:30m}") Duration subscriptionTimeout,
+                               @Value("${directory.events.max-pending:256}") int maxPendingFrames) {
+        if (maxPendingFrames < 1) {
+            throw new IllegalArgumentException("directory.events.max-pending must be at least 1");
+        }
+        this.changeLog = changeLog;
+        this.objectMapper = objectMapper;
+        this.subscriptionTimeoutMillis = subscriptionTimeout.toMillis();
+        this.maxPendingFrames = maxPendingFrames;
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "directory-change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger senderThreads = new AtomicInteger();
+        this.sender = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "directory-change-feed-send-" + senderThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher.scheduleWithFixedDelay(this::heartbeat,
+                HEARTBEAT_INTERVAL.toMillis(), HEARTBEAT_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 새 구독을 등록하는 메소드
+     * 마지막으로 받은 순번 이후의 변경을 변경 로그에서 이어 받을 수 있으면 그 변경을 먼저 보내고,
+     * 그렇지 않으면 현재 순번을 담은 "ready" 이벤트를 보냅니다.
+     *
+     * @param lastEventId 클라이언트가 마지막으로 받은 이벤트 id (첫 구독이면 null)
+     * @return 응답으로 반환할 SseEmitter
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(subscriptionTimeoutMillis);
+        register(emitter, lastEventId);
+        return emitter;
+    }
+
+    /**
+     * 만들어진 SseEmitter를 구독자로 등록하는 메소드 (subscribe와 테스트에서 사용)
+     *
+     * @param emitter 등록할 SseEmitter
+     * @param lastEventId 클라이언트가 마지막으로 받은 이벤트 id (첫 구독이면 null)
+     */
+    void register(SseEmitter emitter, Long lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        synchronized (publishLock) {
+            List<DirectoryChangeDto> missed = lastEventId != null ? changeLog.since(lastEventId) : null;
+            long seq = changeLog.lastSequence();
+            SseEmitter.SseEventBuilder first = null;
+            if (missed == null) {
+                first = SseEmitter.event().id(Long.toString(seq)).name("ready").data(seq);
+            } else if (!missed.isEmpty()) {
+                first = changeEvent(seq, missed);
+            }
+            if (first != null) {
+                subscriber.enqueue(first.build());
+            }
+            subscribers.add(subscriber);
+            log.debug("디렉토리 변경 피드 구독 - Last-Event-ID: {}, 이어 받은 변경: {}, 구독자 수: {}",
+                    lastEventId, missed != null ? missed.size() : "resync", subscribers.size());
+        }
+    }
+
+    /**
+     * 현재 구독자 수를 반환하는 메소드
+     *
+     * @return 구독자 수
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * 디렉토리 변경 이벤트를 트랜잭션 단위로 모아 두었다가 커밋 후 한 번에 기록하고 전송합니다.
+     * 롤백된 트랜잭션의 변경은 기록하지 않습니다.
+     *
+     * @param event 디렉토리 변경 이벤트
+     */
+    @EventListener
+    @SuppressWarnings("unchecked")
+    public void onDirectoryChanged(DirectoryChangeEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(Collections.singletonList(event));
+            return;
+        }
+        List<DirectoryChangeEvent> pending = (List<DirectoryChangeEvent>) TransactionSynchronizationManager.getResource(pendingKey);
+        if (pending == null) {
+            List<DirectoryChangeEvent> events = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(pendingKey, events);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return SYNCHRONIZATION_ORDER;
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(pendingKey);
+                    if (status == STATUS_COMMITTED) {
+                        publish(events);
+                    }
+                }
+            });
+            pending = events;
+        }
+        pending.add(event);
+    }
+
+    /**
+     * 커밋된 이벤트 묶음을 변경 로그에 기록하고 현재 구독자의 큐에 넣는 메소드
+     * 직렬화는 호출 스레드에서 한 번만 하고, 구독자별 전송은 전송 스레드에 맡깁니다.
+     * 큐에 넣는 순서는 publishLock으로 정해지므로 구독자마다 순번 순서대로 받습니다.
+     *
+     * @param events 커밋된 디렉토리 변경 이벤트 목록
+     */
+    private void publish(List<DirectoryChangeEvent> events) {
+        synchronized (publishLock) {
+            List<DirectoryChangeDto> changes = changeLog.append(events);
+            if (changes.isEmpty() || subscribers.isEmpty()) {
+                return;
+            }
+            SseEmitter.SseEventBuilder event = changeEvent(changes.get(changes.size() - 1).getSeq(), changes);
+            if (event == null) {
+                return;
+            }
+            // 현재 구독자에게만 보냄 (이후 등록하는 구독자는 변경 로그에서 이어 받음)
+            send(event);
+        }
+    }
+
+    /**
+     * 변경 목록을 "change" 이벤트로 만드는 메소드
+     *
+     * @param seq 이벤트 id로 사용할 마지막 변경 순번
+     * @param changes 변경 목록
+     * @return change 이벤트 (직렬화에 실패하면 null)
+     */
+    private SseEmitter.SseEventBuilder changeEvent(long seq, List<DirectoryChangeDto> changes) {
+        try {
+            String payload = objectMapper.writeValueAsString(changes);
+            return SseEmitter.event().id(Long.toString(seq)).name("change").data(payload, MediaType.APPLICATION_JSON);
+        } catch (JsonProcessingException e) {
+            log.error("디렉토리 변경 피드 직렬화 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 현재 구독자 모두의 큐에 이벤트를 넣는 메소드
+     * 이벤트는 한 번만 만들어 모든 구독자에게 같은 내용을 보냅니다. 큐에 넣기만 하므로 기다리지 않습니다.
+     *
+     * @param event 보낼 이벤트
+     */
+    private void send(SseEmitter.SseEventBuilder event) {
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = event.build();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(frame);
+        }
+    }
+
+    /**
+     * 주석 한 줄을 보내 연결을 유지하고 끊어진 구독자를 정리하는 메소드
+     */
+    private void heartbeat() {
+        if (!subscribers.isEmpty()) {
+            send(SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    /**
+     * 애플리케이션 종료 시 전송 스레드를 멈추고 열린 구독을 닫습니다.
+     */
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * 구독자 하나와 그 구독자에게 보낼 프레임 큐
+     *
+     * 큐에 프레임이 있는 동안에만 전송 스레드 하나가 drain으로 큐를 비웁니다 (draining).
+     * SseEmitter의 send와 complete는 같은 잠금을 쓰므로, send가 멈춘 구독자를 다른 스레드에서 닫으면
+     * 닫는 쪽도 멈춥니다. 그래서 한도를 넘은 구독자는 closed로 표시만 하고, 실제로 닫는 일은
+     * 그 구독자의 전송 스레드가 멈춘 send에서 돌아온 뒤에 합니다.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Deque<Set<ResponseBodyEmitter.DataWithMediaType>> queue = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * 프레임을 큐에 넣고, 큐를 비우는 전송 스레드가 없으면 시작하는 메소드
+         */
+        void enqueue(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (queue.size() >= maxPendingFrames) {
+                    closed = true;
+                    queue.clear();
+                    subscribers.remove(this);
+                    log.warn("디렉토리 변경 피드 구독자가 밀린 이벤트 {}개를 넘어 연결을 닫음 - 구독자 수: {}",
+                            maxPendingFrames, subscribers.size());
+                    return;
+                }
+                queue.add(frame);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // 종료 중
+                synchronized (this) {
+                    draining = false;
+                }
+            }
+        }
+
+        /**
+         * 큐가 빌 때까지 프레임을 순서대로 보내는 메소드 (전송 스레드에서 실행)
+         */
+        private void drain() {
+            while (true) {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame;
+                synchronized (this) {
+                    frame = closed ? null : queue.poll();
+                    if (frame == null) {
+                        draining = false;
+                        if (closed) {
+                            break;
+                        }
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(frame);
+                } catch (IOException | IllegalStateException e) {
+                    synchronized (this) {
+                        closed = true;
+                        queue.clear();
+                        draining = false;
+                    }
+                    subscribers.remove(this);
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+            emitter.completeWithError(new IOException("Subscriber fell more than " + maxPendingFrames + " events behind"));
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryChangeDto;
+import com.dropand.dto.DirectoryDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * 커밋된 디렉토리 변경을 순번과 함께 보관하는 변경 로그 컴포넌트
+ *
+ * 주요 기능:
+ * 1. 커밋된 변경 하나마다 단조 증가하는 순번(seq)을 붙여 기록
+ * 2. 특정 순번 이후의 변경 목록 조회 (다시 연결한 클라이언트의 델타 동기화)
+ * 3. 보관 개수와 보관 기간을 넘은 오래된 변경 정리(압축)
+ *
+ * 로그는 고정 크기 원형 버퍼이므로 메모리 사용량은 보관 개수로 제한됩니다.
+ * 요청한 순번이 이미 정리된 범위이거나 이 프로세스가 발급하지 않은 값이면 null을 반환하며,
+ * 이 경우 클라이언트는 전체 트리를 다시 불러와야 합니다.
+ *
+ * 순번은 시작 시각(마이크로초 단위)에서 출발하므로 재시작 전에 받은 순번은 항상 보관 범위 밖으로 판정됩니다.
+ * 변경 내용은 기록 시점의 스냅샷에서 읽으며, 기록과 순번 발급을 같은 잠금 안에서 하므로
+ * 같은 디렉토리에 대한 변경은 순번이 클수록 최신 상태를 담습니다.
+ */
+@Component
+public class DirectoryChangeLog {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryChangeLog.class);
+
+    private final DirectoryTreeCache directoryTreeCache;
+
+    /**
+     * 보관 중인 변경 (순번 % 용량 위치에 저장)
+     */
+    private final DirectoryChangeDto[] entries;
+
+    /**
+     * 각 변경이 기록된 시각 (밀리초)
+     */
+    private final long[] appendedAt;
+
+    /**
+     * 변경 보관 기간 (밀리초)
+     */
+    private final long maxAgeMillis;
+
+    /**
+     * 마지막으로 발급한 순번
+     */
+    private long lastSequence;
+
+    /**
+     * 보관 중인 변경 수 (가장 오래된 순번 = lastSequence - size + 1)
+     */
+    private int size;
+
+    /**
+     * 생성자 주입 방식의 의존성 주입
+     *
+     * @param directoryTreeCache 변경 후 위치를 읽을 스냅샷 캐시
+     * @param maxEntries 최대 보관 변경 수
+     * @param maxAge 최대 보관 기간
+     */
+    public DirectoryChangeLog(DirectoryTreeCache directoryTreeCache,
+                              @Value("${directory.changes.max-entries:10000}") int maxEntries,
+                              @Value("${directory.changes.max-age:1h}") Duration maxAge) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("directory.changes.max-entries must be at least 1: " + maxEntries);
+        }
+        this.directoryTreeCache = directoryTreeCache;
+        this.entries = new DirectoryChangeDto[maxEntries];
+        this.appendedAt = new long[maxEntries];
+        this.maxAgeMillis = maxAge.toMillis();
+        this.lastSequence = System.currentTimeMillis() * 1000;
+    }
+
+    /**
+     * 한 트랜잭션의 커밋된 변경 이벤트를 기록하는 메소드
+     *
+     * @param events 커밋된 디렉토리 변경 이벤트 목록
+     * @return 순번이 붙은 변경 목록 (이후 트랜잭션에서 이미 삭제된 디렉토리의 변경은 제외)
+     */
+    public synchronized List<DirectoryChangeDto> append(List<DirectoryChangeEvent> events) {
+        DirectoryTreeSnapshot snapshot = directoryTreeCache.snapshot();
+        long now = System.currentTimeMillis();
+        List<DirectoryChangeDto> appended = new ArrayList<>(events.size());
+        for (DirectoryChangeEvent event : events) {
+            DirectoryChangeDto change = toChange(snapshot, event);
+            if (change == null) {
+                continue;
+            }
+            change.setSeq(++lastSequence);
+            int slot = slot(lastSequence);
+            entries[slot] = change;
+            appendedAt[slot] = now;
+            size = Math.min(size + 1, entries.length);
+            appended.add(change);
+        }
+        compact(now);
+        return appended;
+    }
+
+    /**
+     * 주어진 순번 이후의 변경 목록을 반환하는 메소드
+     *
+     * @param sequence 클라이언트가 마지막으로 반영한 순번
+     * @return 순번 오름차순 변경 목록 (변경이 없으면 빈 목록),
+     *         이미 정리된 범위이거나 알 수 없는 순번이면 null (전체 다시 불러오기 필요)
+     */
+    public synchronized List<DirectoryChangeDto> since(long sequence) {
+        compact(System.currentTimeMillis());
+        long oldest = lastSequence - size + 1;
+        if (sequence < oldest - 1 || sequence > lastSequence) {
+            return null;
+        }
+        List<DirectoryChangeDto> changes = new ArrayList<>((int) (lastSequence - sequence));
+        for (long seq = sequence + 1; seq <= lastSequence; seq++) {
+            changes.add(entries[slot(seq)]);
+        }
+        return changes;
+    }
+
+    /**
+     * 마지막으로 발급한 순번을 반환하는 메소드
+     *
+     * @return 마지막 순번 (변경이 없었다면 시작 순번)
+     */
+    public synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * 보관 기간이 지난 변경을 오래된 것부터 정리하는 메소드
+     * 보관 개수를 넘은 변경은 원형 버퍼에서 덮어쓰여 이미 정리된 상태입니다.
+     *
+     * @param now 현재 시각 (밀리초)
+     */
+    private void compact(long now) {
+        int before = size;
+        while (size > 0) {
+            int oldest = slot(lastSequence - size + 1);
+            if (now - appendedAt[oldest] <= maxAgeMillis) {
+                break;
+            }
+            entries[oldest] = null;
+            size--;
+        }
+        if (size < before) {
+            log.debug("디렉토리 변경 로그 정리 - 정리: {}, 보관: {}", before - size, size);
+        }
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % entries.length);
+    }
+
+    /**
+     * 변경 이벤트 하나를 스냅샷 기준의 변경 알림으로 변환하는 메소드
+     *
+     * @param snapshot 커밋 후 스냅샷
+     * @param event 디렉토리 변경 이벤트
+     * @return 변경 알림 (대상 ID가 없거나 이후 트랜잭션에서 이미 삭제된 디렉토리이면 null, 그 삭제가 따로 기록됨)
+     */
+    private static DirectoryChangeDto toChange(DirectoryTreeSnapshot snapshot, DirectoryChangeEvent event) {
+        String type = event.getType().name().toLowerCase(Locale.ROOT);
+        if (event.getType() == DirectoryChangeEvent.Type.DELETED) {
+            return new DirectoryChangeDto(null, type, event.getId(), event.getParentId(), null, null, null, null);
+        }
+        if (event.getId() == null) {
+            return null;
+        }
+        int index = snapshot.indexOf(event.getId());
+        if (index == DirectoryTreeSnapshot.NONE) {
+            return null;
+        }
+        Long previousParentId = Objects.equals(event.getPreviousParentId(), event.getParentId())
+                ? null : event.getPreviousParentId();
+        DirectoryDto node = snapshot.toDto(index);
+        return new DirectoryChangeDto(null, type, node.id, node.parentId, previousParentId,
+                node.name, node.sortOrder, node.version);
+    }
+}
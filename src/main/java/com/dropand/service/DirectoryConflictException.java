@@ -0,0 +1,36 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryDto;
+
+/**
+ * 디렉토리 동시 수정 충돌 예외 클래스
+ *
+ * 주요 기능:
+ * 1. 클라이언트가 보낸 버전이 현재 버전과 다른 경우(다른 사용자가 먼저 변경함)를 알림
+ * 2. 자동 재시도 횟수를 모두 사용해도 충돌이 계속된 경우를 알림
+ * 3. 클라이언트가 화면을 갱신할 수 있도록 충돌한 디렉토리의 현재 상태 전달
+ *
+ * 컨트롤러는 이 예외를 409 Conflict 응답으로 변환합니다.
+ */
+public class DirectoryConflictException extends RuntimeException {
+
+    /**
+     * 충돌한 디렉토리의 현재 상태 (이미 삭제되었거나 알 수 없으면 null)
+     */
+    private final DirectoryDto current;
+
+    /**
+     * 메시지와 현재 상태를 초기화하는 생성자
+     *
+     * @param message 오류 메시지
+     * @param current 충돌한 디렉토리의 현재 상태
+     */
+    public DirectoryConflictException(String message, DirectoryDto current) {
+        super(message);
+        this.current = current;
+    }
+
+    public DirectoryDto getCurrent() {
+        return current;
+    }
+}
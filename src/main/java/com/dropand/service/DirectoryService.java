@@ -1,16 +1,32 @@
 package com.dropand.service;
 
 import com.dropand.domain.Directory;
+import com.dropand.dto.DirectoryColumnsDto;
+import com.dropand.dto.DirectoryCursor;
 import com.dropand.dto.DirectoryDto;
+import com.dropand.dto.DirectoryMoveDto;
 import com.dropand.dto.DirectoryOrderDto;
+import com.dropand.dto.DirectoryPageDto;
+import com.dropand.dto.DirectorySiblingsDto;
+import com.dropand.repository.DirectoryJdbcRepository;
 import com.dropand.repository.DirectoryRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -21,8 +37,12 @@ import java.util.stream.Collectors;
  * - 이 클래스가 스프링의 서비스 레이어 컴포넌트임을 나타냅니다.
  * - 스프링 컨테이너가 이 클래스를 빈으로 등록하고 관리합니다.
  * - 비즈니스 로직을 담당하는 클래스에 사용됩니다.
+ * 
+ * @Timed 어노테이션:
+ * - 외부에서 호출한 public 메소드의 실행 시간(재시도와 커밋 포함)을 directory.service 타이머(method 태그)로 기록합니다.
  */
 @Service
+@Timed("directory.service")
 public class DirectoryService {
     
     /**
@@ -31,78 +51,377 @@ public class DirectoryService {
      */
     private static final Logger log = LoggerFactory.getLogger(DirectoryService.class);
     
+    /**
+     * IN 절 하나에 넣을 최대 ID 수
+     * 너무 긴 IN 목록은 인덱스 조회 대신 전체 행과 목록을 비교하는 실행 계획이 되므로 나누어 조회합니다.
+     */
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+    
+    /**
+     * 이웃한 정렬 키의 간격이 이 값보다 좁아지면 백그라운드 재조정을 예약합니다.
+     */
+    private static final long SORT_KEY_REBALANCE_THRESHOLD = 64;
+    
+    /**
+     * 자식 목록 페이지 크기의 기본값과 최댓값
+     */
+    public static final int DEFAULT_PAGE_LIMIT = 100;
+    public static final int MAX_PAGE_LIMIT = 1000;
+    
     /**
      * 디렉토리 리포지토리 객체
      * 데이터베이스 작업을 처리합니다.
      */
     private final DirectoryRepository directoryRepository;
     
+    /**
+     * 디렉토리 JDBC 일괄 쓰기 리포지토리
+     * 여러 행을 한 번에 변경하는 작업을 JDBC 배치로 처리합니다.
+     */
+    private final DirectoryJdbcRepository directoryJdbcRepository;
+    
+    /**
+     * 정렬 키 재조정 컴포넌트
+     * 형제 사이의 정렬 키 간격이 부족해지면 키를 다시 부여합니다.
+     */
+    private final DirectorySortKeyRebalancer sortKeyRebalancer;
+    
+    /**
+     * 디렉토리 트리 스냅샷 캐시
+     * 읽기 요청을 데이터베이스 대신 메모리 스냅샷으로 처리합니다.
+     */
+    private final DirectoryTreeCache directoryTreeCache;
+    
+    /**
+     * 이벤트 발행기
+     * 쓰기 작업 후 DirectoryChangeEvent를 발행해 스냅샷 등 구독자에게 알립니다.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+    
+    /**
+     * 스냅샷 읽기 사용 여부
+     * false이면 모든 읽기를 데이터베이스 집계 쿼리로 처리합니다.
+     */
+    private final boolean snapshotReads;
+    
+    /**
+     * 쓰기 트랜잭션 템플릿
+     * 낙관적 잠금 충돌 시 트랜잭션 전체를 다시 실행하기 위해 선언적 @Transactional 대신 사용합니다.
+     */
+    private final TransactionTemplate writeTransaction;
+    
+    /**
+     * 충돌 후 현재 상태 조회용 읽기 트랜잭션 템플릿 (쓰기 트랜잭션이 롤백된 뒤에 실행)
+     */
+    private final TransactionTemplate readTransaction;
+    
+    /**
+     * 낙관적 잠금 충돌 시 쓰기 작업의 최대 시도 횟수 (첫 시도 포함)
+     */
+    private final int maxWriteAttempts;
+    
     /**
      * 생성자 주입 방식의 의존성 주입
-     * 스프링이 DirectoryRepository 빈을 자동으로 주입합니다.
+     * 스프링이 필요한 빈과 설정값을 자동으로 주입합니다.
      * 
      * @param directoryRepository 디렉토리 리포지토리 객체
+     * @param directoryJdbcRepository 디렉토리 JDBC 일괄 쓰기 리포지토리
+     * @param sortKeyRebalancer 정렬 키 재조정 컴포넌트
+     * @param directoryTreeCache 디렉토리 트리 스냅샷 캐시
+     * @param eventPublisher 이벤트 발행기
+     * @param transactionManager 트랜잭션 매니저
+     * @param snapshotReads 스냅샷 읽기 사용 여부 (directory.snapshot.enabled, 기본값 true)
+     * @param maxWriteAttempts 충돌 시 쓰기 최대 시도 횟수 (directory.write.max-attempts, 기본값 3)
      */
-    public DirectoryService(DirectoryRepository directoryRepository) {
+    public DirectoryService(DirectoryRepository directoryRepository,
+                            DirectoryJdbcRepository directoryJdbcRepository,
+                            DirectorySortKeyRebalancer sortKeyRebalancer,
+                            DirectoryTreeCache directoryTreeCache,
+                            ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${directory.snapshot.enabled:true}") boolean snapshotReads,
+                            @Value("${directory.write.max-attempts:3}") int maxWriteAttempts) {
         this.directoryRepository = directoryRepository;
-        log.info("DirectoryService 초기화됨");
+        this.directoryJdbcRepository = directoryJdbcRepository;
+        this.sortKeyRebalancer = sortKeyRebalancer;
+        this.directoryTreeCache = directoryTreeCache;
+        this.eventPublisher = eventPublisher;
+        this.snapshotReads = snapshotReads;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.maxWriteAttempts = Math.max(1, maxWriteAttempts);
+        log.info("DirectoryService 초기화됨 - 스냅샷 읽기: {}, 쓰기 최대 시도: {}", snapshotReads, this.maxWriteAttempts);
     }
     
     /**
      * 전체 디렉토리 목록을 조회하는 메소드
      * 
-     * @Transactional 어노테이션:
-     * - 메소드 실행을 트랜잭션으로 관리합니다.
-     * - readOnly=true: 읽기 전용 트랜잭션으로 설정하여 성능을 최적화합니다.
+     * 스냅샷 읽기가 켜져 있으면 메모리 스냅샷에서 잠금 없이 응답하며 데이터베이스에 접근하지 않습니다.
+     * 꺼져 있으면 자식 개수를 집계 쿼리로 함께 조회하므로 목록 크기와 관계없이 한 번의 쿼리만 실행됩니다.
+     * 이 때문에 메소드 수준 트랜잭션을 두지 않고, 데이터베이스 경로는 리포지토리의 읽기 전용 트랜잭션을 사용합니다.
      * 
      * @return 전체 디렉토리 목록 (DTO 형태로 변환됨)
      */
-    @Transactional(readOnly = true) 
     public List<DirectoryDto> getAllDirectories() {
         log.debug("모든 디렉토리 조회");
-        List<Directory> directories = directoryRepository.findByParentIsNullOrderBySortOrderAsc();
+        List<DirectoryDto> directories = snapshotReads
+                ? RequestTiming.mapping(() -> directoryTreeCache.snapshot().children(null))
+                : directoryRepository.findRootSummaries();
         log.debug("전체 디렉토리 조회 완료 - 조회된 디렉토리 수: {}", directories.size());
-        return directories.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return directories;
     }
 
     /**
      * 디렉토리 트리를 조회하는 메소드
      * 루트 디렉토리부터 시작하는 전체 트리 구조를 반환합니다.
      * 
-     * @Transactional 어노테이션:
-     * - 읽기 전용 트랜잭션으로 설정하여 데이터 일관성을 보장합니다.
+     * 스냅샷 읽기가 켜져 있으면 메모리 스냅샷에서 응답합니다.
      * 
      * @return 전체 디렉토리 트리 (DTO 형태로 변환됨)
      */
-    @Transactional(readOnly = true)
     public List<DirectoryDto> getDirectoryTree() {
         log.debug("디렉토리 트리 조회");
-        List<Directory> rootDirectories = directoryRepository.findByParentIsNullOrderBySortOrderAsc();
-        return rootDirectories.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        if (snapshotReads) {
+            return RequestTiming.mapping(() -> directoryTreeCache.snapshot().children(null));
+        }
+        return directoryRepository.findRootSummaries();
+    }
+    
+    /**
+     * 중첩된 디렉토리 트리를 조회하는 메소드
+     * 전체 테이블(또는 경로 인덱스로 찾은 특정 루트의 하위 트리)을 한 번의 평면 쿼리로 읽은 뒤,
+     * ID→노드 맵을 사용해 메모리에서 O(n)으로 트리를 조립합니다.
+     * 엔티티의 지연 로딩 컬렉션(children)을 사용하지 않으므로 노드 수만큼 쿼리가 늘어나지 않습니다.
+     * 스냅샷 읽기가 켜져 있으면 쿼리 없이 스냅샷의 병렬 배열을 순회해 같은 결과를 만듭니다.
+     * 
+     * @param rootId 하위 트리의 루트 디렉토리 ID (null인 경우 전체 트리)
+     * @return 최상위 노드 목록 (rootId가 주어지면 해당 루트 하나만 포함)
+     * @throws IllegalArgumentException 루트 디렉토리가 존재하지 않는 경우 발생
+     */
+    public List<DirectoryDto> getNestedDirectoryTree(Long rootId) {
+        log.debug("중첩 디렉토리 트리 조회 - 루트 ID: {}", rootId);
+        if (snapshotReads) {
+            DirectoryTreeSnapshot snapshot = directoryTreeCache.snapshot();
+            if (rootId != null && !snapshot.contains(rootId)) {
+                throw new IllegalArgumentException("Directory not found with id: " + rootId);
+            }
+            return RequestTiming.mapping(() -> snapshot.nested(rootId));
+        }
+        List<DirectoryDto> rows;
+        if (rootId == null) {
+            rows = directoryRepository.findAllFlatOrdered();
+        } else {
+            // 루트 경로 조회 후 경로 인덱스 범위 검색 한 번으로 하위 트리 전체를 읽음
+            String rootPath = directoryRepository.findPathById(rootId)
+                    .orElseThrow(() -> new IllegalArgumentException("Directory not found with id: " + rootId));
+            rows = directoryRepository.findSubtreeFlatOrdered(rootPath, Directory.subtreeUpperBound(rootPath));
+        }
+        List<DirectoryDto> roots = RequestTiming.mapping(() -> assembleTree(rows, rootId));
+        log.debug("중첩 디렉토리 트리 조회 완료 - 노드 수: {}", rows.size());
+        return roots;
+    }
+    
+    /**
+     * 정렬된 평면 목록을 중첩 트리로 조립하는 메소드
+     * 1차 순회에서 ID→노드 맵을 만들고, 2차 순회에서 각 노드를 부모의 children에 추가합니다.
+     * 입력이 정렬 순서대로 정렬되어 있으므로 각 children 목록도 정렬 순서를 유지합니다.
+     * 
+     * @param rows 정렬 순서대로 정렬된 평면 디렉토리 목록
+     * @param rootId 하위 트리의 루트 ID (null인 경우 부모가 없는 노드가 루트)
+     * @return 루트 노드 목록
+     */
+    private List<DirectoryDto> assembleTree(List<DirectoryDto> rows, Long rootId) {
+        Map<Long, DirectoryDto> nodes = new HashMap<>(rows.size() * 4 / 3 + 1);
+        for (DirectoryDto row : rows) {
+            nodes.put(row.id, row);
+        }
+        
+        List<DirectoryDto> roots = new ArrayList<>();
+        for (DirectoryDto row : rows) {
+            DirectoryDto parent = row.id.equals(rootId) || row.parentId == null ? null : nodes.get(row.parentId);
+            if (parent == null) {
+                roots.add(row);
+                continue;
+            }
+            if (parent.children == null) {
+                parent.children = new ArrayList<>();
+            }
+            parent.children.add(row);
+            parent.childCount++;
+            parent.hasChildren = true;
+        }
+        return roots;
     }
     
     /**
      * 하위 디렉토리 목록을 조회하는 메소드
      * 특정 부모 디렉토리 아래의 모든 자식 디렉토리를 반환합니다.
+     * 스냅샷 읽기가 켜져 있으면 메모리에서, 꺼져 있으면
+     * 부모 존재 확인 1회 + 자식 목록 집계 1회, 총 2개의 쿼리로 처리됩니다.
      * 
      * @param parentId 부모 디렉토리 ID
      * @return 하위 디렉토리 목록 (DTO 형태로 변환됨)
      * @throws IllegalArgumentException 부모 디렉토리가 존재하지 않는 경우 발생
      */
-    @Transactional(readOnly = true)
     public List<DirectoryDto> getSubDirectories(Long parentId) {
         log.debug("하위 디렉토리 조회 시작 - parentId: {}", parentId);
-        Directory parent = directoryRepository.findById(parentId)
-            .orElseThrow(() -> new IllegalArgumentException("Parent directory not found with id: " + parentId));
-        List<Directory> directories = directoryRepository.findByParent_IdOrderBySortOrderAsc(parentId);
+        if (snapshotReads) {
+            DirectoryTreeSnapshot snapshot = directoryTreeCache.snapshot();
+            if (!snapshot.contains(parentId)) {
+                throw new IllegalArgumentException("Parent directory not found with id: " + parentId);
+            }
+            return RequestTiming.mapping(() -> snapshot.children(parentId));
+        }
+        if (!directoryRepository.existsById(parentId)) {
+            throw new IllegalArgumentException("Parent directory not found with id: " + parentId);
+        }
+        // 자식 목록과 각 자식의 하위 디렉토리 수를 하나의 집계 쿼리로 조회
+        List<DirectoryDto> directories = directoryRepository.findChildSummaries(parentId);
         log.debug("하위 디렉토리 조회 완료 - 조회된 디렉토리 수: {}", directories.size());
-        return directories.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return directories;
+    }
+    
+    /**
+     * 하위 디렉토리 목록을 한 페이지씩 조회하는 메소드 (키셋 페이지네이션)
+     * 
+     * (정렬 순서, ID) 순으로 커서 다음 항목부터 limit개를 반환합니다.
+     * OFFSET을 쓰지 않으므로 자식이 수십만 개여도 뒤쪽 페이지의 비용이 첫 페이지와 같고,
+     * 페이지 사이에 다른 항목이 추가/삭제되어도 항목이 중복되거나 빠지지 않습니다.
+     * 
+     * 스냅샷 읽기가 켜져 있으면 스냅샷의 연속 자식 구간을 이진 탐색하며 쿼리를 실행하지 않습니다.
+     * 꺼져 있으면 복합 인덱스 키셋 조회 1회 + 페이지 항목의 자식 수 집계 1회(+ 부모 확인 1회)로 처리합니다.
+     * 전체 자식 수는 요청한 경우에만 계산합니다(스냅샷은 O(1), 데이터베이스는 인덱스 COUNT 1회).
+     * 
+     * @param parentId 부모 디렉토리 ID
+     * @param after 이전 페이지의 nextCursor (null인 경우 첫 페이지)
+     * @param limit 페이지 크기 (null인 경우 DEFAULT_PAGE_LIMIT, 최대 MAX_PAGE_LIMIT)
+     * @param includeTotal 전체 자식 수 포함 여부
+     * @return 자식 목록 페이지
+     * @throws IllegalArgumentException 부모 디렉토리가 없거나, 커서 형식이 잘못되었거나, limit이 1보다 작은 경우 발생
+     */
+    public DirectoryPageDto getSubDirectoriesPage(Long parentId, String after, Integer limit, boolean includeTotal) {
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_LIMIT;
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("limit must be at least 1: " + pageSize);
+        }
+        pageSize = Math.min(pageSize, MAX_PAGE_LIMIT);
+        DirectoryCursor cursor = after != null && !after.isEmpty() ? DirectoryCursor.decode(after) : null;
+        log.debug("하위 디렉토리 페이지 조회 - parentId: {}, 커서: {}, 크기: {}", parentId, cursor, pageSize);
+        
+        // 다음 페이지 존재 여부를 알기 위해 한 건 더 읽음
+        List<DirectoryDto> items;
+        Long total = null;
+        if (snapshotReads) {
+            DirectoryTreeSnapshot snapshot = directoryTreeCache.snapshot();
+            if (!snapshot.contains(parentId)) {
+                throw new IllegalArgumentException("Parent directory not found with id: " + parentId);
+            }
+            int fetchSize = pageSize + 1;
+            items = RequestTiming.mapping(() -> snapshot.childrenAfter(parentId,
+                    cursor != null ? cursor.sortOrder() : null, cursor != null ? cursor.id() : null, fetchSize));
+            if (includeTotal) {
+                total = (long) snapshot.childCount(parentId);
+            }
+        } else {
+            if (!directoryRepository.existsById(parentId)) {
+                throw new IllegalArgumentException("Parent directory not found with id: " + parentId);
+            }
+            items = directoryRepository.findChildPageAfter(parentId,
+                    cursor != null ? cursor.sortOrder() : Long.MIN_VALUE, cursor != null ? cursor.id() : Long.MIN_VALUE,
+                    PageRequest.ofSize(pageSize + 1));
+            fillChildCounts(items.size() > pageSize ? items.subList(0, pageSize) : items);
+            if (includeTotal) {
+                total = directoryRepository.countByParent_Id(parentId);
+            }
+        }
+        
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = new ArrayList<>(items.subList(0, pageSize));
+            nextCursor = DirectoryCursor.of(items.get(pageSize - 1)).encode();
+        }
+        log.debug("하위 디렉토리 페이지 조회 완료 - 항목 수: {}, 다음 페이지: {}", items.size(), nextCursor != null);
+        return new DirectoryPageDto(items, nextCursor, total);
+    }
+    
+    /**
+     * 디렉토리 트리를 열 형식으로 조회하는 메소드 (CBOR/Smile 응답용)
+     * getDirectoryTree, getNestedDirectoryTree와 같은 노드를 필드별 병렬 배열로 반환합니다.
+     * 
+     * 스냅샷 읽기가 켜져 있으면 노드마다 DTO를 만들지 않고 스냅샷 배열에서 바로 채우며,
+     * 꺼져 있으면 기존 데이터베이스 조회 결과를 전위 순서로 펼쳐 변환합니다.
+     * 
+     * @param rootId 하위 트리의 루트 디렉토리 ID (null인 경우 전체 트리)
+     * @param nested false이고 rootId가 없으면 최상위 목록만, 그 외에는 모든 깊이의 노드를 포함
+     * @return 열 형식 디렉토리 목록
+     * @throws IllegalArgumentException 루트 디렉토리가 존재하지 않는 경우 발생
+     */
+    public DirectoryColumnsDto getDirectoryColumns(Long rootId, boolean nested) {
+        log.debug("열 형식 디렉토리 트리 조회 - 루트 ID: {}, 중첩: {}", rootId, nested);
+        boolean subtree = nested || rootId != null;
+        if (snapshotReads) {
+            DirectoryTreeSnapshot snapshot = directoryTreeCache.snapshot();
+            if (rootId != null && !snapshot.contains(rootId)) {
+                throw new IllegalArgumentException("Directory not found with id: " + rootId);
+            }
+            return RequestTiming.mapping(() -> subtree ? snapshot.columns(rootId) : snapshot.childColumns(null));
+        }
+        List<DirectoryDto> roots = subtree ? getNestedDirectoryTree(rootId) : getDirectoryTree();
+        return RequestTiming.mapping(() -> DirectoryColumnsDto.of(roots));
+    }
+    
+    /**
+     * 하위 디렉토리 목록을 열 형식으로 조회하는 메소드 (CBOR/Smile 응답용)
+     * 
+     * @param parentId 부모 디렉토리 ID
+     * @return 열 형식 하위 디렉토리 목록 (모든 노드의 부모 인덱스는 -1)
+     * @throws IllegalArgumentException 부모 디렉토리가 존재하지 않는 경우 발생
+     */
+    public DirectoryColumnsDto getSubDirectoryColumns(Long parentId) {
+        if (snapshotReads) {
+            DirectoryTreeSnapshot snapshot = directoryTreeCache.snapshot();
+            if (!snapshot.contains(parentId)) {
+                throw new IllegalArgumentException("Parent directory not found with id: " + parentId);
+            }
+            return RequestTiming.mapping(() -> snapshot.childColumns(parentId));
+        }
+        List<DirectoryDto> children = getSubDirectories(parentId);
+        return RequestTiming.mapping(() -> DirectoryColumnsDto.of(children));
+    }
+    
+    /**
+     * 페이지 항목의 자식 수를 한 번의 집계 쿼리로 채우는 메소드
+     * 
+     * @param items 자식 수를 채울 디렉토리 목록
+     */
+    private void fillChildCounts(List<DirectoryDto> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        Map<Long, DirectoryDto> byId = new HashMap<>(items.size() * 4 / 3 + 1);
+        for (DirectoryDto item : items) {
+            byId.put(item.id, item);
+        }
+        for (DirectoryRepository.ChildCountView count : directoryRepository.countChildrenByParentIdIn(byId.keySet())) {
+            DirectoryDto item = byId.get(count.getParentId());
+            item.childCount = count.getChildCount();
+            item.hasChildren = count.getChildCount() > 0;
+        }
+    }
+    
+    /**
+     * 디렉토리에 하위 디렉토리가 있는지 확인하는 메소드
+     * 스냅샷 읽기가 켜져 있으면 메모리 스냅샷에서 O(1)로 응답합니다.
+     * 
+     * @param id 확인할 디렉토리 ID
+     * @return 하위 디렉토리가 있으면 true
+     */
+    public boolean hasChildren(Long id) {
+        if (snapshotReads) {
+            return directoryTreeCache.snapshot().hasChildren(id);
+        }
+        return directoryRepository.hasChildren(id);
     }
     
     /**
@@ -128,81 +447,221 @@ public class DirectoryService {
                     .orElseThrow(() -> new IllegalArgumentException("Parent directory not found with id: " + parentId));
         }
         
-        // 정렬 순서 설정: 같은 부모를 가진 디렉토리 중 가장 마지막 순서 + 1
-        int sortOrder = 1;
-        if (parentId != null) {
-            sortOrder = directoryRepository.findTopByParent_IdOrderBySortOrderDesc(parentId)
-                    .map(d -> d.getSortOrder() + 1)
-                    .orElse(1);
-        } else {
-            sortOrder = directoryRepository.findTopByParentIsNullOrderBySortOrderDesc()
-                    .map(d -> d.getSortOrder() + 1)
-                    .orElse(1);
-        }
+        // 정렬 키 설정: 같은 부모를 가진 디렉토리 중 마지막 키 + 간격
+        long sortOrder = allocateSortKey(parentId, null, null, null);
         
+        // 경로(부모 경로 + 자기 ID)는 INSERT 직전에 DirectoryPathInsertListener가 채우므로 INSERT 한 번으로 저장됨
         Directory directory = new Directory(name, parent, sortOrder);
         Directory savedDirectory = directoryRepository.save(directory);
+        // INSERT 전이므로 여기서 거부하면 트랜잭션과 함께 저장이 취소됨
+        Directory.checkPathLength(Directory.childPath(parent != null ? parent.getPath() : null, savedDirectory.getId()).length());
+        eventPublisher.publishEvent(new DirectoryChangeEvent(
+                DirectoryChangeEvent.Type.CREATED, savedDirectory.getId(), parentId, parentId));
         return convertToDTO(savedDirectory);
     }
 
     /**
      * Directory 엔티티를 DirectoryDto로 변환하는 메소드
      * 도메인 객체를 API 응답용 DTO로 매핑합니다.
+     * 변환 시간은 Server-Timing의 map 항목에 기록됩니다. (hasChildren 쿼리 시간은 db 항목으로 분리)
      * 
      * @param directory 변환할 Directory 엔티티
      * @return 변환된 DirectoryDto
      */
     private DirectoryDto convertToDTO(Directory directory) {
-        // 직접 필드 접근
-        DirectoryDto dto = new DirectoryDto();
-        dto.id = directory.getId();
-        dto.name = directory.getName();
-        dto.parentId = directory.getParent() != null ? directory.getParent().getId() : null;
-        dto.sortOrder = directory.getSortOrder();
-        dto.hasChildren = directoryRepository.hasChildren(directory.getId());
-        return dto;
+        return RequestTiming.mapping(() -> {
+            // 직접 필드 접근
+            DirectoryDto dto = new DirectoryDto();
+            dto.id = directory.getId();
+            dto.name = directory.getName();
+            dto.parentId = directory.getParent() != null ? directory.getParent().getId() : null;
+            dto.sortOrder = directory.getSortOrder();
+            dto.version = directory.getVersion();
+            dto.hasChildren = directoryRepository.hasChildren(directory.getId());
+            return dto;
+        });
+    }
+
+    /**
+     * 쓰기 작업을 트랜잭션으로 실행하고, 낙관적 잠금 충돌이 나면 제한된 횟수만큼 다시 실행하는 메소드
+     * 
+     * 동시에 드래그한 두 요청이 같은 행을 갱신하면 늦게 커밋하는 쪽의 UPDATE가 버전 조건에 걸려 실패합니다
+     * (데이터베이스가 교착을 감지해 한쪽을 롤백한 경우도 같게 처리).
+     * 이때 트랜잭션 전체를 롤백하고(영속성 컨텍스트도 비워짐) 짧은 무작위 대기 후 최신 상태를 다시 읽어
+     * 처음부터 재실행하므로, 정렬 키 재계산처럼 같은 형제 목록을 건드리는 충돌은 클라이언트가 모르게 해결됩니다.
+     * 클라이언트가 보낸 버전이 맞지 않는 경우(DirectoryConflictException)는 재시도해도 같은 결과이므로 바로 전달합니다.
+     * 
+     * @param id 작업 대상 디렉토리 ID (충돌 행을 알 수 없을 때 현재 상태 조회에 사용, 없으면 null)
+     * @param work 트랜잭션 안에서 실행할 작업
+     * @return 작업 결과
+     * @throws DirectoryConflictException 최대 시도 횟수를 모두 사용해도 충돌이 계속된 경우 발생
+     */
+    private <T> T executeWithRetry(Long id, Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return writeTransaction.execute(status -> work.get());
+            } catch (ConcurrencyFailureException e) {
+                Object conflictId = e instanceof ObjectOptimisticLockingFailureException locking
+                        && locking.getIdentifier() != null ? locking.getIdentifier() : id;
+                if (attempt >= maxWriteAttempts) {
+                    log.warn("디렉토리 동시 수정 충돌 - 재시도 포기 (시도: {}, 충돌 ID: {})", attempt, conflictId);
+                    throw new DirectoryConflictException(
+                            "Directory " + conflictId + " was modified concurrently; please reload and try again",
+                            currentState(conflictId));
+                }
+                log.debug("디렉토리 동시 수정 충돌 - 재시도 {}/{} (충돌 ID: {})", attempt + 1, maxWriteAttempts, conflictId);
+                backOff(attempt);
+            }
+        }
+    }
+
+    /**
+     * 재시도 전에 시도 횟수에 비례한 무작위 시간만큼 대기하는 메소드
+     * 같은 목록을 두고 충돌한 요청들이 동시에 다시 충돌하지 않도록 재실행 시점을 흩어 놓습니다.
+     * 
+     * @param attempt 실패한 시도 번호 (1부터)
+     */
+    private static void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 10L * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DirectoryConflictException("Interrupted while retrying a concurrent directory update", null);
+        }
+    }
+
+    /**
+     * 충돌한 디렉토리의 현재 상태를 새 읽기 트랜잭션에서 조회하는 메소드
+     * 
+     * @param id 디렉토리 ID
+     * @return 현재 상태 (삭제되었거나 ID를 알 수 없으면 null)
+     */
+    private DirectoryDto currentState(Object id) {
+        if (!(id instanceof Long directoryId)) {
+            return null;
+        }
+        return readTransaction.execute(status -> directoryRepository.findById(directoryId)
+                .map(this::convertToDTO)
+                .orElse(null));
+    }
+
+    /**
+     * 클라이언트가 마지막으로 본 버전과 현재 버전을 비교하는 메소드
+     * 
+     * @param directory 현재 디렉토리 엔티티
+     * @param expectedVersion 클라이언트가 보낸 버전 (null이면 검사하지 않음)
+     * @throws DirectoryConflictException 버전이 다른 경우 발생
+     */
+    private void checkExpectedVersion(Directory directory, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(directory.getVersion())) {
+            throw new DirectoryConflictException(
+                    "Directory " + directory.getId() + " has been modified (expected version " + expectedVersion
+                            + ", current " + directory.getVersion() + ")",
+                    convertToDTO(directory));
+        }
+    }
+
+    /**
+     * 위치 정보 조회 결과로 클라이언트가 보낸 버전을 비교하는 메소드
+     * 
+     * @param view 현재 위치 정보
+     * @param expectedVersion 클라이언트가 보낸 버전 (null이면 검사하지 않음)
+     * @throws DirectoryConflictException 버전이 다른 경우 발생
+     */
+    private void checkExpectedVersion(DirectoryRepository.PlacementView view, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(view.getVersion())) {
+            throw new DirectoryConflictException(
+                    "Directory " + view.getId() + " has been modified (expected version " + expectedVersion
+                            + ", current " + view.getVersion() + ")",
+                    directoryRepository.findById(view.getId()).map(this::convertToDTO).orElse(null));
+        }
     }
 
     /**
      * 디렉토리 이름을 업데이트하는 메소드
      * 
-     * @Transactional 어노테이션:
-     * - 메소드 실행을 트랜잭션으로 관리합니다.
+     * DTO에 version이 있으면 현재 버전과 같을 때만 변경합니다.
+     * 동시 수정 충돌은 executeWithRetry로 제한된 횟수만큼 다시 실행합니다.
      * 
      * @param id 업데이트할 디렉토리 ID
      * @param directoryDto 업데이트할 디렉토리 정보
      * @return 업데이트된 디렉토리 정보 (DTO 형태)
      * @throws RuntimeException 디렉토리가 존재하지 않는 경우 발생
+     * @throws DirectoryConflictException 버전이 맞지 않거나 충돌이 계속된 경우 발생
      */
-    @Transactional
     public DirectoryDto updateDirectory(Long id, DirectoryDto directoryDto) {
-        return directoryRepository.findById(id)
+        return executeWithRetry(id, () -> directoryRepository.findById(id)
                 .map(directory -> {
+                    checkExpectedVersion(directory, directoryDto.version);
                     directory.setName(directoryDto.name);
-                    return convertToDTO(directoryRepository.save(directory));
+                    Directory saved = directoryRepository.saveAndFlush(directory);
+                    eventPublisher.publishEvent(new DirectoryChangeEvent(
+                            DirectoryChangeEvent.Type.RENAMED, id, saved.getParentId(), saved.getParentId()));
+                    return convertToDTO(saved);
                 })
-                .orElseThrow(() -> new RuntimeException("디렉토리를 찾을 수 없습니다: " + id));
+                .orElseThrow(() -> new RuntimeException("디렉토리를 찾을 수 없습니다: " + id)));
     }
 
     /**
      * 디렉토리를 이동하는 메소드
      * 디렉토리의 부모와 정렬 순서를 변경합니다.
      * 
-     * @Transactional 어노테이션:
-     * - 메소드 실행을 트랜잭션으로 관리합니다.
-     * 
      * @param id 이동할 디렉토리 ID
      * @param newParentId 새로운 부모 디렉토리 ID (null인 경우 루트로 이동)
-     * @param newPosition 새로운 위치 (정렬 순서)
+     * @param newPosition 새로운 정렬 키 (null인 경우 맨 뒤)
      * @return 이동된 디렉토리 정보 (DTO 형태)
-     * @throws IllegalArgumentException 디렉토리가 존재하지 않는 경우 발생
+     * @throws IllegalArgumentException 디렉토리가 존재하지 않거나 자기 자신/자손 아래로 이동하려는 경우 발생
      */
-    @Transactional
-    public DirectoryDto moveDirectory(Long id, Long newParentId, Integer newPosition) {
-        log.debug("디렉토리 이동 - ID: {}, 새 부모 ID: {}, 새 위치: {}", id, newParentId, newPosition);
+    public DirectoryDto moveDirectory(Long id, Long newParentId, Long newPosition) {
+        return moveDirectory(id, newParentId, newPosition, null, null, null);
+    }
+
+    /**
+     * 디렉토리를 이동하는 메소드
+     * 디렉토리의 부모와 정렬 순서를 변경합니다.
+     * 
+     * 위치는 형제 ID로 지정할 수 있습니다(beforeId: 그 형제 바로 앞, afterId: 그 형제 바로 뒤).
+     * 이 경우 부모는 기준 형제의 부모로 결정되고, 정렬 키는 이웃한 두 형제 키의 중간값으로 정해지므로
+     * 다른 형제는 갱신하지 않고 이동한 행 하나만 UPDATE 됩니다.
+     * 두 키 사이에 빈 값이 없을 때만 해당 부모의 정렬 키를 즉시 재조정하고,
+     * 간격이 임계값보다 좁아지면 커밋 후 백그라운드 재조정을 예약합니다.
+     * 
+     * 동시성 처리:
+     * - expectedVersion이 있으면 클라이언트가 본 버전과 현재 버전이 같을 때만 이동합니다.
+     * - 같은 행을 동시에 갱신해 생긴 낙관적 잠금 충돌은 최신 상태로 다시 계산해 자동 재시도합니다.
+     * 
+     * @param id 이동할 디렉토리 ID
+     * @param newParentId 새로운 부모 디렉토리 ID (null인 경우 루트로 이동, 기준 형제가 있으면 생략 가능)
+     * @param newPosition 새로운 정렬 키 (null인 경우 기준 형제 또는 맨 뒤를 기준으로 할당)
+     * @param beforeId 이 형제 바로 앞으로 이동 (선택)
+     * @param afterId 이 형제 바로 뒤로 이동 (선택)
+     * @param expectedVersion 클라이언트가 마지막으로 본 디렉토리 버전 (선택)
+     * @return 이동된 디렉토리 정보 (DTO 형태)
+     * @throws IllegalArgumentException 디렉토리/기준 형제가 존재하지 않거나, 기준 형제의 부모가 서로 다르거나,
+     *                                  자기 자신/자손 아래로 이동하려는 경우 발생
+     * @throws DirectoryConflictException 버전이 맞지 않거나 충돌이 계속된 경우 발생
+     */
+    public DirectoryDto moveDirectory(Long id, Long newParentId, Long newPosition, Long beforeId, Long afterId,
+                                      Long expectedVersion) {
+        return executeWithRetry(id, () -> applyMove(id, newParentId, newPosition, beforeId, afterId, expectedVersion));
+    }
+
+    /**
+     * 단건 이동을 현재 트랜잭션에서 한 번 실행하는 메소드 (moveDirectory 참고)
+     */
+    private DirectoryDto applyMove(Long id, Long newParentId, Long newPosition, Long beforeId, Long afterId,
+                                   Long expectedVersion) {
+        log.debug("디렉토리 이동 - ID: {}, 새 부모 ID: {}, 새 위치: {}, 앞: {}, 뒤: {}",
+                id, newParentId, newPosition, beforeId, afterId);
+        
+        if (beforeId != null || afterId != null) {
+            newParentId = resolveAnchorParent(id, newParentId, beforeId, afterId);
+        }
+        rejectCycleInSnapshot(id, newParentId);
         
         Directory directory = directoryRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Directory not found with id: " + id));
+        checkExpectedVersion(directory, expectedVersion);
         
         Directory newParent = null;
         if (newParentId != null) {
@@ -214,9 +673,10 @@ public class DirectoryService {
                 if (newParent == null) {
                     log.info("새 부모 디렉토리가 존재하지 않아 자동 생성합니다. ID: {}", newParentId);
                     // 임시 디렉토리 생성
-                    newParent = new Directory("임시 디렉토리 " + newParentId, null, 1);
-                    newParent.setPath("/임시/" + newParentId);
+                    newParent = new Directory("임시 디렉토리 " + newParentId, null, allocateSortKey(null, null, null, null));
                     newParent = directoryRepository.save(newParent);
+                    // 아래 경로 계산에 바로 쓰므로 미리 채움 (INSERT 때 리스너가 같은 값을 넣으므로 UPDATE는 없음)
+                    newParent.setPath(Directory.childPath(null, newParent.getId()));
                     log.info("새 부모 디렉토리 생성 완료. 이름: {}", newParent.getName());
                 }
             } catch (Exception e) {
@@ -227,72 +687,578 @@ public class DirectoryService {
             }
         }
         
+        // 자기 자신 또는 자손 아래로 이동하면 순환이 생기므로 경로 접두사로 검사
+        if (newParent != null && directory.isSelfOrAncestorOf(newParent)) {
+            throw new IllegalArgumentException("Cannot move directory " + id + " into itself or its descendant " + newParent.getId());
+        }
+        
+        // 이동한 노드와 모든 자손의 경로 접두사를 한 번의 UPDATE로 교체
+        Long previousParentId = directory.getParentId();
+        String oldPath = directory.getPath();
+        String newPath = Directory.childPath(newParent != null ? newParent.getPath() : null, id);
+        if (!newPath.equals(oldPath)) {
+            checkSubtreePathLength(oldPath, newPath);
+            int updated = directoryRepository.replacePathPrefix(oldPath, newPath, Directory.subtreeUpperBound(oldPath));
+            log.debug("하위 트리 경로 갱신 - {} -> {}, 갱신된 행 수: {}", oldPath, newPath, updated);
+        }
+        
+        long sortKey = newPosition != null
+                ? newPosition
+                : allocateSortKey(newParent != null ? newParent.getId() : null, id, beforeId, afterId);
         directory.setParent(newParent);
-        directory.setSortOrder(newPosition);
-        Directory savedDirectory = directoryRepository.save(directory);
+        directory.setPath(newPath);
+        directory.setSortOrder(sortKey);
+        // 버전 조건 UPDATE를 여기서 실행해 충돌을 트랜잭션 안에서 감지하고, 응답에 증가한 버전을 담음
+        Directory savedDirectory = directoryRepository.saveAndFlush(directory);
+        eventPublisher.publishEvent(new DirectoryChangeEvent(
+                DirectoryChangeEvent.Type.MOVED, id, savedDirectory.getParentId(), previousParentId));
         
         return convertToDTO(savedDirectory);
     }
 
+    /**
+     * 여러 디렉토리를 한 번에 이동하는 메소드
+     * 다중 선택 드래그 앤 드롭처럼 여러 항목의 이동을 하나의 트랜잭션으로 원자적으로 처리합니다.
+     * 
+     * 처리 순서:
+     * 1. 이동 대상과 대상 부모의 위치 정보를 각각 한 번의 쿼리로 조회
+     * 2. 선택 항목끼리 조상/자손 관계인 경우와 자기 하위 트리 안으로의 이동을 거부
+     * 3. 대상 부모별로 기존 자식 목록(이동 대상 제외)에 이동 항목을 끼워 넣고 정렬 순서를 1부터 다시 부여
+     * 4. 하위 트리 경로 교체와 부모/정렬 순서 변경을 각각 하나의 JDBC 배치로 실행
+     * 
+     * 같은 부모로 이동하는 항목들은 position 기준으로 배치되며,
+     * position이 같은 항목들은 요청에 나열된 순서(선택 순서)를 그대로 유지합니다.
+     * 단건 이동과 달리 존재하지 않는 부모를 자동 생성하지 않습니다.
+     * 
+     * 모든 항목의 이동이 하나의 트랜잭션으로 실행되며, 하나라도 실패하면 전체가 롤백됩니다.
+     * 항목에 version이 있으면 현재 버전과 같아야 하고, 갱신하는 모든 행(재번호를 받는 기존 자식 포함)은
+     * 조회 시점의 버전 조건으로 UPDATE 하므로 동시 변경이 있으면 전체를 다시 계산해 재시도합니다.
+     * 
+     * @param moves 이동 항목 목록 (디렉토리 ID, 새 부모 ID, 삽입 위치, 선택적 버전)
+     * @return 이동 후 대상 부모별 자식 목록 (요청에 처음 등장한 부모 순서)
+     * @throws IllegalArgumentException 항목이 비어 있거나 중복/존재하지 않는 ID, 순환 이동이 포함된 경우 발생
+     * @throws DirectoryConflictException 버전이 맞지 않거나 충돌이 계속된 경우 발생
+     */
+    public List<DirectorySiblingsDto> moveDirectories(List<DirectoryMoveDto> moves) {
+        if (moves == null || moves.isEmpty()) {
+            throw new IllegalArgumentException("이동할 디렉토리가 없습니다.");
+        }
+        return executeWithRetry(null, () -> applyBatchMove(moves));
+    }
+
+    /**
+     * 일괄 이동을 현재 트랜잭션에서 한 번 실행하는 메소드 (moveDirectories 참고)
+     */
+    private List<DirectorySiblingsDto> applyBatchMove(List<DirectoryMoveDto> moves) {
+        log.debug("디렉토리 일괄 이동 - 항목 수: {}", moves.size());
+        
+        // 1. 이동 대상 조회 (중복 ID 거부)
+        Set<Long> movedIds = new LinkedHashSet<>();
+        for (DirectoryMoveDto move : moves) {
+            if (move.getId() == null) {
+                throw new IllegalArgumentException("Directory id is required for every move");
+            }
+            if (!movedIds.add(move.getId())) {
+                throw new IllegalArgumentException("Duplicate directory id in batch move: " + move.getId());
+            }
+            rejectCycleInSnapshot(move.getId(), move.getParentId());
+        }
+        Map<Long, DirectoryRepository.PlacementView> moved = new HashMap<>();
+        for (DirectoryRepository.PlacementView view : findPlacements(movedIds)) {
+            moved.put(view.getId(), view);
+        }
+        for (Long id : movedIds) {
+            if (!moved.containsKey(id)) {
+                throw new IllegalArgumentException("Directory not found with id: " + id);
+            }
+        }
+        for (DirectoryMoveDto move : moves) {
+            checkExpectedVersion(moved.get(move.getId()), move.getVersion());
+        }
+        
+        // 대상 부모별 이동 항목 (요청 순서 유지, null 키는 최상위)
+        Map<Long, List<DirectoryMoveDto>> groups = new LinkedHashMap<>();
+        for (DirectoryMoveDto move : moves) {
+            groups.computeIfAbsent(move.getParentId(), key -> new ArrayList<>()).add(move);
+        }
+        Set<Long> targetParentIds = new LinkedHashSet<>(groups.keySet());
+        targetParentIds.remove(null);
+        Map<Long, DirectoryRepository.PlacementView> parents = new HashMap<>();
+        if (!targetParentIds.isEmpty()) {
+            for (DirectoryRepository.PlacementView view : findPlacements(targetParentIds)) {
+                parents.put(view.getId(), view);
+            }
+        }
+        for (Long parentId : targetParentIds) {
+            if (!parents.containsKey(parentId)) {
+                throw new IllegalArgumentException("Parent directory not found with id: " + parentId);
+            }
+        }
+        
+        // 2. 순환 및 겹치는 선택 거부
+        rejectOverlappingMoves(moved.values(), parents.values());
+        
+        // 3. 대상 부모별 기존 자식 목록 (이동 대상 제외)
+        Map<Long, List<Long>> siblings = new HashMap<>();
+        Map<Long, DirectoryRepository.PlacementView> currentOrders = new HashMap<>();
+        for (Long parentId : groups.keySet()) {
+            siblings.put(parentId, new ArrayList<>());
+        }
+        List<DirectoryRepository.PlacementView> existing = new ArrayList<>();
+        if (groups.containsKey(null)) {
+            existing.addAll(directoryRepository.findRootPlacements());
+        }
+        if (!targetParentIds.isEmpty()) {
+            existing.addAll(directoryRepository.findChildPlacements(targetParentIds));
+        }
+        for (DirectoryRepository.PlacementView view : existing) {
+            if (!moved.containsKey(view.getId())) {
+                siblings.get(view.getParentId()).add(view.getId());
+                currentOrders.put(view.getId(), view);
+            }
+        }
+        
+        List<DirectoryJdbcRepository.Placement> placements = new ArrayList<>();
+        List<DirectoryJdbcRepository.PathPrefixChange> pathChanges = new ArrayList<>();
+        List<DirectoryChangeEvent> reordered = new ArrayList<>();
+        for (Map.Entry<Long, List<DirectoryMoveDto>> group : groups.entrySet()) {
+            Long parentId = group.getKey();
+            List<Long> base = siblings.get(parentId);
+            // List.sort는 안정 정렬이므로 같은 위치의 항목은 요청 순서를 유지함
+            List<DirectoryMoveDto> inserts = new ArrayList<>(group.getValue());
+            inserts.sort(Comparator.comparingInt(move -> insertionIndex(move.getPosition(), base.size())));
+            
+            List<Long> ordered = new ArrayList<>(base.size() + inserts.size());
+            int next = 0;
+            for (int i = 0; i <= base.size(); i++) {
+                while (next < inserts.size() && insertionIndex(inserts.get(next).getPosition(), base.size()) == i) {
+                    ordered.add(inserts.get(next++).getId());
+                }
+                if (i < base.size()) {
+                    ordered.add(base.get(i));
+                }
+            }
+            
+            String parentPath = parentId != null ? parents.get(parentId).getPath() : null;
+            for (int i = 0; i < ordered.size(); i++) {
+                Long id = ordered.get(i);
+                long sortOrder = (i + 1) * Directory.SORT_KEY_GAP;
+                DirectoryRepository.PlacementView view = moved.get(id);
+                if (view == null) {
+                    // 기존 자식은 순서가 실제로 바뀐 행만 갱신
+                    DirectoryRepository.PlacementView sibling = currentOrders.get(id);
+                    if (sibling.getSortOrder() != sortOrder) {
+                        placements.add(new DirectoryJdbcRepository.Placement(id, parentId, sortOrder, sibling.getVersion()));
+                        reordered.add(new DirectoryChangeEvent(DirectoryChangeEvent.Type.REORDERED, id, parentId, parentId));
+                    }
+                    continue;
+                }
+                placements.add(new DirectoryJdbcRepository.Placement(id, parentId, sortOrder, view.getVersion()));
+                String newPath = Directory.childPath(parentPath, id);
+                if (!newPath.equals(view.getPath())) {
+                    checkSubtreePathLength(view.getPath(), newPath);
+                    pathChanges.add(new DirectoryJdbcRepository.PathPrefixChange(
+                            view.getPath(), newPath, Directory.subtreeUpperBound(view.getPath())));
+                }
+            }
+        }
+        
+        // 4. 선택 항목끼리 겹치지 않음을 확인했으므로 경로 범위가 서로 독립적이라 하나의 배치로 실행 가능
+        //    경로 교체가 이동 항목의 버전도 올리므로 버전 조건이 있는 위치 변경을 먼저 실행
+        directoryJdbcRepository.batchUpdatePlacement(placements);
+        directoryJdbcRepository.batchReplacePathPrefix(pathChanges);
+        for (DirectoryMoveDto move : moves) {
+            eventPublisher.publishEvent(new DirectoryChangeEvent(
+                    DirectoryChangeEvent.Type.MOVED, move.getId(), move.getParentId(), moved.get(move.getId()).getParentId()));
+        }
+        // 밀려서 정렬 키가 바뀐 기존 자식도 알림 (스냅샷과 변경 로그가 새 키를 반영하도록)
+        reordered.forEach(eventPublisher::publishEvent);
+        log.debug("디렉토리 일괄 이동 완료 - 경로 교체: {}, 위치 변경: {}", pathChanges.size(), placements.size());
+        
+        // 이동 후 대상 부모별 자식 목록 (같은 트랜잭션에서 JDBC 변경 이후 조회)
+        Map<Long, List<DirectoryDto>> children = new HashMap<>();
+        if (groups.containsKey(null)) {
+            children.put(null, directoryRepository.findRootSummaries());
+        }
+        if (!targetParentIds.isEmpty()) {
+            for (DirectoryDto dto : directoryRepository.findChildSummariesIn(targetParentIds)) {
+                children.computeIfAbsent(dto.parentId, key -> new ArrayList<>()).add(dto);
+            }
+        }
+        List<DirectorySiblingsDto> result = new ArrayList<>(groups.size());
+        for (Long parentId : groups.keySet()) {
+            result.add(new DirectorySiblingsDto(parentId, children.getOrDefault(parentId, Collections.emptyList())));
+        }
+        return result;
+    }
+    
+    /**
+     * 여러 디렉토리의 위치 정보를 IN_CLAUSE_CHUNK_SIZE 단위로 나누어 조회하는 메소드
+     * 
+     * @param ids 디렉토리 ID 목록
+     * @return 위치 정보 목록 (없는 ID는 결과에서 빠짐, 순서 보장 없음)
+     */
+    private List<DirectoryRepository.PlacementView> findPlacements(Collection<Long> ids) {
+        if (ids.size() <= IN_CLAUSE_CHUNK_SIZE) {
+            return directoryRepository.findPlacementsByIdIn(ids);
+        }
+        List<Long> all = new ArrayList<>(ids);
+        List<DirectoryRepository.PlacementView> result = new ArrayList<>(all.size());
+        for (int from = 0; from < all.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            result.addAll(directoryRepository.findPlacementsByIdIn(
+                    all.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, all.size()))));
+        }
+        return result;
+    }
+    
+    /**
+     * 메모리 스냅샷의 부모 배열로 순환 이동을 미리 거부하는 메소드
+     * SQL 없이 O(깊이)로 검사하므로 잘못된 드롭은 엔티티나 긴 경로 문자열을 읽기 전에 거부됩니다.
+     * 
+     * 스냅샷은 커밋한 요청이 응답하기 전에 갱신되므로, 클라이언트가 볼 수 있었던 상태와 어긋나지 않습니다.
+     * 아직 공개되지 않은 동시 이동은 이후의 경로 접두사 검사가 데이터베이스 기준으로 다시 확인합니다.
+     * 
+     * @param id 이동할 디렉토리 ID
+     * @param newParentId 새 부모 디렉토리 ID (null인 경우 최상위이므로 검사하지 않음)
+     * @throws IllegalArgumentException 새 부모가 이동할 디렉토리 자신이거나 그 자손인 경우 발생
+     */
+    private void rejectCycleInSnapshot(Long id, Long newParentId) {
+        if (snapshotReads && id != null && newParentId != null
+                && directoryTreeCache.snapshot().isSelfOrAncestor(id, newParentId)) {
+            throw new IllegalArgumentException("Cannot move directory " + id + " into itself or its descendant " + newParentId);
+        }
+    }
+    
+    /**
+     * 하위 트리의 경로 접두사를 바꾼 뒤 가장 깊은 자손의 경로가 최대 길이를 넘지 않는지 검사하는 메소드
+     * 경로가 길어지는 이동에서만 하위 트리의 최대 경로 길이를 조회합니다 (경로 인덱스 범위 검색 1회).
+     * 
+     * @param oldPath 옮기는 하위 트리 루트의 현재 경로
+     * @param newPath 옮긴 뒤의 경로
+     * @throws IllegalArgumentException 최대 길이를 넘는 경우 발생
+     */
+    private void checkSubtreePathLength(String oldPath, String newPath) {
+        if (newPath.length() <= oldPath.length()) {
+            return;
+        }
+        Integer longest = directoryRepository.findMaxPathLength(oldPath, Directory.subtreeUpperBound(oldPath));
+        int current = longest != null ? longest : oldPath.length();
+        Directory.checkPathLength((long) current - oldPath.length() + newPath.length());
+    }
+    
+    /**
+     * 여러 하위 트리를 동시에 옮길 수 있는지 검사하는 메소드
+     * 경로를 사전순으로 정렬하면 조상 경로는 바로 다음 경로의 접두사가 되므로,
+     * 인접한 경로끼리만 비교해 O(n log n)으로 검사합니다.
+     * 
+     * @param moved 이동할 디렉토리의 위치 정보
+     * @param parents 대상 부모 디렉토리의 위치 정보
+     * @throws IllegalArgumentException 선택 항목끼리 조상/자손 관계이거나, 대상 부모가 이동할 하위 트리 안에 있는 경우 발생
+     */
+    private static void rejectOverlappingMoves(Collection<DirectoryRepository.PlacementView> moved,
+                                               Collection<DirectoryRepository.PlacementView> parents) {
+        TreeMap<String, Long> movedPaths = new TreeMap<>();
+        for (DirectoryRepository.PlacementView view : moved) {
+            movedPaths.put(view.getPath(), view.getId());
+        }
+        Map.Entry<String, Long> previous = null;
+        for (Map.Entry<String, Long> entry : movedPaths.entrySet()) {
+            if (previous != null && entry.getKey().startsWith(previous.getKey())) {
+                throw new IllegalArgumentException("Cannot move directory " + entry.getValue()
+                        + " together with its ancestor " + previous.getValue());
+            }
+            previous = entry;
+        }
+        for (DirectoryRepository.PlacementView parent : parents) {
+            Map.Entry<String, Long> floor = movedPaths.floorEntry(parent.getPath());
+            if (floor != null && parent.getPath().startsWith(floor.getKey())) {
+                throw new IllegalArgumentException("Cannot move directory " + floor.getValue()
+                        + " into itself or its descendant " + parent.getId());
+            }
+        }
+    }
+    
+    /**
+     * 요청된 삽입 위치를 기존 자식 목록 범위로 보정하는 메소드
+     * 
+     * @param position 요청된 위치 (null이면 맨 뒤)
+     * @param size 기존 자식 수
+     * @return 0 이상 size 이하의 삽입 위치
+     */
+    private static int insertionIndex(Integer position, int size) {
+        if (position == null || position > size) {
+            return size;
+        }
+        return Math.max(position, 0);
+    }
+
+    /**
+     * 기준 형제로부터 이동 대상 부모를 결정하는 메소드
+     * 
+     * @param id 이동할 디렉토리 ID
+     * @param requestedParentId 요청에 명시된 부모 ID (null이면 기준 형제의 부모를 사용)
+     * @param beforeId 바로 뒤에 올 형제 ID
+     * @param afterId 바로 앞에 올 형제 ID
+     * @return 이동 대상 부모 ID (null인 경우 최상위)
+     * @throws IllegalArgumentException 기준 형제가 없거나 자기 자신이거나, 부모가 서로 다른 경우 발생
+     */
+    private Long resolveAnchorParent(Long id, Long requestedParentId, Long beforeId, Long afterId) {
+        List<Long> anchorIds = new ArrayList<>(2);
+        for (Long anchorId : new Long[]{beforeId, afterId}) {
+            if (anchorId == null) {
+                continue;
+            }
+            if (anchorId.equals(id)) {
+                throw new IllegalArgumentException("Cannot position directory " + id + " relative to itself");
+            }
+            anchorIds.add(anchorId);
+        }
+        List<DirectoryRepository.PlacementView> anchors = directoryRepository.findPlacementsByIdIn(anchorIds);
+        if (anchors.size() != new HashSet<>(anchorIds).size()) {
+            throw new IllegalArgumentException("Sibling directory not found: " + anchorIds);
+        }
+        Long parentId = anchors.get(0).getParentId();
+        for (DirectoryRepository.PlacementView anchor : anchors) {
+            if (!Objects.equals(anchor.getParentId(), parentId)) {
+                throw new IllegalArgumentException("Sibling directories " + anchorIds + " do not share a parent");
+            }
+        }
+        if (requestedParentId != null && !requestedParentId.equals(parentId)) {
+            throw new IllegalArgumentException("Sibling directories " + anchorIds + " are not children of " + requestedParentId);
+        }
+        return parentId;
+    }
+    
+    /**
+     * 이웃한 형제 사이에 들어갈 정렬 키를 할당하는 메소드
+     * 
+     * 기준 형제가 없으면 마지막 형제 뒤(마지막 키 + 간격), beforeId만 있으면 그 형제와 바로 앞 형제 사이,
+     * afterId가 있으면 그 형제와 바로 뒤 형제(또는 beforeId) 사이의 중간값을 사용합니다.
+     * 두 키 사이에 빈 값이 없으면 해당 부모의 정렬 키를 이 트랜잭션 안에서 재조정한 뒤 한 번 더 계산합니다.
+     * 
+     * @param parentId 부모 디렉토리 ID (null인 경우 최상위)
+     * @param movedId 이동 중인 디렉토리 ID (새로 만드는 경우 null)
+     * @param beforeId 바로 뒤에 올 형제 ID (선택)
+     * @param afterId 바로 앞에 올 형제 ID (선택)
+     * @return 할당된 정렬 키
+     */
+    private long allocateSortKey(Long parentId, Long movedId, Long beforeId, Long afterId) {
+        for (int attempt = 0; ; attempt++) {
+            Long lower;
+            Long upper;
+            if (afterId != null) {
+                lower = sortKeyOf(afterId);
+                upper = beforeId != null
+                        ? Long.valueOf(sortKeyOf(beforeId))
+                        : directoryRepository.findNextSortKey(parentId, lower, movedId).orElse(null);
+            } else if (beforeId != null) {
+                upper = sortKeyOf(beforeId);
+                lower = directoryRepository.findPreviousSortKey(parentId, upper, movedId).orElse(null);
+            } else {
+                lower = directoryRepository.findPreviousSortKey(parentId, Long.MAX_VALUE, movedId).orElse(null);
+                upper = null;
+            }
+            
+            Long key = sortKeyBetween(lower, upper);
+            if (key != null) {
+                if (lower != null && upper != null && upper - lower < SORT_KEY_REBALANCE_THRESHOLD) {
+                    sortKeyRebalancer.rebalanceLater(parentId);
+                }
+                return key;
+            }
+            if (attempt > 0) {
+                throw new IllegalStateException("No sort key available between " + lower + " and " + upper);
+            }
+            log.debug("정렬 키 간격 소진 - 부모 ID: {}, 범위: ({}, {})", parentId, lower, upper);
+            sortKeyRebalancer.rebalance(parentId, movedId);
+        }
+    }
+    
+    /**
+     * 두 정렬 키 사이의 값을 계산하는 메소드
+     * 
+     * @param lower 앞 형제의 키 (없으면 null)
+     * @param upper 뒤 형제의 키 (없으면 null)
+     * @return 두 키 사이의 키 (빈 값이 없거나 범위를 넘으면 null)
+     */
+    private static Long sortKeyBetween(Long lower, Long upper) {
+        if (lower == null && upper == null) {
+            return Directory.SORT_KEY_GAP;
+        }
+        if (upper == null) {
+            return lower <= Long.MAX_VALUE - Directory.SORT_KEY_GAP ? lower + Directory.SORT_KEY_GAP : null;
+        }
+        if (lower == null) {
+            return upper >= Long.MIN_VALUE + Directory.SORT_KEY_GAP ? upper - Directory.SORT_KEY_GAP : null;
+        }
+        // 부호가 다른 큰 값끼리의 뺄셈 오버플로를 피하기 위해 절반씩 더함
+        if (upper <= lower || upper - lower < 2) {
+            return null;
+        }
+        return (lower >> 1) + (upper >> 1) + (lower & upper & 1);
+    }
+    
+    private long sortKeyOf(Long id) {
+        return directoryRepository.findPlacementsByIdIn(List.of(id)).stream()
+                .findFirst()
+                .map(DirectoryRepository.PlacementView::getSortOrder)
+                .orElseThrow(() -> new IllegalArgumentException("Sibling directory not found with id: " + id));
+    }
+
     /**
      * 디렉토리 순서를 업데이트하는 메소드
-     * 여러 디렉토리의 정렬 순서를 한 번에 업데이트합니다.
+     * 여러 디렉토리의 부모와 정렬 순서를 한 번에 업데이트합니다.
      * 
-     * @Transactional 어노테이션:
-     * - 메소드 실행을 트랜잭션으로 관리합니다.
+     * 항목 수와 관계없이 위치 조회 1회(부모가 바뀌는 항목이 있으면 대상 부모 조회 1회 추가)와
+     * JDBC 배치 UPDATE(부모가 바뀌는 항목이 있으면 경로 교체 배치 1회 추가)로 처리됩니다.
+     * 
+     * DTO의 parentId는 항목의 최종 부모입니다. 생략하면 현재 부모를 유지하고, 최상위로 옮기려면 root를 지정합니다.
+     * 최종 부모가 현재 부모와 다르면 이동으로 처리하여 하위 트리 경로를 함께 갱신하고, 순환 이동은 거부합니다.
+     * sortOrder가 null이면 기존 정렬 순서를 유지합니다.
+     * 존재하지 않는 ID는 기존과 같이 건너뜁니다.
+     * version이 있는 항목은 현재 버전과 같을 때만 변경하고,
+     * 조회 이후 다른 요청이 같은 행을 바꾼 경우는 전체를 다시 읽어 재시도합니다.
      * 
      * @param orderList 업데이트할 디렉토리 순서 목록
+     * @throws IllegalArgumentException 중복 ID, 존재하지 않는 부모, 순환 이동, parentId와 root를 함께 지정한 항목이 포함된 경우 발생
+     * @throws DirectoryConflictException 버전이 맞지 않거나 충돌이 계속된 경우 발생
      */
-    @Transactional
     public void updateDirectoryOrder(List<DirectoryOrderDto> orderList) {
         log.debug("디렉토리 순서 업데이트 - 항목 수: {}", orderList.size());
+        if (orderList.isEmpty()) {
+            return;
+        }
+        executeWithRetry(orderList.size() == 1 ? orderList.get(0).getId() : null, () -> {
+            applyOrder(orderList);
+            return null;
+        });
+    }
+
+    /**
+     * 순서 일괄 변경을 현재 트랜잭션에서 한 번 실행하는 메소드 (updateDirectoryOrder 참고)
+     */
+    private void applyOrder(List<DirectoryOrderDto> orderList) {
+        
+        Set<Long> ids = new HashSet<>(orderList.size() * 4 / 3 + 1);
+        for (DirectoryOrderDto orderDto : orderList) {
+            if (!ids.add(orderDto.getId())) {
+                throw new IllegalArgumentException("Duplicate directory id in order update: " + orderDto.getId());
+            }
+            if (orderDto.isRoot() && orderDto.getParentId() != null) {
+                throw new IllegalArgumentException("Cannot set both parentId and root for directory " + orderDto.getId());
+            }
+            rejectCycleInSnapshot(orderDto.getId(), orderDto.getParentId());
+        }
+        Map<Long, DirectoryRepository.PlacementView> current = new HashMap<>(ids.size() * 4 / 3 + 1);
+        for (DirectoryRepository.PlacementView view : findPlacements(ids)) {
+            current.put(view.getId(), view);
+        }
+        for (DirectoryOrderDto orderDto : orderList) {
+            DirectoryRepository.PlacementView view = current.get(orderDto.getId());
+            if (view != null) {
+                checkExpectedVersion(view, orderDto.getVersion());
+            }
+        }
+        
+        // 부모가 바뀌는 항목과 그 대상 부모
+        List<DirectoryRepository.PlacementView> reparented = new ArrayList<>();
+        Set<Long> targetParentIds = new HashSet<>();
+        for (DirectoryOrderDto orderDto : orderList) {
+            DirectoryRepository.PlacementView view = current.get(orderDto.getId());
+            if (view != null && !Objects.equals(view.getParentId(), targetParentId(orderDto, view))) {
+                reparented.add(view);
+                if (orderDto.getParentId() != null) {
+                    targetParentIds.add(orderDto.getParentId());
+                }
+            }
+        }
+        Map<Long, DirectoryRepository.PlacementView> parents = new HashMap<>();
+        if (!targetParentIds.isEmpty()) {
+            for (DirectoryRepository.PlacementView view : findPlacements(targetParentIds)) {
+                parents.put(view.getId(), view);
+            }
+            for (Long parentId : targetParentIds) {
+                if (!parents.containsKey(parentId)) {
+                    throw new IllegalArgumentException("Parent directory not found with id: " + parentId);
+                }
+            }
+            rejectOverlappingMoves(reparented, parents.values());
+        } else if (!reparented.isEmpty()) {
+            rejectOverlappingMoves(reparented, Collections.emptyList());
+        }
         
+        List<DirectoryJdbcRepository.Placement> placements = new ArrayList<>(orderList.size());
+        List<DirectoryJdbcRepository.PathPrefixChange> pathChanges = new ArrayList<>(reparented.size());
+        List<DirectoryChangeEvent> events = new ArrayList<>(orderList.size());
         for (DirectoryOrderDto orderDto : orderList) {
-            directoryRepository.findById(orderDto.getId())
-                    .ifPresent(directory -> {
-                        directory.setSortOrder(orderDto.getSortOrder());
-                        directoryRepository.save(directory);
-                    });
+            DirectoryRepository.PlacementView view = current.get(orderDto.getId());
+            if (view == null) {
+                log.debug("디렉토리 순서 업데이트 - 존재하지 않는 ID 건너뜀: {}", orderDto.getId());
+                continue;
+            }
+            Long parentId = targetParentId(orderDto, view);
+            long sortOrder = orderDto.getSortOrder() != null ? orderDto.getSortOrder() : view.getSortOrder();
+            placements.add(new DirectoryJdbcRepository.Placement(view.getId(), parentId, sortOrder, view.getVersion()));
+            if (Objects.equals(view.getParentId(), parentId)) {
+                events.add(new DirectoryChangeEvent(DirectoryChangeEvent.Type.REORDERED, view.getId(), parentId, parentId));
+                continue;
+            }
+            String newPath = Directory.childPath(parentId != null ? parents.get(parentId).getPath() : null, view.getId());
+            checkSubtreePathLength(view.getPath(), newPath);
+            pathChanges.add(new DirectoryJdbcRepository.PathPrefixChange(
+                    view.getPath(), newPath, Directory.subtreeUpperBound(view.getPath())));
+            events.add(new DirectoryChangeEvent(DirectoryChangeEvent.Type.MOVED, view.getId(), parentId, view.getParentId()));
         }
+        
+        // 경로 교체가 이동 항목의 버전도 올리므로 버전 조건이 있는 위치 변경을 먼저 실행
+        directoryJdbcRepository.batchUpdatePlacement(placements);
+        directoryJdbcRepository.batchReplacePathPrefix(pathChanges);
+        events.forEach(eventPublisher::publishEvent);
+        log.debug("디렉토리 순서 업데이트 완료 - 위치 변경: {}, 경로 교체: {}", placements.size(), pathChanges.size());
+    }
+
+    /**
+     * 순서 변경 항목의 최종 부모를 결정하는 메소드
+     * parentId가 있으면 그 부모, root가 true이면 최상위(null), 둘 다 없으면 현재 부모입니다.
+     */
+    private static Long targetParentId(DirectoryOrderDto orderDto, DirectoryRepository.PlacementView view) {
+        if (orderDto.getParentId() != null || orderDto.isRoot()) {
+            return orderDto.getParentId();
+        }
+        return view.getParentId();
     }
 
     /**
      * 디렉토리를 삭제하는 메소드
      * 디렉토리와 그 하위 디렉토리를 모두 삭제합니다.
      * 
+     * 하위 트리의 크기나 깊이와 관계없이 대상 조회 1회, 부모 참조 해제 1회, 일괄 삭제 1회의
+     * 고정된 쿼리 수로 처리되며, 자바 재귀를 사용하지 않으므로 깊이 제한이 없습니다.
+     * 
      * @Transactional 어노테이션:
      * - 메소드 실행을 트랜잭션으로 관리합니다.
      * - 하나의 트랜잭션 내에서 모든 삭제 작업이 수행됩니다.
      * 
      * @param id 삭제할 디렉토리 ID
+     * @return 삭제된 디렉토리 수 (자기 자신 포함)
      * @throws IllegalArgumentException 디렉토리가 존재하지 않는 경우 발생
      */
     @Transactional
-    public void deleteDirectory(Long id) {
+    public int deleteDirectory(Long id) {
         log.debug("디렉토리 삭제 시작 - ID: {}", id);
         
         Directory directory = directoryRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Directory not found with id: " + id));
+        Long parentId = directory.getParentId();
+        String path = directory.getPath();
+        String upper = Directory.subtreeUpperBound(path);
         
-        // 하위 디렉토리가 있는지 확인
-        List<Directory> children = directoryRepository.findByParent_IdOrderBySortOrderAsc(id);
-        if (!children.isEmpty()) {
-            log.debug("하위 디렉토리가 있어 재귀적으로 삭제 - 하위 디렉토리 수: {}", children.size());
-            for (Directory child : children) {
-                deleteDirectory(child.getId());
-            }
-        }
-        
-        // 부모 디렉토리에서 제거
-        Directory parent = directory.getParent();
-        if (parent != null) {
-            parent.getChildren().remove(directory);
-            directoryRepository.save(parent);
-            log.debug("부모 디렉토리에서 제거됨 - 부모 ID: {}", parent.getId());
-        }
+        // 하위 트리 내부의 자기 참조를 먼저 끊어 한 번의 DELETE로 지울 수 있게 함
+        directoryRepository.detachSubtree(path, upper);
+        int deleted = directoryRepository.deleteSubtree(path, upper);
+        eventPublisher.publishEvent(new DirectoryChangeEvent(DirectoryChangeEvent.Type.DELETED, id, parentId, parentId));
         
-        // 디렉토리 삭제
-        directoryRepository.delete(directory);
-        log.debug("디렉토리 삭제 완료 - ID: {}", id);
+        log.debug("디렉토리 삭제 완료 - ID: {}, 삭제된 디렉토리 수: {}", id, deleted);
+        return deleted;
     }
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+package com.dropand.service;
+
+import com.dropand.domain.Directory;
+import com.dropand.repository.DirectoryJdbcRepository;
+import com.dropand.repository.DirectoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 형제 디렉토리의 정렬 키 간격을 다시 벌리는 컴포넌트
+ *
+ * 주요 기능:
+ * 1. 한 부모의 자식 정렬 키를 현재 순서대로 SORT_KEY_GAP 간격으로 다시 부여 (JDBC 배치 1회)
+ * 2. 간격이 줄어든 부모를 커밋 후 백그라운드에서 재조정하도록 예약
+ *
+ * 정렬 키는 중간값으로 끼워 넣을 때마다 간격이 절반으로 줄어듭니다.
+ * 간격이 임계값 아래로 내려가면 이동 요청과 분리된 백그라운드 트랜잭션에서 재조정하고,
+ * 간격이 완전히 소진된 경우에만 이동 요청의 트랜잭션 안에서 즉시 재조정합니다.
+ */
+@Component
+public class DirectorySortKeyRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectorySortKeyRebalancer.class);
+
+    /**
+     * 재조정 예약 목록에서 최상위 목록을 나타내는 키 (디렉토리 ID는 항상 양수)
+     */
+    private static final long ROOT_KEY = 0L;
+
+    private final DirectoryRepository directoryRepository;
+    private final DirectoryJdbcRepository directoryJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskExecutor taskExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 재조정이 예약되었거나 진행 중인 부모 (같은 부모의 중복 예약 방지)
+     */
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 생성자 주입 방식의 의존성 주입
+     *
+     * @param directoryRepository 디렉토리 리포지토리 객체
+     * @param directoryJdbcRepository 디렉토리 JDBC 일괄 쓰기 리포지토리
+     * @param eventPublisher 이벤트 발행기
+     * @param taskExecutor 백그라운드 재조정을 실행할 스프링 기본 작업 실행기
+     * @param transactionManager 트랜잭션 매니저
+     */
+    public DirectorySortKeyRebalancer(DirectoryRepository directoryRepository,
+                                      DirectoryJdbcRepository directoryJdbcRepository,
+                                      ApplicationEventPublisher eventPublisher,
+                                      TaskExecutor taskExecutor,
+                                      PlatformTransactionManager transactionManager) {
+        this.directoryRepository = directoryRepository;
+        this.directoryJdbcRepository = directoryJdbcRepository;
+        this.eventPublisher = eventPublisher;
+        this.taskExecutor = taskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 한 부모의 자식 정렬 키를 현재 순서(정렬 키, ID)대로 다시 부여하는 메소드
+     * 현재 트랜잭션 안에서 실행되며, 값이 바뀌는 행만 하나의 JDBC 배치로 갱신합니다.
+     *
+     * @param parentId 부모 디렉토리 ID (null인 경우 최상위)
+     * @param excludeId 재조정에서 제외할 디렉토리 ID (이동 중인 디렉토리, 없으면 null)
+     * @return 갱신된 행 수
+     */
+    public int rebalance(Long parentId, Long excludeId) {
+        List<DirectoryRepository.PlacementView> children = parentId == null
+                ? directoryRepository.findRootPlacements()
+                : directoryRepository.findChildPlacements(List.of(parentId));
+        List<DirectoryJdbcRepository.Placement> placements = new ArrayList<>();
+        long key = 0;
+        for (DirectoryRepository.PlacementView child : children) {
+            if (Objects.equals(child.getId(), excludeId)) {
+                continue;
+            }
+            key += Directory.SORT_KEY_GAP;
+            if (child.getSortOrder() != key) {
+                placements.add(new DirectoryJdbcRepository.Placement(child.getId(), parentId, key, child.getVersion()));
+            }
+        }
+        directoryJdbcRepository.batchUpdatePlacement(placements);
+        // 키가 바뀐 자식마다 이벤트를 발행 (변경 알림이 자식별 새 정렬 키를 스냅샷에서 읽어 전달)
+        for (DirectoryJdbcRepository.Placement placement : placements) {
+            eventPublisher.publishEvent(new DirectoryChangeEvent(
+                    DirectoryChangeEvent.Type.REORDERED, placement.id(), parentId, parentId));
+        }
+        log.info("정렬 키 재조정 - 부모 ID: {}, 자식 수: {}, 갱신된 행 수: {}", parentId, children.size(), placements.size());
+        return placements.size();
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 후 백그라운드에서 재조정하도록 예약하는 메소드
+     * 같은 부모에 대한 재조정이 이미 예약되어 있으면 무시합니다.
+     *
+     * @param parentId 부모 디렉토리 ID (null인 경우 최상위)
+     */
+    public void rebalanceLater(Long parentId) {
+        Long key = parentId != null ? parentId : ROOT_KEY;
+        if (!pending.add(key)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(parentId, key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    submit(parentId, key);
+                } else {
+                    pending.remove(key);
+                }
+            }
+        });
+    }
+
+    private void submit(Long parentId, Long key) {
+        taskExecutor.execute(() -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> rebalance(parentId, null));
+            } catch (RuntimeException e) {
+                log.warn("정렬 키 백그라운드 재조정 실패 - 부모 ID: {}", parentId, e);
+            } finally {
+                pending.remove(key);
+            }
+        });
+    }
+}
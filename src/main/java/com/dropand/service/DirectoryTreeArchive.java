@@ -0,0 +1,383 @@
+package com.dropand.service;
+
+import com.dropand.domain.Directory;
+import com.dropand.dto.DirectoryArchiveResultDto;
+import com.dropand.repository.DirectoryJdbcRepository;
+import com.dropand.repository.DirectoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * 디렉토리 트리 전체를 체크섬이 붙은 바이너리 아카이브로 저장하고 복원하는 컴포넌트
+ *
+ * 주요 기능:
+ * 1. 실행 중에 전체 트리를 경로 순서로 한 행씩 읽어 아카이브로 기록 (HTTP 응답 또는 서버의 아카이브 파일)
+ * 2. 아카이브 파일을 메모리 매핑으로 읽고, 체크섬을 먼저 검증한 뒤 빈 테이블에 JDBC 배치로 복원
+ * 3. 복원 후 ID 시퀀스를 복원된 최대 ID 다음 값부터 다시 시작
+ *
+ * 파일 형식 (버전 1, 고정 길이 정수는 빅 엔디언):
+ * - 헤더 16바이트: 매직 "DRTR", 형식 버전(short), 예약(short, 0), 생성 시각(long, epoch 밀리초)
+ * - 행: 경로 순서(부모가 항상 자식보다 먼저)로 디렉토리마다 id, parentId(최상위는 0), sortOrder(지그재그 인코딩),
+ *   version, 이름의 UTF-8 바이트 수를 가변 길이 정수(LEB128)로 쓰고 이름 바이트를 이어 씀
+ * - 트레일러 16바이트: 행 수(long), 파일 처음부터 행 수까지의 CRC32C(int), 끝 매직 "DRTE"
+ *
+ * 경로는 저장하지 않고 복원할 때 부모 경로에 자기 ID를 붙여 다시 계산합니다.
+ * 행이 부모 먼저 순서이므로 복원 중에는 현재 행의 조상 경로만(트리 깊이만큼) 스택에 두면 됩니다.
+ *
+ * 저장은 /export와 같이 쿼리 하나로 읽으므로 저장 중에 일어난 쓰기는 섞이지 않습니다.
+ * 복원은 하나의 트랜잭션이라 중간에 실패하면 테이블이 빈 채로 남고, 다음 시작 때 다시 복원합니다.
+ */
+@Component
+public class DirectoryTreeArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryTreeArchive.class);
+
+    private static final int MAGIC = 0x44525452; // "DRTR"
+    private static final int END_MAGIC = 0x44525445; // "DRTE"
+    private static final short FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int TRAILER_BYTES = 16;
+
+    /**
+     * 복원 시 INSERT 배치 하나의 행 수
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * 이름 최대 UTF-8 바이트 수 (name 컬럼 VARCHAR(255), 한 글자는 최대 4바이트)
+     */
+    private static final int MAX_NAME_BYTES = 255 * 4;
+
+    private final DirectoryRepository directoryRepository;
+    private final DirectoryJdbcRepository directoryJdbcRepository;
+    private final TransactionTemplate writeTransaction;
+
+    /**
+     * 저장/복원에 사용하는 아카이브 파일
+     */
+    private final Path file;
+
+    /**
+     * 생성자 주입 방식의 의존성 주입
+     *
+     * @param directoryRepository 디렉토리 리포지토리 객체 (복원 전 빈 테이블 확인)
+     * @param directoryJdbcRepository 디렉토리 JDBC 리포지토리 (스트리밍 조회, 배치 INSERT, 시퀀스 재시작)
+     * @param transactionManager 트랜잭션 매니저
+     * @param file 아카이브 파일 경로 (directory.archive.file)
+     */
+    public DirectoryTreeArchive(DirectoryRepository directoryRepository,
+                                DirectoryJdbcRepository directoryJdbcRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${directory.archive.file:./data/directories.tree}") Path file) {
+        this.directoryRepository = directoryRepository;
+        this.directoryJdbcRepository = directoryJdbcRepository;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.file = file;
+    }
+
+    /**
+     * 아카이브 파일 경로를 반환하는 메소드
+     *
+     * @return 아카이브 파일 경로
+     */
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * 전체 트리를 출력 스트림에 아카이브 형식으로 기록하는 메소드
+     *
+     * @param out 출력 스트림 (닫지 않음)
+     * @return 기록한 디렉토리 수
+     * @throws IOException 출력 중 오류가 발생한 경우 (클라이언트 연결 종료 포함)
+     */
+    public long write(OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        ArchiveWriter writer = new ArchiveWriter(out);
+        writer.writeInt(MAGIC);
+        writer.writeShort(FORMAT_VERSION);
+        writer.writeShort((short) 0);
+        writer.writeLong(System.currentTimeMillis());
+        long[] rows = {0};
+        String all = String.valueOf(Directory.PATH_SEPARATOR);
+        try {
+            directoryJdbcRepository.streamByPath(all, Directory.subtreeUpperBound(all), resultSet -> {
+                try {
+                    writer.writeVarLong(resultSet.getLong(1));
+                    byte[] name = resultSet.getString(2).getBytes(StandardCharsets.UTF_8);
+                    writer.writeVarLong(resultSet.getLong(3)); // NULL은 0으로 읽힘 (최상위)
+                    long sortOrder = resultSet.getLong(4);
+                    writer.writeVarLong((sortOrder << 1) ^ (sortOrder >> 63));
+                    writer.writeVarLong(resultSet.getLong(5));
+                    writer.writeVarLong(name.length);
+                    writer.writeBytes(name);
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.writeLong(rows[0]);
+        writer.finish(END_MAGIC);
+        log.debug("디렉토리 아카이브 기록 완료 - 행 수: {}, 크기: {} bytes, 소요: {} ms",
+                rows[0], writer.written, (System.nanoTime() - started) / 1_000_000);
+        return rows[0];
+    }
+
+    /**
+     * 전체 트리를 아카이브 파일에 저장하는 메소드
+     * 같은 디렉토리의 임시 파일에 모두 쓴 뒤 이름을 바꾸므로, 저장 중 실패해도 기존 아카이브는 그대로 남습니다.
+     *
+     * @return 저장 결과
+     * @throws IOException 파일 쓰기 중 오류가 발생한 경우
+     */
+    public DirectoryArchiveResultDto save() throws IOException {
+        long started = System.nanoTime();
+        Path target = file.toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        long rows;
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                rows = write(out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        long size = Files.size(target);
+        log.info("디렉토리 아카이브 저장 완료 - 파일: {}, 행 수: {}, 크기: {} bytes, 소요: {} ms", target, rows, size, elapsedMillis);
+        return new DirectoryArchiveResultDto(target.toString(), rows, size, elapsedMillis);
+    }
+
+    /**
+     * 아카이브 파일을 빈 디렉토리 테이블에 복원하는 메소드
+     * 파일 전체의 체크섬과 형식을 먼저 확인하므로 손상된 파일은 데이터베이스를 건드리기 전에 거부됩니다.
+     *
+     * @return 복원 결과
+     * @throws IllegalArgumentException 아카이브 파일이 손상되었거나 형식이 다른 경우 발생
+     * @throws IllegalStateException 디렉토리 테이블이 비어 있지 않은 경우 발생
+     * @throws IOException 파일 읽기 중 오류가 발생한 경우
+     */
+    public DirectoryArchiveResultDto restore() throws IOException {
+        long started = System.nanoTime();
+        long size;
+        long rows;
+        Long maxId;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            size = channel.size();
+            if (size < HEADER_BYTES + TRAILER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid archive size: " + size + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            rows = verify(buffer);
+            maxId = writeTransaction.execute(status -> load(buffer, rows));
+        }
+        // 시퀀스 재시작은 DDL이므로 복원 트랜잭션이 커밋된 뒤에 실행
+        directoryJdbcRepository.restartIdSequence(maxId + 1);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        log.info("디렉토리 아카이브 복원 완료 - 파일: {}, 행 수: {}, 크기: {} bytes, 소요: {} ms ({} 개/초)",
+                file, rows, size, elapsedMillis, elapsedMillis > 0 ? rows * 1000 / elapsedMillis : rows);
+        return new DirectoryArchiveResultDto(file.toString(), rows, size, elapsedMillis);
+    }
+
+    /**
+     * 헤더, 트레일러, 체크섬을 확인하고 행 수를 반환하는 메소드
+     */
+    private static long verify(ByteBuffer buffer) {
+        int limit = buffer.limit();
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(limit - 4) != END_MAGIC) {
+            throw new IllegalArgumentException("Not a directory archive (bad magic)");
+        }
+        short version = buffer.getShort(4);
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported archive format version: " + version);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(0, limit - 8));
+        int expected = buffer.getInt(limit - 8);
+        if ((int) crc.getValue() != expected) {
+            throw new IllegalArgumentException(String.format("Archive checksum mismatch (expected %08x, computed %08x)",
+                    expected, (int) crc.getValue()));
+        }
+        long rows = buffer.getLong(limit - TRAILER_BYTES);
+        if (rows < 0) {
+            throw new IllegalArgumentException("Invalid archive row count: " + rows);
+        }
+        return rows;
+    }
+
+    /**
+     * 검증한 아카이브의 행을 배치로 INSERT 하는 메소드 (복원 트랜잭션 안에서 실행)
+     *
+     * @return 복원한 최대 ID (행이 없으면 0)
+     */
+    private Long load(ByteBuffer source, long rows) {
+        if (directoryRepository.count() > 0) {
+            throw new IllegalStateException("The directories table is not empty; restore only into an empty table");
+        }
+        ByteBuffer buffer = source.slice(HEADER_BYTES, source.limit() - HEADER_BYTES - TRAILER_BYTES);
+        List<DirectoryJdbcRepository.NewDirectory> batch = new ArrayList<>(BATCH_SIZE);
+        byte[] nameBytes = new byte[MAX_NAME_BYTES];
+        // 현재 행의 조상 (ID, 경로) 스택
+        long[] ancestorIds = new long[64];
+        String[] ancestorPaths = new String[64];
+        int depth = 0;
+        long maxId = 0;
+        try {
+            for (long row = 0; row < rows; row++) {
+                long id = readVarLong(buffer);
+                long parentId = readVarLong(buffer);
+                long zigzag = readVarLong(buffer);
+                long sortOrder = (zigzag >>> 1) ^ -(zigzag & 1);
+                long version = readVarLong(buffer);
+                int nameLength = (int) readVarLong(buffer);
+                if (id <= 0 || nameLength <= 0 || nameLength > MAX_NAME_BYTES) {
+                    throw new IllegalArgumentException("Corrupt archive at row " + row);
+                }
+                buffer.get(nameBytes, 0, nameLength);
+                String name = new String(nameBytes, 0, nameLength, StandardCharsets.UTF_8);
+
+                while (depth > 0 && ancestorIds[depth - 1] != parentId) {
+                    depth--;
+                }
+                if (parentId != 0 && depth == 0) {
+                    throw new IllegalArgumentException("Archive row " + row + ": parent " + parentId
+                            + " of directory " + id + " does not come before it");
+                }
+                String path = Directory.childPath(depth > 0 ? ancestorPaths[depth - 1] : null, id);
+                if (depth == ancestorIds.length) {
+                    ancestorIds = Arrays.copyOf(ancestorIds, depth * 2);
+                    ancestorPaths = Arrays.copyOf(ancestorPaths, depth * 2);
+                }
+                ancestorIds[depth] = id;
+                ancestorPaths[depth++] = path;
+
+                batch.add(new DirectoryJdbcRepository.NewDirectory(id, name, path, sortOrder, version,
+                        parentId != 0 ? parentId : null));
+                if (batch.size() == BATCH_SIZE) {
+                    directoryJdbcRepository.batchInsert(batch);
+                    batch.clear();
+                }
+                maxId = Math.max(maxId, id);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Corrupt archive: rows end before the declared count " + rows);
+        }
+        if (buffer.hasRemaining()) {
+            throw new IllegalArgumentException("Corrupt archive: " + buffer.remaining() + " bytes after the last row");
+        }
+        directoryJdbcRepository.batchInsert(batch);
+        return maxId;
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Corrupt archive: variable-length integer too long");
+    }
+
+    /**
+     * 아카이브 출력기
+     * 자체 버퍼에 모아 출력 스트림에 덩어리로 쓰고, 쓰는 동안 CRC32C를 함께 계산합니다.
+     */
+    private static final class ArchiveWriter {
+        private final OutputStream out;
+        private final CRC32C crc = new CRC32C();
+        private final byte[] buffer = new byte[1 << 16];
+        private int position;
+        long written;
+
+        ArchiveWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        void writeVarLong(long value) throws IOException {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeBytes(byte[] bytes) throws IOException {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeShort(short value) throws IOException {
+            ensure(2);
+            buffer[position++] = (byte) (value >>> 8);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeInt(int value) throws IOException {
+            ensure(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeLong(long value) throws IOException {
+            writeInt((int) (value >>> 32));
+            writeInt((int) value);
+        }
+
+        /**
+         * 지금까지 쓴 내용의 체크섬과 끝 매직을 붙이고 출력 스트림을 비우는 메소드
+         */
+        void finish(int endMagic) throws IOException {
+            drain();
+            int checksum = (int) crc.getValue();
+            writeInt(checksum);
+            writeInt(endMagic);
+            drain();
+            out.flush();
+        }
+
+        private void ensure(int length) throws IOException {
+            if (position + length > buffer.length) {
+                drain();
+            }
+        }
+
+        private void drain() throws IOException {
+            crc.update(buffer, 0, position);
+            out.write(buffer, 0, position);
+            written += position;
+            position = 0;
+        }
+    }
+}
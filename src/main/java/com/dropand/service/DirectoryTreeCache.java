@@ -0,0 +1,335 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryDto;
+import com.dropand.repository.DirectoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 디렉토리 트리 스냅샷을 보관하고 갱신하는 컴포넌트
+ *
+ * 주요 기능:
+ * 1. 애플리케이션 시작 시 전체 트리를 한 번의 평면 쿼리로 읽어 스냅샷 생성
+ * 2. 쓰기 트랜잭션이 커밋된 후 그 트랜잭션이 바꾼 행만 다시 읽어 이전 스냅샷에 반영한 새 스냅샷으로 참조를 교체 (copy-on-write)
+ * 3. 읽기 요청에 현재 스냅샷을 잠금 없이 제공
+ *
+ * 읽기 스레드는 volatile 참조 하나만 읽으므로 잠금이 없고,
+ * 갱신은 쓰기 스레드끼리만 직렬화됩니다.
+ *
+ * 갱신 비용과 동기 실행:
+ * - 커밋마다 트랜잭션의 변경 이벤트로 바뀐 행만 조회합니다. 생성, 이동, 삭제는 그 디렉토리의 하위 트리를
+ *   (경로 범위 검색으로) 다시 읽고, 이름과 순서 변경은 그 행만 읽습니다. 전체 테이블은 다시 읽지 않으며,
+ *   새 스냅샷은 이전 스냅샷의 기본형 배열을 복사하고 바뀐 부모의 자식 구간만 병합해 만듭니다 (DirectoryTreeSnapshot.withChanges).
+ * - 다시 읽은 행이 이전 스냅샷의 절반을 넘거나(큰 하위 트리 이동, 대량 가져오기), 동시 커밋이 서로 다른 순서로 반영되어
+ *   부모를 찾을 수 없으면 전체 트리를 한 번의 평면 쿼리로 다시 읽습니다. 다시 읽은 행은 그 시점의 데이터베이스 상태이므로
+ *   반영 순서가 커밋 순서와 달라도 마지막에는 데이터베이스와 같아집니다.
+ * - 갱신은 커밋한 요청 스레드에서 응답 전에 실행됩니다. 백그라운드로 미루지 않는 이유: 쓰기 응답 직후의 조회가
+ *   방금 쓴 내용을 보아야 하고(화면은 생성 직후 자식 목록을 다시 읽음), 커밋 후 순서상 뒤에 실행되는
+ *   버전 갱신(ETag)과 변경 로그가 새 스냅샷을 읽기 때문입니다. 스냅샷보다 버전이 먼저 바뀌면 새 ETag가 이전 데이터와 함께 캐시될 수 있습니다.
+ * - 전체 재구성은 합쳐집니다(single-flight): 재구성 중에 들어온 커밋들은 잠금을 기다린 뒤, 자기 커밋 이후에 시작된
+ *   재구성이 이미 반영했으면 건너뜁니다.
+ * - 부분 갱신 시간은 directory.tree.snapshot.update 타이머로, 전체 재구성 시간은 directory.tree.snapshot.rebuild 타이머로,
+ *   합쳐져 건너뛴 갱신 수는 directory.tree.snapshot.coalesced 카운터로 확인합니다.
+ */
+@Component
+public class DirectoryTreeCache {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryTreeCache.class);
+
+    /**
+     * 커밋 후 콜백 실행 순서 (값이 작을수록 먼저 실행)
+     */
+    static final int SYNCHRONIZATION_ORDER = 0;
+
+    /**
+     * 부분 갱신에서 ID 목록으로 한 번에 조회하는 최대 행 수 (IN 절 크기)
+     */
+    private static final int ID_BATCH_SIZE = 1000;
+
+    private final DirectoryRepository directoryRepository;
+
+    /**
+     * 트랜잭션 밖(애플리케이션 시작 등)에서 갱신할 때 사용하는 새 읽기 전용 트랜잭션
+     */
+    private final TransactionTemplate readTransaction;
+
+    /**
+     * 현재 스냅샷 (불변 객체이므로 참조 교체만으로 안전하게 공개됨)
+     */
+    private volatile DirectoryTreeSnapshot current;
+
+    /**
+     * 요청된 갱신 횟수와 마지막 재구성이 반영한 갱신 횟수
+     */
+    private final AtomicLong requested = new AtomicLong();
+    private long applied = -1;
+
+    /**
+     * 재구성을 직렬화하기 위한 잠금 객체 (읽기 경로에서는 사용하지 않음)
+     * 잠금을 잡은 채 데이터베이스를 조회하므로 synchronized 대신 ReentrantLock을 사용합니다.
+     * (가상 스레드가 synchronized 안에서 I/O를 기다리면 캐리어 스레드까지 묶여, 동시 커밋이 몰릴 때 캐리어가 고갈됨)
+     */
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    /**
+     * 재구성 시간 (조회 + 스냅샷 생성)
+     */
+    private final Timer rebuildTimer;
+
+    /**
+     * 부분 갱신 시간 (바뀐 행 조회 + 이전 스냅샷에 반영)
+     */
+    private final Timer updateTimer;
+
+    /**
+     * 먼저 시작된 재구성에 합쳐져 건너뛴 갱신 수
+     */
+    private final Counter coalescedCounter;
+
+    /**
+     * 트랜잭션 리소스 키 (트랜잭션 중 누적된 이벤트 목록)
+     */
+    private final Object pendingKey = new Object();
+
+    /**
+     * 생성자 주입 방식의 의존성 주입
+     *
+     * @param directoryRepository 디렉토리 리포지토리 객체
+     * @param transactionManager 트랜잭션 매니저
+     * @param meterRegistry 재구성 메트릭을 기록할 레지스트리
+     */
+    public DirectoryTreeCache(DirectoryRepository directoryRepository, PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.directoryRepository = directoryRepository;
+        this.rebuildTimer = Timer.builder("directory.tree.snapshot.rebuild")
+                .description("Time to reload the tree and publish a new snapshot")
+                .register(meterRegistry);
+        this.updateTimer = Timer.builder("directory.tree.snapshot.update")
+                .description("Time to reload the changed rows and apply them to the previous snapshot")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("directory.tree.snapshot.coalesced")
+                .description("Snapshot refreshes skipped because a later rebuild already covered them")
+                .register(meterRegistry);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 현재 스냅샷을 반환하는 메소드
+     * 아직 생성되지 않았다면 처음 한 번만 동기적으로 생성합니다.
+     *
+     * @return 현재 스냅샷
+     */
+    public DirectoryTreeSnapshot snapshot() {
+        DirectoryTreeSnapshot snapshot = current;
+        if (snapshot == null) {
+            refresh();
+            snapshot = current;
+        }
+        return snapshot;
+    }
+
+    /**
+     * 애플리케이션 시작이 끝나면(data.sql 실행 이후) 첫 스냅샷을 생성합니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresh();
+    }
+
+    /**
+     * 디렉토리 변경 이벤트를 트랜잭션 단위로 모아 두었다가 커밋 후 새 스냅샷에 한 번에 반영하도록 예약합니다.
+     * 한 트랜잭션에서 여러 이벤트가 발생해도(예: 순서 일괄 변경) 커밋 후 갱신은 한 번만 수행하며,
+     * 롤백된 트랜잭션은 스냅샷에 반영하지 않습니다.
+     *
+     * @param event 디렉토리 변경 이벤트
+     */
+    @EventListener
+    @SuppressWarnings("unchecked")
+    public void onDirectoryChanged(DirectoryChangeEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh();
+            return;
+        }
+        List<DirectoryChangeEvent> pending = (List<DirectoryChangeEvent>) TransactionSynchronizationManager.getResource(pendingKey);
+        if (pending == null) {
+            log.debug("디렉토리 변경 - 커밋 후 스냅샷 갱신 예약: {}", event);
+            List<DirectoryChangeEvent> events = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(pendingKey, events);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    // 버전 갱신(DirectoryVersionTracker)보다 먼저 새 스냅샷을 공개
+                    return SYNCHRONIZATION_ORDER;
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(pendingKey);
+                    if (status == STATUS_COMMITTED) {
+                        // 커밋이 끝난 트랜잭션의 커넥션으로 그대로 읽음 (새 트랜잭션을 열면 요청 스레드마다
+                        // 커넥션이 두 개 필요해져, 동시 쓰기가 풀 크기를 넘으면 서로 커넥션을 기다리며 멈춤)
+                        update(events);
+                    }
+                }
+            });
+            pending = events;
+        }
+        pending.add(event);
+    }
+
+    /**
+     * 커밋된 트랜잭션의 변경을 현재 스냅샷에 반영하는 메소드
+     * 바뀐 행만 다시 읽어 반영하고, 그럴 수 없으면 전체를 다시 읽습니다.
+     *
+     * @param events 커밋된 디렉토리 변경 이벤트 목록
+     */
+    private void update(List<DirectoryChangeEvent> events) {
+        long ticket = requested.incrementAndGet();
+        rebuildLock.lock();
+        try {
+            if (applied >= ticket) {
+                // 이 커밋 이후에 시작된 재구성이 이미 변경을 반영함
+                coalescedCounter.increment();
+                return;
+            }
+            DirectoryTreeSnapshot previous = current;
+            if (previous != null) {
+                long started = System.nanoTime();
+                DirectoryTreeSnapshot next = applyChanges(previous, events);
+                if (next != null) {
+                    // 부분 갱신은 이 커밋만 반영하므로 applied(여기까지의 모든 커밋을 반영함)는 바꾸지 않음
+                    current = next;
+                    long elapsed = System.nanoTime() - started;
+                    updateTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                    log.debug("디렉토리 스냅샷 부분 갱신 - 버전: {}, 노드 수: {}, 이벤트 수: {}, 소요: {} µs",
+                            next.getVersion(), next.size(), events.size(), elapsed / 1_000);
+                    return;
+                }
+            }
+            rebuild(directoryRepository::findAllFlatOrdered);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * 이벤트가 가리키는 행을 데이터베이스에서 다시 읽어 이전 스냅샷에 반영하는 메소드
+     *
+     * @param previous 현재 스냅샷
+     * @param events 커밋된 디렉토리 변경 이벤트 목록
+     * @return 새 스냅샷 (다시 읽을 행이 너무 많거나 반영할 수 없으면 null)
+     */
+    private DirectoryTreeSnapshot applyChanges(DirectoryTreeSnapshot previous, List<DirectoryChangeEvent> events) {
+        // 하위 트리째 바뀌는 디렉토리(생성은 가져오기의 하위 트리 포함)와 그 행만 바뀌는 디렉토리
+        // 삭제된 하위 트리는 지우기만 하고, 나머지 하위 트리는 지운 뒤 데이터베이스의 현재 행으로 다시 채움
+        Set<Long> subtreeRoots = new LinkedHashSet<>();
+        Set<Long> reloadedRoots = new LinkedHashSet<>();
+        Set<Long> nodes = new LinkedHashSet<>();
+        for (DirectoryChangeEvent event : events) {
+            switch (event.getType()) {
+                case CREATED, MOVED -> {
+                    subtreeRoots.add(event.getId());
+                    reloadedRoots.add(event.getId());
+                }
+                case DELETED -> subtreeRoots.add(event.getId());
+                case RENAMED, REORDERED -> nodes.add(event.getId());
+            }
+        }
+        nodes.removeAll(subtreeRoots);
+        int maxRows = previous.size() / 2;
+        Map<Long, DirectoryDto> rows = new LinkedHashMap<>();
+        for (Long rootId : reloadedRoots) {
+            for (DirectoryDto row : directoryRepository.findSubtreeFlatById(rootId)) {
+                rows.put(row.id, row);
+            }
+            if (rows.size() > maxRows) {
+                return null;
+            }
+        }
+        List<Long> remaining = new ArrayList<>(nodes);
+        for (int from = 0; from < remaining.size(); from += ID_BATCH_SIZE) {
+            List<Long> batch = remaining.subList(from, Math.min(remaining.size(), from + ID_BATCH_SIZE));
+            for (DirectoryDto row : directoryRepository.findFlatByIds(batch)) {
+                rows.put(row.id, row);
+            }
+            if (rows.size() > maxRows) {
+                return null;
+            }
+        }
+        return previous.withChanges(previous.getVersion() + 1, subtreeRoots, rows.values());
+    }
+
+    /**
+     * 데이터베이스에서 전체 트리를 다시 읽어 새 스냅샷을 공개하는 메소드
+     */
+    public void refresh() {
+        refresh(() -> readTransaction.execute(status -> directoryRepository.findAllFlatOrdered()));
+    }
+
+    /**
+     * 주어진 조회 함수로 전체 트리를 읽어 새 스냅샷을 공개하는 메소드
+     *
+     * @param loader (정렬 순서, ID) 오름차순 전체 디렉토리 목록 조회 함수
+     */
+    private void refresh(Supplier<List<DirectoryDto>> loader) {
+        long ticket = requested.incrementAndGet();
+        rebuildLock.lock();
+        try {
+            if (applied >= ticket) {
+                // 이 요청 이후에 시작된 재구성이 이미 변경을 반영함
+                coalescedCounter.increment();
+                return;
+            }
+            rebuild(loader);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * 전체 트리를 다시 읽어 새 스냅샷을 공개하는 메소드 (rebuildLock을 잡은 상태에서 호출)
+     *
+     * @param loader (정렬 순서, ID) 오름차순 전체 디렉토리 목록 조회 함수
+     */
+    private void rebuild(Supplier<List<DirectoryDto>> loader) {
+        long upTo = requested.get();
+        long started = System.nanoTime();
+        List<DirectoryDto> rows = loader.get();
+        DirectoryTreeSnapshot previous = current;
+        DirectoryTreeSnapshot next = DirectoryTreeSnapshot.build(previous != null ? previous.getVersion() + 1 : 1, rows);
+        current = next;
+        applied = upTo;
+        long elapsed = System.nanoTime() - started;
+        rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+
+        long heapBytes = next.estimatedHeapBytes();
+        log.info("디렉토리 스냅샷 공개 - 버전: {}, 노드 수: {}, 추정 힙: {} bytes ({} bytes/노드), 소요: {} ms",
+                next.getVersion(), next.size(), heapBytes,
+                next.size() > 0 ? heapBytes / next.size() : 0,
+                elapsed / 1_000_000);
+    }
+}
@@ -0,0 +1,128 @@
+package com.dropand.service;
+
+import com.dropand.domain.Directory;
+import com.dropand.repository.DirectoryJdbcRepository;
+import com.dropand.repository.DirectoryRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * 디렉토리 트리를 JSON으로 스트리밍 내보내는 컴포넌트
+ *
+ * 주요 기능:
+ * 1. 전체 트리 또는 특정 디렉토리의 하위 트리를 평면 JSON 배열로 출력
+ * 2. 데이터베이스에서 한 행을 읽을 때마다 바로 JSON으로 기록 (엔티티, DTO, 전체 목록을 만들지 않음)
+ *
+ * 출력 형식:
+ * - [{"id":..,"name":..,"parentId":..,"sortOrder":..,"version":..}, ...]
+ * - 경로 순서로 나가므로 부모가 항상 자식보다 먼저 나옵니다. 형제 사이의 표시 순서는 sortOrder로 정합니다.
+ *
+ * 평면 형식이므로 트리 깊이와 관계없이 JSON 중첩이 한 단계이고,
+ * 힙 사용량은 JDBC fetch 크기와 출력 버퍼 크기로 고정됩니다.
+ */
+@Component
+public class DirectoryTreeExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryTreeExporter.class);
+
+    /**
+     * 이 행 수마다 출력 버퍼를 비워 클라이언트가 조회 완료 전에 데이터를 받기 시작하게 합니다.
+     */
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private final DirectoryRepository directoryRepository;
+    private final DirectoryJdbcRepository directoryJdbcRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 생성자 주입 방식의 의존성 주입
+     *
+     * @param directoryRepository 디렉토리 리포지토리 객체 (하위 트리 루트 경로 조회)
+     * @param directoryJdbcRepository 디렉토리 JDBC 리포지토리 (스트리밍 조회)
+     * @param objectMapper JSON 생성기를 만들 ObjectMapper (스프링 설정을 그대로 사용)
+     */
+    public DirectoryTreeExporter(DirectoryRepository directoryRepository,
+                                 DirectoryJdbcRepository directoryJdbcRepository,
+                                 ObjectMapper objectMapper) {
+        this.directoryRepository = directoryRepository;
+        this.directoryJdbcRepository = directoryJdbcRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 내보낼 범위를 확정하는 메소드
+     * 응답을 쓰기 시작하기 전에 호출하여, 없는 루트는 스트리밍 전에 오류로 응답할 수 있게 합니다.
+     *
+     * @param rootId 하위 트리 루트 디렉토리 ID (null인 경우 전체 트리)
+     * @return 내보내기 작업
+     * @throws IllegalArgumentException 루트 디렉토리가 존재하지 않는 경우 발생
+     */
+    public Export prepare(Long rootId) {
+        if (rootId == null) {
+            String all = String.valueOf(Directory.PATH_SEPARATOR);
+            return new Export(all, Directory.subtreeUpperBound(all));
+        }
+        String rootPath = directoryRepository.findPathById(rootId)
+                .orElseThrow(() -> new IllegalArgumentException("Directory not found with id: " + rootId));
+        return new Export(rootPath, Directory.subtreeUpperBound(rootPath));
+    }
+
+    /**
+     * 경로 범위 하나의 내보내기 작업
+     *
+     * @param fromPath 경로 범위 하한 (포함)
+     * @param toPath 경로 범위 상한 (미포함)
+     */
+    public record Export(String fromPath, String toPath) {
+    }
+
+    /**
+     * 내보내기 작업을 출력 스트림에 JSON 배열로 기록하는 메소드
+     *
+     * @param export 내보내기 작업
+     * @param out 출력 스트림 (닫지 않음)
+     * @throws IOException 출력 중 오류가 발생한 경우 (클라이언트 연결 종료 포함)
+     */
+    public void write(Export export, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        long[] rows = {0};
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            directoryJdbcRepository.streamByPath(export.fromPath(), export.toPath(), resultSet -> {
+                try {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", resultSet.getLong(1));
+                    generator.writeStringField("name", resultSet.getString(2));
+                    long parentId = resultSet.getLong(3);
+                    if (resultSet.wasNull()) {
+                        generator.writeNullField("parentId");
+                    } else {
+                        generator.writeNumberField("parentId", parentId);
+                    }
+                    generator.writeNumberField("sortOrder", resultSet.getLong(4));
+                    generator.writeNumberField("version", resultSet.getLong(5));
+                    generator.writeEndObject();
+                    if (++rows[0] % FLUSH_EVERY_ROWS == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.debug("디렉토리 트리 내보내기 완료 - 범위: [{}, {}), 행 수: {}, 소요: {} ms",
+                export.fromPath(), export.toPath(), rows[0], (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,719 @@
+package com.dropand.service;
+
+import com.dropand.domain.Directory;
+import com.dropand.dto.DirectoryImportResultDto;
+import com.dropand.repository.DirectoryJdbcRepository;
+import com.dropand.repository.DirectoryRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 디렉토리 트리를 일괄로 가져오는 컴포넌트 (DirectoryTreeExporter의 반대 방향)
+ *
+ * 주요 기능:
+ * 1. 중첩 JSON 트리 또는 평면 CSV/JSON 목록을 읽으면서 바로 INSERT (전체 입력을 메모리에 올리지 않음)
+ * 2. ID는 시퀀스에서 블록 단위(Directory.ID_ALLOCATION_SIZE)로 확보하고, 행은 JDBC 배치로 INSERT
+ * 3. 경로와 정렬 키를 읽는 순서대로 같은 순회 안에서 계산
+ * 4. 가져오기 전체를 하나의 트랜잭션으로 처리 (중간에 오류가 나면 아무것도 남지 않음)
+ *
+ * 입력 형식:
+ * - JSON: 디렉토리 객체 하나 또는 객체 배열. 객체 필드는 name(필수), children(하위 객체 배열), order(형제 사이 순서).
+ *   최상위 객체는 id/parentId로 평면 목록을 만들 수도 있으므로 /export 응답을 그대로 다시 가져올 수 있습니다
+ *   (order 대신 sortOrder도 인식하며, 그 밖의 필드는 무시).
+ * - CSV: id,parentId,name[,order] 열. 첫 줄이 "id"로 시작하면 헤더로 보고 건너뜁니다.
+ *   id/parentId는 파일 안에서만 쓰는 식별자(숫자가 아니어도 됨)이며 저장되는 ID는 새로 할당합니다.
+ *   parentId가 비어 있으면 가져오기 대상 부모 바로 아래에 붙습니다.
+ *
+ * 부모가 자식보다 먼저 나오면(중첩 JSON, /export 출력, 전위 순서 CSV) 읽는 즉시 INSERT 합니다.
+ * 부모보다 먼저 나온 행은 부모가 나올 때까지만 메모리에 두고, 끝까지 부모가 없으면 오류로 롤백합니다.
+ * id가 있는 행은 자식의 부모를 찾기 위해 (파일 ID → 새 ID, 경로)를 끝까지 기억하므로,
+ * 평면 입력의 메모리 사용량은 행 수에 비례하고 중첩 JSON은 트리 깊이에만 비례합니다.
+ *
+ * 정렬 키: order가 있으면 (order + 1) * 간격, 없으면 앞 형제의 키 + 간격.
+ * 대상 부모에 이미 자식이 있으면 가져온 최상위 디렉토리는 기존 자식 뒤에 붙습니다.
+ *
+ * 엔티티와 영속성 컨텍스트를 거치지 않으므로, 커밋 후에는 부모 바로 아래에 추가된 디렉토리마다
+ * CREATED 이벤트를 발행해 스냅샷, 버전, 변경 피드가 한 번에 갱신되게 합니다.
+ */
+@Component
+public class DirectoryTreeImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryTreeImporter.class);
+
+    /**
+     * 디렉토리 이름 최대 길이 (name 컬럼 VARCHAR(255))
+     */
+    private static final int MAX_NAME_LENGTH = 255;
+
+    /**
+     * JSON 최대 중첩 깊이
+     * 트리 한 단계가 JSON 두 단계(객체와 children 배열)이고 경로에는 한 단계마다 두 글자 이상이 붙으므로,
+     * 경로 길이 제한 안의 트리는 항상 이 깊이 안에 들어갑니다. (Jackson 기본값 1000은 약 500단계에서 멈춤)
+     */
+    private static final int MAX_JSON_NESTING_DEPTH = Directory.PATH_MAX_LENGTH;
+
+    private final DirectoryRepository directoryRepository;
+    private final DirectoryJdbcRepository directoryJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate writeTransaction;
+    private final JsonFactory jsonFactory;
+
+    /**
+     * INSERT 배치 하나의 행 수
+     */
+    private final int batchSize;
+
+    /**
+     * 생성자 주입 방식의 의존성 주입
+     *
+     * @param directoryRepository 디렉토리 리포지토리 객체 (대상 부모 경로와 마지막 정렬 키 조회)
+     * @param directoryJdbcRepository 디렉토리 JDBC 리포지토리 (ID 블록 확보, 배치 INSERT)
+     * @param eventPublisher 이벤트 발행기
+     * @param transactionManager 트랜잭션 매니저
+     * @param objectMapper JSON 파서를 만들 ObjectMapper (중첩 깊이 제한만 늘린 복사본을 사용)
+     * @param batchSize INSERT 배치 크기 (directory.import.batch-size, 기본값 1000)
+     */
+    public DirectoryTreeImporter(DirectoryRepository directoryRepository,
+                                 DirectoryJdbcRepository directoryJdbcRepository,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 @Value("${directory.import.batch-size:1000}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("directory.import.batch-size must be positive: " + batchSize);
+        }
+        this.directoryRepository = directoryRepository;
+        this.directoryJdbcRepository = directoryJdbcRepository;
+        this.eventPublisher = eventPublisher;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.jsonFactory = objectMapper.getFactory().copy();
+        this.jsonFactory.setStreamReadConstraints(
+                StreamReadConstraints.builder().maxNestingDepth(MAX_JSON_NESTING_DEPTH).build());
+        this.jsonFactory.setCodec(objectMapper);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * JSON 입력(중첩 트리 또는 평면 목록)을 가져오는 메소드
+     *
+     * @param in JSON 입력 스트림 (닫지 않음)
+     * @param parentId 가져온 트리를 붙일 부모 디렉토리 ID (null인 경우 최상위)
+     * @return 가져오기 결과
+     * @throws IllegalArgumentException 부모가 없거나 입력이 잘못된 경우 발생 (아무것도 저장되지 않음)
+     * @throws IOException 입력을 읽는 중 오류가 발생한 경우
+     */
+    public DirectoryImportResultDto importJson(InputStream in, Long parentId) throws IOException {
+        return run(parentId, "JSON", session -> {
+            try (JsonParser parser = jsonFactory.createParser(in)) {
+                parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+                session.readJson(parser, session.top, true);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException(String.format("Invalid JSON at line %d, column %d: %s",
+                        e.getLocation() != null ? e.getLocation().getLineNr() : -1,
+                        e.getLocation() != null ? e.getLocation().getColumnNr() : -1,
+                        e.getOriginalMessage()));
+            }
+        });
+    }
+
+    /**
+     * CSV 입력(id,parentId,name[,order])을 가져오는 메소드
+     *
+     * @param reader CSV 입력 (닫지 않음)
+     * @param parentId 가져온 트리를 붙일 부모 디렉토리 ID (null인 경우 최상위)
+     * @return 가져오기 결과
+     * @throws IllegalArgumentException 부모가 없거나 입력이 잘못된 경우 발생 (아무것도 저장되지 않음)
+     * @throws IOException 입력을 읽는 중 오류가 발생한 경우
+     */
+    public DirectoryImportResultDto importCsv(Reader reader, Long parentId) throws IOException {
+        return run(parentId, "CSV", session -> session.readCsv(new CsvRecordReader(reader)));
+    }
+
+    /**
+     * 입력 읽기 작업 (트랜잭션 안에서 실행)
+     */
+    private interface ImportBody {
+        void read(Session session) throws IOException;
+    }
+
+    private DirectoryImportResultDto run(Long parentId, String format, ImportBody body) throws IOException {
+        long started = System.nanoTime();
+        Session session;
+        try {
+            session = writeTransaction.execute(status -> {
+                Session current = new Session(target(parentId), format);
+                try {
+                    body.read(current);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                current.finish();
+                for (Long rootId : current.rootIds) {
+                    eventPublisher.publishEvent(new DirectoryChangeEvent(
+                            DirectoryChangeEvent.Type.CREATED, rootId, parentId, parentId));
+                }
+                return current;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        log.info("디렉토리 가져오기 완료 - 부모 ID: {}, 디렉토리 수: {}, 최상위: {}, 소요: {} ms ({} 개/초)",
+                parentId, session.imported, session.rootIds.size(), elapsedNanos / 1_000_000,
+                elapsedNanos > 0 ? session.imported * 1_000_000_000L / elapsedNanos : 0);
+        return new DirectoryImportResultDto(parentId, session.imported, session.rootIds.size(), elapsedNanos / 1_000_000);
+    }
+
+    /**
+     * 가져오기 대상 부모를 노드로 만드는 메소드 (새 최상위 디렉토리는 기존 마지막 형제 뒤에 붙음)
+     *
+     * @param parentId 부모 디렉토리 ID (null인 경우 최상위)
+     * @return 대상 부모 노드
+     * @throws IllegalArgumentException 부모 디렉토리가 존재하지 않는 경우 발생
+     */
+    private Node target(Long parentId) {
+        String path = null;
+        if (parentId != null) {
+            path = directoryRepository.findPathById(parentId)
+                    .orElseThrow(() -> new IllegalArgumentException("Parent directory not found with id: " + parentId));
+        }
+        long lastKey = directoryRepository.findPreviousSortKey(parentId, Long.MAX_VALUE, null).orElse(0L);
+        return new Node(parentId, path, lastKey);
+    }
+
+    /**
+     * 자식을 붙일 수 있는 디렉토리 (대상 부모 또는 이번에 가져온 디렉토리)
+     */
+    private static final class Node {
+        final Long id;
+
+        /**
+         * 구체화 경로 (최상위에 붙이는 경우 null)
+         */
+        final String path;
+
+        /**
+         * order가 주어진 자식의 정렬 키 기준값 (대상 부모는 기존 마지막 자식의 키, 새 디렉토리는 0)
+         */
+        final long baseKey;
+
+        /**
+         * 지금까지 배정한 자식 정렬 키 중 가장 큰 값
+         */
+        long lastKey;
+
+        Node(Long id, String path, long baseKey) {
+            this.id = id;
+            this.path = path;
+            this.baseKey = baseKey;
+            this.lastKey = baseKey;
+        }
+    }
+
+    /**
+     * 부모가 아직 나오지 않아 대기 중인 평면 행
+     */
+    private record PendingRow(String externalId, String name, Long order, int line) {
+    }
+
+    /**
+     * 가져오기 한 번의 상태 (ID 블록, INSERT 배치, 파일 ID → 노드 맵)
+     */
+    private final class Session {
+        final Node top;
+        final Map<String, Node> byExternalId = new HashMap<>();
+        final Map<String, List<PendingRow>> waiting = new HashMap<>();
+        final List<DirectoryJdbcRepository.NewDirectory> batch = new ArrayList<>(batchSize);
+        final List<Long> rootIds = new ArrayList<>();
+
+        /**
+         * 오류 위치에 붙일 입력 형식 이름 (JSON, CSV)
+         */
+        final String format;
+        int imported;
+        long nextId;
+        int idsLeft;
+
+        Session(Node top, String format) {
+            this.top = top;
+            this.format = format;
+        }
+
+        /**
+         * 오류 메시지의 위치 문자열 (행마다 만들지 않도록 오류가 난 경우에만 줄 번호로 만듦)
+         */
+        String where(int line) {
+            return line > 0 ? format + " line " + line : format;
+        }
+
+        /**
+         * 파일 ID로 부모를 지정한 평면 행을 추가하는 메소드 (부모가 아직 없으면 대기)
+         *
+         * @return 추가한 노드 (대기 중이면 null)
+         */
+        Node addFlat(String externalId, String externalParentId, String name, Long order, int line) {
+            if (externalParentId == null) {
+                return add(top, externalId, name, order, line);
+            }
+            Node parent = byExternalId.get(externalParentId);
+            if (parent != null) {
+                return add(parent, externalId, name, order, line);
+            }
+            validateName(name, line);
+            waiting.computeIfAbsent(externalParentId, key -> new ArrayList<>())
+                    .add(new PendingRow(externalId, name, order, line));
+            return null;
+        }
+
+        /**
+         * 부모가 정해진 디렉토리를 추가하고, 이 디렉토리를 기다리던 행이 있으면 이어서 추가하는 메소드
+         * 대기 행 사슬이 길어도 재귀하지 않도록 작업 스택으로 처리합니다.
+         */
+        Node add(Node parent, String externalId, String name, Long order, int line) {
+            Node node = insert(parent, externalId, name, order, line);
+            if (externalId == null || waiting.isEmpty()) {
+                return node;
+            }
+            Deque<String> ready = new ArrayDeque<>();
+            ready.push(externalId);
+            while (!ready.isEmpty() && !waiting.isEmpty()) {
+                String readyId = ready.pop();
+                List<PendingRow> rows = waiting.remove(readyId);
+                if (rows == null) {
+                    continue;
+                }
+                Node readyNode = byExternalId.get(readyId);
+                for (PendingRow row : rows) {
+                    insert(readyNode, row.externalId(), row.name(), row.order(), row.line());
+                    if (row.externalId() != null) {
+                        ready.push(row.externalId());
+                    }
+                }
+            }
+            return node;
+        }
+
+        private Node insert(Node parent, String externalId, String name, Long order, int line) {
+            String trimmed = validateName(name, line);
+            if (externalId != null && byExternalId.containsKey(externalId)) {
+                throw new IllegalArgumentException(where(line) + ": duplicate id " + externalId);
+            }
+            long id = nextId();
+            String path = Directory.childPath(parent.path, id);
+            if (path.length() > Directory.PATH_MAX_LENGTH) {
+                throw new IllegalArgumentException(where(line) + ": tree is too deep (path longer than "
+                        + Directory.PATH_MAX_LENGTH + " characters)");
+            }
+            long sortOrder = sortKey(parent, order, line);
+            batch.add(new DirectoryJdbcRepository.NewDirectory(id, trimmed, path, sortOrder, 0L, parent.id));
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+            imported++;
+            if (parent == top) {
+                rootIds.add(id);
+            }
+            Node node = new Node(id, path, 0L);
+            if (externalId != null) {
+                byExternalId.put(externalId, node);
+            }
+            return node;
+        }
+
+        private String validateName(String name, int line) {
+            String trimmed = name != null ? name.trim() : "";
+            if (trimmed.isEmpty()) {
+                throw new IllegalArgumentException(where(line) + ": name is required");
+            }
+            if (trimmed.length() > MAX_NAME_LENGTH) {
+                throw new IllegalArgumentException(where(line) + ": name is longer than " + MAX_NAME_LENGTH + " characters");
+            }
+            return trimmed;
+        }
+
+        private long nextId() {
+            if (idsLeft == 0) {
+                nextId = directoryJdbcRepository.nextIdBlock();
+                idsLeft = Directory.ID_ALLOCATION_SIZE;
+            }
+            idsLeft--;
+            return nextId++;
+        }
+
+        private long sortKey(Node parent, Long order, int line) {
+            long key;
+            if (order == null) {
+                if (parent.lastKey > Long.MAX_VALUE - Directory.SORT_KEY_GAP) {
+                    throw new IllegalArgumentException(where(line) + ": no sort key left after " + parent.lastKey);
+                }
+                key = parent.lastKey + Directory.SORT_KEY_GAP;
+            } else {
+                if (order < 0 || order >= (Long.MAX_VALUE - parent.baseKey) / Directory.SORT_KEY_GAP) {
+                    throw new IllegalArgumentException(where(line) + ": order out of range: " + order);
+                }
+                key = parent.baseKey + (order + 1) * Directory.SORT_KEY_GAP;
+            }
+            parent.lastKey = Math.max(parent.lastKey, key);
+            return key;
+        }
+
+        private void flush() {
+            directoryJdbcRepository.batchInsert(batch);
+            batch.clear();
+        }
+
+        /**
+         * 남은 배치를 INSERT 하고, 끝까지 부모가 나오지 않은 행이 있으면 오류로 끝내는 메소드
+         */
+        void finish() {
+            if (!waiting.isEmpty()) {
+                Map.Entry<String, List<PendingRow>> missing = waiting.entrySet().iterator().next();
+                throw new IllegalArgumentException(where(missing.getValue().get(0).line()) + ": parent id "
+                        + missing.getKey() + " is not defined in the import (or the rows form a cycle)");
+            }
+            flush();
+        }
+
+        /**
+         * JSON 디렉토리 객체(또는 배열)를 읽는 메소드
+         * 트리 깊이만큼 재귀하지 않도록 읽는 중인 객체를 명시적인 스택에 둡니다.
+         *
+         * @param parser JSON 파서
+         * @param parent 최상위 객체의 부모
+         * @param flat 최상위 객체의 id/parentId로 평면 목록을 허용할지 여부 (입력 본문의 최상위에서만 true)
+         */
+        void readJson(JsonParser parser, Node parent, boolean flat) throws IOException {
+            JsonToken first = parser.nextToken();
+            if (first == null) {
+                throw new IllegalArgumentException("Import body is empty");
+            }
+            boolean rootArray = first == JsonToken.START_ARRAY;
+            if (!rootArray && first != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Expected a directory object or an array of directory objects");
+            }
+            Deque<JsonDirectory> stack = new ArrayDeque<>();
+            if (!rootArray) {
+                stack.push(new JsonDirectory(parent, flat, line(parser)));
+            }
+            while (true) {
+                JsonToken token = parser.nextToken();
+                JsonDirectory current = stack.peek();
+                if (current == null) {
+                    // 최상위 배열 안 (최상위가 객체 하나이면 그 객체가 끝날 때 이미 반환)
+                    if (token == JsonToken.START_OBJECT) {
+                        stack.push(new JsonDirectory(parent, flat, line(parser)));
+                    } else if (token == JsonToken.END_ARRAY) {
+                        expectEnd(parser);
+                        return;
+                    } else {
+                        throw new IllegalArgumentException(where(line(parser)) + ": each directory must be a JSON object");
+                    }
+                    continue;
+                }
+                if (current.inChildren) {
+                    if (token == JsonToken.START_OBJECT) {
+                        stack.push(new JsonDirectory(current.node, false, line(parser)));
+                    } else if (token == JsonToken.END_ARRAY) {
+                        current.inChildren = false;
+                    } else {
+                        throw new IllegalArgumentException(where(line(parser)) + ": each directory must be a JSON object");
+                    }
+                    continue;
+                }
+                if (token == JsonToken.END_OBJECT) {
+                    stack.pop();
+                    current.emit();
+                    if (current.bufferedChildren != null) {
+                        readJson(current.bufferedChildren.traverse(parser.getCodec()), current.requireNode(), false);
+                    }
+                    if (!rootArray && stack.isEmpty()) {
+                        expectEnd(parser);
+                        return;
+                    }
+                    continue;
+                }
+                readField(parser, current);
+            }
+        }
+
+        private void readField(JsonParser parser, JsonDirectory current) throws IOException {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "name" -> {
+                    current.checkNotEmitted(field);
+                    if (value != JsonToken.VALUE_STRING) {
+                        throw new IllegalArgumentException(where(current.line) + ": name must be a string");
+                    }
+                    current.name = parser.getText();
+                }
+                case "id" -> {
+                    current.checkNotEmitted(field);
+                    current.externalId = value == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+                }
+                case "parentId" -> {
+                    current.checkNotEmitted(field);
+                    current.externalParentId = value == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+                }
+                case "order", "sortOrder" -> {
+                    current.checkNotEmitted(field);
+                    if (value != JsonToken.VALUE_NULL && value != JsonToken.VALUE_NUMBER_INT) {
+                        throw new IllegalArgumentException(where(current.line) + ": " + field + " must be an integer");
+                    }
+                    current.order = value == JsonToken.VALUE_NULL ? null : parser.getLongValue();
+                }
+                case "children" -> {
+                    if (value == JsonToken.VALUE_NULL) {
+                        return;
+                    }
+                    if (value != JsonToken.START_ARRAY) {
+                        throw new IllegalArgumentException(where(current.line) + ": children must be an array");
+                    }
+                    if (current.name == null) {
+                        // 이름보다 children이 먼저 나오면 부모 행을 만들 수 없으므로 이 하위 트리만 메모리에 읽어 둠
+                        current.bufferedChildren = parser.readValueAsTree();
+                    } else {
+                        current.emit();
+                        current.requireNode();
+                        current.inChildren = true;
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        private void expectEnd(JsonParser parser) throws IOException {
+            if (parser.nextToken() != null) {
+                throw new IllegalArgumentException(where(line(parser)) + ": unexpected content after the directories");
+            }
+        }
+
+        private static int line(JsonParser parser) {
+            return parser.currentTokenLocation().getLineNr();
+        }
+
+        /**
+         * 읽는 중인 JSON 디렉토리 객체
+         */
+        private final class JsonDirectory {
+            final Node parent;
+            final boolean flat;
+            final int line;
+            String name;
+            String externalId;
+            String externalParentId;
+            Long order;
+            TreeNode bufferedChildren;
+            boolean inChildren;
+            boolean emitted;
+            Node node;
+
+            JsonDirectory(Node parent, boolean flat, int line) {
+                this.parent = parent;
+                this.flat = flat;
+                this.line = line;
+            }
+
+            void checkNotEmitted(String field) {
+                if (emitted) {
+                    throw new IllegalArgumentException(where(line) + ": " + field + " must come before children");
+                }
+            }
+
+            void emit() {
+                if (emitted) {
+                    return;
+                }
+                emitted = true;
+                node = flat
+                        ? addFlat(externalId, externalParentId, name, order, line)
+                        : add(parent, externalId, name, order, line);
+            }
+
+            /**
+             * 자식을 붙일 노드를 반환 (parentId의 부모가 아직 나오지 않아 대기 중이면 자식을 붙일 수 없음)
+             */
+            Node requireNode() {
+                if (node == null) {
+                    throw new IllegalArgumentException(where(line) + ": a directory with nested children must come after its parent "
+                            + externalParentId);
+                }
+                return node;
+            }
+        }
+
+        /**
+         * CSV 행(id,parentId,name[,order])을 읽는 메소드
+         */
+        void readCsv(CsvRecordReader csv) throws IOException {
+            boolean first = true;
+            int rows = 0;
+            List<String> fields;
+            while ((fields = csv.next()) != null) {
+                int line = csv.recordLine();
+                if (first) {
+                    first = false;
+                    if (!fields.isEmpty() && fields.get(0).trim().equalsIgnoreCase("id")) {
+                        continue;
+                    }
+                }
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                if (fields.size() < 3 || fields.size() > 4) {
+                    throw new IllegalArgumentException(where(line) + ": expected id,parentId,name[,order] but found "
+                            + fields.size() + " fields");
+                }
+                Long order = null;
+                String orderText = fields.size() == 4 ? fields.get(3).trim() : "";
+                if (!orderText.isEmpty()) {
+                    try {
+                        order = Long.parseLong(orderText);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException(where(line) + ": order must be an integer: " + orderText);
+                    }
+                }
+                addFlat(blankToNull(fields.get(0)), blankToNull(fields.get(1)), fields.get(2), order, line);
+                rows++;
+            }
+            if (rows == 0) {
+                throw new IllegalArgumentException("Import body is empty");
+            }
+        }
+    }
+
+    private static String blankToNull(String value) {
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * RFC 4180 CSV 레코드 리더
+     * 큰따옴표로 감싼 필드 안의 쉼표, 줄바꿈, 이중 큰따옴표("")를 처리하고 CRLF/LF 줄 끝을 모두 받습니다.
+     * 문자 단위 BufferedReader.read() 대신 자체 버퍼에서 읽어 행이 많아도 호출 비용이 늘지 않게 합니다.
+     */
+    private static final class CsvRecordReader {
+        private final Reader reader;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder field = new StringBuilder();
+        private int position;
+        private int limit;
+        private int line = 1;
+        private int recordLine;
+        private boolean started;
+
+        CsvRecordReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * 마지막으로 읽은 레코드가 시작된 줄 번호
+         */
+        int recordLine() {
+            return recordLine;
+        }
+
+        /**
+         * 다음 레코드를 읽는 메소드
+         *
+         * @return 필드 목록 (입력 끝이면 null)
+         */
+        List<String> next() throws IOException {
+            int c = read();
+            if (!started) {
+                started = true;
+                if (c == '\uFEFF') {
+                    c = read();
+                }
+            }
+            if (c == -1) {
+                return null;
+            }
+            recordLine = line;
+            List<String> fields = new ArrayList<>(4);
+            field.setLength(0);
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("CSV line " + recordLine + ": unterminated quoted field");
+                    }
+                    if (c == '"') {
+                        c = read();
+                        if (c == '"') {
+                            field.append('"');
+                            c = read();
+                        } else {
+                            quoted = false;
+                        }
+                        continue;
+                    }
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                    c = read();
+                    continue;
+                }
+                if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                    c = read();
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    c = read();
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    fields.add(field.toString());
+                    if (c == '\r') {
+                        c = read();
+                        if (c != '\n' && c != -1) {
+                            position--;
+                        }
+                    }
+                    if (c != -1) {
+                        line++;
+                    }
+                    return fields;
+                } else {
+                    field.append((char) c);
+                    c = read();
+                }
+            }
+        }
+
+        private int read() throws IOException {
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position++];
+        }
+    }
+}
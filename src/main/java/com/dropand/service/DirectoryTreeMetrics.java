@@ -0,0 +1,65 @@
+package com.dropand.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * 디렉토리 트리 크기 게이지를 등록하는 메트릭 바인더
+ *
+ * 주요 기능:
+ * 1. 전체 노드 수(directory.tree.nodes)
+ * 2. 최대 깊이(directory.tree.depth.max)
+ * 3. 가장 긴 형제 목록의 길이(directory.tree.siblings.max)
+ *
+ * 값은 현재 스냅샷에서 읽습니다. 최대 깊이와 형제 목록 길이는 전체 노드를 한 번 순회해야 하므로
+ * 스냅샷이 바뀐 뒤 처음 수집될 때 한 번만 계산하고, 같은 스냅샷에 대해서는 계산한 값을 재사용합니다.
+ */
+@Component
+public class DirectoryTreeMetrics implements MeterBinder {
+
+    private final DirectoryTreeCache directoryTreeCache;
+
+    /**
+     * 마지막으로 계산한 스냅샷과 그 통계
+     */
+    private volatile Stats stats;
+
+    /**
+     * 생성자 주입 방식의 의존성 주입
+     *
+     * @param directoryTreeCache 현재 스냅샷을 제공하는 캐시
+     */
+    public DirectoryTreeMetrics(DirectoryTreeCache directoryTreeCache) {
+        this.directoryTreeCache = directoryTreeCache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("directory.tree.nodes", this, metrics -> metrics.current().snapshot.size())
+                .description("Total number of directories")
+                .baseUnit("directories")
+                .register(registry);
+        Gauge.builder("directory.tree.depth.max", this, metrics -> metrics.current().maxDepth)
+                .description("Depth of the deepest directory (top level = 1)")
+                .register(registry);
+        Gauge.builder("directory.tree.siblings.max", this, metrics -> metrics.current().maxSiblings)
+                .description("Largest number of directories under a single parent")
+                .baseUnit("directories")
+                .register(registry);
+    }
+
+    private Stats current() {
+        DirectoryTreeSnapshot snapshot = directoryTreeCache.snapshot();
+        Stats last = stats;
+        if (last == null || last.snapshot != snapshot) {
+            last = new Stats(snapshot, snapshot.maxDepth(), snapshot.maxChildCount());
+            stats = last;
+        }
+        return last;
+    }
+
+    private record Stats(DirectoryTreeSnapshot snapshot, int maxDepth, int maxSiblings) {
+    }
+}
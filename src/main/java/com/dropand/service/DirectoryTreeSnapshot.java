@@ -0,0 +1,786 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryColumnsDto;
+import com.dropand.dto.DirectoryDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 디렉토리 트리 전체의 불변(immutable) 메모리 스냅샷
+ *
+ * 주요 기능:
+ * 1. 계층 구조를 엔티티 대신 기본형 병렬 배열로 보관
+ * 2. ID → 배열 인덱스 조회 (개방 주소법 해시, O(1))
+ * 3. 자식 목록, 하위 트리, 자식 존재 여부 조회
+ * 4. 부모 배열을 따라 올라가는 O(깊이) 조상 검사 (이동 시 순환 검사)
+ * 5. (정렬 순서, ID) 커서 이후의 자식 목록을 이진 탐색으로 조회 (키셋 페이지네이션)
+ * 6. 하위 트리와 자식 목록을 DTO 객체 없이 열 형식(DirectoryColumnsDto)으로 내보내기
+ *
+ * 배열 구조:
+ * - 노드 i의 정보는 모든 배열의 i번째 칸에 저장됩니다.
+ * - parent[i]: 부모 노드 인덱스 (루트는 -1)
+ * - childList[childStart[i] .. childStart[i] + childCount[i]): 정렬 순서대로 연속 저장된 자식 인덱스
+ *   (최상위 노드는 rootList에 같은 방식으로 저장)
+ * - sortOrders[i]: 같은 부모 아래에서의 정렬 순서
+ *
+ * 생성 후에는 어떤 배열도 변경하지 않으므로 여러 스레드가 잠금 없이 동시에 읽을 수 있습니다.
+ * 변경이 생기면 DirectoryTreeCache가 새 스냅샷을 만들어 참조를 교체합니다(copy-on-write).
+ * 새 스냅샷은 전체 목록으로 다시 만들거나(build), 이전 스냅샷에 바뀐 행만 반영해 만듭니다(withChanges).
+ */
+public final class DirectoryTreeSnapshot {
+
+    /**
+     * 없는 노드를 나타내는 인덱스
+     * 최상위 노드의 parent 값, 스냅샷에 없는 ID의 indexOf 결과, 열 형식 출력에서 부모 없음에 쓰입니다.
+     * 자식은 연결 목록이 아니라 childList의 연속 구간(childStart, childCount)으로 찾으므로 목록 끝 표시는 없습니다.
+     */
+    public static final int NONE = -1;
+
+    /**
+     * 빈 해시 슬롯을 나타내는 값 (디렉토리 ID는 항상 양수)
+     */
+    private static final long EMPTY_KEY = 0L;
+
+    private final long version;
+    private final int size;
+    private final long[] ids;
+    private final String[] names;
+    private final long[] sortOrders;
+    private final long[] versions;
+    private final int[] parent;
+    private final int[] childStart;
+    private final int[] childCount;
+    private final int[] childList;
+    private final int[] rootList;
+
+    /**
+     * ID → 인덱스 해시 테이블 (개방 주소법, 선형 탐사)
+     */
+    private final long[] hashKeys;
+    private final int[] hashValues;
+
+    /**
+     * 이미 계산한 배열로 스냅샷을 만드는 생성자 (withChanges에서 사용)
+     */
+    private DirectoryTreeSnapshot(long version, long[] ids, String[] names, long[] sortOrders, long[] versions,
+                                  int[] parent, int[] childStart, int[] childCount, int[] childList, int[] rootList,
+                                  long[] hashKeys, int[] hashValues) {
+        this.version = version;
+        this.size = ids.length;
+        this.ids = ids;
+        this.names = names;
+        this.sortOrders = sortOrders;
+        this.versions = versions;
+        this.parent = parent;
+        this.childStart = childStart;
+        this.childCount = childCount;
+        this.childList = childList;
+        this.rootList = rootList;
+        this.hashKeys = hashKeys;
+        this.hashValues = hashValues;
+    }
+
+    private DirectoryTreeSnapshot(long version, List<DirectoryDto> rows) {
+        this.version = version;
+        this.size = rows.size();
+        this.ids = new long[size];
+        this.names = new String[size];
+        this.sortOrders = new long[size];
+        this.versions = new long[size];
+        this.parent = new int[size];
+        this.childStart = new int[size];
+        this.childCount = new int[size];
+
+        int capacity = hashCapacity(size);
+        this.hashKeys = new long[capacity];
+        this.hashValues = new int[capacity];
+
+        // 1차 순회: 배열 채우기 및 ID 해시 구성
+        for (int i = 0; i < size; i++) {
+            DirectoryDto row = rows.get(i);
+            ids[i] = row.id;
+            names[i] = row.name;
+            sortOrders[i] = row.sortOrder != null ? row.sortOrder : 0L;
+            versions[i] = row.version != null ? row.version : 0L;
+            put(row.id, i);
+        }
+
+        // 2차 순회: 부모 연결 및 부모별 자식 수 집계
+        int rootTotal = 0;
+        for (int i = 0; i < size; i++) {
+            Long parentId = rows.get(i).parentId;
+            int p = parentId != null ? indexOf(parentId) : NONE;
+            parent[i] = p;
+            if (p == NONE) {
+                rootTotal++;
+            } else {
+                childCount[p]++;
+            }
+        }
+
+        // 3차 순회: 자식 수의 누적 합으로 부모별 구간을 정한 뒤 채움
+        // 입력이 (정렬 순서, ID) 오름차순이므로 앞에서부터 채우면 각 구간도 오름차순이 됨
+        int offset = 0;
+        for (int i = 0; i < size; i++) {
+            childStart[i] = offset;
+            offset += childCount[i];
+        }
+        this.childList = new int[offset];
+        this.rootList = new int[rootTotal];
+        int[] filled = new int[size];
+        int roots = 0;
+        for (int i = 0; i < size; i++) {
+            int p = parent[i];
+            if (p == NONE) {
+                rootList[roots++] = i;
+            } else {
+                childList[childStart[p] + filled[p]++] = i;
+            }
+        }
+    }
+
+    /**
+     * 정렬 순서대로 정렬된 평면 목록으로 스냅샷을 생성하는 메소드
+     *
+     * @param version 스냅샷 버전
+     * @param rows (정렬 순서, ID) 오름차순으로 정렬된 전체 디렉토리 목록
+     * @return 새 스냅샷
+     */
+    public static DirectoryTreeSnapshot build(long version, List<DirectoryDto> rows) {
+        return new DirectoryTreeSnapshot(version, rows);
+    }
+
+    /**
+     * 이전 스냅샷에 일부 행의 변경만 반영한 새 스냅샷을 만드는 메소드
+     *
+     * removedSubtrees의 각 디렉토리와 그 자손(이 스냅샷 기준)을 지우고, rows의 각 행은 같은 ID의 노드를
+     * 바꾸거나 새로 추가합니다. 행 목록은 데이터베이스에서 방금 읽은 현재 상태이므로, 바뀐 하위 트리는
+     * 지운 뒤 데이터베이스의 하위 트리 행을 다시 넣으면 됩니다.
+     * 데이터베이스를 전부 다시 읽지 않고 배열 복사와 바뀐 부모의 자식 구간 병합만 하므로,
+     * 전체 노드 수에 비례하는 부분은 기본형 배열 복사뿐입니다.
+     *
+     * 반영한 결과에 부모를 찾을 수 없는 노드나 순환이 생기면(동시 커밋이 서로 다른 순서로 반영되는 중인 경우) null을 반환하며,
+     * 호출하는 쪽은 전체 목록으로 다시 만들어야 합니다.
+     *
+     * @param newVersion 새 스냅샷 버전
+     * @param removedSubtrees 지울 하위 트리의 루트 ID 목록 (스냅샷에 없는 ID는 무시)
+     * @param rows 바꾸거나 추가할 행 목록 (ID마다 한 번)
+     * @return 새 스냅샷 (변경이 이 스냅샷과 맞지 않으면 null)
+     */
+    public DirectoryTreeSnapshot withChanges(long newVersion, Collection<Long> removedSubtrees, Collection<DirectoryDto> rows) {
+        boolean[] removed = new boolean[size];
+        for (Long rootId : removedSubtrees) {
+            int root = indexOf(rootId);
+            if (root != NONE) {
+                markSubtree(root, removed);
+            }
+        }
+        for (DirectoryDto row : rows) {
+            int index = indexOf(row.id);
+            if (index != NONE) {
+                removed[index] = true;
+            }
+        }
+        int[] oldToNew = new int[size];
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            oldToNew[i] = removed[i] ? NONE : kept++;
+        }
+
+        // 1차: 유지한 노드를 이전 순서대로 복사하고 바뀐 행을 뒤에 덧붙임
+        int total = kept + rows.size();
+        long[] newIds = new long[total];
+        String[] newNames = new String[total];
+        long[] newSortOrders = new long[total];
+        long[] newVersions = new long[total];
+        int[] newParent = new int[total];
+        long[] newKeys = new long[hashCapacity(total)];
+        int[] newValues = new int[newKeys.length];
+        for (int i = 0; i < size; i++) {
+            int n = oldToNew[i];
+            if (n != NONE) {
+                newIds[n] = ids[i];
+                newNames[n] = names[i];
+                newSortOrders[n] = sortOrders[i];
+                newVersions[n] = versions[i];
+                insert(newKeys, newValues, ids[i], n);
+            }
+        }
+        int n = kept;
+        for (DirectoryDto row : rows) {
+            if (lookup(newKeys, newValues, row.id) != NONE) {
+                return null;
+            }
+            newIds[n] = row.id;
+            newNames[n] = row.name;
+            newSortOrders[n] = row.sortOrder != null ? row.sortOrder : 0L;
+            newVersions[n] = row.version != null ? row.version : 0L;
+            insert(newKeys, newValues, row.id, n);
+            n++;
+        }
+
+        // 2차: 부모를 ID로 다시 연결하고 부모별 자식 수 집계
+        int[] newChildCount = new int[total];
+        int rootTotal = 0;
+        for (int i = 0; i < size; i++) {
+            if (removed[i]) {
+                continue;
+            }
+            int p = parent[i] == NONE ? NONE : lookup(newKeys, newValues, ids[parent[i]]);
+            if (parent[i] != NONE && p == NONE) {
+                return null;
+            }
+            newParent[oldToNew[i]] = p;
+            if (p == NONE) {
+                rootTotal++;
+            } else {
+                newChildCount[p]++;
+            }
+        }
+        n = kept;
+        for (DirectoryDto row : rows) {
+            int p = row.parentId == null ? NONE : lookup(newKeys, newValues, row.parentId);
+            if (row.parentId != null && p == NONE) {
+                return null;
+            }
+            newParent[n++] = p;
+            if (p == NONE) {
+                rootTotal++;
+            } else {
+                newChildCount[p]++;
+            }
+        }
+        if (hasCycle(newParent, kept)) {
+            return null;
+        }
+
+        // 3차: 유지한 자식은 이전 구간 순서(이미 정렬됨)대로 채우고, 바뀐 행은 구간 끝에 정렬해 붙인 뒤 병합
+        int[] newChildStart = new int[total];
+        int offset = 0;
+        for (int i = 0; i < total; i++) {
+            newChildStart[i] = offset;
+            offset += newChildCount[i];
+        }
+        int[] newChildList = new int[offset];
+        int[] newRootList = new int[rootTotal];
+        int[] filled = new int[total];
+        int roots = 0;
+        for (int r : rootList) {
+            if (!removed[r]) {
+                newRootList[roots++] = oldToNew[r];
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (childCount[i] == 0) {
+                continue;
+            }
+            int p = removed[i] ? lookup(newKeys, newValues, ids[i]) : oldToNew[i];
+            for (int k = childStart[i], end = k + childCount[i]; k < end; k++) {
+                int c = childList[k];
+                if (!removed[c]) {
+                    newChildList[newChildStart[p] + filled[p]++] = oldToNew[c];
+                }
+            }
+        }
+        Integer[] added = new Integer[total - kept];
+        for (int k = 0; k < added.length; k++) {
+            added[k] = kept + k;
+        }
+        Arrays.sort(added, (a, b) -> compareNodes(newSortOrders, newIds, a, b));
+        int rootsKept = roots;
+        int[] keptFilled = filled.clone();
+        for (int a : added) {
+            int p = newParent[a];
+            if (p == NONE) {
+                newRootList[roots++] = a;
+            } else {
+                newChildList[newChildStart[p] + filled[p]++] = a;
+            }
+        }
+        merge(newRootList, 0, rootsKept, roots, newSortOrders, newIds);
+        for (int a : added) {
+            int p = newParent[a];
+            if (p != NONE && keptFilled[p] >= 0) {
+                merge(newChildList, newChildStart[p], newChildStart[p] + keptFilled[p],
+                        newChildStart[p] + newChildCount[p], newSortOrders, newIds);
+                // 같은 부모를 두 번 병합하지 않음
+                keptFilled[p] = -1;
+            }
+        }
+        return new DirectoryTreeSnapshot(newVersion, newIds, newNames, newSortOrders, newVersions, newParent,
+                newChildStart, newChildCount, newChildList, newRootList, newKeys, newValues);
+    }
+
+    /**
+     * 노드와 그 자손을 모두 표시하는 메소드 (명시적 스택 사용)
+     */
+    private void markSubtree(int root, boolean[] marked) {
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int node = stack[--top];
+            marked[node] = true;
+            int count = childCount[node];
+            if (top + count > stack.length) {
+                stack = Arrays.copyOf(stack, Math.max(stack.length * 2, top + count));
+            }
+            for (int k = childStart[node], end = k + count; k < end; k++) {
+                stack[top++] = childList[k];
+            }
+        }
+    }
+
+    /**
+     * 부모 배열에 순환이 있는지 확인하는 메소드
+     * 부모가 바뀔 수 있는 노드는 from 이후(새로 넣은 행)뿐이므로, 순환이 있다면 그 노드를 지납니다.
+     * 노드마다 한 번만 올라가므로 전체 노드 수에 비례합니다.
+     */
+    private static boolean hasCycle(int[] parent, int from) {
+        int[] mark = new int[parent.length];
+        for (int start = from; start < parent.length; start++) {
+            int stamp = start + 1;
+            for (int i = start; i != NONE; i = parent[i]) {
+                if (mark[i] == stamp) {
+                    return true;
+                }
+                if (mark[i] != 0) {
+                    // 앞에서 올라가 보고 순환이 없음을 확인한 노드
+                    break;
+                }
+                mark[i] = stamp;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 정렬된 두 구간 [from, mid), [mid, to)를 (정렬 순서, ID) 오름차순으로 병합하는 메소드
+     */
+    private static void merge(int[] list, int from, int mid, int to, long[] sortOrders, long[] ids) {
+        if (mid <= from || mid >= to) {
+            return;
+        }
+        int[] left = Arrays.copyOfRange(list, from, mid);
+        int i = 0;
+        int j = mid;
+        int out = from;
+        while (i < left.length && j < to) {
+            list[out++] = compareNodes(sortOrders, ids, left[i], list[j]) <= 0 ? left[i++] : list[j++];
+        }
+        while (i < left.length) {
+            list[out++] = left[i++];
+        }
+    }
+
+    private static int compareNodes(long[] sortOrders, long[] ids, int a, int b) {
+        return sortOrders[a] != sortOrders[b] ? Long.compare(sortOrders[a], sortOrders[b]) : Long.compare(ids[a], ids[b]);
+    }
+
+    private static int hashCapacity(int entries) {
+        return Integer.highestOneBit(Math.max(2, entries * 2 - 1)) << 1;
+    }
+
+    private void put(long id, int index) {
+        insert(hashKeys, hashValues, id, index);
+    }
+
+    private static void insert(long[] keys, int[] values, long id, int index) {
+        int mask = keys.length - 1;
+        int slot = hash(id) & mask;
+        while (keys[slot] != EMPTY_KEY) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = id;
+        values[slot] = index;
+    }
+
+    private static int lookup(long[] keys, int[] values, long id) {
+        int mask = keys.length - 1;
+        int slot = hash(id) & mask;
+        long key;
+        while ((key = keys[slot]) != EMPTY_KEY) {
+            if (key == id) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NONE;
+    }
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * ID에 해당하는 배열 인덱스를 반환하는 메소드
+     *
+     * @param id 디렉토리 ID
+     * @return 배열 인덱스 (없으면 NONE)
+     */
+    public int indexOf(long id) {
+        return lookup(hashKeys, hashValues, id);
+    }
+
+    /**
+     * 디렉토리 존재 여부를 확인하는 메소드
+     *
+     * @param id 디렉토리 ID
+     * @return 존재하면 true
+     */
+    public boolean contains(long id) {
+        return indexOf(id) != NONE;
+    }
+
+    /**
+     * 디렉토리에 자식이 있는지 확인하는 메소드
+     *
+     * @param id 디렉토리 ID
+     * @return 자식이 있으면 true (디렉토리가 없으면 false)
+     */
+    public boolean hasChildren(long id) {
+        int index = indexOf(id);
+        return index != NONE && childCount[index] > 0;
+    }
+
+    /**
+     * 디렉토리의 자식 수를 반환하는 메소드
+     *
+     * @param parentId 부모 디렉토리 ID (null인 경우 최상위 목록)
+     * @return 자식 수 (부모가 없으면 0)
+     */
+    public int childCount(Long parentId) {
+        if (parentId == null) {
+            return rootList.length;
+        }
+        int p = indexOf(parentId);
+        return p != NONE ? childCount[p] : 0;
+    }
+
+    /**
+     * 디렉토리의 부모 ID를 반환하는 메소드
+     *
+     * @param id 디렉토리 ID
+     * @return 부모 디렉토리 ID (루트이거나 없는 ID이면 null)
+     */
+    public Long parentIdOf(long id) {
+        int index = indexOf(id);
+        if (index == NONE || parent[index] == NONE) {
+            return null;
+        }
+        return ids[parent[index]];
+    }
+
+    /**
+     * 한 디렉토리가 다른 디렉토리 자신이거나 그 조상인지 확인하는 메소드
+     * 부모 배열을 따라 루트까지 올라가므로 O(깊이)이며 엔티티나 경로 문자열을 읽지 않습니다.
+     *
+     * @param ancestorId 조상 후보 디렉토리 ID
+     * @param id 검사할 디렉토리 ID
+     * @return ancestorId가 id 자신이거나 조상이면 true (둘 중 하나라도 스냅샷에 없으면 false)
+     */
+    public boolean isSelfOrAncestor(long ancestorId, long id) {
+        int ancestor = indexOf(ancestorId);
+        if (ancestor == NONE) {
+            return false;
+        }
+        // 데이터가 손상되어 부모 참조가 순환하더라도 노드 수 이상은 올라가지 않음
+        int steps = 0;
+        for (int i = indexOf(id); i != NONE && steps <= size; i = parent[i], steps++) {
+            if (i == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 자식 목록을 정렬 순서대로 반환하는 메소드
+     *
+     * @param parentId 부모 디렉토리 ID (null인 경우 최상위 목록)
+     * @return 자식 DTO 목록 (부모가 없으면 빈 목록)
+     */
+    public List<DirectoryDto> children(Long parentId) {
+        return childrenAfter(parentId, null, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * (정렬 순서, ID) 커서 바로 다음 자식부터 최대 limit개를 반환하는 메소드
+     * 자식 구간이 (정렬 순서, ID) 오름차순으로 연속 저장되어 있으므로 시작 위치를 이진 탐색으로 찾습니다.
+     * 자식이 아무리 많아도 O(log 자식 수 + limit)입니다.
+     *
+     * @param parentId 부모 디렉토리 ID (null인 경우 최상위 목록)
+     * @param afterSortOrder 커서의 정렬 순서 (null인 경우 처음부터)
+     * @param afterId 커서의 ID (afterSortOrder와 함께 지정)
+     * @param limit 최대 반환 개수
+     * @return 자식 DTO 목록 (부모가 없으면 빈 목록)
+     */
+    public List<DirectoryDto> childrenAfter(Long parentId, Long afterSortOrder, Long afterId, int limit) {
+        int[] list;
+        int from;
+        int to;
+        if (parentId == null) {
+            list = rootList;
+            from = 0;
+            to = rootList.length;
+        } else {
+            int p = indexOf(parentId);
+            if (p == NONE) {
+                return Collections.emptyList();
+            }
+            list = childList;
+            from = childStart[p];
+            to = from + childCount[p];
+        }
+        if (afterSortOrder != null) {
+            from = firstAfter(list, from, to, afterSortOrder, afterId != null ? afterId : Long.MAX_VALUE);
+        }
+        int end = (int) Math.min(to, (long) from + limit);
+        List<DirectoryDto> result = new ArrayList<>(end - from);
+        for (int i = from; i < end; i++) {
+            result.add(toDto(list[i]));
+        }
+        return result;
+    }
+
+    /**
+     * 정렬된 자식 구간에서 (sortOrder, id)보다 큰 첫 위치를 찾는 메소드
+     *
+     * @param list 자식 인덱스 배열
+     * @param from 구간 시작 (포함)
+     * @param to 구간 끝 (제외)
+     * @param sortOrder 커서의 정렬 순서
+     * @param id 커서의 ID
+     * @return 첫 위치 (모두 작거나 같으면 to)
+     */
+    private int firstAfter(int[] list, int from, int to, long sortOrder, long id) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int node = list[mid];
+            int cmp = sortOrders[node] != sortOrder ? Long.compare(sortOrders[node], sortOrder) : Long.compare(ids[node], id);
+            if (cmp <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 중첩된 트리를 반환하는 메소드
+     * 명시적 스택을 사용하는 반복 순회로 조립하므로 트리 깊이에 따른 스택 오버플로가 없습니다.
+     *
+     * @param rootId 하위 트리의 루트 ID (null인 경우 전체 트리)
+     * @return 최상위 노드 목록 (rootId가 없는 ID이면 빈 목록)
+     */
+    public List<DirectoryDto> nested(Long rootId) {
+        List<DirectoryDto> roots = new ArrayList<>();
+        int[] stack = new int[16];
+        DirectoryDto[] owners = new DirectoryDto[16];
+        int top = 0;
+
+        if (rootId == null) {
+            for (int i : rootList) {
+                DirectoryDto dto = toDto(i);
+                roots.add(dto);
+                if (childCount[i] > 0) {
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                        owners = Arrays.copyOf(owners, top * 2);
+                    }
+                    stack[top] = i;
+                    owners[top++] = dto;
+                }
+            }
+        } else {
+            int r = indexOf(rootId);
+            if (r == NONE) {
+                return roots;
+            }
+            DirectoryDto dto = toDto(r);
+            roots.add(dto);
+            stack[top] = r;
+            owners[top++] = dto;
+        }
+
+        while (top > 0) {
+            int node = stack[--top];
+            DirectoryDto owner = owners[top];
+            owners[top] = null;
+            if (childCount[node] == 0) {
+                continue;
+            }
+            owner.children = new ArrayList<>(childCount[node]);
+            for (int k = childStart[node], end = k + childCount[node]; k < end; k++) {
+                int c = childList[k];
+                DirectoryDto child = toDto(c);
+                owner.children.add(child);
+                if (childCount[c] > 0) {
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                        owners = Arrays.copyOf(owners, top * 2);
+                    }
+                    stack[top] = c;
+                    owners[top++] = child;
+                }
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * 전체 트리 또는 하위 트리를 열 형식으로 반환하는 메소드
+     * nested()와 같은 노드를 전위 순서로 담으며, 노드마다 DTO 객체를 만들지 않고 배열에서 바로 복사합니다.
+     *
+     * @param rootId 하위 트리의 루트 ID (null인 경우 전체 트리)
+     * @return 열 형식 DTO (rootId가 없는 ID이면 빈 목록)
+     */
+    public DirectoryColumnsDto columns(Long rootId) {
+        int r = rootId != null ? indexOf(rootId) : NONE;
+        if (rootId != null && r == NONE) {
+            return new DirectoryColumnsDto.Builder(0).build();
+        }
+        DirectoryColumnsDto.Builder builder = new DirectoryColumnsDto.Builder(rootId == null ? size : 16);
+        // 스택에는 스냅샷 인덱스와 출력 인덱스(자식의 부모 인덱스)를 함께 쌓음
+        int[] stack = new int[32];
+        int top = 0;
+        if (rootId == null) {
+            for (int k = rootList.length - 1; k >= 0; k--) {
+                if (top + 2 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = rootList[k];
+                stack[top++] = NONE;
+            }
+        } else {
+            stack[top++] = r;
+            stack[top++] = NONE;
+        }
+        while (top > 0) {
+            int parentOut = stack[--top];
+            int node = stack[--top];
+            int out = add(builder, node, parentOut);
+            int count = childCount[node];
+            if (top + count * 2 > stack.length) {
+                stack = Arrays.copyOf(stack, Math.max(stack.length * 2, top + count * 2));
+            }
+            for (int k = childStart[node] + count - 1; k >= childStart[node]; k--) {
+                stack[top++] = childList[k];
+                stack[top++] = out;
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * 부모의 직계 자식 목록을 열 형식으로 반환하는 메소드 (모든 노드의 부모 인덱스는 -1)
+     *
+     * @param parentId 부모 디렉토리 ID (null인 경우 최상위 디렉토리)
+     * @return 열 형식 DTO (parentId가 없는 ID이면 빈 목록)
+     */
+    public DirectoryColumnsDto childColumns(Long parentId) {
+        int p = parentId != null ? indexOf(parentId) : NONE;
+        if (parentId != null && p == NONE) {
+            return new DirectoryColumnsDto.Builder(0).build();
+        }
+        int[] list = p == NONE ? rootList : childList;
+        int from = p == NONE ? 0 : childStart[p];
+        int to = p == NONE ? rootList.length : from + childCount[p];
+        DirectoryColumnsDto.Builder builder = new DirectoryColumnsDto.Builder(to - from);
+        for (int k = from; k < to; k++) {
+            add(builder, list[k], NONE);
+        }
+        return builder.build();
+    }
+
+    private int add(DirectoryColumnsDto.Builder builder, int index, int parentOut) {
+        return builder.add(ids[index], parentOut, sortOrders[index], versions[index], childCount[index], names[index]);
+    }
+
+    /**
+     * 배열 인덱스의 노드를 DTO로 변환하는 메소드
+     *
+     * @param index 배열 인덱스
+     * @return 디렉토리 DTO (hasChildren, childCount 포함)
+     */
+    public DirectoryDto toDto(int index) {
+        DirectoryDto dto = new DirectoryDto(ids[index], names[index],
+                parent[index] != NONE ? ids[parent[index]] : null, sortOrders[index], versions[index], false);
+        dto.childCount = childCount[index];
+        dto.hasChildren = childCount[index] > 0;
+        return dto;
+    }
+
+    /**
+     * 스냅샷이 차지하는 힙 크기를 추정하는 메소드
+     * 배열 본체와 이름 문자열(압축 OOP 기준 객체 헤더 포함)을 합산합니다.
+     *
+     * @return 추정 힙 사용량 (바이트)
+     */
+    public long estimatedHeapBytes() {
+        long arrays = 16L * 10
+                + (long) size * (Long.BYTES * 3 + 4 + Integer.BYTES * 4)
+                + (long) hashKeys.length * (Long.BYTES + Integer.BYTES);
+        long strings = 0;
+        for (String name : names) {
+            // String 객체(24) + byte[] 헤더(16) + 내용 (한글 포함 시 UTF-16으로 문자당 2바이트)
+            strings += 40 + (long) name.length() * 2;
+        }
+        return arrays + strings;
+    }
+
+    /**
+     * 가장 깊은 디렉토리의 깊이를 계산하는 메소드 (최상위 디렉토리의 깊이는 1)
+     * 부모를 따라 올라가며 이미 계산한 깊이를 재사용하므로 전체 노드 수에 비례하는 시간이 걸립니다.
+     *
+     * @return 최대 깊이 (빈 트리이면 0)
+     */
+    public int maxDepth() {
+        int[] depth = new int[size];
+        int[] path = new int[size];
+        int max = 0;
+        for (int i = 0; i < size; i++) {
+            int length = 0;
+            int current = i;
+            while (current != NONE && depth[current] == 0) {
+                path[length++] = current;
+                current = parent[current];
+            }
+            int base = current == NONE ? 0 : depth[current];
+            while (length > 0) {
+                depth[path[--length]] = ++base;
+            }
+            max = Math.max(max, depth[i]);
+        }
+        return max;
+    }
+
+    /**
+     * 가장 긴 형제 목록의 길이를 반환하는 메소드 (최상위 디렉토리 목록 포함)
+     *
+     * @return 한 부모 아래의 최대 자식 수
+     */
+    public int maxChildCount() {
+        int max = rootList.length;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, childCount[i]);
+        }
+        return max;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,203 @@
+package com.dropand.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 디렉토리 트리 버전을 관리하는 컴포넌트
+ *
+ * 주요 기능:
+ * 1. 전역 버전과 부모 디렉토리별 버전을 단조 증가 값으로 관리
+ * 2. 쓰기 트랜잭션이 커밋되면 영향을 받은 부모들의 버전을 갱신
+ * 3. 조회 API의 ETag 값 제공 (If-None-Match 비교용)
+ *
+ * 부모별 버전은 전역 카운터에서 값을 받아오므로 서로 다른 부모 사이에서도 재사용되지 않으며,
+ * 시작 시각을 초기값으로 사용해 재시작 후에도 이전 ETag와 겹치지 않습니다.
+ * 자식 목록에는 각 자식의 childCount가 포함되므로, 부모뿐 아니라 조부모의 버전도 함께 갱신합니다.
+ * 삭제가 커밋되면 마지막 삭제 버전 이하인 부모별 버전(삭제된 부모 포함)을 정리합니다.
+ * 그 값들은 이미 하한에 가려져 있으므로 정리해도 ETag는 바뀌지 않습니다.
+ */
+@Component
+public class DirectoryVersionTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryVersionTracker.class);
+
+    /**
+     * 최상위 목록을 나타내는 키 (디렉토리 ID는 항상 양수)
+     */
+    private static final long ROOT_KEY = 0L;
+
+    /**
+     * 커밋 후 콜백 실행 순서 (스냅샷 공개 이후에 실행)
+     */
+    private static final int SYNCHRONIZATION_ORDER = DirectoryTreeCache.SYNCHRONIZATION_ORDER + 1;
+
+    private final DirectoryTreeCache directoryTreeCache;
+
+    /**
+     * 전역 버전 카운터
+     */
+    private final AtomicLong globalVersion;
+
+    /**
+     * 시작 시점의 버전 (한 번도 변경되지 않은 부모의 버전)
+     */
+    private final long baseline;
+
+    /**
+     * 부모 디렉토리 ID별 버전
+     */
+    private final Map<Long, Long> parentVersions = new ConcurrentHashMap<>();
+
+    /**
+     * 마지막 삭제가 커밋된 버전
+     * 삭제된 하위 트리의 자식 목록 ETag가 계속 유효하지 않도록 모든 부모 버전의 하한으로 사용합니다.
+     */
+    private final AtomicLong lastDeleteVersion;
+
+    /**
+     * 트랜잭션 리소스 키 (트랜잭션 중 누적된 이벤트 목록)
+     */
+    private final Object pendingKey = new Object();
+
+    /**
+     * 생성자 주입 방식의 의존성 주입
+     *
+     * @param directoryTreeCache 조부모 ID를 메모리에서 찾기 위한 스냅샷 캐시
+     */
+    public DirectoryVersionTracker(DirectoryTreeCache directoryTreeCache) {
+        this.directoryTreeCache = directoryTreeCache;
+        this.baseline = System.currentTimeMillis();
+        this.globalVersion = new AtomicLong(baseline);
+        this.lastDeleteVersion = new AtomicLong(baseline);
+    }
+
+    /**
+     * 디렉토리 변경 이벤트를 트랜잭션 단위로 모아 두었다가 커밋 후 버전을 갱신합니다.
+     * 스냅샷이 먼저 교체된 뒤 버전이 바뀌므로, 새 ETag가 이전 데이터와 함께 응답되는 일이 없습니다.
+     *
+     * @param event 디렉토리 변경 이벤트
+     */
+    @EventListener
+    @SuppressWarnings("unchecked")
+    public void onDirectoryChanged(DirectoryChangeEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(Collections.singletonList(event));
+            return;
+        }
+        List<DirectoryChangeEvent> pending = (List<DirectoryChangeEvent>) TransactionSynchronizationManager.getResource(pendingKey);
+        if (pending == null) {
+            List<DirectoryChangeEvent> events = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(pendingKey, events);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return SYNCHRONIZATION_ORDER;
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(pendingKey);
+                    if (status == STATUS_COMMITTED) {
+                        apply(events);
+                    }
+                }
+            });
+            pending = events;
+        }
+        pending.add(event);
+    }
+
+    /**
+     * 커밋된 이벤트 묶음을 하나의 새 버전으로 반영하는 메소드
+     *
+     * @param events 커밋된 디렉토리 변경 이벤트 목록
+     */
+    private void apply(List<DirectoryChangeEvent> events) {
+        long version = globalVersion.incrementAndGet();
+        DirectoryTreeSnapshot snapshot = directoryTreeCache.snapshot();
+        boolean deleted = false;
+        for (DirectoryChangeEvent event : events) {
+            bumpWithParent(snapshot, event.getParentId(), version);
+            if (!Objects.equals(event.getPreviousParentId(), event.getParentId())) {
+                bumpWithParent(snapshot, event.getPreviousParentId(), version);
+            }
+            deleted |= event.getType() == DirectoryChangeEvent.Type.DELETED;
+        }
+        if (deleted) {
+            long floor = lastDeleteVersion.accumulateAndGet(version, Math::max);
+            // 하한 이하의 값은 조회 결과에 영향이 없으므로 제거 (조건부 제거라 동시에 올라간 값은 남음)
+            parentVersions.values().removeIf(parentVersion -> parentVersion <= floor);
+        }
+        log.debug("디렉토리 버전 갱신 - 버전: {}, 이벤트 수: {}, 부모별 버전 수: {}", version, events.size(), parentVersions.size());
+    }
+
+    /**
+     * 부모의 버전과 (부모의 childCount가 보이는) 조부모 목록의 버전을 갱신하는 메소드
+     *
+     * @param snapshot 현재 스냅샷
+     * @param parentId 부모 디렉토리 ID (null인 경우 최상위 목록)
+     * @param version 새 버전
+     */
+    private void bumpWithParent(DirectoryTreeSnapshot snapshot, Long parentId, long version) {
+        bump(parentId, version);
+        if (parentId != null) {
+            bump(snapshot.parentIdOf(parentId), version);
+        }
+    }
+
+    private void bump(Long parentId, long version) {
+        parentVersions.merge(parentId != null ? parentId : ROOT_KEY, version, Math::max);
+    }
+
+    /**
+     * 전역 버전을 반환하는 메소드 (전체 목록, 트리 조회용)
+     *
+     * @return 전역 버전
+     */
+    public long getGlobalVersion() {
+        return globalVersion.get();
+    }
+
+    /**
+     * 특정 부모의 자식 목록 버전을 반환하는 메소드
+     *
+     * @param parentId 부모 디렉토리 ID (null인 경우 최상위 목록)
+     * @return 자식 목록 버전
+     */
+    public long getParentVersion(Long parentId) {
+        long version = parentVersions.getOrDefault(parentId != null ? parentId : ROOT_KEY, baseline);
+        return Math.max(version, lastDeleteVersion.get());
+    }
+
+    /**
+     * 전역 버전으로 만든 ETag 값을 반환하는 메소드
+     *
+     * @return 따옴표로 감싼 ETag 문자열
+     */
+    public String globalETag() {
+        return "\"" + getGlobalVersion() + "\"";
+    }
+
+    /**
+     * 부모별 버전으로 만든 ETag 값을 반환하는 메소드
+     *
+     * @param parentId 부모 디렉토리 ID
+     * @return 따옴표로 감싼 ETag 문자열
+     */
+    public String parentETag(Long parentId) {
+        return "\"" + parentId + "-" + getParentVersion(parentId) + "\"";
+    }
+}
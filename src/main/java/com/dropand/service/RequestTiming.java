@@ -0,0 +1,194 @@
+package com.dropand.service;
+
+import java.util.function.Supplier;
+
+/**
+ * 요청 하나의 처리 시간을 단계별로 모으는 클래스 (Server-Timing 헤더와 요청 로그에 사용)
+ *
+ * 주요 기능:
+ * 1. 인증(보안 필터 체인), 데이터베이스(JDBC 문 준비/실행과 문 수), DTO 매핑, 응답 직렬화 시간 누적
+ * 2. Server-Timing 헤더 값과 구조화 로그 필드 생성
+ *
+ * 요청을 처리하는 스레드에 묶여(ThreadLocal) 있으며, 요청 필터(ServerTimingFilter)가 begin/end로 범위를 정합니다.
+ * 범위 밖(백그라운드 작업, 시작 시 적재)에서는 current()가 null이고 mapping()은 작업만 실행합니다.
+ * 기록은 nanoTime 호출과 필드 덧셈뿐이므로 운영 환경에서 항상 켜 둘 수 있습니다.
+ */
+public final class RequestTiming {
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private long handlerStartNanos;
+    private long dbStartNanos;
+    private long dbNanos;
+    private int statements;
+    private long mappingNanos;
+    private long serializationStartNanos;
+    private long serializationEndNanos;
+
+    private RequestTiming() {
+    }
+
+    /**
+     * 현재 스레드에서 새 요청의 시간 측정을 시작하는 메소드
+     *
+     * @return 시작한 측정
+     */
+    public static RequestTiming begin() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /**
+     * 현재 스레드의 측정을 반환하는 메소드
+     *
+     * @return 현재 요청의 측정 (요청 처리 중이 아니면 null)
+     */
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 현재 스레드와 측정의 연결을 끊는 메소드 (측정 값은 반환된 객체에 그대로 남음)
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 엔티티/스냅샷을 DTO로 바꾸는 작업을 매핑 단계로 측정하며 실행하는 메소드
+     * 작업 중 실행된 SQL 시간은 데이터베이스 단계에 이미 포함되므로 매핑 시간에서 뺍니다.
+     *
+     * @param work 매핑 작업
+     * @return 작업 결과
+     */
+    public static <T> T mapping(Supplier<T> work) {
+        RequestTiming timing = CURRENT.get();
+        if (timing == null) {
+            return work.get();
+        }
+        long dbBefore = timing.dbNanos;
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            timing.mappingNanos += System.nanoTime() - start - (timing.dbNanos - dbBefore);
+        }
+    }
+
+    /**
+     * 보안 필터 체인을 통과해 핸들러 처리를 시작한 시점을 기록합니다.
+     */
+    public void handlerStarted() {
+        if (handlerStartNanos == 0) {
+            handlerStartNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * JDBC 문 준비를 시작했음을 기록합니다. (준비 횟수가 SQL 문 수)
+     */
+    public void statementPrepareStarted() {
+        statements++;
+        jdbcStarted();
+    }
+
+    /**
+     * JDBC 작업(문 준비, 실행, 배치 실행) 시작 시점을 기록합니다.
+     */
+    public void jdbcStarted() {
+        dbStartNanos = System.nanoTime();
+    }
+
+    /**
+     * JDBC 작업이 끝났음을 기록하고 걸린 시간을 데이터베이스 단계에 더합니다.
+     */
+    public void jdbcEnded() {
+        if (dbStartNanos != 0) {
+            dbNanos += System.nanoTime() - dbStartNanos;
+            dbStartNanos = 0;
+        }
+    }
+
+    /**
+     * 응답 본문 직렬화 시작 시점을 기록합니다.
+     */
+    public void serializationStarted() {
+        serializationStartNanos = System.nanoTime();
+    }
+
+    /**
+     * 응답 본문 직렬화가 끝났음을 기록합니다. (직렬화를 시작하지 않은 요청이면 무시)
+     */
+    public void serializationEnded() {
+        if (serializationStartNanos != 0 && serializationEndNanos == 0) {
+            serializationEndNanos = System.nanoTime();
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    /**
+     * 측정 시작부터 주어진 시각까지 걸린 시간 (나노초)
+     *
+     * @param nowNanos 기준 시각 (System.nanoTime)
+     * @return 경과 시간
+     */
+    public long elapsedNanos(long nowNanos) {
+        return nowNanos - startNanos;
+    }
+
+    /**
+     * Server-Timing 헤더 값을 만드는 메소드
+     * 예: auth;dur=0.41, db;dur=1.52;desc="3 statements", map;dur=0.08, ser;dur=0.22, total;dur=2.61
+     * 헤더는 응답 커밋 시점에 만들어지므로 ser는 직렬화 시작부터 그때까지의 시간입니다.
+     * (JSON 컨버터는 본문을 다 쓴 뒤 flush하므로 보통 직렬화 전체이고, 응답 버퍼보다 큰 본문은 첫 버퍼를 채울 때까지)
+     *
+     * @param nowNanos 헤더를 만드는 시각 (System.nanoTime)
+     * @return 헤더 값
+     */
+    public String toHeader(long nowNanos) {
+        StringBuilder header = new StringBuilder(128);
+        appendMetric(header, "auth", (handlerStartNanos != 0 ? handlerStartNanos : nowNanos) - startNanos);
+        appendMetric(header.append(", "), "db", dbNanos).append(";desc=\"").append(statements).append(" statements\"");
+        appendMetric(header.append(", "), "map", mappingNanos);
+        if (serializationStartNanos != 0) {
+            appendMetric(header.append(", "), "ser",
+                    (serializationEndNanos != 0 ? serializationEndNanos : nowNanos) - serializationStartNanos);
+        }
+        appendMetric(header.append(", "), "total", nowNanos - startNanos);
+        return header.toString();
+    }
+
+    /**
+     * 구조화 로그용 key=value 필드를 만드는 메소드 (시간은 밀리초)
+     *
+     * @param nowNanos 요청 처리가 끝난 시각 (System.nanoTime)
+     * @return 로그 필드 문자열
+     */
+    public String toLogFields(long nowNanos) {
+        StringBuilder fields = new StringBuilder(128);
+        fields.append("total=").append(millis(nowNanos - startNanos))
+                .append(" auth=").append(millis((handlerStartNanos != 0 ? handlerStartNanos : nowNanos) - startNanos))
+                .append(" db=").append(millis(dbNanos))
+                .append(" statements=").append(statements)
+                .append(" map=").append(millis(mappingNanos))
+                .append(" ser=").append(millis(serializationStartNanos == 0 ? 0
+                        : (serializationEndNanos != 0 ? serializationEndNanos : nowNanos) - serializationStartNanos));
+        return fields.toString();
+    }
+
+    private static StringBuilder appendMetric(StringBuilder header, String name, long nanos) {
+        return header.append(name).append(";dur=").append(millis(nanos));
+    }
+
+    /**
+     * 나노초를 소수 둘째 자리까지의 밀리초로 바꿉니다.
+     */
+    private static double millis(long nanos) {
+        return Math.max(0, nanos / 10_000) / 100.0;
+    }
+}
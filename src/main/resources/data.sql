@@ -2,22 +2,34 @@
 
 -- 테이블 삭제 및 재생성 (존재할 경우)
 DROP TABLE IF EXISTS directories;
+DROP SEQUENCE IF EXISTS directories_seq;
 CREATE TABLE directories (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
-    path VARCHAR(255) NOT NULL,
-    sort_order INT NOT NULL,
+    path VARCHAR(65535) NOT NULL,
+    sort_order BIGINT NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
     parent_id BIGINT,
     FOREIGN KEY (parent_id) REFERENCES directories(id)
 );
 
+-- ID 시퀀스: 값 하나로 ID 50개를 확보 (pooled-lo, Directory.ID_ALLOCATION_SIZE와 같아야 함)
+-- 아래 초기 데이터는 경로에 ID가 들어가므로 ID를 직접 지정하고, 시퀀스는 그 다음 블록부터 시작
+CREATE SEQUENCE directories_seq START WITH 51 INCREMENT BY 50;
+
+-- 구체화 경로(ID 기반) 인덱스: 하위 트리 조회/삭제를 접두사 범위 검색으로 처리
+CREATE INDEX IF NOT EXISTS idx_directories_path ON directories(path);
+
+-- 자식 목록 키셋 페이지네이션 인덱스: 부모별 (정렬 순서, ID) 순서로 커서 위치부터 바로 읽음
+CREATE INDEX IF NOT EXISTS idx_directories_parent_sort ON directories(parent_id, sort_order, id);
+
 -- 루트 디렉토리
-INSERT INTO directories (name, path, sort_order, parent_id) VALUES ('프로젝트', '/프로젝트', 1, NULL);
-INSERT INTO directories (name, path, sort_order, parent_id) VALUES ('문서', '/문서', 2, NULL);
+INSERT INTO directories (id, name, path, sort_order, parent_id) VALUES (1, '프로젝트', '/1/', 65536, NULL);
+INSERT INTO directories (id, name, path, sort_order, parent_id) VALUES (2, '문서', '/2/', 131072, NULL);
 
 -- 하위 디렉토리 (프로젝트 하위)
-INSERT INTO directories (name, path, sort_order, parent_id) VALUES ('웹 개발', '/프로젝트/웹 개발', 1, 1);
-INSERT INTO directories (name, path, sort_order, parent_id) VALUES ('모바일 앱', '/프로젝트/모바일 앱', 2, 1);
+INSERT INTO directories (id, name, path, sort_order, parent_id) VALUES (3, '웹 개발', '/1/3/', 65536, 1);
+INSERT INTO directories (id, name, path, sort_order, parent_id) VALUES (4, '모바일 앱', '/1/4/', 131072, 1);
 
 -- 하위 디렉토리 (문서 하위)
-INSERT INTO directories (name, path, sort_order, parent_id) VALUES ('기술 문서', '/문서/기술 문서', 1, 2);
+INSERT INTO directories (id, name, path, sort_order, parent_id) VALUES (5, '기술 문서', '/2/5/', 65536, 2);
@@ -1,9 +1,19 @@
 -- 디렉토리 테이블 생성
 CREATE TABLE IF NOT EXISTS directories (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
-    path VARCHAR(255) NOT NULL,
-    sort_order INT NOT NULL,
+    path VARCHAR(65535) NOT NULL,
+    sort_order BIGINT NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
     parent_id BIGINT,
     FOREIGN KEY (parent_id) REFERENCES directories(id)
-);
\ No newline at end of file
+);
+
+-- ID 시퀀스: 값 하나로 ID 50개를 확보 (pooled-lo, Directory.ID_ALLOCATION_SIZE와 같아야 함)
+CREATE SEQUENCE IF NOT EXISTS directories_seq START WITH 1 INCREMENT BY 50;
+
+-- 구체화 경로(ID 기반) 인덱스: 하위 트리 조회/삭제를 접두사 범위 검색으로 처리
+CREATE INDEX IF NOT EXISTS idx_directories_path ON directories(path);
+
+-- 자식 목록 키셋 페이지네이션 인덱스: 부모별 (정렬 순서, ID) 순서로 커서 위치부터 바로 읽음
+CREATE INDEX IF NOT EXISTS idx_directories_parent_sort ON directories(parent_id, sort_order, id);
\ No newline at end of file
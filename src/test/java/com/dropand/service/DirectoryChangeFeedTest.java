@@ -0,0 +1,126 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 디렉토리 변경 피드 전송 테스트
+ *
+ * 읽지 않는 구독자(send가 멈춘 SseEmitter)가 있어도 다른 구독자는 변경을 바로 받는지,
+ * 밀린 이벤트가 directory.events.max-pending을 넘은 구독자는 닫히는지 확인합니다.
+ */
+@SpringBootTest(properties = "directory.events.max-pending=4")
+@ActiveProfiles("test")
+class DirectoryChangeFeedTest {
+
+    private static final int MAX_PENDING = 4;
+
+    @Autowired
+    private DirectoryChangeFeed changeFeed;
+
+    @Autowired
+    private DirectoryService directoryService;
+
+    @Test
+    void stalledSubscriberDoesNotDelayTheOthers() throws Exception {
+        StalledEmitter stalled = new StalledEmitter();
+        RecordingEmitter healthy = new RecordingEmitter();
+        try {
+            changeFeed.register(stalled, null);
+            assertThat(stalled.entered.await(5, TimeUnit.SECONDS)).isTrue();
+            changeFeed.register(healthy, null);
+            assertThat(healthy.next()).contains("event:ready");
+
+            DirectoryDto created = directoryService.createDirectory("feed-while-stalled", null);
+
+            assertThat(healthy.next()).contains("event:change").contains("\"id\":" + created.id);
+        } finally {
+            stalled.release.countDown();
+        }
+    }
+
+    @Test
+    void subscriberFallingTooFarBehindIsClosed() throws Exception {
+        StalledEmitter stalled = new StalledEmitter();
+        RecordingEmitter healthy = new RecordingEmitter();
+        try {
+            changeFeed.register(stalled, null);
+            assertThat(stalled.entered.await(5, TimeUnit.SECONDS)).isTrue();
+            changeFeed.register(healthy, null);
+            healthy.next();
+
+            // 멈춘 send 뒤로 한도만큼 쌓이고, 그 다음 이벤트에서 구독자가 빠짐
+            for (int i = 0; i <= MAX_PENDING; i++) {
+                DirectoryDto created = directoryService.createDirectory("feed-overflow-" + i, null);
+                assertThat(healthy.next()).contains("\"id\":" + created.id);
+            }
+        } finally {
+            stalled.release.countDown();
+        }
+
+        // 멈춘 send에서 돌아온 전송 스레드가 나머지를 보내지 않고 연결을 닫음
+        assertThat(stalled.closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(stalled.sent).isEqualTo(1);
+    }
+
+    /**
+     * 첫 프레임을 보내는 도중 멈추는 구독자 (소켓 버퍼가 찬 클라이언트)
+     * 실제 SseEmitter처럼 send가 잠금을 쥔 채로 멈춥니다.
+     */
+    private static class StalledEmitter extends SseEmitter {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch closed = new CountDownLatch(1);
+        volatile int sent;
+
+        @Override
+        public synchronized void send(Set<ResponseBodyEmitter.DataWithMediaType> items) throws IOException {
+            sent++;
+            entered.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            closed.countDown();
+        }
+    }
+
+    /**
+     * 받은 프레임을 글자로 모아 두는 구독자
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) {
+            frames.add(items.stream().map(item -> String.valueOf(item.getData())).collect(Collectors.joining()));
+        }
+
+        String next() throws InterruptedException {
+            String frame = frames.poll(5, TimeUnit.SECONDS);
+            assertThat(frame).as("frame within 5 seconds").isNotNull();
+            return frame;
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package com.dropand.service;
+
+import com.dropand.controller.DirectoryController;
+import com.dropand.domain.Directory;
+import com.dropand.dto.DirectoryChangeDto;
+import com.dropand.dto.DirectoryChangesDto;
+import com.dropand.dto.DirectoryDto;
+import com.dropand.dto.DirectoryMoveDto;
+import com.dropand.dto.DirectoryOrderDto;
+import com.dropand.dto.DirectorySiblingsDto;
+import com.dropand.repository.DirectoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * 디렉토리 동시 수정 테스트
+ *
+ * 같은 디렉토리를 여러 스레드가 동시에 바꿔도 변경이 조용히 사라지지 않는지(lost update) 확인합니다.
+ * 성공한 변경은 모두 버전에 한 번씩 반영되고, 반영되지 못한 변경은 DirectoryConflictException으로 드러나야 합니다.
+ *
+ * 같은 컨텍스트(스냅샷 읽기 사용)에서 쓰기 API 각각의 결과도 확인합니다.
+ * 테스트마다 서비스로 자기 디렉토리를 새로 만들어 쓰므로 다른 테스트의 데이터와 섞이지 않습니다.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DirectoryServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    /**
+     * 경로 한도 테스트에서 JDBC로 넣는 부모 행의 ID (시퀀스 값과 겹치지 않는 큰 값)
+     */
+    private static final long DEEP_PARENT_ID = 900_000_001L;
+
+    @Autowired
+    private DirectoryService directoryService;
+
+    @Autowired
+    private DirectoryRepository directoryRepository;
+
+    @Autowired
+    private DirectoryChangeLog changeLog;
+
+    @Autowired
+    private DirectoryController directoryController;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentRenamesWithoutVersionAreAllAppliedOrReported() throws Exception {
+        DirectoryDto target = directoryService.createDirectory("rename-target", null);
+
+        List<Outcome> outcomes = runConcurrently(i -> () -> {
+            DirectoryDto rename = new DirectoryDto();
+            rename.name = "rename-" + i;
+            return directoryService.updateDirectory(target.id, rename);
+        });
+
+        long succeeded = outcomes.stream().filter(Outcome::succeeded).count();
+        assertThat(succeeded).isPositive();
+        assertThat(outcomes).allMatch(outcome -> outcome.succeeded() || outcome.conflict());
+
+        // 성공한 변경마다 버전이 정확히 한 번씩 올라가야 함 (덮어써진 변경이 없음)
+        DirectoryDto current = currentState(target.id);
+        assertThat(current.version).isEqualTo(target.version + succeeded);
+        assertThat(outcomes).filteredOn(Outcome::succeeded)
+                .extracting(outcome -> outcome.result().name)
+                .contains(current.name);
+    }
+
+    @Test
+    void concurrentRenamesWithSameExpectedVersionLetExactlyOneWin() throws Exception {
+        DirectoryDto target = directoryService.createDirectory("versioned-target", null);
+
+        List<Outcome> outcomes = runConcurrently(i -> () -> {
+            DirectoryDto rename = new DirectoryDto();
+            rename.name = "versioned-" + i;
+            rename.version = target.version;
+            return directoryService.updateDirectory(target.id, rename);
+        });
+
+        List<Outcome> winners = outcomes.stream().filter(Outcome::succeeded).toList();
+        assertThat(winners).hasSize(1);
+        assertThat(outcomes).filteredOn(outcome -> !outcome.succeeded()).allMatch(Outcome::conflict);
+
+        DirectoryDto current = currentState(target.id);
+        assertThat(current.name).isEqualTo(winners.get(0).result().name);
+        assertThat(current.version).isEqualTo(target.version + 1);
+    }
+
+    @Test
+    void concurrentMovesIntoOneParentKeepEveryChild() throws Exception {
+        DirectoryDto source = directoryService.createDirectory("move-source", null);
+        DirectoryDto destination = directoryService.createDirectory("move-destination", null);
+        List<DirectoryDto> children = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            children.add(directoryService.createDirectory("move-child-" + i, source.id));
+        }
+
+        List<Outcome> outcomes = runConcurrently(i ->
+                () -> directoryService.moveDirectory(children.get(i).id, destination.id, null));
+
+        assertThat(outcomes).allMatch(outcome -> outcome.succeeded() || outcome.conflict());
+        List<Long> moved = outcomes.stream().filter(Outcome::succeeded).map(outcome -> outcome.result().id).toList();
+        List<DirectoryDto> destinationChildren = directoryService.getSubDirectories(destination.id);
+        assertThat(destinationChildren).extracting(child -> child.id).containsExactlyInAnyOrderElementsOf(moved);
+        assertThat(directoryService.getSubDirectories(source.id)).hasSize(THREADS - moved.size());
+    }
+
+    @Test
+    void batchMoveKeepsTheSelectionOrderAndReturnsTheNewSiblings() {
+        DirectoryDto source = directoryService.createDirectory("batch-source", null);
+        DirectoryDto target = directoryService.createDirectory("batch-target", null);
+        DirectoryDto first = directoryService.createDirectory("batch-existing-0", target.id);
+        DirectoryDto last = directoryService.createDirectory("batch-existing-1", target.id);
+        List<DirectoryDto> selected = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            selected.add(directoryService.createDirectory("batch-selected-" + i, source.id));
+        }
+
+        // 같은 위치로 옮기는 항목은 요청에 나열된 순서(선택 순서)대로 들어감
+        List<DirectorySiblingsDto> result = directoryService.moveDirectories(List.of(
+                new DirectoryMoveDto(selected.get(2).id, target.id, 1),
+                new DirectoryMoveDto(selected.get(0).id, target.id, 1),
+                new DirectoryMoveDto(selected.get(1).id, target.id, 1)));
+
+        List<Long> expected = List.of(first.id, selected.get(2).id, selected.get(0).id, selected.get(1).id, last.id);
+        assertThat(result).singleElement().satisfies(siblings -> {
+            assertThat(siblings.getParentId()).isEqualTo(target.id);
+            assertThat(siblings.getChildren()).extracting(child -> child.id).containsExactlyElementsOf(expected);
+        });
+        assertThat(directoryService.getSubDirectories(target.id)).extracting(child -> child.id).containsExactlyElementsOf(expected);
+        assertThat(directoryService.getSubDirectories(source.id)).isEmpty();
+        assertThat(directoryRepository.findPathById(selected.get(0).id)).contains("/" + target.id + "/" + selected.get(0).id + "/");
+    }
+
+    @Test
+    void batchMoveWithOneInvalidEntryMovesNothing() {
+        DirectoryDto source = directoryService.createDirectory("batch-atomic-source", null);
+        DirectoryDto target = directoryService.createDirectory("batch-atomic-target", null);
+        DirectoryDto child = directoryService.createDirectory("batch-atomic-child", source.id);
+
+        assertThatThrownBy(() -> directoryService.moveDirectories(List.of(
+                new DirectoryMoveDto(child.id, target.id, null),
+                new DirectoryMoveDto(source.id, Long.MAX_VALUE, null))))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(directoryService.getSubDirectories(source.id)).extracting(dto -> dto.id).containsExactly(child.id);
+        assertThat(directoryService.getSubDirectories(target.id)).isEmpty();
+    }
+
+    @Test
+    void reorderKeepsTheParentUnlessParentIdOrRootIsGiven() {
+        DirectoryDto first = directoryService.createDirectory("order-parent-0", null);
+        DirectoryDto second = directoryService.createDirectory("order-parent-1", null);
+        DirectoryDto x = directoryService.createDirectory("order-x", first.id);
+        DirectoryDto y = directoryService.createDirectory("order-y", first.id);
+
+        // parentId 없이 정렬 키만 주면 부모를 유지
+        directoryService.updateDirectoryOrder(List.of(order(x.id, null, false, 5L)));
+        assertThat(directoryService.getSubDirectories(first.id))
+                .extracting(dto -> dto.id, dto -> dto.sortOrder)
+                .containsExactly(tuple(x.id, 5L), tuple(y.id, y.sortOrder));
+
+        // parentId를 주면 그 부모로 옮기고 경로도 바꿈
+        directoryService.updateDirectoryOrder(List.of(order(y.id, second.id, false, 7L)));
+        assertThat(directoryService.getSubDirectories(second.id)).extracting(dto -> dto.id).containsExactly(y.id);
+        assertThat(directoryRepository.findPathById(y.id)).contains("/" + second.id + "/" + y.id + "/");
+
+        // root를 주면 최상위로 옮김
+        directoryService.updateDirectoryOrder(List.of(order(x.id, null, true, null)));
+        assertThat(directoryService.getSubDirectories(first.id)).isEmpty();
+        assertThat(directoryRepository.findPathById(x.id)).contains("/" + x.id + "/");
+        assertThat(directoryService.getDirectoryTree()).extracting(dto -> dto.id).contains(x.id);
+
+        assertThatThrownBy(() -> directoryService.updateDirectoryOrder(List.of(order(x.id, second.id, true, null))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void moveBetweenSiblingsTakesTheMidpointKeyAndWritesOneRow() {
+        DirectoryDto parent = directoryService.createDirectory("key-parent", null);
+        DirectoryDto a = directoryService.createDirectory("key-a", parent.id);
+        DirectoryDto b = directoryService.createDirectory("key-b", parent.id);
+        DirectoryDto c = directoryService.createDirectory("key-c", parent.id);
+        assertThat(List.of(a.sortOrder, b.sortOrder, c.sortOrder))
+                .containsExactly(Directory.SORT_KEY_GAP, 2 * Directory.SORT_KEY_GAP, 3 * Directory.SORT_KEY_GAP);
+
+        DirectoryDto moved = directoryService.moveDirectory(c.id, null, null, b.id, null, null);
+
+        assertThat(moved.sortOrder).isEqualTo((a.sortOrder + b.sortOrder) / 2);
+        // 이웃한 형제는 버전과 키가 그대로
+        assertThat(directoryService.getSubDirectories(parent.id))
+                .extracting(dto -> dto.id, dto -> dto.sortOrder, dto -> dto.version)
+                .containsExactly(tuple(a.id, a.sortOrder, a.version), tuple(c.id, moved.sortOrder, c.version + 1),
+                        tuple(b.id, b.sortOrder, b.version));
+    }
+
+    @Test
+    void exhaustedGapIsRebalancedInsideTheMove() {
+        DirectoryDto parent = directoryService.createDirectory("key-full-parent", null);
+        DirectoryDto a = directoryService.createDirectory("key-full-a", parent.id);
+        DirectoryDto b = directoryService.createDirectory("key-full-b", parent.id);
+        DirectoryDto c = directoryService.createDirectory("key-full-c", parent.id);
+        directoryService.updateDirectoryOrder(List.of(order(a.id, null, false, 10L), order(b.id, null, false, 11L)));
+
+        DirectoryDto moved = directoryService.moveDirectory(c.id, null, null, null, a.id, null);
+
+        // 10과 11 사이에 키가 없으므로 a, b를 다시 벌린 뒤 그 사이에 넣음
+        long gap = Directory.SORT_KEY_GAP;
+        assertThat(moved.sortOrder).isEqualTo(gap + gap / 2);
+        assertThat(directoryService.getSubDirectories(parent.id))
+                .extracting(dto -> dto.id, dto -> dto.sortOrder)
+                .containsExactly(tuple(a.id, gap), tuple(c.id, gap + gap / 2), tuple(b.id, 2 * gap));
+    }
+
+    @Test
+    void narrowGapIsRebalancedInTheBackgroundAfterTheMove() throws Exception {
+        DirectoryDto parent = directoryService.createDirectory("key-narrow-parent", null);
+        DirectoryDto a = directoryService.createDirectory("key-narrow-a", parent.id);
+        DirectoryDto b = directoryService.createDirectory("key-narrow-b", parent.id);
+        DirectoryDto c = directoryService.createDirectory("key-narrow-c", parent.id);
+        directoryService.updateDirectoryOrder(List.of(order(a.id, null, false, 100L), order(b.id, null, false, 150L)));
+
+        // 간격 50은 재조정 임계값(64)보다 좁으므로 중간값을 쓰고, 커밋 후 백그라운드에서 재조정
+        DirectoryDto moved = directoryService.moveDirectory(c.id, null, null, null, a.id, null);
+        assertThat(moved.sortOrder).isEqualTo(125L);
+
+        long gap = Directory.SORT_KEY_GAP;
+        List<Long> expected = List.of(gap, 2 * gap, 3 * gap);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        List<Long> keys;
+        do {
+            Thread.sleep(20);
+            keys = directoryService.getSubDirectories(parent.id).stream().map(dto -> dto.sortOrder).toList();
+        } while (!keys.equals(expected) && System.nanoTime() < deadline);
+        assertThat(keys).isEqualTo(expected);
+        assertThat(directoryService.getSubDirectories(parent.id)).extracting(dto -> dto.id).containsExactly(a.id, c.id, b.id);
+    }
+
+    @Test
+    void movesIntoTheOwnSubtreeAreRejected() {
+        DirectoryDto a = directoryService.createDirectory("cycle-a", null);
+        DirectoryDto b = directoryService.createDirectory("cycle-b", a.id);
+        DirectoryDto c = directoryService.createDirectory("cycle-c", b.id);
+
+        assertThatThrownBy(() -> directoryService.moveDirectory(a.id, c.id, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> directoryService.moveDirectory(a.id, a.id, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> directoryService.moveDirectories(List.of(new DirectoryMoveDto(a.id, c.id, 0))))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // 실패한 이동은 경로와 버전을 바꾸지 않음
+        assertThat(directoryRepository.findPathById(a.id)).contains("/" + a.id + "/");
+        assertThat(directoryRepository.findPathById(c.id)).contains("/" + a.id + "/" + b.id + "/" + c.id + "/");
+        assertThat(currentState(a.id).parentId).isNull();
+        assertThat(currentState(a.id).version).isEqualTo(a.version);
+    }
+
+    @Test
+    void cursorPagesFromTheSnapshotMatchTheFullListing() {
+        DirectoryDto parent = directoryService.createDirectory("snapshot-equal-keys", null);
+        List<DirectoryOrderDto> order = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            DirectoryDto child = directoryService.createDirectory("snapshot-equal-keys-" + i, parent.id);
+            order.add(order(child.id, null, false, 100L));
+        }
+        directoryService.updateDirectoryOrder(order);
+
+        // 정렬 키가 모두 같아도 (정렬 키, ID) 커서로 빠짐없이 한 번씩
+        assertThat(DirectoryServiceStatementCountTest.pageThrough(directoryService, parent.id, 2))
+                .containsExactlyElementsOf(directoryService.getSubDirectories(parent.id).stream()
+                        .map(child -> child.id).toList())
+                .hasSize(7);
+    }
+
+    @Test
+    void changesSinceReturnsTheDeltasAndAsksForResyncWhenTooOld() {
+        DirectoryDto from = directoryService.createDirectory("changes-from", null);
+        DirectoryDto to = directoryService.createDirectory("changes-to", null);
+        long since = changeLog.lastSequence();
+
+        DirectoryDto x = directoryService.createDirectory("changes-x", from.id);
+        DirectoryDto rename = new DirectoryDto();
+        rename.name = "changes-x-renamed";
+        directoryService.updateDirectory(x.id, rename);
+        directoryService.moveDirectory(x.id, to.id, null);
+
+        DirectoryChangesDto delta = directoryController.getChangesSince(since).getBody();
+        assertThat(delta.isResync()).isFalse();
+        assertThat(delta.getSeq()).isGreaterThan(since);
+        // 다른 테스트의 백그라운드 재조정 이벤트가 섞일 수 있으므로 x의 변경만 확인
+        assertThat(delta.getChanges().stream().filter(change -> x.id.equals(change.getId())).toList())
+                .extracting(DirectoryChangeDto::getType, DirectoryChangeDto::getName,
+                        DirectoryChangeDto::getParentId, DirectoryChangeDto::getPreviousParentId)
+                .containsExactly(
+                        tuple("created", "changes-x", from.id, null),
+                        tuple("renamed", "changes-x-renamed", from.id, null),
+                        tuple("moved", "changes-x-renamed", to.id, from.id));
+        assertThat(delta.getChanges()).extracting(DirectoryChangeDto::getSeq).isSorted();
+
+        // 받은 순번부터 다시 물으면 x의 변경은 더 없음
+        DirectoryChangesDto next = directoryController.getChangesSince(delta.getSeq()).getBody();
+        assertThat(next.isResync()).isFalse();
+        assertThat(next.getChanges()).noneMatch(change -> x.id.equals(change.getId()));
+
+        // 보관 범위보다 오래되었거나 아직 없는 순번은 resync
+        for (long stale : new long[] {since - 10_000_000L, changeLog.lastSequence() + 1}) {
+            DirectoryChangesDto resync = directoryController.getChangesSince(stale).getBody();
+            assertThat(resync.isResync()).isTrue();
+            assertThat(resync.getChanges()).isNull();
+            assertThat(resync.getSeq()).isEqualTo(changeLog.lastSequence());
+        }
+    }
+
+    @Test
+    void createAndMoveBeyondThePathLimitAreRejected() {
+        DirectoryDto moving = directoryService.createDirectory("deep-moving", null);
+        DirectoryDto movingChild = directoryService.createDirectory("deep-moving-child", moving.id);
+        // 옮긴 디렉토리 자신은 최대 길이에 딱 맞고, 그 자식만 넘도록 부모 경로 길이를 정함
+        int parentPathLength = Directory.PATH_MAX_LENGTH - (String.valueOf(moving.id).length() + 1);
+        long deepParentId = insertDeepParent(parentPathLength);
+        try {
+            long before = directoryRepository.count();
+            assertThatThrownBy(() -> directoryService.moveDirectory(moving.id, deepParentId, null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("too deep");
+            assertThat(directoryRepository.findPathById(movingChild.id))
+                    .contains("/" + moving.id + "/" + movingChild.id + "/");
+
+            jdbcTemplate.update("UPDATE directories SET path = ? WHERE id = ?",
+                    deepPath(Directory.PATH_MAX_LENGTH - 1), deepParentId);
+            assertThatThrownBy(() -> directoryService.createDirectory("too-deep", deepParentId))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("too deep");
+            assertThat(directoryRepository.count()).isEqualTo(before);
+        } finally {
+            jdbcTemplate.update("DELETE FROM directories WHERE id = ?", deepParentId);
+        }
+    }
+
+    /**
+     * 경로 길이가 정해진 부모 행을 JDBC로 직접 넣는 메소드 (수천 단계 사슬을 만들지 않고 경로 한도를 시험)
+     */
+    private long insertDeepParent(int pathLength) {
+        long id = DEEP_PARENT_ID;
+        jdbcTemplate.update("INSERT INTO directories (id, name, parent_id, path, sort_order, version) VALUES (?, ?, NULL, ?, ?, 0)",
+                id, "deep-parent", deepPath(pathLength), Long.MAX_VALUE / 2);
+        return id;
+    }
+
+    private static String deepPath(int length) {
+        return "/" + "9".repeat(length - 2) + "/";
+    }
+
+    private static DirectoryOrderDto order(Long id, Long parentId, boolean root, Long sortOrder) {
+        DirectoryOrderDto order = new DirectoryOrderDto();
+        order.setId(id);
+        order.setParentId(parentId);
+        order.setRoot(root);
+        order.setSortOrder(sortOrder);
+        return order;
+    }
+
+    private DirectoryDto currentState(Long id) {
+        return directoryService.getAllDirectories().stream()
+                .filter(directory -> directory.id.equals(id))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /**
+     * 작업 THREADS개를 동시에 시작하고 각 결과(성공 또는 충돌)를 모으는 메소드
+     */
+    private static List<Outcome> runConcurrently(IntFunction<Callable<DirectoryDto>> work) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Outcome>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                Callable<DirectoryDto> task = work.apply(i);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        return new Outcome(task.call(), null);
+                    } catch (DirectoryConflictException e) {
+                        return new Outcome(null, e);
+                    }
+                }));
+            }
+            start.countDown();
+            List<Outcome> outcomes = new ArrayList<>();
+            for (Future<Outcome> future : futures) {
+                outcomes.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return outcomes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private record Outcome(DirectoryDto result, DirectoryConflictException error) {
+        boolean succeeded() {
+            return result != null;
+        }
+
+        boolean conflict() {
+            return error != null;
+        }
+    }
+}
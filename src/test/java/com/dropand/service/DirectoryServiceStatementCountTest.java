@@ -0,0 +1,141 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryDto;
+import com.dropand.dto.DirectoryOrderDto;
+import com.dropand.dto.DirectoryPageDto;
+import com.dropand.repository.DirectoryRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 목록/트리 조회의 SQL 문 수 테스트
+ *
+ * 스냅샷 읽기를 끄고 데이터베이스 경로를 사용해, 조회 하나가 실행하는 SQL 문 수가
+ * 자식 수나 전체 노드 수와 관계없이 고정되어 있는지(노드마다 쿼리가 늘어나지 않는지) 확인합니다.
+ * 문 수는 Hibernate 세션 이벤트로 세는 SqlStatementCounter가 RequestTiming에 모은 값을 읽습니다.
+ */
+@SpringBootTest(properties = "directory.snapshot.enabled=false")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DirectoryServiceStatementCountTest {
+
+    private static final int WIDE_CHILDREN = 30;
+
+    @Autowired
+    private DirectoryService directoryService;
+
+    @Autowired
+    private DirectoryRepository directoryRepository;
+
+    private DirectoryDto narrow;
+    private DirectoryDto wide;
+
+    @BeforeAll
+    void createTree() {
+        narrow = directoryService.createDirectory("narrow", null);
+        directoryService.createDirectory("narrow-child", narrow.id);
+
+        // 넓은 부모의 자식마다 손자를 하나씩 두어 childCount 집계가 필요한 노드를 만듦
+        wide = directoryService.createDirectory("wide", null);
+        for (int i = 0; i < WIDE_CHILDREN; i++) {
+            DirectoryDto child = directoryService.createDirectory("wide-child-" + i, wide.id);
+            directoryService.createDirectory("wide-grandchild-" + i, child.id);
+        }
+    }
+
+    @Test
+    void childListingUsesTwoStatementsRegardlessOfChildCount() {
+        assertThat(statementsOf(() -> directoryService.getSubDirectories(narrow.id))).isEqualTo(2);
+        assertThat(statementsOf(() -> directoryService.getSubDirectories(wide.id))).isEqualTo(2);
+    }
+
+    @Test
+    void childPageUsesFixedStatementsRegardlessOfChildCount() {
+        int narrowPage = statementsOf(() -> directoryService.getSubDirectoriesPage(narrow.id, null, 10, true));
+        int widePage = statementsOf(() -> directoryService.getSubDirectoriesPage(wide.id, null, 10, true));
+        assertThat(narrowPage).isPositive();
+        assertThat(widePage).isEqualTo(narrowPage);
+    }
+
+    @Test
+    void treeReadsUseOneStatementForTheWholeTable() {
+        assertThat(statementsOf(() -> directoryService.getDirectoryTree())).isEqualTo(1);
+        assertThat(statementsOf(() -> directoryService.getAllDirectories())).isEqualTo(1);
+        assertThat(statementsOf(() -> directoryService.getNestedDirectoryTree(null))).isEqualTo(1);
+    }
+
+    @Test
+    void subtreeReadUsesTwoStatementsRegardlessOfSubtreeSize() {
+        assertThat(statementsOf(() -> directoryService.getNestedDirectoryTree(narrow.id))).isEqualTo(2);
+        assertThat(statementsOf(() -> directoryService.getNestedDirectoryTree(wide.id))).isEqualTo(2);
+    }
+
+    @Test
+    void createWritesTheRowWithOneInsertAndNoPathUpdate() {
+        DirectoryDto[] created = new DirectoryDto[1];
+        int statements = statementsOf(() -> created[0] = directoryService.createDirectory("single-insert", narrow.id));
+
+        // 경로를 나중에 UPDATE하면 버전이 1이 됨
+        assertThat(created[0].version).isZero();
+        assertThat(directoryRepository.findPathById(created[0].id))
+                .contains("/" + narrow.id + "/" + created[0].id + "/");
+        // 부모 조회, 앞 형제 키 조회, INSERT, hasChildren (ID는 미리 확보한 블록에서 나올 수도, 시퀀스 조회 1회가 더해질 수도 있음)
+        assertThat(statements).isBetween(4, 5);
+    }
+
+    @Test
+    void cursorPagesThroughEqualSortKeysWithoutDuplicatesOrGaps() {
+        DirectoryDto parent = directoryService.createDirectory("equal-keys", null);
+        List<DirectoryOrderDto> order = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            DirectoryOrderDto item = new DirectoryOrderDto();
+            item.setId(directoryService.createDirectory("equal-keys-" + i, parent.id).id);
+            item.setSortOrder(100L);
+            order.add(item);
+        }
+        directoryService.updateDirectoryOrder(order);
+
+        assertThat(pageThrough(directoryService, parent.id, 2))
+                .containsExactlyElementsOf(directoryService.getSubDirectories(parent.id).stream()
+                        .map(child -> child.id).toList())
+                .doesNotHaveDuplicates()
+                .hasSize(7);
+    }
+
+    /**
+     * 커서를 따라 끝까지 페이지를 읽어 ID를 순서대로 모으는 메소드
+     */
+    static List<Long> pageThrough(DirectoryService directoryService, Long parentId, int limit) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            DirectoryPageDto page = directoryService.getSubDirectoriesPage(parentId, cursor, limit, false);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(limit);
+            page.getItems().forEach(item -> ids.add(item.id));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    /**
+     * 조회 하나를 요청 측정 범위 안에서 실행하고 준비된 SQL 문 수를 반환하는 메소드
+     */
+    private static int statementsOf(Runnable read) {
+        RequestTiming timing = RequestTiming.begin();
+        try {
+            read.run();
+        } finally {
+            RequestTiming.end();
+        }
+        return timing.getStatements();
+    }
+}
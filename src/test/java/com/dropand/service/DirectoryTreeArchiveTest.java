@@ -0,0 +1,116 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryArchiveResultDto;
+import com.dropand.dto.DirectoryDto;
+import com.dropand.dto.DirectoryOrderDto;
+import com.dropand.repository.DirectoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 디렉토리 트리 아카이브 저장/복원 테스트
+ *
+ * 저장한 아카이브를 빈 테이블에 복원하면 ID, 이름, 부모, 정렬 키, 버전, 경로가 그대로 돌아오는지,
+ * 손상된 파일과 비어 있지 않은 테이블은 행을 하나도 넣기 전에 거부되는지 확인합니다.
+ * 테이블을 비우므로 다른 테스트와 데이터베이스를 나누지 않도록 아카이브 파일 설정으로 별도 컨텍스트를 씁니다.
+ */
+@SpringBootTest(properties = "directory.archive.file=target/test-archive/directories.tree")
+@ActiveProfiles("test")
+class DirectoryTreeArchiveTest {
+
+    @Autowired
+    private DirectoryTreeArchive archive;
+
+    @Autowired
+    private DirectoryService directoryService;
+
+    @Autowired
+    private DirectoryRepository directoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void savedTreeIsRestoredIntoAnEmptyTable() throws Exception {
+        createTree();
+        List<String> before = rows();
+
+        DirectoryArchiveResultDto saved = archive.save();
+        assertThat(saved.getDirectoryCount()).isEqualTo(before.size());
+        assertThat(saved.getSizeBytes()).isEqualTo(Files.size(archive.file()));
+        emptyTable();
+
+        DirectoryArchiveResultDto restored = archive.restore();
+
+        assertThat(restored.getDirectoryCount()).isEqualTo(before.size());
+        assertThat(rows()).containsExactlyElementsOf(before);
+        // 시퀀스는 복원된 최대 ID 다음부터 시작
+        long maxId = directoryRepository.findAllFlatOrdered().stream().mapToLong(dto -> dto.id).max().orElseThrow();
+        assertThat(directoryService.createDirectory("archive-after-restore", null).id).isGreaterThan(maxId);
+    }
+
+    @Test
+    void corruptedArchiveIsRejectedBeforeAnyRowIsInserted() throws Exception {
+        createTree();
+        archive.save();
+        byte[] bytes = Files.readAllBytes(archive.file());
+        // 헤더 다음 행 영역의 한 바이트를 뒤집음
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(archive.file(), bytes);
+        emptyTable();
+
+        assertThatThrownBy(() -> archive.restore())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Archive checksum mismatch");
+        assertThat(directoryRepository.count()).isZero();
+    }
+
+    @Test
+    void restoreIntoANonEmptyTableIsRefused() throws Exception {
+        createTree();
+        archive.save();
+        List<String> before = rows();
+
+        assertThatThrownBy(() -> archive.restore()).isInstanceOf(IllegalStateException.class);
+        assertThat(rows()).containsExactlyElementsOf(before);
+    }
+
+    /**
+     * 여러 단계, 음수 정렬 키, 여러 바이트 UTF-8 이름과 수정된 버전을 포함한 트리를 만드는 메소드
+     */
+    private void createTree() {
+        DirectoryDto root = directoryService.createDirectory("archive-root", null);
+        DirectoryDto child = directoryService.createDirectory("아카이브-자식", root.id);
+        directoryService.createDirectory("archive-grandchild", child.id);
+        DirectoryDto second = directoryService.createDirectory("archive-second", root.id);
+        DirectoryOrderDto order = new DirectoryOrderDto();
+        order.setId(second.id);
+        order.setSortOrder(-5L);
+        directoryService.updateDirectoryOrder(List.of(order));
+        directoryService.createDirectory("archive-other-root", null);
+    }
+
+    /**
+     * 비교용으로 전체 행을 (ID, 이름, 부모, 정렬 키, 버전, 경로) 글자로 읽는 메소드
+     */
+    private List<String> rows() {
+        return directoryRepository.findAllFlatOrdered().stream()
+                .map(dto -> dto.id + "|" + dto.name + "|" + dto.parentId + "|" + dto.sortOrder + "|" + dto.version
+                        + "|" + directoryRepository.findPathById(dto.id).orElseThrow())
+                .toList();
+    }
+
+    private void emptyTable() {
+        jdbcTemplate.update("UPDATE directories SET parent_id = NULL");
+        jdbcTemplate.update("DELETE FROM directories");
+    }
+}
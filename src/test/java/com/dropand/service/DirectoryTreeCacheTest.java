@@ -0,0 +1,141 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryDto;
+import com.dropand.dto.DirectoryMoveDto;
+import com.dropand.dto.DirectoryOrderDto;
+import com.dropand.repository.DirectoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 디렉토리 트리 스냅샷 부분 갱신 테스트
+ *
+ * 쓰기마다 바뀐 행만 다시 읽어 이전 스냅샷에 반영한 결과가, 같은 시점에 전체 테이블을 다시 읽어 만든
+ * 스냅샷과 노드, 부모, 자식 순서까지 같은지 확인합니다.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DirectoryTreeCacheTest {
+
+    @Autowired
+    private DirectoryService directoryService;
+
+    @Autowired
+    private DirectoryTreeCache directoryTreeCache;
+
+    @Autowired
+    private DirectoryRepository directoryRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void writesUpdateTheSnapshotWithoutReloadingTheWholeTree() {
+        List<DirectoryDto> roots = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            DirectoryDto root = directoryService.createDirectory("cache-root-" + i, null);
+            roots.add(root);
+            for (int j = 0; j < 4; j++) {
+                directoryService.createDirectory("cache-child-" + i + "-" + j, root.id);
+            }
+        }
+        DirectoryDto a = roots.get(0);
+        DirectoryDto b = roots.get(1);
+        long rebuilds = rebuildCount();
+
+        DirectoryDto leaf = directoryService.createDirectory("cache-leaf", a.id);
+        assertSnapshotMatchesDatabase();
+
+        DirectoryDto rename = new DirectoryDto();
+        rename.name = "cache-renamed";
+        directoryService.updateDirectory(leaf.id, rename);
+        assertSnapshotMatchesDatabase();
+
+        // 자손이 있는 하위 트리를 다른 부모의 맨 앞으로 이동
+        List<DirectoryDto> bChildren = directoryService.getSubDirectories(b.id);
+        directoryService.moveDirectory(a.id, b.id, null, bChildren.get(0).id, null, null);
+        assertSnapshotMatchesDatabase();
+
+        // 형제 순서 뒤집기 (정렬 키만 바뀜)
+        List<DirectoryDto> siblings = directoryService.getSubDirectories(roots.get(2).id);
+        List<DirectoryOrderDto> order = new ArrayList<>();
+        for (int k = 0; k < siblings.size(); k++) {
+            DirectoryOrderDto item = new DirectoryOrderDto();
+            item.setId(siblings.get(k).id);
+            item.setSortOrder((long) (siblings.size() - k) * 10);
+            order.add(item);
+        }
+        directoryService.updateDirectoryOrder(order);
+        assertSnapshotMatchesDatabase();
+
+        directoryService.moveDirectories(List.of(
+                new DirectoryMoveDto(leaf.id, null, 0),
+                new DirectoryMoveDto(siblings.get(0).id, roots.get(3).id, 1)));
+        assertSnapshotMatchesDatabase();
+
+        directoryService.deleteDirectory(b.id);
+        assertSnapshotMatchesDatabase();
+        assertThat(directoryTreeCache.snapshot().contains(a.id)).isFalse();
+
+        assertThat(rebuildCount()).isEqualTo(rebuilds);
+    }
+
+    @Test
+    void changesThatDoNotFitThePreviousSnapshotAreRejected() {
+        DirectoryTreeSnapshot snapshot = DirectoryTreeSnapshot.build(1, List.of(
+                new DirectoryDto(1L, "a", null, 1L, 0L, false),
+                new DirectoryDto(2L, "b", 1L, 1L, 0L, false)));
+
+        // 부모가 스냅샷에 없음
+        assertThat(snapshot.withChanges(2, Set.of(), List.of(new DirectoryDto(3L, "c", 9L, 1L, 0L, false)))).isNull();
+        // a를 자기 자식 b 아래로 옮기면 순환
+        assertThat(snapshot.withChanges(2, Set.of(), List.of(new DirectoryDto(1L, "a", 2L, 1L, 1L, false)))).isNull();
+
+        DirectoryTreeSnapshot next = snapshot.withChanges(2, Set.of(), List.of(new DirectoryDto(3L, "c", 1L, 0L, 0L, false)));
+        assertThat(next.children(1L)).extracting(child -> child.id).containsExactly(3L, 2L);
+        assertThat(snapshot.children(1L)).extracting(child -> child.id).containsExactly(2L);
+    }
+
+    /**
+     * 현재 스냅샷과 데이터베이스 전체로 새로 만든 스냅샷을 전위 순서로 비교하는 메소드
+     */
+    private void assertSnapshotMatchesDatabase() {
+        DirectoryTreeSnapshot fresh = DirectoryTreeSnapshot.build(0, directoryRepository.findAllFlatOrdered());
+        assertThat(preorder(directoryTreeCache.snapshot())).containsExactlyElementsOf(preorder(fresh));
+    }
+
+    private static List<String> preorder(DirectoryTreeSnapshot snapshot) {
+        List<String> lines = new ArrayList<>();
+        Deque<DirectoryDto> stack = new ArrayDeque<>();
+        List<DirectoryDto> roots = snapshot.nested(null);
+        for (int i = roots.size() - 1; i >= 0; i--) {
+            stack.push(roots.get(i));
+        }
+        while (!stack.isEmpty()) {
+            DirectoryDto node = stack.pop();
+            lines.add(node.id + "|" + node.name + "|" + node.parentId + "|" + node.sortOrder + "|" + node.version
+                    + "|" + node.childCount);
+            if (node.children != null) {
+                for (int i = node.children.size() - 1; i >= 0; i--) {
+                    stack.push(node.children.get(i));
+                }
+            }
+        }
+        return lines;
+    }
+
+    private long rebuildCount() {
+        return meterRegistry.get("directory.tree.snapshot.rebuild").timer().count();
+    }
+}
@@ -0,0 +1,113 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryDto;
+import com.dropand.dto.DirectoryImportResultDto;
+import com.dropand.repository.DirectoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 디렉토리 일괄 가져오기 테스트
+ *
+ * 가져온 디렉토리가 시퀀스에서 받은 새 ID로 저장되고, 부모와 경로, 형제 순서가 입력대로인지,
+ * 가져온 뒤 JPA로 만든 디렉토리와 ID가 겹치지 않는지, 잘못된 입력은 아무것도 남기지 않는지 확인합니다.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DirectoryTreeImporterTest {
+
+    @Autowired
+    private DirectoryTreeImporter importer;
+
+    @Autowired
+    private DirectoryService directoryService;
+
+    @Autowired
+    private DirectoryRepository directoryRepository;
+
+    @Test
+    void nestedJsonIsStoredWithSequenceIdsPathsAndOrder() throws Exception {
+        DirectoryDto target = directoryService.createDirectory("import-target", null);
+        DirectoryDto existing = directoryService.createDirectory("import-existing", target.id);
+        String json = """
+                [{"id": 900, "name": "import-a", "children": [{"name": "import-a1"}, {"name": "import-a2"}]},
+                 {"name": "import-b"}]
+                """;
+
+        DirectoryImportResultDto result = importer.importJson(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), target.id);
+
+        assertThat(result.getImportedCount()).isEqualTo(4);
+        assertThat(result.getRootCount()).isEqualTo(2);
+        // 가져온 최상위 디렉토리는 기존 자식 뒤에 붙고, 파일의 id(900)는 저장되지 않음
+        List<DirectoryDto> top = directoryService.getSubDirectories(target.id);
+        assertThat(top).extracting(dto -> dto.name).containsExactly("import-existing", "import-a", "import-b");
+        DirectoryDto a = top.get(1);
+        assertThat(a.id).isNotEqualTo(900L);
+        assertThat(a.sortOrder).isGreaterThan(existing.sortOrder);
+        List<DirectoryDto> aChildren = directoryService.getSubDirectories(a.id);
+        assertThat(aChildren).extracting(dto -> dto.name).containsExactly("import-a1", "import-a2");
+
+        String targetPath = directoryRepository.findPathById(target.id).orElseThrow();
+        assertThat(directoryRepository.findPathById(a.id)).contains(targetPath + a.id + "/");
+        for (DirectoryDto child : aChildren) {
+            assertThat(child.parentId).isEqualTo(a.id);
+            assertThat(directoryRepository.findPathById(child.id)).contains(targetPath + a.id + "/" + child.id + "/");
+        }
+
+        // ID는 시퀀스에서 받으므로 이후 JPA로 만든 디렉토리와 겹치지 않음
+        List<Long> imported = new ArrayList<>(List.of(a.id, top.get(2).id));
+        aChildren.forEach(child -> imported.add(child.id));
+        assertThat(imported).doesNotHaveDuplicates();
+        DirectoryDto after = directoryService.createDirectory("import-after", target.id);
+        assertThat(imported).doesNotContain(after.id);
+    }
+
+    @Test
+    void flatCsvAcceptsChildrenBeforeTheirParent() throws Exception {
+        DirectoryDto target = directoryService.createDirectory("import-csv-target", null);
+        String csv = """
+                id,parentId,name
+                c,p,csv-child
+                p,,csv-parent
+                q,,"csv, second"
+                """;
+
+        DirectoryImportResultDto result = importer.importCsv(new StringReader(csv), target.id);
+
+        assertThat(result.getImportedCount()).isEqualTo(3);
+        List<DirectoryDto> top = directoryService.getSubDirectories(target.id);
+        assertThat(top).extracting(dto -> dto.name).containsExactly("csv-parent", "csv, second");
+        DirectoryDto parent = top.get(0);
+        List<DirectoryDto> children = directoryService.getSubDirectories(parent.id);
+        assertThat(children).extracting(dto -> dto.name).containsExactly("csv-child");
+        assertThat(directoryRepository.findPathById(children.get(0).id))
+                .contains("/" + target.id + "/" + parent.id + "/" + children.get(0).id + "/");
+    }
+
+    @Test
+    void invalidInputLeavesNothingBehind() {
+        DirectoryDto target = directoryService.createDirectory("import-invalid-target", null);
+        String csv = """
+                a,,import-ok
+                b,missing,import-orphan
+                """;
+
+        assertThatThrownBy(() -> importer.importCsv(new StringReader(csv), target.id))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("missing");
+        assertThat(directoryService.getSubDirectories(target.id)).isEmpty();
+        assertThat(directoryRepository.findAllFlatOrdered()).extracting(dto -> dto.name).doesNotContain("import-ok");
+    }
+}